@@ -51,6 +51,8 @@ public interface ExecutionResult {
      * is provided to produce a map that strictly follows the specification.
      *
      * See : <a href="https://spec.graphql.org/October2021/#sec-Response-Format">https://spec.graphql.org/October2021/#sec-Response-Format</a>
+     * <p>
+     * If you only need the result as JSON, {@link ExecutionResultJsonWriter} writes it without building this map.
      *
      * @return a map of the result that strictly follows the spec
      */
@@ -2,6 +2,7 @@ package graphql;
 
 
 import com.google.common.collect.ImmutableList;
+import graphql.collect.AppendOnlyList;
 import graphql.collect.ImmutableKit;
 
 import java.util.ArrayList;
@@ -44,7 +45,11 @@ public class ExecutionResultImpl implements ExecutionResult {
         this.dataPresent = dataPresent;
         this.data = data;
 
-        if (errors != null) {
+        if (errors instanceof AppendOnlyList.Snapshot) {
+            // already an immutable view of the execution errors, so there is nothing to copy
+            //noinspection unchecked
+            this.errors = (List<GraphQLError>) errors;
+        } else if (errors != null) {
             this.errors = ImmutableList.copyOf(errors);
         } else {
             this.errors = ImmutableKit.emptyList();
@@ -0,0 +1,251 @@
+package graphql;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes an {@link ExecutionResult} as JSON without first turning it into the {@link ExecutionResult#toSpecification()}
+ * map, so that a large response is only held in memory once, as the tree of values the execution produced.
+ * <p>
+ * The result is written with the same keys in the same order as {@link ExecutionResult#toSpecification()} would
+ * produce.  The values are encoded as follows:
+ * <ul>
+ *     <li>{@link Map}s as objects, where the keys are written via {@link String#valueOf(Object)}</li>
+ *     <li>{@link Iterable}s and arrays as arrays</li>
+ *     <li>{@link Number}s as numbers</li>
+ *     <li>{@link Boolean}s as booleans and nulls as null</li>
+ *     <li>{@link CharSequence}s, {@link Character}s and {@link Enum}s as strings</li>
+ * </ul>
+ * Any other value, and non finite floating point numbers which JSON can not represent, make the writer throw a
+ * {@link GraphQLException}, rather than guessing at an encoding.  Results holding such values, for example from a
+ * custom scalar, should be handed to your JSON library via {@link ExecutionResult#toSpecification()} instead.
+ * <p>
+ * The writer only serializes a completed result.  The execution still builds the whole result tree first.
+ */
+@ExperimentalApi
+public class ExecutionResultJsonWriter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ExecutionResultJsonWriter() {
+    }
+
+    /**
+     * Writes the result as UTF-8 encoded JSON to the output stream.  The stream is flushed but not closed.
+     *
+     * @param executionResult the result to write
+     * @param outputStream    the stream to write to
+     *
+     * @throws IOException if the stream can not be written to
+     */
+    public static void writeJson(ExecutionResult executionResult, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writeJson(executionResult, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the result as JSON to the writer.  The writer is neither flushed nor closed, and it is up to the caller
+     * to buffer it.
+     *
+     * @param executionResult the result to write
+     * @param writer          the writer to write to
+     *
+     * @throws IOException if the writer can not be written to
+     */
+    public static void writeJson(ExecutionResult executionResult, Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        List<GraphQLError> errors = executionResult.getErrors();
+        if (errors != null && !errors.isEmpty()) {
+            writer.write("\"errors\":[");
+            for (int i = 0; i < errors.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                // errors are small and hence their spec maps are fine
+                writeValue(errors.get(i).toSpecification(), writer);
+            }
+            writer.write(']');
+            first = false;
+        }
+        if (executionResult.isDataPresent()) {
+            if (!first) {
+                writer.write(',');
+            }
+            writer.write("\"data\":");
+            writeValue(executionResult.getData(), writer);
+            first = false;
+        }
+        if (executionResult.getExtensions() != null) {
+            if (!first) {
+                writer.write(',');
+            }
+            writer.write("\"extensions\":");
+            writeValue(executionResult.getExtensions(), writer);
+        }
+        writer.write('}');
+    }
+
+    /**
+     * @param executionResult the result to write
+     *
+     * @return the result as a JSON string
+     */
+    public static String toJson(ExecutionResult executionResult) {
+        StringWriter writer = new StringWriter();
+        try {
+            writeJson(executionResult, writer);
+        } catch (IOException e) {
+            // a StringWriter never throws
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    private static void writeValue(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof CharSequence) {
+            writeString(value.toString(), writer);
+        } else if (value instanceof Map) {
+            writeObject((Map<?, ?>) value, writer);
+        } else if (value instanceof List) {
+            writeList((List<?>) value, writer);
+        } else if (value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof Number) {
+            writeNumber((Number) value, writer);
+        } else if (value instanceof Iterable) {
+            writeIterable((Iterable<?>) value, writer);
+        } else if (value.getClass().isArray()) {
+            writeArray(value, writer);
+        } else if (value instanceof Character) {
+            writeString(value.toString(), writer);
+        } else if (value instanceof Enum) {
+            writeString(((Enum<?>) value).name(), writer);
+        } else {
+            throw new GraphQLException("A value of type '" + value.getClass().getName() + "' can not be written as JSON");
+        }
+    }
+
+    private static void writeObject(Map<?, ?> map, Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeString(String.valueOf(entry.getKey()), writer);
+            writer.write(':');
+            writeValue(entry.getValue(), writer);
+        }
+        writer.write('}');
+    }
+
+    private static void writeList(List<?> list, Writer writer) throws IOException {
+        writer.write('[');
+        int size = list.size();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(list.get(i), writer);
+        }
+        writer.write(']');
+    }
+
+    private static void writeIterable(Iterable<?> iterable, Writer writer) throws IOException {
+        writer.write('[');
+        Iterator<?> iterator = iterable.iterator();
+        boolean first = true;
+        while (iterator.hasNext()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            writeValue(iterator.next(), writer);
+        }
+        writer.write(']');
+    }
+
+    private static void writeArray(Object array, Writer writer) throws IOException {
+        writer.write('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(Array.get(array, i), writer);
+        }
+        writer.write(']');
+    }
+
+    private static void writeNumber(Number number, Writer writer) throws IOException {
+        if (number instanceof Double || number instanceof Float) {
+            double doubleValue = number.doubleValue();
+            if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                throw new GraphQLException("The number '" + number + "' can not be written as JSON");
+            }
+        }
+        writer.write(number.toString());
+    }
+
+    private static void writeString(String value, Writer writer) throws IOException {
+        writer.write('"');
+        int length = value.length();
+        // unescaped runs are written in one go
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = value.charAt(i);
+            if (ch >= 0x20 && ch != '"' && ch != '\\') {
+                continue;
+            }
+            if (i > start) {
+                writer.write(value, start, i - start);
+            }
+            start = i + 1;
+            switch (ch) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\b':
+                    writer.write("\\b");
+                    break;
+                case '\f':
+                    writer.write("\\f");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write("\\u00");
+                    writer.write(HEX_DIGITS[ch >> 4]);
+                    writer.write(HEX_DIGITS[ch & 0xF]);
+            }
+        }
+        if (length > start) {
+            writer.write(value, start, length - start);
+        }
+        writer.write('"');
+    }
+}
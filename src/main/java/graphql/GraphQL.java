@@ -7,10 +7,12 @@ import graphql.execution.DataFetcherExceptionHandler;
 import graphql.execution.Execution;
 import graphql.execution.ExecutionId;
 import graphql.execution.ExecutionIdProvider;
+import graphql.execution.ExecutionPlan;
 import graphql.execution.ExecutionStrategy;
 import graphql.execution.SimpleDataFetcherExceptionHandler;
 import graphql.execution.SubscriptionExecutionStrategy;
 import graphql.execution.ValueUnboxer;
+import graphql.execution.conditional.ConditionalNodeDecision;
 import graphql.execution.instrumentation.ChainedInstrumentation;
 import graphql.execution.instrumentation.DocumentAndVariables;
 import graphql.execution.instrumentation.Instrumentation;
@@ -28,6 +30,7 @@ import graphql.execution.preparsed.PreparsedDocumentProvider;
 import graphql.language.Document;
 import graphql.schema.GraphQLSchema;
 import graphql.util.LogKit;
+import graphql.validation.ValidationCache;
 import graphql.validation.ValidationError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -101,6 +104,9 @@ public class GraphQL {
     private final Instrumentation instrumentation;
     private final PreparsedDocumentProvider preparsedDocumentProvider;
     private final ValueUnboxer valueUnboxer;
+    private final boolean executionPlanCaching;
+    private final boolean directValueCompletion;
+    private final ValidationCache validationCache;
 
 
     private GraphQL(Builder builder) {
@@ -112,6 +118,9 @@ public class GraphQL {
         this.instrumentation = assertNotNull(builder.instrumentation, () -> "instrumentation must not be null");
         this.preparsedDocumentProvider = assertNotNull(builder.preparsedDocumentProvider, () -> "preparsedDocumentProvider must be non null");
         this.valueUnboxer = assertNotNull(builder.valueUnboxer, () -> "valueUnboxer must not be null");
+        this.executionPlanCaching = builder.executionPlanCaching;
+        this.directValueCompletion = builder.directValueCompletion;
+        this.validationCache = builder.validationCache;
     }
 
     /**
@@ -170,6 +179,21 @@ public class GraphQL {
         return valueUnboxer;
     }
 
+    /**
+     * @return true if {@link ExecutionPlan}s are used for this {@link GraphQL} instance
+     */
+    @ExperimentalApi
+    public boolean isExecutionPlanCaching() {
+        return executionPlanCaching;
+    }
+
+    /**
+     * @return the {@link ValidationCache} for this {@link GraphQL} instance or null if documents are always validated
+     */
+    public ValidationCache getValidationCache() {
+        return validationCache;
+    }
+
     /**
      * Helps you build a GraphQL object ready to execute queries
      *
@@ -197,7 +221,10 @@ public class GraphQL {
                 .subscriptionExecutionStrategy(this.subscriptionStrategy)
                 .executionIdProvider(Optional.ofNullable(this.idProvider).orElse(builder.idProvider))
                 .instrumentation(Optional.ofNullable(this.instrumentation).orElse(builder.instrumentation))
-                .preparsedDocumentProvider(Optional.ofNullable(this.preparsedDocumentProvider).orElse(builder.preparsedDocumentProvider));
+                .preparsedDocumentProvider(Optional.ofNullable(this.preparsedDocumentProvider).orElse(builder.preparsedDocumentProvider))
+                .executionPlanCaching(this.executionPlanCaching)
+                .directValueCompletion(this.directValueCompletion)
+                .validationCache(this.validationCache);
 
         builderConsumer.accept(builder);
 
@@ -216,6 +243,9 @@ public class GraphQL {
         private PreparsedDocumentProvider preparsedDocumentProvider = NoOpPreparsedDocumentProvider.INSTANCE;
         private boolean doNotAddDefaultInstrumentations = false;
         private ValueUnboxer valueUnboxer = ValueUnboxer.DEFAULT;
+        private boolean executionPlanCaching = false;
+        private boolean directValueCompletion = false;
+        private ValidationCache validationCache = null;
 
 
         public Builder(GraphQLSchema graphQLSchema) {
@@ -292,6 +322,55 @@ public class GraphQL {
             return this;
         }
 
+        /**
+         * When enabled, the fields collected and the field definitions resolved while executing a document are kept in an
+         * {@link ExecutionPlan} next to the {@link PreparsedDocumentEntry} and re-used by later executions of the same document.
+         * <p>
+         * This only pays off when combined with a {@link PreparsedDocumentProvider} that caches entries since a new entry
+         * (and hence a new plan) is otherwise created for each request.
+         *
+         * @param executionPlanCaching true to use execution plans
+         *
+         * @return this builder
+         */
+        @ExperimentalApi
+        public Builder executionPlanCaching(boolean executionPlanCaching) {
+            this.executionPlanCaching = executionPlanCaching;
+            return this;
+        }
+
+        /**
+         * When enabled, a field whose data fetcher returns a plain value or an already completed {@link java.util.concurrent.CompletableFuture}
+         * is completed straight away instead of through a chain of dependent futures, and the values of fields that have
+         * all completed are combined without a {@link java.util.concurrent.CompletableFuture#allOf(java.util.concurrent.CompletableFuture[])}.
+         * <p>
+         * The values are still handed on inside completed futures, so this saves the chained futures and their callbacks
+         * but not the futures that wrap the values.  Fields whose values are still pending are executed as before.
+         *
+         * @param directValueCompletion true to complete already fetched values straight away
+         *
+         * @return this builder
+         */
+        @ExperimentalApi
+        public Builder directValueCompletion(boolean directValueCompletion) {
+            this.directValueCompletion = directValueCompletion;
+            return this;
+        }
+
+        /**
+         * A {@link ValidationCache} remembers the queries that have been found valid against the schema, so that the same query
+         * text is not validated again.  Documents that instrumentation has replaced are remembered by their identity instead, and
+         * documents validated with a custom rule predicate are not cached.
+         *
+         * @param validationCache the cache to use or null to always validate documents
+         *
+         * @return this builder
+         */
+        public Builder validationCache(ValidationCache validationCache) {
+            this.validationCache = validationCache;
+            return this;
+        }
+
         public GraphQL build() {
             // we use the data fetcher exception handler unless they set their own strategy in which case bets are off
             if (queryExecutionStrategy == null) {
@@ -481,13 +560,26 @@ public class GraphQL {
                 return CompletableFuture.completedFuture(new ExecutionResultImpl(preparsedDocumentEntry.getErrors()));
             }
             try {
-                return execute(executionInputRef.get(), preparsedDocumentEntry.getDocument(), graphQLSchema, instrumentationState);
+                ExecutionInput input = executionInputRef.get();
+                ExecutionPlan executionPlan = getExecutionPlan(preparsedDocumentEntry, input, graphQLSchema);
+                return execute(input, preparsedDocumentEntry.getDocument(), graphQLSchema, instrumentationState, executionPlan);
             } catch (AbortExecutionException e) {
                 return CompletableFuture.completedFuture(e.toExecutionResult());
             }
         });
     }
 
+    private ExecutionPlan getExecutionPlan(PreparsedDocumentEntry preparsedDocumentEntry, ExecutionInput executionInput, GraphQLSchema graphQLSchema) {
+        if (!executionPlanCaching) {
+            return null;
+        }
+        // a custom conditional node decision can include or skip nodes per request and hence the collected fields cant be shared
+        if (executionInput.getGraphQLContext().get(ConditionalNodeDecision.class) != null) {
+            return null;
+        }
+        return preparsedDocumentEntry.getExecutionPlan(graphQLSchema, executionInput.getOperationName());
+    }
+
     private PreparsedDocumentEntry parseAndValidate(AtomicReference<ExecutionInput> executionInputRef, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
 
         ExecutionInput executionInput = executionInputRef.get();
@@ -496,7 +588,8 @@ public class GraphQL {
         if (logNotSafe.isDebugEnabled()) {
             logNotSafe.debug("Parsing query: '{}'...", query);
         }
-        ParseAndValidateResult parseResult = parse(executionInput, graphQLSchema, instrumentationState);
+        AtomicReference<Document> parsedDocumentRef = new AtomicReference<>();
+        ParseAndValidateResult parseResult = parse(executionInput, graphQLSchema, instrumentationState, parsedDocumentRef);
         if (parseResult.isFailure()) {
             logNotSafe.warn("Query did not parse : '{}'", executionInput.getQuery());
             return new PreparsedDocumentEntry(parseResult.getSyntaxException().toInvalidSyntaxError());
@@ -509,7 +602,9 @@ public class GraphQL {
             if (logNotSafe.isDebugEnabled()) {
                 logNotSafe.debug("Validating query: '{}'", query);
             }
-            final List<ValidationError> errors = validate(executionInput, document, graphQLSchema, instrumentationState);
+            // the query text only stands for the document when instrumentation has not replaced it
+            String validationKey = document == parsedDocumentRef.get() ? query : null;
+            final List<ValidationError> errors = validate(executionInput, document, validationKey, graphQLSchema, instrumentationState);
             if (!errors.isEmpty()) {
                 logNotSafe.warn("Query did not validate : '{}'", query);
                 return new PreparsedDocumentEntry(document, errors);
@@ -519,7 +614,7 @@ public class GraphQL {
         }
     }
 
-    private ParseAndValidateResult parse(ExecutionInput executionInput, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
+    private ParseAndValidateResult parse(ExecutionInput executionInput, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState, AtomicReference<Document> parsedDocumentRef) {
         InstrumentationExecutionParameters parameters = new InstrumentationExecutionParameters(executionInput, graphQLSchema, instrumentationState);
         InstrumentationContext<Document> parseInstrumentationCtx = nonNullCtx(instrumentation.beginParse(parameters, instrumentationState));
         CompletableFuture<Document> documentCF = new CompletableFuture<>();
@@ -530,6 +625,7 @@ public class GraphQL {
             parseInstrumentationCtx.onCompleted(null, parseResult.getSyntaxException());
             return parseResult;
         } else {
+            parsedDocumentRef.set(parseResult.getDocument());
             documentCF.complete(parseResult.getDocument());
             parseInstrumentationCtx.onCompleted(parseResult.getDocument(), null);
 
@@ -540,29 +636,37 @@ public class GraphQL {
         }
     }
 
-    private List<ValidationError> validate(ExecutionInput executionInput, Document document, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
+    private List<ValidationError> validate(ExecutionInput executionInput, Document document, String query, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
         InstrumentationContext<List<ValidationError>> validationCtx = nonNullCtx(instrumentation.beginValidation(new InstrumentationValidationParameters(executionInput, document, graphQLSchema, instrumentationState), instrumentationState));
         CompletableFuture<List<ValidationError>> cf = new CompletableFuture<>();
         validationCtx.onDispatched(cf);
 
-        Predicate<Class<?>> validationRulePredicate = executionInput.getGraphQLContext().getOrDefault(ParseAndValidate.INTERNAL_VALIDATION_PREDICATE_HINT, r -> true);
+        Predicate<Class<?>> validationRulePredicate = executionInput.getGraphQLContext().get(ParseAndValidate.INTERNAL_VALIDATION_PREDICATE_HINT);
         Locale locale = executionInput.getLocale() != null ? executionInput.getLocale() : Locale.getDefault();
-        List<ValidationError> validationErrors = ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate, locale);
+        List<ValidationError> validationErrors;
+        if (validationCache != null && validationRulePredicate == null) {
+            // only the validation with all the rules is cached
+            validationErrors = query != null
+                    ? ParseAndValidate.validate(graphQLSchema, query, document, locale, validationCache)
+                    : ParseAndValidate.validate(graphQLSchema, document, locale, validationCache);
+        } else {
+            validationErrors = ParseAndValidate.validate(graphQLSchema, document, validationRulePredicate != null ? validationRulePredicate : r -> true, locale);
+        }
 
         validationCtx.onCompleted(validationErrors, null);
         cf.complete(validationErrors);
         return validationErrors;
     }
 
-    private CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput, Document document, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState) {
+    private CompletableFuture<ExecutionResult> execute(ExecutionInput executionInput, Document document, GraphQLSchema graphQLSchema, InstrumentationState instrumentationState, ExecutionPlan executionPlan) {
 
-        Execution execution = new Execution(queryStrategy, mutationStrategy, subscriptionStrategy, instrumentation, valueUnboxer);
+        Execution execution = new Execution(queryStrategy, mutationStrategy, subscriptionStrategy, instrumentation, valueUnboxer, directValueCompletion);
         ExecutionId executionId = executionInput.getExecutionId();
 
         if (logNotSafe.isDebugEnabled()) {
             logNotSafe.debug("Executing '{}'. operation name: '{}'. query: '{}'. variables '{}'", executionId, executionInput.getOperationName(), executionInput.getQuery(), executionInput.getVariables());
         }
-        CompletableFuture<ExecutionResult> future = execution.execute(document, graphQLSchema, executionId, executionInput, instrumentationState);
+        CompletableFuture<ExecutionResult> future = execution.execute(document, graphQLSchema, executionId, executionInput, instrumentationState, executionPlan);
         future = future.whenComplete((result, throwable) -> {
             if (throwable != null) {
                 logNotSafe.error(String.format("Execution '%s' threw exception when executing : query : '%s'. variables '%s'", executionId, executionInput.getQuery(), executionInput.getVariables()), throwable);
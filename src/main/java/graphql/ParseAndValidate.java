@@ -6,6 +6,7 @@ import graphql.parser.Parser;
 import graphql.parser.ParserEnvironment;
 import graphql.parser.ParserOptions;
 import graphql.schema.GraphQLSchema;
+import graphql.validation.ValidationCache;
 import graphql.validation.ValidationError;
 import graphql.validation.Validator;
 import org.jetbrains.annotations.NotNull;
@@ -51,6 +52,25 @@ public class ParseAndValidate {
         return result;
     }
 
+    /**
+     * This can be called to parse and validate a graphql query against a schema, where queries that the {@link ValidationCache}
+     * knows to be valid are not validated again.
+     *
+     * @param graphQLSchema   the schema to validate against
+     * @param executionInput  the execution input containing the query
+     * @param validationCache the cache of queries known to be valid
+     *
+     * @return a result object that indicates how this operation went
+     */
+    public static ParseAndValidateResult parseAndValidate(@NotNull GraphQLSchema graphQLSchema, @NotNull ExecutionInput executionInput, @NotNull ValidationCache validationCache) {
+        ParseAndValidateResult result = parse(executionInput);
+        if (!result.isFailure()) {
+            List<ValidationError> errors = validate(graphQLSchema, executionInput.getQuery(), result.getDocument(), executionInput.getLocale(), validationCache);
+            return result.transform(builder -> builder.validationErrors(errors));
+        }
+        return result;
+    }
+
     /**
      * This can be called to parse (but not validate) a graphql query.
      *
@@ -91,6 +111,37 @@ public class ParseAndValidate {
         return validate(graphQLSchema, parsedDocument, ruleClass -> true, locale);
     }
 
+    /**
+     * This can be called to validate a parsed graphql query, where a document instance that the {@link ValidationCache} knows
+     * to be valid is not validated again.
+     *
+     * @param graphQLSchema   the graphql schema to validate against
+     * @param parsedDocument  the previously parsed document
+     * @param locale          the current locale
+     * @param validationCache the cache of documents known to be valid
+     *
+     * @return a result object that indicates how this operation went
+     */
+    public static List<ValidationError> validate(@NotNull GraphQLSchema graphQLSchema, @NotNull Document parsedDocument, @NotNull Locale locale, @NotNull ValidationCache validationCache) {
+        return validationCache.validate(graphQLSchema, parsedDocument, () -> validate(graphQLSchema, parsedDocument, locale));
+    }
+
+    /**
+     * This can be called to validate a graphql query that has been parsed from the given query text, where a query text that the
+     * {@link ValidationCache} knows to be valid is not validated again.
+     *
+     * @param graphQLSchema   the graphql schema to validate against
+     * @param query           the query text the document was parsed from
+     * @param parsedDocument  the previously parsed document
+     * @param locale          the current locale
+     * @param validationCache the cache of queries known to be valid
+     *
+     * @return a result object that indicates how this operation went
+     */
+    public static List<ValidationError> validate(@NotNull GraphQLSchema graphQLSchema, @NotNull String query, @NotNull Document parsedDocument, @NotNull Locale locale, @NotNull ValidationCache validationCache) {
+        return validationCache.validate(graphQLSchema, query, () -> validate(graphQLSchema, parsedDocument, locale));
+    }
+
     /**
      * This can be called to validate a parsed graphql query, with the JVM default locale.
      *
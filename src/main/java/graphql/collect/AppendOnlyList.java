@@ -0,0 +1,127 @@
+package graphql.collect;
+
+import graphql.Internal;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * A list that many threads can append to without locking and that hands out immutable
+ * snapshots in constant time.
+ * <p>
+ * Elements are kept in the order their slots were reserved.  A slot is reserved before it is
+ * written, so the published size only moves past a slot once it and all the slots before it
+ * have been written.  Elements below the published size never change, which is what lets a
+ * {@link Snapshot} be a view rather than a copy.
+ *
+ * @param <T> the type of elements
+ */
+@Internal
+public final class AppendOnlyList<T> {
+
+    private static final int FIRST_CHUNK_SIZE = 16;
+    // chunks double in size, so this many of them hold more than Integer.MAX_VALUE elements
+    private static final int MAX_CHUNKS = 28;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    public void add(T element) {
+        int index = reserved.getAndIncrement();
+        chunkFor(index).set(offsetOf(index), assertNotNull(element));
+        publish();
+    }
+
+    public void addAll(Collection<? extends T> elements) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        int index = reserved.getAndAdd(elements.size());
+        for (T element : elements) {
+            chunkFor(index).set(offsetOf(index), assertNotNull(element));
+            index++;
+        }
+        publish();
+    }
+
+    /**
+     * @return the number of elements that have been published
+     */
+    public int size() {
+        return published.get();
+    }
+
+    /**
+     * @return an immutable view of the elements that have been published so far
+     */
+    public List<T> snapshot() {
+        return new Snapshot<>(this, published.get());
+    }
+
+    private void publish() {
+        // whoever writes the slot that holds the published size back moves it past every slot written after it
+        int size = published.get();
+        while (size < reserved.get() && elementAt(size) != null) {
+            published.compareAndSet(size, size + 1);
+            size = published.get();
+        }
+    }
+
+    private T elementAt(int index) {
+        AtomicReferenceArray<T> chunk = chunks.get(chunkIndexOf(index));
+        return chunk == null ? null : chunk.get(offsetOf(index));
+    }
+
+    private AtomicReferenceArray<T> chunkFor(int index) {
+        int chunkIndex = chunkIndexOf(index);
+        AtomicReferenceArray<T> chunk = chunks.get(chunkIndex);
+        if (chunk == null) {
+            chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(FIRST_CHUNK_SIZE << chunkIndex));
+            chunk = chunks.get(chunkIndex);
+        }
+        return chunk;
+    }
+
+    private static int chunkIndexOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros(index / FIRST_CHUNK_SIZE + 1);
+    }
+
+    private static int offsetOf(int index) {
+        return index - FIRST_CHUNK_SIZE * ((1 << chunkIndexOf(index)) - 1);
+    }
+
+    /**
+     * An immutable view of the first elements of an {@link AppendOnlyList}
+     *
+     * @param <T> the type of elements
+     */
+    public static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final AppendOnlyList<T> list;
+        private final int size;
+
+        private Snapshot(AppendOnlyList<T> list, int size) {
+            this.list = list;
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return list.elementAt(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -35,12 +35,26 @@ public class Async {
      * @return a combined builder of CFs
      */
     public static <T> CombinedBuilder<T> ofExpectedSize(int expectedSize) {
+        return ofExpectedSize(expectedSize, false);
+    }
+
+    /**
+     * Combines 0 or more CF into one, optionally taking the values straight away when all the CFs have already
+     * completed rather than waiting on them with <code>CompletableFuture.allOf</code>.
+     *
+     * @param expectedSize             how many we expect
+     * @param combineCompletedDirectly true to combine already completed CFs without chaining futures
+     * @param <T>                      for two
+     *
+     * @return a combined builder of CFs
+     */
+    public static <T> CombinedBuilder<T> ofExpectedSize(int expectedSize, boolean combineCompletedDirectly) {
         if (expectedSize == 0) {
             return new Empty<>();
         } else if (expectedSize == 1) {
-            return new Single<>();
+            return new Single<>(combineCompletedDirectly);
         } else {
-            return new Many<>(expectedSize);
+            return new Many<>(expectedSize, combineCompletedDirectly);
         }
     }
 
@@ -72,10 +86,15 @@ public class Async {
 
     private static class Single<T> implements CombinedBuilder<T> {
 
+        private final boolean combineCompletedDirectly;
         // avoiding array allocation as there is only 1 CF
         private CompletableFuture<T> completableFuture;
         private int ix;
 
+        private Single(boolean combineCompletedDirectly) {
+            this.combineCompletedDirectly = combineCompletedDirectly;
+        }
+
         @Override
         public void add(CompletableFuture<T> completableFuture) {
             this.completableFuture = completableFuture;
@@ -85,6 +104,9 @@ public class Async {
         @Override
         public CompletableFuture<List<T>> await() {
             Assert.assertTrue(ix == 1, () -> "expected size was " + 1 + " got " + ix);
+            if (combineCompletedDirectly && isCompletedNormally(completableFuture)) {
+                return CompletableFuture.completedFuture(Collections.singletonList(completableFuture.join()));
+            }
             return completableFuture.thenApply(Collections::singletonList);
         }
     }
@@ -92,11 +114,13 @@ public class Async {
     private static class Many<T> implements CombinedBuilder<T> {
 
         private final CompletableFuture<T>[] array;
+        private final boolean combineCompletedDirectly;
         private int ix;
 
         @SuppressWarnings("unchecked")
-        private Many(int size) {
+        private Many(int size, boolean combineCompletedDirectly) {
             this.array = new CompletableFuture[size];
+            this.combineCompletedDirectly = combineCompletedDirectly;
             this.ix = 0;
         }
 
@@ -109,6 +133,15 @@ public class Async {
         public CompletableFuture<List<T>> await() {
             Assert.assertTrue(ix == array.length, () -> "expected size was " + array.length + " got " + ix);
 
+            if (combineCompletedDirectly && allCompletedNormally()) {
+                // values that are already present do not need an allOf() future chain to be combined
+                List<T> results = new ArrayList<>(array.length);
+                for (CompletableFuture<T> future : array) {
+                    results.add(future.join());
+                }
+                return CompletableFuture.completedFuture(results);
+            }
+
             CompletableFuture<List<T>> overallResult = new CompletableFuture<>();
             CompletableFuture.allOf(array)
                     .whenComplete((ignored, exception) -> {
@@ -125,6 +158,14 @@ public class Async {
             return overallResult;
         }
 
+        private boolean allCompletedNormally() {
+            for (CompletableFuture<T> future : array) {
+                if (!isCompletedNormally(future)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     public static <T, U> CompletableFuture<List<U>> each(Collection<T> list, Function<T, CompletableFuture<U>> cfFactory) {
@@ -191,6 +232,18 @@ public class Async {
         }
     }
 
+    /**
+     * A future that has completed with a value can have its value taken straight away which allows
+     * callers to avoid chaining more futures onto it
+     *
+     * @param completableFuture the future to check
+     *
+     * @return true if the future has completed and not exceptionally
+     */
+    public static boolean isCompletedNormally(CompletableFuture<?> completableFuture) {
+        return completableFuture.isDone() && !completableFuture.isCompletedExceptionally();
+    }
+
     public static <T> CompletableFuture<T> tryCatch(Supplier<CompletableFuture<T>> supplier) {
         try {
             return supplier.get();
@@ -45,16 +45,26 @@ public class Execution {
     private final ExecutionStrategy subscriptionStrategy;
     private final Instrumentation instrumentation;
     private final ValueUnboxer valueUnboxer;
+    private final boolean directValueCompletion;
 
     public Execution(ExecutionStrategy queryStrategy, ExecutionStrategy mutationStrategy, ExecutionStrategy subscriptionStrategy, Instrumentation instrumentation, ValueUnboxer valueUnboxer) {
+        this(queryStrategy, mutationStrategy, subscriptionStrategy, instrumentation, valueUnboxer, false);
+    }
+
+    public Execution(ExecutionStrategy queryStrategy, ExecutionStrategy mutationStrategy, ExecutionStrategy subscriptionStrategy, Instrumentation instrumentation, ValueUnboxer valueUnboxer, boolean directValueCompletion) {
         this.queryStrategy = queryStrategy != null ? queryStrategy : new AsyncExecutionStrategy();
         this.mutationStrategy = mutationStrategy != null ? mutationStrategy : new AsyncSerialExecutionStrategy();
         this.subscriptionStrategy = subscriptionStrategy != null ? subscriptionStrategy : new AsyncExecutionStrategy();
         this.instrumentation = instrumentation;
         this.valueUnboxer = valueUnboxer;
+        this.directValueCompletion = directValueCompletion;
     }
 
     public CompletableFuture<ExecutionResult> execute(Document document, GraphQLSchema graphQLSchema, ExecutionId executionId, ExecutionInput executionInput, InstrumentationState instrumentationState) {
+        return execute(document, graphQLSchema, executionId, executionInput, instrumentationState, null);
+    }
+
+    public CompletableFuture<ExecutionResult> execute(Document document, GraphQLSchema graphQLSchema, ExecutionId executionId, ExecutionInput executionInput, InstrumentationState instrumentationState, ExecutionPlan executionPlan) {
 
         NodeUtil.GetOperationResult getOperationResult = NodeUtil.getOperation(document, executionInput.getOperationName());
         Map<String, FragmentDefinition> fragmentsByName = getOperationResult.fragmentsByName;
@@ -93,6 +103,8 @@ public class Execution {
                 .locale(executionInput.getLocale())
                 .valueUnboxer(valueUnboxer)
                 .executionInput(executionInput)
+                .executionPlan(executionPlan)
+                .directValueCompletion(directValueCompletion)
                 .build();
 
 
@@ -129,15 +141,7 @@ public class Execution {
             throw rte;
         }
 
-        FieldCollectorParameters collectorParameters = FieldCollectorParameters.newParameters()
-                .schema(executionContext.getGraphQLSchema())
-                .objectType(operationRootType)
-                .fragments(executionContext.getFragmentsByName())
-                .variables(executionContext.getCoercedVariables().toMap())
-                .graphQLContext(graphQLContext)
-                .build();
-
-        MergedSelectionSet fields = fieldCollector.collectFields(collectorParameters, operationDefinition.getSelectionSet());
+        MergedSelectionSet fields = collectRootFields(executionContext, operationRootType, operationDefinition);
 
         ResultPath path = ResultPath.rootPath();
         ExecutionStepInfo executionStepInfo = newExecutionStepInfo().type(operationRootType).path(path).build();
@@ -180,6 +184,30 @@ public class Execution {
         return result;
     }
 
+    private MergedSelectionSet collectRootFields(ExecutionContext executionContext, GraphQLObjectType operationRootType, OperationDefinition operationDefinition) {
+        ExecutionPlan executionPlan = executionContext.getExecutionPlan();
+        if (executionPlan != null) {
+            MergedSelectionSet fields = executionPlan.getRootFields(operationRootType, operationDefinition.getSelectionSet());
+            if (fields != null) {
+                return fields;
+            }
+        }
+
+        FieldCollectorParameters collectorParameters = FieldCollectorParameters.newParameters()
+                .schema(executionContext.getGraphQLSchema())
+                .objectType(operationRootType)
+                .fragments(executionContext.getFragmentsByName())
+                .variables(executionContext.getCoercedVariables().toMap())
+                .graphQLContext(executionContext.getGraphQLContext())
+                .build();
+
+        MergedSelectionSet fields = fieldCollector.collectFields(collectorParameters, operationDefinition.getSelectionSet());
+        if (executionPlan != null) {
+            executionPlan.putRootFields(operationRootType, operationDefinition.getSelectionSet(), fields);
+        }
+        return fields;
+    }
+
     private void addExtensionsBuilderNotPresent(GraphQLContext graphQLContext) {
         Object builder = graphQLContext.get(ExtensionsBuilder.class);
         if (builder == null) {
@@ -1,16 +1,18 @@
 package graphql.execution;
 
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import graphql.DeprecatedAt;
 import graphql.ExecutionInput;
+import graphql.ExperimentalApi;
 import graphql.GraphQLContext;
 import graphql.GraphQLError;
 import graphql.PublicApi;
+import graphql.collect.AppendOnlyList;
 import graphql.collect.ImmutableKit;
 import graphql.execution.instrumentation.Instrumentation;
 import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.values.InputInterceptor;
 import graphql.language.Document;
 import graphql.language.FragmentDefinition;
 import graphql.language.OperationDefinition;
@@ -20,12 +22,11 @@ import graphql.schema.GraphQLSchema;
 import graphql.util.FpKit;
 import org.dataloader.DataLoaderRegistry;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -48,13 +49,18 @@ public class ExecutionContext {
     private final GraphQLContext graphQLContext;
     private final Object localContext;
     private final Instrumentation instrumentation;
-    private final AtomicReference<ImmutableList<GraphQLError>> errors = new AtomicReference<>(ImmutableKit.emptyList());
-    private final Set<ResultPath> errorPaths = new HashSet<>();
+    // errors are appended without locking, and asking for them hands out a view rather than a copy
+    private final AppendOnlyList<GraphQLError> errors = new AppendOnlyList<>();
+    private volatile List<GraphQLError> errorsSnapshot = ImmutableKit.emptyList();
+    private final Set<ResultPath> errorPaths = ConcurrentHashMap.newKeySet();
     private final DataLoaderRegistry dataLoaderRegistry;
     private final Locale locale;
     private final ValueUnboxer valueUnboxer;
     private final ExecutionInput executionInput;
     private final Supplier<ExecutableNormalizedOperation> queryTree;
+    private final ExecutionPlan executionPlan;
+    private final boolean directValueCompletion;
+    private final Supplier<NormalizedExecutionPlan> normalizedExecutionPlan;
 
     ExecutionContext(ExecutionContextBuilder builder) {
         this.graphQLSchema = builder.graphQLSchema;
@@ -74,10 +80,30 @@ public class ExecutionContext {
         this.dataLoaderRegistry = builder.dataLoaderRegistry;
         this.locale = builder.locale;
         this.valueUnboxer = builder.valueUnboxer;
-        this.errors.set(builder.errors);
+        this.errors.addAll(builder.errors);
         this.localContext = builder.localContext;
         this.executionInput = builder.executionInput;
-        queryTree = FpKit.interThreadMemoize(() -> ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, operationDefinition, fragmentsByName, coercedVariables));
+        this.executionPlan = builder.executionPlan;
+        this.directValueCompletion = builder.directValueCompletion;
+        this.normalizedExecutionPlan = FpKit.interThreadMemoize(this::createNormalizedExecutionPlan);
+        queryTree = FpKit.interThreadMemoize(() -> {
+            // only the normalized operation execution strategy has the normalized execution plan built
+            if (executionPlan != null && getStrategy(operationDefinition.getOperation()) instanceof NormalizedOperationExecutionStrategy) {
+                NormalizedExecutionPlan normalizedPlan = normalizedExecutionPlan.get();
+                ExecutableNormalizedOperation normalizedOperation = normalizedPlan == null ? null : normalizedPlan.getNormalizedOperation();
+                if (normalizedOperation != null) {
+                    return normalizedOperation;
+                }
+            }
+            if (graphQLContext != null && Boolean.TRUE.equals(graphQLContext.get(ExecutableNormalizedOperationFactory.Options.LAZY_CHILDREN_CONTEXT_KEY))) {
+                ExecutableNormalizedOperationFactory.Options options = ExecutableNormalizedOperationFactory.Options.defaultOptions()
+                        .graphQLContext(graphQLContext)
+                        .locale(locale)
+                        .lazyChildren(true);
+                return ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, operationDefinition, fragmentsByName, coercedVariables, options);
+            }
+            return ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema, operationDefinition, fragmentsByName, coercedVariables);
+        });
     }
 
 
@@ -178,17 +204,15 @@ public class ExecutionContext {
      * @param fieldPath the field path to put it under
      */
     public void addError(GraphQLError error, ResultPath fieldPath) {
-        synchronized (this) {
-            //
-            // see https://spec.graphql.org/October2021/#sec-Handling-Field-Errors about how per
-            // field errors should be handled - ie only once per field if it's already there for nullability
-            // but unclear if it's not that error path
-            //
-            if (!errorPaths.add(fieldPath)) {
-                return;
-            }
-            this.errors.set(ImmutableKit.addToList(this.errors.get(), error));
+        //
+        // see https://spec.graphql.org/October2021/#sec-Handling-Field-Errors about how per
+        // field errors should be handled - ie only once per field if it's already there for nullability
+        // but unclear if it's not that error path
+        //
+        if (!errorPaths.add(fieldPath)) {
+            return;
         }
+        appendError(error);
     }
 
     /**
@@ -198,16 +222,14 @@ public class ExecutionContext {
      * @param error the error to add
      */
     public void addError(GraphQLError error) {
-        synchronized (this) {
-            // see https://github.com/graphql-java/graphql-java/issues/888 on how the spec is unclear
-            // on how exactly multiple errors should be handled - ie only once per field or not outside the nullability
-            // aspect.
-            if (error.getPath() != null) {
-                ResultPath path = ResultPath.fromList(error.getPath());
-                this.errorPaths.add(path);
-            }
-            this.errors.set(ImmutableKit.addToList(this.errors.get(), error));
+        // see https://github.com/graphql-java/graphql-java/issues/888 on how the spec is unclear
+        // on how exactly multiple errors should be handled - ie only once per field or not outside the nullability
+        // aspect.
+        if (error.getPath() != null) {
+            ResultPath path = ResultPath.fromList(error.getPath());
+            this.errorPaths.add(path);
         }
+        appendError(error);
     }
 
     /**
@@ -220,29 +242,36 @@ public class ExecutionContext {
         if (errors.isEmpty()) {
             return;
         }
-        // we are synchronised because we set two fields at once - but we only ever read one of them later
-        // in getErrors so no need for synchronised there.
-        synchronized (this) {
-            Set<ResultPath> newErrorPaths = new HashSet<>();
-            for (GraphQLError error : errors) {
-                // see https://github.com/graphql-java/graphql-java/issues/888 on how the spec is unclear
-                // on how exactly multiple errors should be handled - ie only once per field or not outside the nullability
-                // aspect.
-                if (error.getPath() != null) {
-                    ResultPath path = ResultPath.fromList(error.getPath());
-                    newErrorPaths.add(path);
-                }
+        for (GraphQLError error : errors) {
+            // see https://github.com/graphql-java/graphql-java/issues/888 on how the spec is unclear
+            // on how exactly multiple errors should be handled - ie only once per field or not outside the nullability
+            // aspect.
+            if (error.getPath() != null) {
+                ResultPath path = ResultPath.fromList(error.getPath());
+                this.errorPaths.add(path);
             }
-            this.errorPaths.addAll(newErrorPaths);
-            this.errors.set(ImmutableKit.concatLists(this.errors.get(), errors));
         }
+        this.errors.addAll(errors);
+    }
+
+    private void appendError(GraphQLError error) {
+        this.errors.add(error);
     }
 
     /**
+     * The errors are returned in the order they were added.  The list is an immutable snapshot and hence
+     * does not reflect errors added later.  Taking it does not copy the errors, so it is cheap to call
+     * for every completed value.
+     *
      * @return the total list of errors for this execution context
      */
     public List<GraphQLError> getErrors() {
-        return errors.get();
+        List<GraphQLError> snapshot = errorsSnapshot;
+        if (snapshot.size() != errors.size()) {
+            snapshot = errors.snapshot();
+            errorsSnapshot = snapshot;
+        }
+        return snapshot;
     }
 
     public ExecutionStrategy getQueryStrategy() { return queryStrategy; }
@@ -269,6 +298,43 @@ public class ExecutionContext {
         return queryTree;
     }
 
+    /**
+     * @return the {@link ExecutionPlan} in play for this execution or null if execution plan caching is not enabled
+     */
+    @ExperimentalApi
+    public ExecutionPlan getExecutionPlan() {
+        return executionPlan;
+    }
+
+    /**
+     * @return true if fields with already fetched values are completed straight away, see {@link graphql.GraphQL.Builder#directValueCompletion(boolean)}
+     */
+    @ExperimentalApi
+    public boolean isDirectValueCompletion() {
+        return directValueCompletion;
+    }
+
+    /**
+     * @return the {@link NormalizedExecutionPlan} of the {@link ExecutionPlan} in play for the variables and locale of this
+     * execution or null if it can't be used
+     */
+    NormalizedExecutionPlan getNormalizedExecutionPlan() {
+        return normalizedExecutionPlan.get();
+    }
+
+    private NormalizedExecutionPlan createNormalizedExecutionPlan() {
+        // arguments changed by an input interceptor are particular to this request and can't be shared
+        if (executionPlan == null || (graphQLContext != null && graphQLContext.get(InputInterceptor.class) != null)) {
+            return null;
+        }
+        try {
+            return executionPlan.getNormalizedExecutionPlan(operationDefinition, coercedVariables, locale);
+        } catch (RuntimeException e) {
+            // say a null variable for a non null argument - this is reported when the field is fetched
+            return null;
+        }
+    }
+
     /**
      * This helps you transform the current ExecutionContext object into another one by starting a builder with all
      * the current values and allows you to transform it how you want.
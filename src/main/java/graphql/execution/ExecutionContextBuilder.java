@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import graphql.DeprecatedAt;
 import graphql.ExecutionInput;
+import graphql.ExperimentalApi;
 import graphql.GraphQLContext;
 import graphql.GraphQLError;
 import graphql.Internal;
@@ -46,6 +47,8 @@ public class ExecutionContextBuilder {
     ValueUnboxer valueUnboxer;
     Object localContext;
     ExecutionInput executionInput;
+    ExecutionPlan executionPlan;
+    boolean directValueCompletion;
 
     /**
      * @return a new builder of {@link graphql.execution.ExecutionContext}s
@@ -91,6 +94,8 @@ public class ExecutionContextBuilder {
         errors = ImmutableList.copyOf(other.getErrors());
         valueUnboxer = other.getValueUnboxer();
         executionInput = other.getExecutionInput();
+        executionPlan = other.getExecutionPlan();
+        directValueCompletion = other.isDirectValueCompletion();
     }
 
     public ExecutionContextBuilder instrumentation(Instrumentation instrumentation) {
@@ -206,6 +211,18 @@ public class ExecutionContextBuilder {
         return this;
     }
 
+    @ExperimentalApi
+    public ExecutionContextBuilder executionPlan(ExecutionPlan executionPlan) {
+        this.executionPlan = executionPlan;
+        return this;
+    }
+
+    @ExperimentalApi
+    public ExecutionContextBuilder directValueCompletion(boolean directValueCompletion) {
+        this.directValueCompletion = directValueCompletion;
+        return this;
+    }
+
     public ExecutionContextBuilder resetErrors() {
         this.errors = emptyList();
         return this;
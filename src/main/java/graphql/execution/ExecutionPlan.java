@@ -0,0 +1,453 @@
+package graphql.execution;
+
+import graphql.Directives;
+import graphql.ExperimentalApi;
+import graphql.Internal;
+import graphql.language.Argument;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.DirectivesContainer;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableReference;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.normalized.ExecutableNormalizedOperationFactory;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * An execution plan holds the parts of execution that only depend on the (document, operation name, schema) triple
+ * and hence can be computed once and then re-used across requests that execute the same document.
+ * <p>
+ * This includes the {@link MergedSelectionSet} collected for an object type and a field and the
+ * {@link GraphQLFieldDefinition} resolved for an object type and a field name.  The plan is filled in lazily as the
+ * document is executed, so the first execution pays the collection costs and subsequent executions walk the
+ * already collected sub selections.
+ * <p>
+ * Selections that have {@code @skip} or {@code @include} directives whose {@code if} argument is a variable
+ * are not cached since their collected fields can differ per request.  They are collected on every execution as before.
+ * <p>
+ * A plan also holds the {@link NormalizedExecutionPlan}s used by the {@link NormalizedOperationExecutionStrategy}, one
+ * per locale and set of values of the variables used by {@code @skip} and {@code @include}, of which only the most
+ * recently used few are kept.  The other variables don't change which fields are executed, so requests that only differ
+ * in them share a normalized execution plan.
+ * <p>
+ * Plans are normally obtained via {@link graphql.execution.preparsed.PreparsedDocumentEntry#getExecutionPlan(GraphQLSchema, String)}
+ * and are used when {@link graphql.GraphQL.Builder#executionPlanCaching(boolean)} is enabled.
+ */
+@ExperimentalApi
+public class ExecutionPlan {
+
+    private static final Object VARIABLE_DEPENDENT = new Object();
+    private static final int MAX_NORMALIZED_EXECUTION_PLANS = 32;
+
+    private final GraphQLSchema graphQLSchema;
+    private final Document document;
+    private final String operationName;
+    private final Map<String, FragmentDefinition> fragmentsByName;
+    private final ConcurrentHashMap<PlanKey, Object> subSelections = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<GraphQLObjectType, ConcurrentHashMap<String, GraphQLFieldDefinition>> fieldDefinitions = new ConcurrentHashMap<>();
+    // in access order so the least recently used plan is evicted first, only touched while holding its lock
+    private final LinkedHashMap<NormalizedPlanKey, NormalizedExecutionPlan> normalizedExecutionPlans = new LinkedHashMap<>(16, 0.75f, true);
+    // the names of the variables used by @skip and @include in the operation, worked out the first time they are needed
+    private volatile Set<String> conditionVariableNames;
+
+    public ExecutionPlan(GraphQLSchema graphQLSchema, Document document, String operationName) {
+        this.graphQLSchema = assertNotNull(graphQLSchema);
+        this.document = assertNotNull(document);
+        this.operationName = operationName;
+        this.fragmentsByName = buildFragmentsByName(document);
+    }
+
+    /**
+     * @param graphQLSchema the schema in play
+     * @param document      the document in play
+     * @param operationName the operation name in play
+     *
+     * @return true if this plan was built for the given schema, document and operation name
+     */
+    public boolean isPlanFor(GraphQLSchema graphQLSchema, Document document, String operationName) {
+        return this.graphQLSchema == graphQLSchema
+                && this.document == document
+                && Objects.equals(this.operationName, operationName);
+    }
+
+    public GraphQLSchema getGraphQLSchema() {
+        return graphQLSchema;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    /**
+     * @return the number of collected selection sets that are held in this plan
+     */
+    public int getCachedSelectionSetCount() {
+        int count = 0;
+        for (Object value : subSelections.values()) {
+            if (value != VARIABLE_DEPENDENT) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of normalized execution plans that are held in this plan
+     */
+    public int getNormalizedExecutionPlanCount() {
+        synchronized (normalizedExecutionPlans) {
+            return normalizedExecutionPlans.size();
+        }
+    }
+
+    /**
+     * Returns the previously collected sub fields of the merged field for the given object type
+     *
+     * @param objectType  the object type the fields are collected for
+     * @param mergedField the field whose sub selection is being collected
+     *
+     * @return the collected sub fields or null if they have not been collected yet or if they depend on variables
+     */
+    @Internal
+    public MergedSelectionSet getSubFields(GraphQLObjectType objectType, MergedField mergedField) {
+        return getSelection(new PlanKey(objectType, mergedField.getFields()));
+    }
+
+    /**
+     * Records the collected sub fields of the merged field for the given object type unless they depend on variables
+     *
+     * @param objectType  the object type the fields were collected for
+     * @param mergedField the field whose sub selection was collected
+     * @param subFields   the collected sub fields
+     */
+    @Internal
+    public void putSubFields(GraphQLObjectType objectType, MergedField mergedField, MergedSelectionSet subFields) {
+        putSelection(new PlanKey(objectType, mergedField.getFields()), subFields);
+    }
+
+    /**
+     * Returns the previously collected root fields of the operation selection set for the given object type
+     *
+     * @param objectType   the operation root type
+     * @param selectionSet the operation selection set
+     *
+     * @return the collected root fields or null if they have not been collected yet or if they depend on variables
+     */
+    @Internal
+    public MergedSelectionSet getRootFields(GraphQLObjectType objectType, SelectionSet selectionSet) {
+        return getSelection(new PlanKey(objectType, selectionSet));
+    }
+
+    /**
+     * Records the collected root fields of the operation selection set for the given object type unless they depend on variables
+     *
+     * @param objectType   the operation root type
+     * @param selectionSet the operation selection set
+     * @param rootFields   the collected root fields
+     */
+    @Internal
+    public void putRootFields(GraphQLObjectType objectType, SelectionSet selectionSet, MergedSelectionSet rootFields) {
+        putSelection(new PlanKey(objectType, selectionSet), rootFields);
+    }
+
+    /**
+     * Returns the previously resolved field definition for the named field on the object type
+     *
+     * @param parentType the object type containing the field
+     * @param fieldName  the name of the field
+     *
+     * @return the field definition or null if it has not been resolved yet
+     */
+    @Internal
+    public GraphQLFieldDefinition getFieldDefinition(GraphQLObjectType parentType, String fieldName) {
+        Map<String, GraphQLFieldDefinition> fieldsOfType = fieldDefinitions.get(parentType);
+        return fieldsOfType == null ? null : fieldsOfType.get(fieldName);
+    }
+
+    /**
+     * Records the resolved field definition for the named field on the object type
+     *
+     * @param parentType      the object type containing the field
+     * @param fieldName       the name of the field
+     * @param fieldDefinition the resolved field definition
+     */
+    @Internal
+    public void putFieldDefinition(GraphQLObjectType parentType, String fieldName, GraphQLFieldDefinition fieldDefinition) {
+        fieldDefinitions.computeIfAbsent(parentType, k -> new ConcurrentHashMap<>()).putIfAbsent(fieldName, fieldDefinition);
+    }
+
+    /**
+     * Returns the plan that executes the operation over its {@link ExecutableNormalizedOperation} for the given
+     * variables and locale, building the normalized operation if it has not been built for them yet.  Only the
+     * variables used by {@code @skip} and {@code @include} tell plans apart, the arguments that use variables are
+     * resolved by each request.
+     *
+     * @param operationDefinition the operation of this plan
+     * @param coercedVariables    the coerced variables in play
+     * @param locale              the locale in play
+     *
+     * @return the normalized execution plan
+     */
+    @Internal
+    public NormalizedExecutionPlan getNormalizedExecutionPlan(OperationDefinition operationDefinition, CoercedVariables coercedVariables, Locale locale) {
+        // the plan outlives this request, so it gets its own copy of the variables that the request can't change
+        Map<String, Object> conditionVariables = NormalizedExecutionPlan.immutableCopy(conditionVariables(operationDefinition, coercedVariables));
+        NormalizedPlanKey key = new NormalizedPlanKey(conditionVariables, locale);
+        NormalizedExecutionPlan normalizedExecutionPlan;
+        synchronized (normalizedExecutionPlans) {
+            normalizedExecutionPlan = normalizedExecutionPlans.get(key);
+        }
+        if (normalizedExecutionPlan != null) {
+            return normalizedExecutionPlan;
+        }
+        ExecutableNormalizedOperation normalizedOperation = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(graphQLSchema,
+                operationDefinition,
+                fragmentsByName,
+                coercedVariables,
+                ExecutableNormalizedOperationFactory.Options.defaultOptions().locale(locale));
+        normalizedExecutionPlan = new NormalizedExecutionPlan(graphQLSchema, operationDefinition, fragmentsByName, CoercedVariables.of(conditionVariables), normalizedOperation);
+        synchronized (normalizedExecutionPlans) {
+            NormalizedExecutionPlan existing = normalizedExecutionPlans.putIfAbsent(key, normalizedExecutionPlan);
+            if (existing != null) {
+                return existing;
+            }
+            // every combination of @skip and @include values and locale gets a plan, so they are bounded all the same
+            if (normalizedExecutionPlans.size() > MAX_NORMALIZED_EXECUTION_PLANS) {
+                Iterator<NormalizedPlanKey> eldestFirst = normalizedExecutionPlans.keySet().iterator();
+                eldestFirst.next();
+                eldestFirst.remove();
+            }
+        }
+        return normalizedExecutionPlan;
+    }
+
+    private Map<String, Object> conditionVariables(OperationDefinition operationDefinition, CoercedVariables coercedVariables) {
+        Set<String> names = conditionVariableNames;
+        if (names == null) {
+            names = new HashSet<>();
+            collectConditionVariableNames(operationDefinition.getSelectionSet(), names, new HashSet<>());
+            conditionVariableNames = names;
+        }
+        Map<String, Object> conditionVariables = new HashMap<>();
+        for (String name : names) {
+            if (coercedVariables.containsKey(name)) {
+                conditionVariables.put(name, coercedVariables.get(name));
+            }
+        }
+        return conditionVariables;
+    }
+
+    private void collectConditionVariableNames(SelectionSet selectionSet, Set<String> names, Set<String> visitedFragments) {
+        if (selectionSet == null) {
+            return;
+        }
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                Field field = (Field) selection;
+                collectConditionVariableNames(field, names);
+                collectConditionVariableNames(field.getSelectionSet(), names, visitedFragments);
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                collectConditionVariableNames(inlineFragment, names);
+                collectConditionVariableNames(inlineFragment.getSelectionSet(), names, visitedFragments);
+            } else if (selection instanceof FragmentSpread) {
+                FragmentSpread fragmentSpread = (FragmentSpread) selection;
+                collectConditionVariableNames(fragmentSpread, names);
+                FragmentDefinition fragmentDefinition = fragmentsByName.get(fragmentSpread.getName());
+                if (fragmentDefinition != null && visitedFragments.add(fragmentSpread.getName())) {
+                    collectConditionVariableNames(fragmentDefinition, names);
+                    collectConditionVariableNames(fragmentDefinition.getSelectionSet(), names, visitedFragments);
+                }
+            }
+        }
+    }
+
+    private static void collectConditionVariableNames(DirectivesContainer<?> directivesContainer, Set<String> names) {
+        for (Directive directive : directivesContainer.getDirectives()) {
+            if (isConditional(directive)) {
+                for (Argument argument : directive.getArguments()) {
+                    if (argument.getValue() instanceof VariableReference) {
+                        names.add(((VariableReference) argument.getValue()).getName());
+                    }
+                }
+            }
+        }
+    }
+
+    private MergedSelectionSet getSelection(PlanKey key) {
+        Object cached = subSelections.get(key);
+        if (cached == null || cached == VARIABLE_DEPENDENT) {
+            return null;
+        }
+        return (MergedSelectionSet) cached;
+    }
+
+    private void putSelection(PlanKey key, MergedSelectionSet collected) {
+        if (subSelections.containsKey(key)) {
+            return;
+        }
+        subSelections.putIfAbsent(key, hasVariableConditions(key.selection) ? VARIABLE_DEPENDENT : collected);
+    }
+
+    private boolean hasVariableConditions(Object selection) {
+        Set<String> visitedFragments = new HashSet<>();
+        if (selection instanceof SelectionSet) {
+            return hasVariableConditions((SelectionSet) selection, visitedFragments);
+        }
+        //noinspection unchecked
+        for (Field field : (List<Field>) selection) {
+            if (field.getSelectionSet() != null && hasVariableConditions(field.getSelectionSet(), visitedFragments)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //
+    // we only look at the selections that take part in collecting this level of fields - the selection sets
+    // of the sub fields are collected (and checked) on their own later
+    private boolean hasVariableConditions(SelectionSet selectionSet, Set<String> visitedFragments) {
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                if (isVariableConditional((Field) selection)) {
+                    return true;
+                }
+            } else if (selection instanceof InlineFragment) {
+                InlineFragment inlineFragment = (InlineFragment) selection;
+                if (isVariableConditional(inlineFragment) || hasVariableConditions(inlineFragment.getSelectionSet(), visitedFragments)) {
+                    return true;
+                }
+            } else if (selection instanceof FragmentSpread) {
+                FragmentSpread fragmentSpread = (FragmentSpread) selection;
+                if (isVariableConditional(fragmentSpread)) {
+                    return true;
+                }
+                if (!visitedFragments.add(fragmentSpread.getName())) {
+                    continue;
+                }
+                FragmentDefinition fragmentDefinition = fragmentsByName.get(fragmentSpread.getName());
+                if (fragmentDefinition != null) {
+                    if (isVariableConditional(fragmentDefinition) || hasVariableConditions(fragmentDefinition.getSelectionSet(), visitedFragments)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVariableConditional(DirectivesContainer<?> directivesContainer) {
+        for (Directive directive : directivesContainer.getDirectives()) {
+            if (isConditional(directive)) {
+                for (Argument argument : directive.getArguments()) {
+                    if (argument.getValue() instanceof VariableReference) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConditional(Directive directive) {
+        String name = directive.getName();
+        return name.equals(Directives.SkipDirective.getName()) || name.equals(Directives.IncludeDirective.getName());
+    }
+
+    private static Map<String, FragmentDefinition> buildFragmentsByName(Document document) {
+        Map<String, FragmentDefinition> fragmentsByName = new HashMap<>();
+        for (Definition<?> definition : document.getDefinitions()) {
+            if (definition instanceof FragmentDefinition) {
+                FragmentDefinition fragmentDefinition = (FragmentDefinition) definition;
+                fragmentsByName.put(fragmentDefinition.getName(), fragmentDefinition);
+            }
+        }
+        return fragmentsByName;
+    }
+
+    /**
+     * AST nodes do not implement equals and hence the selection is compared by the identity of its nodes, which
+     * is exactly what we want since a plan belongs to a single document instance.
+     */
+    private static class PlanKey {
+        private final GraphQLObjectType objectType;
+        private final Object selection;
+        private final int hashCode;
+
+        private PlanKey(GraphQLObjectType objectType, Object selection) {
+            this.objectType = objectType;
+            this.selection = selection;
+            this.hashCode = 31 * System.identityHashCode(objectType) + selection.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanKey planKey = (PlanKey) o;
+            return objectType == planKey.objectType && selection.equals(planKey.selection);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static class NormalizedPlanKey {
+        private final Map<String, Object> variables;
+        private final Locale locale;
+
+        private NormalizedPlanKey(Map<String, Object> variables, Locale locale) {
+            this.variables = variables;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            NormalizedPlanKey that = (NormalizedPlanKey) o;
+            return variables.equals(that.variables) && Objects.equals(locale, that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(variables, locale);
+        }
+    }
+}
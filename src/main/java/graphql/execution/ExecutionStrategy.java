@@ -30,9 +30,11 @@ import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.DataFetchingFieldSelectionSet;
 import graphql.schema.DataFetchingFieldSelectionSetImpl;
 import graphql.schema.GraphQLArgument;
+import graphql.schema.FieldLookupTable;
 import graphql.schema.GraphQLCodeRegistry;
 import graphql.schema.GraphQLEnumType;
 import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.GraphQLOutputType;
 import graphql.schema.GraphQLScalarType;
@@ -44,8 +46,12 @@ import graphql.util.LogKit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
@@ -66,7 +72,9 @@ import static graphql.execution.instrumentation.SimpleInstrumentationContext.non
 import static graphql.schema.DataFetchingEnvironmentImpl.newDataFetchingEnvironment;
 import static graphql.schema.GraphQLTypeUtil.isEnum;
 import static graphql.schema.GraphQLTypeUtil.isList;
+import static graphql.schema.GraphQLTypeUtil.isNonNull;
 import static graphql.schema.GraphQLTypeUtil.isScalar;
+import static graphql.schema.GraphQLTypeUtil.unwrapNonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
@@ -129,6 +137,46 @@ public abstract class ExecutionStrategy {
     private static final Logger log = LoggerFactory.getLogger(ExecutionStrategy.class);
     private static final Logger logNotSafe = LogKit.getNotPrivacySafeLogger(ExecutionStrategy.class);
 
+    /*
+     * Lists of scalars and enums are completed in one go, unless a strategy changes how the values of such a list are completed
+     */
+    private static final ClassValue<Boolean> COMPLETES_LEAF_VALUES_AS_DEFINED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> strategyClass) {
+            for (Class<?> clazz = strategyClass; clazz != ExecutionStrategy.class; clazz = clazz.getSuperclass()) {
+                for (Method method : clazz.getDeclaredMethods()) {
+                    switch (method.getName()) {
+                        case "completeValue":
+                        case "completeValueForNull":
+                        case "completeValueForScalar":
+                        case "completeValueForEnum":
+                        case "unboxPossibleDataFetcherResult":
+                            return false;
+                        default:
+                    }
+                }
+            }
+            return true;
+        }
+    };
+
+    /*
+     * The schema's FieldLookupTable can only stand in for getFieldDef() if the strategy has not changed how fields are found
+     */
+    private static final ClassValue<Boolean> FINDS_FIELD_DEFINITIONS_AS_DEFINED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> strategyClass) {
+            for (Class<?> clazz = strategyClass; clazz != ExecutionStrategy.class; clazz = clazz.getSuperclass()) {
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (method.getName().equals("getFieldDef")) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    };
+
     protected final FieldCollector fieldCollector = new FieldCollector();
     protected final ExecutionStepInfoFactory executionStepInfoFactory = new ExecutionStepInfoFactory();
     private final ResolveType resolvedType = new ResolveType();
@@ -211,16 +259,36 @@ public abstract class ExecutionStrategy {
         ));
 
         CompletableFuture<FetchedValue> fetchFieldFuture = fetchField(executionContext, parameters);
-        CompletableFuture<FieldValueInfo> result = fetchFieldFuture.thenApply((fetchedValue) ->
-                completeField(executionContext, parameters, fetchedValue));
+        CompletableFuture<FieldValueInfo> result;
+        boolean directValueCompletion = executionContext.isDirectValueCompletion();
+        if (directValueCompletion && Async.isCompletedNormally(fetchFieldFuture)) {
+            // the value is already fetched so we can complete it straight away rather than chaining futures
+            result = completeFetchedField(executionContext, parameters, fetchFieldFuture.join());
+        } else {
+            result = fetchFieldFuture.thenApply((fetchedValue) ->
+                    completeField(executionContext, parameters, fetchedValue));
+        }
 
-        CompletableFuture<ExecutionResult> executionResultFuture = result.thenCompose(FieldValueInfo::getFieldValue);
+        CompletableFuture<ExecutionResult> executionResultFuture;
+        if (directValueCompletion && Async.isCompletedNormally(result)) {
+            executionResultFuture = result.join().getFieldValue();
+        } else {
+            executionResultFuture = result.thenCompose(FieldValueInfo::getFieldValue);
+        }
 
         fieldCtx.onDispatched(executionResultFuture);
         executionResultFuture.whenComplete(fieldCtx::onCompleted);
         return result;
     }
 
+    private CompletableFuture<FieldValueInfo> completeFetchedField(ExecutionContext executionContext, ExecutionStrategyParameters parameters, FetchedValue fetchedValue) {
+        try {
+            return completedFuture(completeField(executionContext, parameters, fetchedValue));
+        } catch (Exception e) {
+            return exceptionallyCompletedFuture(new CompletionException(e));
+        }
+    }
+
     /**
      * Called to fetch a value for a field from the {@link DataFetcher} associated with the field
      * {@link GraphQLFieldDefinition}.
@@ -238,8 +306,8 @@ public abstract class ExecutionStrategy {
     protected CompletableFuture<FetchedValue> fetchField(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
         MergedField field = parameters.getField();
         GraphQLObjectType parentType = (GraphQLObjectType) parameters.getExecutionStepInfo().getUnwrappedNonNullType();
-        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, field.getSingleField());
-        GraphQLCodeRegistry codeRegistry = executionContext.getGraphQLSchema().getCodeRegistry();
+        FieldLookupTable.FieldEntry fieldEntry = lookupField(executionContext, parentType, field.getSingleField());
+        GraphQLFieldDefinition fieldDef = fieldEntry != null ? fieldEntry.getFieldDefinition() : getFieldDef(executionContext, parentType, field.getSingleField());
 
         // if the DF (like PropertyDataFetcher) does not use the arguments or execution step info then dont build any
 
@@ -274,7 +342,7 @@ public abstract class ExecutionStrategy {
                     .queryDirectives(queryDirectives)
                     .build();
         });
-        DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(parentType, fieldDef);
+        DataFetcher<?> dataFetcher = fieldEntry != null ? fieldEntry.getDataFetcher() : executionContext.getGraphQLSchema().getCodeRegistry().getDataFetcher(parentType, fieldDef);
 
         Instrumentation instrumentation = executionContext.getInstrumentation();
 
@@ -287,6 +355,16 @@ public abstract class ExecutionStrategy {
         CompletableFuture<Object> fetchedValue = invokeDataFetcher(executionContext, parameters, fieldDef, dataFetchingEnvironment, dataFetcher);
 
         fetchCtx.onDispatched(fetchedValue);
+        if (executionContext.isDirectValueCompletion() && Async.isCompletedNormally(fetchedValue)) {
+            // most data fetchers return plain values and hence there is no need to chain futures to unbox them
+            try {
+                Object result = fetchedValue.join();
+                fetchCtx.onCompleted(result, null);
+                return completedFuture(unboxPossibleDataFetcherResult(executionContext, parameters, result));
+            } catch (Exception e) {
+                return exceptionallyCompletedFuture(new CompletionException(e));
+            }
+        }
         return fetchedValue
                 .handle((result, exception) -> {
                     fetchCtx.onCompleted(result, exception);
@@ -410,7 +488,7 @@ public abstract class ExecutionStrategy {
     protected FieldValueInfo completeField(ExecutionContext executionContext, ExecutionStrategyParameters parameters, FetchedValue fetchedValue) {
         Field field = parameters.getField().getSingleField();
         GraphQLObjectType parentType = (GraphQLObjectType) parameters.getExecutionStepInfo().getUnwrappedNonNullType();
-        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
+        GraphQLFieldDefinition fieldDef = getFieldDef(executionContext, parentType, field);
         ExecutionStepInfo executionStepInfo = createExecutionStepInfo(executionContext, parameters, fieldDef, parentType);
 
         Instrumentation instrumentation = executionContext.getInstrumentation();
@@ -432,7 +510,15 @@ public abstract class ExecutionStrategy {
             log.debug("'{}' completing field '{}'...", executionContext.getExecutionId(), executionStepInfo.getPath());
         }
 
-        FieldValueInfo fieldValueInfo = completeValue(executionContext, newParameters);
+        FieldValueInfo fieldValueInfo;
+        try {
+            fieldValueInfo = completeValue(executionContext, newParameters);
+        } catch (RuntimeException e) {
+            // instrumentations can rely on the dispatched callback being made once the field completion has begun
+            ctxCompleteField.onDispatched(exceptionallyCompletedFuture(e));
+            ctxCompleteField.onCompleted(null, e);
+            throw e;
+        }
 
         CompletableFuture<ExecutionResult> executionResultFuture = fieldValueInfo.getFieldValue();
         ctxCompleteField.onDispatched(executionResultFuture);
@@ -565,6 +651,11 @@ public abstract class ExecutionStrategy {
                 instrumentationParams, executionContext.getInstrumentationState()
         ));
 
+        GraphQLType itemType = unwrapNonNull(((GraphQLList) executionStepInfo.getUnwrappedNonNullType()).getWrappedType());
+        if ((isScalar(itemType) || isEnum(itemType)) && COMPLETES_LEAF_VALUES_AS_DEFINED.get(getClass())) {
+            return completeLeafValuesForList(executionContext, parameters, iterableValues, size.orElse(1), itemType, completeListCtx);
+        }
+
         List<FieldValueInfo> fieldValueInfos = new ArrayList<>(size.orElse(1));
         int index = 0;
         for (Object item : iterableValues) {
@@ -576,13 +667,7 @@ public abstract class ExecutionStrategy {
 
             FetchedValue value = unboxPossibleDataFetcherResult(executionContext, parameters, item);
 
-            ExecutionStrategyParameters newParameters = parameters.transform(builder ->
-                    builder.executionStepInfo(stepInfoForListElement)
-                            .nonNullFieldValidator(nonNullableFieldValidator)
-                            .localContext(value.getLocalContext())
-                            .path(indexedPath)
-                            .source(value.getFetchedValue())
-            );
+            ExecutionStrategyParameters newParameters = parameters.forListElement(stepInfoForListElement, nonNullableFieldValidator, indexedPath, value.getLocalContext(), value.getFetchedValue());
             fieldValueInfos.add(completeValue(executionContext, newParameters));
             index++;
         }
@@ -613,6 +698,84 @@ public abstract class ExecutionStrategy {
                 .build();
     }
 
+    /*
+     * Completes a list of scalars or enums in one go, which gives the same results as completing each value
+     * via completeValue() but without creating parameters, paths and step infos for each of them.  The paths and
+     * step infos are only created for the values that need them in an error.
+     */
+    private FieldValueInfo completeLeafValuesForList(ExecutionContext executionContext,
+                                                     ExecutionStrategyParameters parameters,
+                                                     Iterable<Object> iterableValues,
+                                                     int expectedSize,
+                                                     GraphQLType itemType,
+                                                     InstrumentationContext<ExecutionResult> completeListCtx) {
+        ExecutionStepInfo executionStepInfo = parameters.getExecutionStepInfo();
+        boolean nonNullItems = isNonNull(((GraphQLList) executionStepInfo.getUnwrappedNonNullType()).getWrappedType());
+        ValueUnboxer valueUnboxer = executionContext.getValueUnboxer();
+
+        List<Object> completedResults = new ArrayList<>(expectedSize);
+        BitSet nullItems = new BitSet();
+        Map<Integer, NonNullableFieldWasNullException> failedItems = null;
+        int index = 0;
+        for (Object item : iterableValues) {
+            Object value;
+            if (item instanceof DataFetcherResult) {
+                value = unboxPossibleDataFetcherResult(executionContext, parameters, item).getFetchedValue();
+            } else {
+                value = valueUnboxer.unbox(item);
+            }
+            // completeValue() unboxes its source as well
+            value = valueUnboxer.unbox(value);
+
+            Object serialized = null;
+            if (value == null) {
+                nullItems.set(index);
+            } else {
+                try {
+                    if (itemType instanceof GraphQLScalarType) {
+                        serialized = ((GraphQLScalarType) itemType).getCoercing().serialize(value, executionContext.getGraphQLContext(), executionContext.getLocale());
+                    } else {
+                        serialized = ((GraphQLEnumType) itemType).serialize(value, executionContext.getGraphQLContext(), executionContext.getLocale());
+                    }
+                } catch (CoercingSerializeException e) {
+                    serialized = handleCoercionProblem(executionContext, parameters.getPath().segment(index), e);
+                }
+            }
+            if (serialized == null && nonNullItems) {
+                ResultPath indexedPath = parameters.getPath().segment(index);
+                ExecutionStepInfo stepInfoForListElement = executionStepInfoFactory.newExecutionStepInfoForListElement(executionStepInfo, indexedPath);
+                try {
+                    new NonNullableFieldValidator(executionContext, stepInfoForListElement).validate(indexedPath, null);
+                } catch (NonNullableFieldWasNullException e) {
+                    if (failedItems == null) {
+                        failedItems = new LinkedHashMap<>();
+                    }
+                    failedItems.put(index, e);
+                }
+            }
+            completedResults.add(serialized);
+            index++;
+        }
+
+        CompletableFuture<ExecutionResult> overallResult = new CompletableFuture<>();
+        completeListCtx.onDispatched(overallResult);
+
+        if (failedItems != null) {
+            // the same exception the combined futures of the values would have failed with
+            CompletionException exception = new CompletionException(failedItems.values().iterator().next());
+            ExecutionResult executionResult = handleNonNullException(executionContext, overallResult, exception);
+            completeListCtx.onCompleted(executionResult, exception);
+        } else {
+            overallResult.complete(new ExecutionResultImpl(completedResults, executionContext.getErrors()));
+        }
+        overallResult.whenComplete(completeListCtx::onCompleted);
+
+        return FieldValueInfo.newFieldValueInfo(LIST)
+                .fieldValue(overallResult)
+                .fieldValueInfos(new LeafFieldValueInfos(executionContext, isScalar(itemType) ? SCALAR : ENUM, completedResults, nullItems, failedItems))
+                .build();
+    }
+
     /**
      * Called to turn an object into a scalar value according to the {@link GraphQLScalarType} by asking that scalar type to coerce the object
      * into a valid value
@@ -678,14 +841,7 @@ public abstract class ExecutionStrategy {
     protected CompletableFuture<ExecutionResult> completeValueForObject(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLObjectType resolvedObjectType, Object result) {
         ExecutionStepInfo executionStepInfo = parameters.getExecutionStepInfo();
 
-        FieldCollectorParameters collectorParameters = newParameters()
-                .schema(executionContext.getGraphQLSchema())
-                .objectType(resolvedObjectType)
-                .fragments(executionContext.getFragmentsByName())
-                .variables(executionContext.getCoercedVariables().toMap())
-                .build();
-
-        MergedSelectionSet subFields = fieldCollector.collectFields(collectorParameters, parameters.getField());
+        MergedSelectionSet subFields = collectSubFields(executionContext, parameters, resolvedObjectType);
 
         ExecutionStepInfo newExecutionStepInfo = executionStepInfo.changeTypeWithPreservedNonNull(resolvedObjectType);
         NonNullableFieldValidator nonNullableFieldValidator = new NonNullableFieldValidator(executionContext, newExecutionStepInfo);
@@ -702,9 +858,45 @@ public abstract class ExecutionStrategy {
         return executionContext.getQueryStrategy().execute(executionContext, newParameters);
     }
 
+    /**
+     * Collects the sub fields of the current field for the object type its value was resolved to
+     *
+     * @param executionContext   contains the top level execution parameters
+     * @param parameters         contains the parameters holding the field whose sub fields are collected
+     * @param resolvedObjectType the resolved object type
+     *
+     * @return the sub fields to execute
+     */
+    protected MergedSelectionSet collectSubFields(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLObjectType resolvedObjectType) {
+        ExecutionPlan executionPlan = executionContext.getExecutionPlan();
+        if (executionPlan != null) {
+            MergedSelectionSet subFields = executionPlan.getSubFields(resolvedObjectType, parameters.getField());
+            if (subFields != null) {
+                return subFields;
+            }
+        }
+
+        FieldCollectorParameters collectorParameters = newParameters()
+                .schema(executionContext.getGraphQLSchema())
+                .objectType(resolvedObjectType)
+                .fragments(executionContext.getFragmentsByName())
+                .variables(executionContext.getCoercedVariables().toMap())
+                .build();
+
+        MergedSelectionSet subFields = fieldCollector.collectFields(collectorParameters, parameters.getField());
+        if (executionPlan != null) {
+            executionPlan.putSubFields(resolvedObjectType, parameters.getField(), subFields);
+        }
+        return subFields;
+    }
+
     @SuppressWarnings("SameReturnValue")
     private Object handleCoercionProblem(ExecutionContext context, ExecutionStrategyParameters parameters, CoercingSerializeException e) {
-        SerializationError error = new SerializationError(parameters.getPath(), e);
+        return handleCoercionProblem(context, parameters.getPath(), e);
+    }
+
+    private Object handleCoercionProblem(ExecutionContext context, ResultPath path, CoercingSerializeException e) {
+        SerializationError error = new SerializationError(path, e);
         logNotSafe.warn(error.getMessage(), e);
         context.addError(error);
 
@@ -749,7 +941,31 @@ public abstract class ExecutionStrategy {
      */
     protected GraphQLFieldDefinition getFieldDef(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Field field) {
         GraphQLObjectType parentType = (GraphQLObjectType) parameters.getExecutionStepInfo().getUnwrappedNonNullType();
-        return getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
+        return getFieldDef(executionContext, parentType, field);
+    }
+
+    private GraphQLFieldDefinition getFieldDef(ExecutionContext executionContext, GraphQLObjectType parentType, Field field) {
+        FieldLookupTable.FieldEntry fieldEntry = lookupField(executionContext, parentType, field);
+        if (fieldEntry != null) {
+            return fieldEntry.getFieldDefinition();
+        }
+        ExecutionPlan executionPlan = executionContext.getExecutionPlan();
+        if (executionPlan == null) {
+            return getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
+        }
+        GraphQLFieldDefinition fieldDefinition = executionPlan.getFieldDefinition(parentType, field.getName());
+        if (fieldDefinition == null) {
+            fieldDefinition = getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
+            executionPlan.putFieldDefinition(parentType, field.getName(), fieldDefinition);
+        }
+        return fieldDefinition;
+    }
+
+    private FieldLookupTable.FieldEntry lookupField(ExecutionContext executionContext, GraphQLObjectType parentType, Field field) {
+        if (!FINDS_FIELD_DEFINITIONS_AS_DEFINED.get(getClass())) {
+            return null;
+        }
+        return executionContext.getGraphQLSchema().getFieldLookupTable().getField(parentType, field.getName());
     }
 
     /**
@@ -795,7 +1011,7 @@ public abstract class ExecutionStrategy {
 
     protected ExecutionResult handleNonNullException(ExecutionContext executionContext, CompletableFuture<ExecutionResult> result, Throwable e) {
         ExecutionResult executionResult = null;
-        List<GraphQLError> errors = ImmutableList.copyOf(executionContext.getErrors());
+        List<GraphQLError> errors = executionContext.getErrors();
         Throwable underlyingException = e;
         if (e instanceof CompletionException) {
             underlyingException = e.getCause();
@@ -880,4 +1096,47 @@ public abstract class ExecutionStrategy {
         Field field = currentField.get(0);
         return field.getResultKey();
     }
+
+    /*
+     * The field value infos of a list of scalars or enums, created when they are asked for, which only instrumentations do
+     */
+    private static class LeafFieldValueInfos extends AbstractList<FieldValueInfo> {
+
+        private final ExecutionContext executionContext;
+        private final FieldValueInfo.CompleteValueType completeValueType;
+        private final List<Object> completedResults;
+        private final BitSet nullItems;
+        private final Map<Integer, NonNullableFieldWasNullException> failedItems;
+
+        LeafFieldValueInfos(ExecutionContext executionContext,
+                            FieldValueInfo.CompleteValueType completeValueType,
+                            List<Object> completedResults,
+                            BitSet nullItems,
+                            Map<Integer, NonNullableFieldWasNullException> failedItems) {
+            this.executionContext = executionContext;
+            this.completeValueType = completeValueType;
+            this.completedResults = completedResults;
+            this.nullItems = nullItems;
+            this.failedItems = failedItems != null ? failedItems : Collections.emptyMap();
+        }
+
+        @Override
+        public FieldValueInfo get(int index) {
+            CompletableFuture<ExecutionResult> fieldValue;
+            NonNullableFieldWasNullException failure = failedItems.get(index);
+            if (failure != null) {
+                fieldValue = exceptionallyCompletedFuture(failure);
+            } else {
+                fieldValue = completedFuture(new ExecutionResultImpl(completedResults.get(index), executionContext.getErrors()));
+            }
+            return FieldValueInfo.newFieldValueInfo(nullItems.get(index) ? NULL : completeValueType)
+                    .fieldValue(fieldValue)
+                    .build();
+        }
+
+        @Override
+        public int size() {
+            return completedResults.size();
+        }
+    }
 }
@@ -83,6 +83,17 @@ public class ExecutionStrategyParameters {
         return builder.build();
     }
 
+    /*
+     * The same as transform() for an element of a list, but without the builder since it is called for every element
+     */
+    ExecutionStrategyParameters forListElement(ExecutionStepInfo executionStepInfo,
+                                               NonNullableFieldValidator nonNullableFieldValidator,
+                                               ResultPath path,
+                                               Object localContext,
+                                               Object source) {
+        return new ExecutionStrategyParameters(executionStepInfo, source, localContext, fields, nonNullableFieldValidator, path, currentField, parent);
+    }
+
     @Override
     public String toString() {
         return String.format("ExecutionStrategyParameters { path=%s, executionStepInfo=%s, source=%s, fields=%s }",
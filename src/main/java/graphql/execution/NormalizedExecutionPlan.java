@@ -0,0 +1,326 @@
+package graphql.execution;
+
+import graphql.Internal;
+import graphql.Scalars;
+import graphql.collect.ImmutableMapWithNullValues;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.Coercing;
+import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLEnumType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
+import graphql.schema.GraphQLInputObjectType;
+import graphql.schema.GraphQLInputType;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLScalarType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+import graphql.schema.visibility.DefaultGraphqlFieldVisibility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.execution.FieldCollectorParameters.newParameters;
+import static graphql.execution.MergedSelectionSet.newMergedSelectionSet;
+
+/**
+ * Executes an operation over its {@link ExecutableNormalizedOperation} for one set of values of the variables used by
+ * {@code @skip} and {@code @include}: the
+ * {@link MergedField}s handed to execution are those of the normalized operation, which gives each of them its
+ * {@link ExecutableNormalizedField} with its arguments already resolved.
+ * <p>
+ * The sub fields of a field are taken from the children of its normalized field that apply to the object type
+ * in play.  The order of their result keys is that of the fields collected for that object type, which the normalized
+ * operation does not keep when a result key first appears for another object type, so they are collected once per
+ * field and object type and then re-used by all executions of this plan.
+ * <p>
+ * The plan is shared by all the requests with the same values for those variables, so the arguments of a field are only
+ * resolved ahead of time when they don't use variables and their types are the scalars of the graphql specification, enums
+ * and input objects and lists of them, whose coercion can't depend on the {@link graphql.GraphQLContext} or anything else
+ * of the request.  Those arguments are copied into immutable maps and lists all the way down so that a request can't
+ * change them for the others.  The arguments of any other field are resolved during execution, with the variables and
+ * context of the request, and so is the {@link ExecutableNormalizedField} of a field when the arguments of it or of any
+ * field below it use variables.
+ *
+ * @see NormalizedOperationExecutionStrategy
+ */
+@Internal
+public class NormalizedExecutionPlan {
+
+    private static final Set<Coercing<?, ?>> SPECIFIED_SCALAR_COERCINGS = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    static {
+        SPECIFIED_SCALAR_COERCINGS.add(Scalars.GraphQLInt.getCoercing());
+        SPECIFIED_SCALAR_COERCINGS.add(Scalars.GraphQLFloat.getCoercing());
+        SPECIFIED_SCALAR_COERCINGS.add(Scalars.GraphQLString.getCoercing());
+        SPECIFIED_SCALAR_COERCINGS.add(Scalars.GraphQLBoolean.getCoercing());
+        SPECIFIED_SCALAR_COERCINGS.add(Scalars.GraphQLID.getCoercing());
+    }
+
+    private final GraphQLSchema graphQLSchema;
+    private final OperationDefinition operationDefinition;
+    private final Map<String, FragmentDefinition> fragmentsByName;
+    private final CoercedVariables coercedVariables;
+    private final ExecutableNormalizedOperation normalizedOperation;
+    private final boolean argumentsResolved;
+    private final Map<MergedField, FieldPlan> fieldPlans = new IdentityHashMap<>();
+    private final boolean argumentsUseVariables;
+    private final ConcurrentHashMap<GraphQLObjectType, MergedSelectionSet> rootFields = new ConcurrentHashMap<>();
+    private final FieldCollector fieldCollector = new FieldCollector();
+    // whether the arguments of an input type can be resolved ahead of time, worked out once per type
+    private final Map<GraphQLType, Boolean> requestIndependentTypes = new IdentityHashMap<>();
+
+    public NormalizedExecutionPlan(GraphQLSchema graphQLSchema,
+                                   OperationDefinition operationDefinition,
+                                   Map<String, FragmentDefinition> fragmentsByName,
+                                   CoercedVariables coercedVariables,
+                                   ExecutableNormalizedOperation normalizedOperation) {
+        this.graphQLSchema = assertNotNull(graphQLSchema);
+        this.operationDefinition = assertNotNull(operationDefinition);
+        this.fragmentsByName = assertNotNull(fragmentsByName);
+        this.coercedVariables = assertNotNull(coercedVariables);
+        this.normalizedOperation = assertNotNull(normalizedOperation);
+        // the normalized operation resolves arguments with the default field visibility
+        this.argumentsResolved = graphQLSchema.getCodeRegistry().getFieldVisibility() == DefaultGraphqlFieldVisibility.DEFAULT_FIELD_VISIBILITY;
+        this.argumentsUseVariables = buildFieldPlans(normalizedOperation.getTopLevelFields());
+    }
+
+    /**
+     * @return the normalized operation or null if the arguments of its fields use variables and have to be resolved per request
+     */
+    public ExecutableNormalizedOperation getNormalizedOperation() {
+        return argumentsUseVariables ? null : normalizedOperation;
+    }
+
+    /**
+     * @param mergedField a field being executed
+     *
+     * @return the plan of the field or null if it is not a field of the normalized operation
+     */
+    public FieldPlan getFieldPlan(MergedField mergedField) {
+        return fieldPlans.get(mergedField);
+    }
+
+    /**
+     * @param operationRootType the operation root type
+     *
+     * @return the root fields of the operation
+     */
+    public MergedSelectionSet getRootFields(GraphQLObjectType operationRootType) {
+        MergedSelectionSet fields = rootFields.get(operationRootType);
+        if (fields == null) {
+            MergedSelectionSet collected = fieldCollector.collectFields(collectorParameters(operationRootType), operationDefinition.getSelectionSet());
+            fields = normalizedSelection(normalizedOperation.getTopLevelFields(), operationRootType, collected);
+            rootFields.putIfAbsent(operationRootType, fields);
+        }
+        return fields;
+    }
+
+    private MergedSelectionSet normalizedSelection(List<ExecutableNormalizedField> normalizedFields, GraphQLObjectType objectType, MergedSelectionSet collected) {
+        Map<String, ExecutableNormalizedField> byResultKey = new HashMap<>();
+        for (ExecutableNormalizedField normalizedField : normalizedFields) {
+            if (normalizedField.getObjectTypeNames().contains(objectType.getName())) {
+                byResultKey.put(normalizedField.getResultKey(), normalizedField);
+            }
+        }
+        Map<String, MergedField> subFields = new LinkedHashMap<>();
+        for (String resultKey : collected.getKeys()) {
+            ExecutableNormalizedField normalizedField = byResultKey.get(resultKey);
+            MergedField mergedField = normalizedField == null ? null : normalizedOperation.getMergedField(normalizedField);
+            if (mergedField == null) {
+                // the fields that are not part of the normalized operation are executed as collected
+                return collected;
+            }
+            subFields.put(resultKey, mergedField);
+        }
+        return newMergedSelectionSet().subFields(subFields).build();
+    }
+
+    private FieldCollectorParameters collectorParameters(GraphQLObjectType objectType) {
+        return newParameters()
+                .schema(graphQLSchema)
+                .objectType(objectType)
+                .fragments(fragmentsByName)
+                .variables(coercedVariables.toMap())
+                .build();
+    }
+
+    private boolean hasRequestIndependentArguments(ExecutableNormalizedField normalizedField) {
+        for (GraphQLFieldDefinition fieldDefinition : normalizedField.getFieldDefinitions(graphQLSchema)) {
+            for (GraphQLArgument argument : fieldDefinition.getArguments()) {
+                if (!isRequestIndependent(argument.getType())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isRequestIndependent(GraphQLInputType inputType) {
+        GraphQLType type = GraphQLTypeUtil.unwrapAll(inputType);
+        Boolean known = requestIndependentTypes.get(type);
+        if (known == null) {
+            known = isRequestIndependent(type, Collections.newSetFromMap(new IdentityHashMap<>()));
+            requestIndependentTypes.put(type, known);
+        }
+        return known;
+    }
+
+    private static boolean isRequestIndependent(GraphQLType type, Set<GraphQLType> visited) {
+        if (type instanceof GraphQLScalarType) {
+            return SPECIFIED_SCALAR_COERCINGS.contains(((GraphQLScalarType) type).getCoercing());
+        }
+        if (type instanceof GraphQLEnumType || !visited.add(type)) {
+            // input objects can refer to themselves, and their fields are looked at the first time they are met
+            return true;
+        }
+        for (GraphQLInputObjectField field : ((GraphQLInputObjectType) type).getFieldDefinitions()) {
+            if (!isRequestIndependent(GraphQLTypeUtil.unwrapAll(field.getType()), visited)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies a value made of maps and lists into immutable maps and lists all the way down
+     *
+     * @param map the map to copy
+     *
+     * @return the immutable copy
+     */
+    static Map<String, Object> immutableCopy(Map<String, Object> map) {
+        Map<String, Object> copy = new LinkedHashMap<>(map.size());
+        map.forEach((key, value) -> copy.put(key, immutableValue(value)));
+        return ImmutableMapWithNullValues.copyOf(copy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object immutableValue(Object value) {
+        if (value instanceof Map) {
+            return immutableCopy((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(immutableValue(element));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+
+    // returns whether the arguments of any of the fields, or of the fields below them, use variables
+    private boolean buildFieldPlans(List<ExecutableNormalizedField> normalizedFields) {
+        boolean anyUseVariables = false;
+        for (ExecutableNormalizedField normalizedField : normalizedFields) {
+            MergedField mergedField = normalizedOperation.getMergedField(normalizedField);
+            boolean argumentsUseVariables = hasVariableReferences(mergedField);
+            boolean childrenUseVariables = buildFieldPlans(normalizedField.getChildren());
+            fieldPlans.put(mergedField, new FieldPlan(normalizedField, mergedField, argumentsUseVariables, argumentsUseVariables || childrenUseVariables));
+            anyUseVariables = anyUseVariables || argumentsUseVariables || childrenUseVariables;
+        }
+        return anyUseVariables;
+    }
+
+    private static boolean hasVariableReferences(MergedField mergedField) {
+        for (Field field : mergedField.getFields()) {
+            for (Argument argument : field.getArguments()) {
+                if (hasVariableReferences(argument.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasVariableReferences(Value<?> value) {
+        if (value instanceof VariableReference) {
+            return true;
+        }
+        if (value instanceof ArrayValue) {
+            for (Value<?> element : ((ArrayValue) value).getValues()) {
+                if (hasVariableReferences(element)) {
+                    return true;
+                }
+            }
+        }
+        if (value instanceof ObjectValue) {
+            for (ObjectField objectField : ((ObjectValue) value).getObjectFields()) {
+                if (hasVariableReferences(objectField.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * What is known ahead of execution about one {@link MergedField} of the normalized operation
+     */
+    public class FieldPlan {
+        private final ExecutableNormalizedField normalizedField;
+        private final MergedField mergedField;
+        private final Map<String, Object> arguments;
+        private final boolean normalizedFieldUsesVariables;
+        private final ConcurrentHashMap<GraphQLObjectType, MergedSelectionSet> subFields = new ConcurrentHashMap<>();
+
+        private FieldPlan(ExecutableNormalizedField normalizedField, MergedField mergedField, boolean argumentsUseVariables, boolean normalizedFieldUsesVariables) {
+            this.normalizedField = normalizedField;
+            this.mergedField = mergedField;
+            this.arguments = argumentsResolved && !argumentsUseVariables && hasRequestIndependentArguments(normalizedField)
+                    ? immutableCopy(normalizedField.getResolvedArguments())
+                    : null;
+            this.normalizedFieldUsesVariables = normalizedFieldUsesVariables;
+        }
+
+        /**
+         * @return the normalized field or null if its arguments, or those of the fields below it, have to be resolved during execution
+         */
+        public ExecutableNormalizedField getNormalizedField() {
+            return normalizedFieldUsesVariables ? null : normalizedField;
+        }
+
+        /**
+         * @return the resolved arguments of the field or null if they have to be resolved during execution
+         */
+        public Map<String, Object> getArguments() {
+            return arguments;
+        }
+
+        /**
+         * @param objectType the object type the field was resolved to
+         *
+         * @return the sub fields of the field for the object type
+         */
+        public MergedSelectionSet getSubFields(GraphQLObjectType objectType) {
+            MergedSelectionSet fields = subFields.get(objectType);
+            if (fields == null) {
+                MergedSelectionSet collected = fieldCollector.collectFields(collectorParameters(objectType), mergedField);
+                fields = normalizedSelection(normalizedField.getChildren(), objectType, collected);
+                subFields.putIfAbsent(objectType, fields);
+            }
+            return fields;
+        }
+    }
+}
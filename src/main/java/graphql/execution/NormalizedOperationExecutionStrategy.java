@@ -0,0 +1,113 @@
+package graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.normalized.ExecutableNormalizedField;
+import graphql.normalized.ExecutableNormalizedOperation;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLObjectType;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static graphql.execution.ExecutionStepInfo.newExecutionStepInfo;
+
+/**
+ * An execution strategy that runs fields asynchronously, just like {@link AsyncExecutionStrategy}, but executes the
+ * {@link ExecutableNormalizedOperation} of the operation instead of the fields it collects from the document.
+ * <p>
+ * The normalized operation is built once per set of values of the variables used by {@code @skip} and {@code @include}
+ * and kept in the {@link ExecutionPlan} of the document, after which requests no longer collect fields: each field
+ * executed is a field of the normalized operation, with its sub fields for each object type known.  Unless they use
+ * variables, its arguments are resolved ahead of time and its {@link ExecutableNormalizedField} is at hand for
+ * {@link graphql.schema.DataFetchingFieldSelectionSet}, otherwise they are resolved by each request.
+ * <p>
+ * This needs {@link graphql.GraphQL.Builder#executionPlanCaching(boolean)} and a
+ * {@link graphql.execution.preparsed.PreparsedDocumentProvider} that caches documents, such as the
+ * {@link graphql.execution.preparsed.CachingPreparsedDocumentProvider}.  Without them, or when the request has an
+ * {@link graphql.execution.values.InputInterceptor} or its variables can't be used to build the normalized operation,
+ * it executes just like {@link AsyncExecutionStrategy}.  Arguments are resolved as they would be during execution
+ * unless the schema has a field visibility other than the default one.
+ * <pre>
+ * {@code
+ *     GraphQL graphQL = GraphQL.newGraphQL(schema)
+ *             .queryExecutionStrategy(new NormalizedOperationExecutionStrategy())
+ *             .preparsedDocumentProvider(CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build())
+ *             .executionPlanCaching(true)
+ *             .build();
+ * }
+ * </pre>
+ */
+@ExperimentalApi
+public class NormalizedOperationExecutionStrategy extends AsyncExecutionStrategy {
+
+    public NormalizedOperationExecutionStrategy() {
+        super();
+    }
+
+    /**
+     * Creates a execution strategy that uses the provided exception handler
+     *
+     * @param exceptionHandler the exception handler to use
+     */
+    public NormalizedOperationExecutionStrategy(DataFetcherExceptionHandler exceptionHandler) {
+        super(exceptionHandler);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext, ExecutionStrategyParameters parameters) throws NonNullableFieldWasNullException {
+        NormalizedExecutionPlan normalizedExecutionPlan = executionContext.getNormalizedExecutionPlan();
+        if (normalizedExecutionPlan != null && parameters.getPath().isRootPath()) {
+            GraphQLObjectType operationRootType = (GraphQLObjectType) parameters.getExecutionStepInfo().getUnwrappedNonNullType();
+            MergedSelectionSet rootFields = normalizedExecutionPlan.getRootFields(operationRootType);
+            parameters = parameters.transform(builder -> builder.fields(rootFields));
+        }
+        return super.execute(executionContext, parameters);
+    }
+
+    @Override
+    protected MergedSelectionSet collectSubFields(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLObjectType resolvedObjectType) {
+        NormalizedExecutionPlan.FieldPlan fieldPlan = getFieldPlan(executionContext, parameters);
+        if (fieldPlan == null) {
+            return super.collectSubFields(executionContext, parameters, resolvedObjectType);
+        }
+        return fieldPlan.getSubFields(resolvedObjectType);
+    }
+
+    @Override
+    protected ExecutionStepInfo createExecutionStepInfo(ExecutionContext executionContext,
+                                                        ExecutionStrategyParameters parameters,
+                                                        GraphQLFieldDefinition fieldDefinition,
+                                                        GraphQLObjectType fieldContainer) {
+        NormalizedExecutionPlan.FieldPlan fieldPlan = getFieldPlan(executionContext, parameters);
+        Map<String, Object> arguments = fieldPlan == null ? null : fieldPlan.getArguments();
+        if (arguments == null) {
+            return super.createExecutionStepInfo(executionContext, parameters, fieldDefinition, fieldContainer);
+        }
+        return newExecutionStepInfo()
+                .type(fieldDefinition.getType())
+                .fieldDefinition(fieldDefinition)
+                .fieldContainer(fieldContainer)
+                .field(parameters.getField())
+                .path(parameters.getPath())
+                .parentInfo(parameters.getExecutionStepInfo())
+                .arguments(() -> arguments)
+                .build();
+    }
+
+    @Override
+    protected Supplier<ExecutableNormalizedField> getNormalizedField(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Supplier<ExecutionStepInfo> executionStepInfo) {
+        NormalizedExecutionPlan.FieldPlan fieldPlan = getFieldPlan(executionContext, parameters);
+        ExecutableNormalizedField normalizedField = fieldPlan == null ? null : fieldPlan.getNormalizedField();
+        if (normalizedField == null) {
+            return super.getNormalizedField(executionContext, parameters, executionStepInfo);
+        }
+        return () -> normalizedField;
+    }
+
+    private NormalizedExecutionPlan.FieldPlan getFieldPlan(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+        NormalizedExecutionPlan normalizedExecutionPlan = executionContext.getNormalizedExecutionPlan();
+        return normalizedExecutionPlan == null ? null : normalizedExecutionPlan.getFieldPlan(parameters.getField());
+    }
+}
@@ -36,35 +36,44 @@ public class ResultPath {
 
     private final ResultPath parent;
     private final Object segment;
+    // the number of segments and the number of named segments
+    private final int size;
+    private final int level;
+    private final int hash;
 
-    // hash is effective immutable but lazily initialized similar to the hash code of java.lang.String
-    private int hash;
+    // these are effective immutable but lazily initialized similar to the hash code of java.lang.String
+    private String toStringValue;
+    private List<Object> toListValue;
 
     private ResultPath() {
         parent = null;
         segment = null;
+        size = 0;
+        level = 0;
+        hash = 1;
     }
 
     private ResultPath(ResultPath parent, String segment) {
         this.parent = assertNotNull(parent, () -> "Must provide a parent path");
         this.segment = assertNotNull(segment, () -> "Must provide a sub path");
+        this.size = parent.size + 1;
+        this.level = parent.level + 1;
+        this.hash = 31 * parent.hash + segment.hashCode();
     }
 
     private ResultPath(ResultPath parent, int segment) {
         this.parent = assertNotNull(parent, () -> "Must provide a parent path");
         this.segment = segment;
+        this.size = parent.size + 1;
+        this.level = parent.level;
+        this.hash = 31 * parent.hash + Integer.hashCode(segment);
     }
 
+    /**
+     * @return the number of named segments in this path eg 2 for 'a/b[2]'
+     */
     public int getLevel() {
-        int counter = 0;
-        ResultPath currentPath = this;
-        while (currentPath != null) {
-            if (currentPath.segment instanceof String) {
-                counter++;
-            }
-            currentPath = currentPath.parent;
-        }
-        return counter;
+        return level;
     }
 
     public ResultPath getPathWithoutListEnd() {
@@ -253,13 +262,18 @@ public class ResultPath {
         if (parent == null) {
             return ImmutableKit.emptyList();
         }
-        LinkedList<Object> list = new LinkedList<>();
-        ResultPath p = this;
-        while (p.segment != null) {
-            list.addFirst(p.segment);
-            p = p.parent;
+        List<Object> list = toListValue;
+        if (list == null) {
+            Object[] segments = new Object[size];
+            ResultPath p = this;
+            for (int i = size - 1; i >= 0; i--) {
+                segments[i] = p.segment;
+                p = p.parent;
+            }
+            list = ImmutableList.copyOf(segments);
+            toListValue = list;
         }
-        return ImmutableList.copyOf(list);
+        return list;
     }
 
     /**
@@ -289,12 +303,13 @@ public class ResultPath {
         if (parent == null) {
             return "";
         }
-
-        if (ROOT_PATH.equals(parent)) {
-            return segmentToString();
+        String string = toStringValue;
+        if (string == null) {
+            // the strings of the parents are kept as well since they are shared by the sibling paths
+            string = parent.isRootPath() ? segmentToString() : parent.toString() + segmentToString();
+            toStringValue = string;
         }
-
-        return parent.toString() + segmentToString();
+        return string;
     }
 
     public String segmentToString() {
@@ -316,6 +331,9 @@ public class ResultPath {
 
         ResultPath self = this;
         ResultPath that = (ResultPath) o;
+        if (self.size != that.size || self.hash != that.hash) {
+            return false;
+        }
         while (self.segment != null && that.segment != null) {
             if (!Objects.equals(self.segment, that.segment)) {
                 return false;
@@ -329,18 +347,7 @@ public class ResultPath {
 
     @Override
     public int hashCode() {
-        int h = hash;
-        if (h == 0) {
-            h = 1;
-            ResultPath self = this;
-            while (self != null) {
-                Object value = self.segment;
-                h = 31 * h + (value == null ? 0 : value.hashCode());
-                self = self.parent;
-            }
-            hash = h;
-        }
-        return h;
+        return hash;
     }
 
 
@@ -0,0 +1,226 @@
+package graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.execution.reactive.MulticastPublisher;
+import graphql.execution.reactive.SubscriptionPublisher;
+import graphql.language.AstPrinter;
+import graphql.schema.GraphQLSchema;
+import org.reactivestreams.Publisher;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * Given to a {@link SubscriptionExecutionStrategy} this shares the event stream of a subscription between all the subscriptions
+ * that are the same, so that each event is executed once however many clients are subscribed to it.
+ * <p>
+ * Subscriptions are the same when they are made against the same schema with the same document, operation name and variables,
+ * and so the same arguments to the subscribed field.  The first of them calls the data fetcher of the subscribed field and
+ * the others share the event stream it returns.  Each event is then executed once and its {@link ExecutionResult} published
+ * to every subscriber, each of which still gets events only as fast as it asks for them.
+ * <p>
+ * This is only right when the events and the fields selected on them do not depend on who subscribed, since the events are
+ * executed with the {@link ExecutionContext} of the first subscription, its {@link graphql.GraphQLContext}, its data loaders,
+ * its instrumentation state and so on.  Sharing the subscriptions of different users would run the events of all of them as
+ * the first user, which can show one user the data of another, so no subscription is shared unless
+ * {@link Builder#shareWhen(Predicate)} says it can be.
+ * <p>
+ * A subscription that joins a shared event stream after it has ended makes its own subscription to the subscribed field,
+ * while one whose client subscribes to the shared event stream after it has ended is told it has ended.
+ * <pre>
+ * {@code
+ *     SharedSubscriptions sharedSubscriptions = SharedSubscriptions.newSharedSubscriptions()
+ *             .shareWhen(executionInput -> isPublicTopic(executionInput))
+ *             .build();
+ *     GraphQL graphQL = GraphQL.newGraphQL(schema)
+ *             .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), sharedSubscriptions))
+ *             .build();
+ * }
+ * </pre>
+ */
+@ExperimentalApi
+public class SharedSubscriptions {
+
+    private final int bufferSize;
+    private final Predicate<ExecutionInput> shareWhen;
+    private final ConcurrentHashMap<Key, Group> groups = new ConcurrentHashMap<>();
+
+    private SharedSubscriptions(Builder builder) {
+        this.bufferSize = builder.bufferSize;
+        this.shareWhen = builder.shareWhen;
+    }
+
+    /**
+     * @return how many events a subscriber can fall behind the others before the shared event stream waits for it
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of shared event streams that subscriptions can currently join
+     */
+    public int getSharedStreamCount() {
+        return groups.size();
+    }
+
+    /**
+     * Finds the group of subscriptions that a subscription belongs to
+     *
+     * @param executionContext the execution context of the subscription
+     *
+     * @return the group or null if the subscription is not to be shared
+     */
+    Group join(ExecutionContext executionContext) {
+        if (!shareWhen.test(executionContext.getExecutionInput())) {
+            return null;
+        }
+        Key key = new Key(executionContext);
+        Group group = groups.get(key);
+        if (group == null) {
+            group = groups.computeIfAbsent(key, Group::new);
+        }
+        return group;
+    }
+
+    /**
+     * The subscriptions that share an event stream
+     */
+    class Group {
+        private final Key key;
+        private final AtomicBoolean led = new AtomicBoolean();
+        private volatile boolean ended;
+        private final CompletableFuture<SubscriptionPublisher> sharedStream = new CompletableFuture<>();
+
+        private Group(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * @return true if the caller is the first subscription of the group, which must then create the event stream and
+         * either {@link #share(Publisher, Publisher)} it or {@link #fail()}
+         */
+        boolean lead() {
+            return led.compareAndSet(false, true);
+        }
+
+        /**
+         * @return the shared event stream, which is null if the first subscription could not share one
+         */
+        CompletableFuture<SubscriptionPublisher> getSharedStream() {
+            return sharedStream;
+        }
+
+        /**
+         * @return true once the shared event stream has ended, after which the subscriptions joining the group must make their own
+         */
+        boolean hasEnded() {
+            return ended;
+        }
+
+        SubscriptionPublisher share(Publisher<Object> sourceEventStream, Publisher<ExecutionResult> executionResults) {
+            MulticastPublisher<ExecutionResult> multicast = new MulticastPublisher<>(executionResults, bufferSize, this::end);
+            SubscriptionPublisher subscriptionPublisher = SubscriptionPublisher.ofExecutionResults(sourceEventStream, multicast);
+            sharedStream.complete(subscriptionPublisher);
+            return subscriptionPublisher;
+        }
+
+        void fail() {
+            remove();
+            sharedStream.complete(null);
+        }
+
+        private void end() {
+            ended = true;
+            remove();
+        }
+
+        private void remove() {
+            // the subscriptions that have already joined keep their stream, later ones start a new group
+            groups.remove(key, this);
+        }
+    }
+
+    private static class Key {
+        private final GraphQLSchema schema;
+        private final String document;
+        private final String operationName;
+        private final Map<String, Object> variables;
+        private final int hashCode;
+
+        private Key(ExecutionContext executionContext) {
+            this.schema = executionContext.getGraphQLSchema();
+            this.document = AstPrinter.printAstCompact(executionContext.getDocument());
+            this.operationName = executionContext.getExecutionInput().getOperationName();
+            this.variables = executionContext.getCoercedVariables().toMap();
+            this.hashCode = Objects.hash(System.identityHashCode(schema), document, operationName, variables);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return schema == that.schema
+                    && hashCode == that.hashCode
+                    && document.equals(that.document)
+                    && Objects.equals(operationName, that.operationName)
+                    && variables.equals(that.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    public static Builder newSharedSubscriptions() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int bufferSize = 64;
+        private Predicate<ExecutionInput> shareWhen = executionInput -> false;
+
+        /**
+         * @param bufferSize how many events a subscriber can fall behind the others before the shared event stream waits for it, 64 by default
+         *
+         * @return this builder
+         */
+        public Builder bufferSize(int bufferSize) {
+            assertTrue(bufferSize > 0, () -> "bufferSize must be greater than 0");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Subscriptions that are shared have their events executed as the first of them, so only allow subscriptions to be
+         * shared when what they see does not depend on who made them, say because they are to public topics.
+         *
+         * @param shareWhen decides which subscriptions can be shared, none of them by default
+         *
+         * @return this builder
+         */
+        public Builder shareWhen(Predicate<ExecutionInput> shareWhen) {
+            this.shareWhen = assertNotNull(shareWhen, () -> "shareWhen can't be null");
+            return this;
+        }
+
+        public SharedSubscriptions build() {
+            return new SharedSubscriptions(this);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * Given to a {@link SubscriptionExecutionStrategy} this gathers the events of a subscription into batches and executes
+ * each batch in one pass, which suits subscriptions to topics with a high rate of events.
+ * <p>
+ * A batch is executed once it has {@link Builder#maxBatchSize(int)} events or once {@link Builder#maxDelay(Duration)} has
+ * passed since its first event, whichever comes first, so no event waits longer than that to be executed.
+ * <p>
+ * The events of a batch are completed as one list of the subscribed field, so the execution context and step info of
+ * the subscribed field are set up once per batch rather than once per event.  Instrumentation is told about the
+ * subscribed field once per batch.
+ * <p>
+ * By default the completed list is split back up and each event of a batch is published as its own {@link ExecutionResult},
+ * in order, just as without batching.  A null in one event does not make the other events null.  An error is given to its
+ * event by the index of the event in its path, and the index is taken out of the path again.  An error without a path,
+ * other than the ones an event brings along in a {@link DataFetcherResult}, can't be told apart and is given to every
+ * event of its batch, so data fetchers should give their errors a path, say via
+ * {@link graphql.GraphqlErrorBuilder#newError(graphql.schema.DataFetchingEnvironment)}.  The message of an error still
+ * reads as it was raised, so a message that names a path names the one the event had in its batch.
+ * <p>
+ * With {@link Builder#batchedResults(boolean)} a batch is instead published as one {@link ExecutionResult} whose data holds
+ * the list of results of its events under the subscribed field, say {@code {"stockPrice" : [{...}, {...}]}}, with
+ * any errors having the index of their event in their path.  An event that is null for a non null subscribed field
+ * makes the data of the whole batch null.
+ * <pre>
+ * {@code
+ *     SubscriptionEventBatching batching = SubscriptionEventBatching.newSubscriptionEventBatching()
+ *             .maxBatchSize(500)
+ *             .maxDelay(Duration.ofMillis(50))
+ *             .batchedResults(true)
+ *             .build();
+ *     GraphQL graphQL = GraphQL.newGraphQL(schema)
+ *             .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, batching))
+ *             .build();
+ * }
+ * </pre>
+ */
+@ExperimentalApi
+public class SubscriptionEventBatching {
+
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final boolean batchedResults;
+    private final ScheduledExecutorService scheduler;
+
+    private SubscriptionEventBatching(Builder builder) {
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelay = builder.maxDelay;
+        this.batchedResults = builder.batchedResults;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * @return the most events executed in one batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return the longest an event waits for its batch to fill up
+     */
+    public Duration getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * @return true if a batch is published as one {@link ExecutionResult} rather than one per event
+     */
+    public boolean isBatchedResults() {
+        return batchedResults;
+    }
+
+    /**
+     * @return the scheduler that executes the batches that do not fill up in time
+     */
+    public ScheduledExecutorService getScheduler() {
+        return scheduler != null ? scheduler : DefaultScheduler.INSTANCE;
+    }
+
+    private static class DefaultScheduler {
+        // created only when it's first needed
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "graphql-java-subscription-batching");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static Builder newSubscriptionEventBatching() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxBatchSize = 100;
+        private Duration maxDelay = Duration.ofMillis(10);
+        private boolean batchedResults = false;
+        private ScheduledExecutorService scheduler;
+
+        /**
+         * @param maxBatchSize the most events executed in one batch, 100 by default
+         *
+         * @return this builder
+         */
+        public Builder maxBatchSize(int maxBatchSize) {
+            assertTrue(maxBatchSize > 0, () -> "maxBatchSize must be greater than 0");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param maxDelay the longest an event waits for its batch to fill up, 10 milliseconds by default
+         *
+         * @return this builder
+         */
+        public Builder maxDelay(Duration maxDelay) {
+            assertNotNull(maxDelay, () -> "maxDelay can't be null");
+            assertTrue(!maxDelay.isNegative() && !maxDelay.isZero(), () -> "maxDelay must be greater than zero");
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * @param batchedResults true to publish a batch as one {@link ExecutionResult} rather than one per event, false by default
+         *
+         * @return this builder
+         */
+        public Builder batchedResults(boolean batchedResults) {
+            this.batchedResults = batchedResults;
+            return this;
+        }
+
+        /**
+         * @param scheduler the scheduler that executes the batches that do not fill up in time, by default a shared daemon thread
+         *
+         * @return this builder
+         */
+        public Builder scheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = assertNotNull(scheduler, () -> "scheduler can't be null");
+            return this;
+        }
+
+        public SubscriptionEventBatching build() {
+            return new SubscriptionEventBatching(this);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package graphql.execution;
 
+import graphql.ErrorClassification;
 import graphql.ExecutionResult;
 import graphql.ExecutionResultImpl;
+import graphql.ExperimentalApi;
+import graphql.GraphQLError;
 import graphql.PublicApi;
 import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
 import graphql.execution.instrumentation.Instrumentation;
@@ -9,14 +12,26 @@ import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationSubscriptionEventParameters;
+import graphql.execution.reactive.BatchingPublisher;
+import graphql.execution.reactive.CompletionStageMappingPublisher;
+import graphql.execution.reactive.FlatteningPublisher;
 import graphql.execution.reactive.SubscriptionPublisher;
 import graphql.language.Field;
+import graphql.language.SourceLocation;
 import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
 import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLTypeUtil;
 import org.reactivestreams.Publisher;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import static graphql.Assert.assertTrue;
@@ -30,6 +45,10 @@ import static java.util.Collections.singletonMap;
  * Afterwards each object delivered on that stream will be mapped via running the original selection set over that object and hence producing an ExecutionResult
  * just like a normal graphql query.
  * <p>
+ * Given {@link SharedSubscriptions} the subscriptions that are the same share one event stream and each event is executed once for all of them.
+ * <p>
+ * Given {@link SubscriptionEventBatching} the events are gathered into batches and each batch is executed in one pass.
+ * <p>
  * See <a href="https://spec.graphql.org/draft/#sec-Subscription">https://spec.graphql.org/draft/#sec-Subscription</a>
  * <p>
  * See <a href="https://www.reactive-streams.org/">https://www.reactive-streams.org/</a>
@@ -37,12 +56,42 @@ import static java.util.Collections.singletonMap;
 @PublicApi
 public class SubscriptionExecutionStrategy extends ExecutionStrategy {
 
+    private final SharedSubscriptions sharedSubscriptions;
+    private final SubscriptionEventBatching eventBatching;
+
     public SubscriptionExecutionStrategy() {
         super();
+        this.sharedSubscriptions = null;
+        this.eventBatching = null;
     }
 
     public SubscriptionExecutionStrategy(DataFetcherExceptionHandler dataFetcherExceptionHandler) {
+        this(dataFetcherExceptionHandler, null);
+    }
+
+    /**
+     * Creates a strategy that shares the event streams of subscriptions that are the same
+     *
+     * @param dataFetcherExceptionHandler the exception handler to use
+     * @param sharedSubscriptions         the shared event streams, which can be null to not share any
+     */
+    @ExperimentalApi
+    public SubscriptionExecutionStrategy(DataFetcherExceptionHandler dataFetcherExceptionHandler, SharedSubscriptions sharedSubscriptions) {
+        this(dataFetcherExceptionHandler, sharedSubscriptions, null);
+    }
+
+    /**
+     * Creates a strategy that shares the event streams of subscriptions that are the same and executes their events in batches
+     *
+     * @param dataFetcherExceptionHandler the exception handler to use
+     * @param sharedSubscriptions         the shared event streams, which can be null to not share any
+     * @param eventBatching               how to batch the events, which can be null to execute each event on its own
+     */
+    @ExperimentalApi
+    public SubscriptionExecutionStrategy(DataFetcherExceptionHandler dataFetcherExceptionHandler, SharedSubscriptions sharedSubscriptions, SubscriptionEventBatching eventBatching) {
         super(dataFetcherExceptionHandler);
+        this.sharedSubscriptions = sharedSubscriptions;
+        this.eventBatching = eventBatching;
     }
 
     @Override
@@ -55,26 +104,118 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
                 executionContext.getInstrumentationState()
         ));
 
+        SharedSubscriptions.Group group = sharedSubscriptions == null ? null : sharedSubscriptions.join(executionContext);
+        CompletableFuture<ExecutionResult> overallResult;
+        if (group == null) {
+            overallResult = subscribe(executionContext, parameters);
+        } else if (group.lead()) {
+            overallResult = subscribeAndShare(executionContext, parameters, group);
+        } else {
+            // if the first subscription could not be shared, or its stream has ended, then this one goes its own way
+            overallResult = group.getSharedStream().thenCompose(sharedStream -> sharedStream == null || group.hasEnded()
+                    ? subscribe(executionContext, parameters)
+                    : CompletableFuture.completedFuture(new ExecutionResultImpl(sharedStream, executionContext.getErrors())));
+        }
+
+        // dispatched the subscription query
+        executionStrategyCtx.onDispatched(overallResult);
+        overallResult.whenComplete(executionStrategyCtx::onCompleted);
+
+        return overallResult;
+    }
+
+
+    private CompletableFuture<ExecutionResult> subscribe(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
         CompletableFuture<Publisher<Object>> sourceEventStream = createSourceEventStream(executionContext, parameters);
 
         //
         // when the upstream source event stream completes, subscribe to it and wire in our adapter
-        CompletableFuture<ExecutionResult> overallResult = sourceEventStream.thenApply((publisher) -> {
+        return sourceEventStream.thenApply((publisher) -> {
             if (publisher == null) {
                 return new ExecutionResultImpl(null, executionContext.getErrors());
             }
-            Function<Object, CompletionStage<ExecutionResult>> mapperFunction = eventPayload -> executeSubscriptionEvent(executionContext, parameters, eventPayload);
-            SubscriptionPublisher mapSourceToResponse = new SubscriptionPublisher(publisher, mapperFunction);
+            SubscriptionPublisher mapSourceToResponse = SubscriptionPublisher.ofExecutionResults(publisher, executionResults(executionContext, parameters, publisher));
             return new ExecutionResultImpl(mapSourceToResponse, executionContext.getErrors());
         });
+    }
 
-        // dispatched the subscription query
-        executionStrategyCtx.onDispatched(overallResult);
-        overallResult.whenComplete(executionStrategyCtx::onCompleted);
+    private CompletableFuture<ExecutionResult> subscribeAndShare(ExecutionContext executionContext, ExecutionStrategyParameters parameters, SharedSubscriptions.Group group) {
+        CompletableFuture<Publisher<Object>> sourceEventStream = createSourceEventStream(executionContext, parameters);
 
+        CompletableFuture<ExecutionResult> overallResult = sourceEventStream.thenApply((publisher) -> {
+            if (publisher == null || !executionContext.getErrors().isEmpty()) {
+                // the others in the group should not see the errors of this subscription
+                group.fail();
+                SubscriptionPublisher mapSourceToResponse = publisher == null ? null : SubscriptionPublisher.ofExecutionResults(publisher, executionResults(executionContext, parameters, publisher));
+                return new ExecutionResultImpl(mapSourceToResponse, executionContext.getErrors());
+            }
+            // the events are executed once, with the execution context of this subscription, for the whole group
+            return new ExecutionResultImpl(group.share(publisher, executionResults(executionContext, parameters, publisher)), executionContext.getErrors());
+        });
+        overallResult.whenComplete((executionResult, throwable) -> {
+            if (throwable != null) {
+                group.fail();
+            }
+        });
         return overallResult;
     }
 
+    /*
+     * The events are executed concurrently, but no more than a bounded number at a time, and their results published in the order of the events
+     */
+    private Publisher<ExecutionResult> executionResults(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Publisher<Object> sourceEventStream) {
+        if (eventBatching != null) {
+            return batchedExecutionResults(executionContext, parameters, sourceEventStream);
+        }
+        Function<Object, CompletionStage<ExecutionResult>> mapperFunction = eventPayload -> executeSubscriptionEvent(executionContext, parameters, eventPayload);
+        CompletionStageMappingPublisher.MappingObserver<Object, ExecutionResult> mappingObserver = (eventPayload, inFlight) ->
+                beginSubscriptionEvent(executionContext, eventPayload, inFlight);
+        return new CompletionStageMappingPublisher<>(sourceEventStream, mapperFunction, CompletionStageMappingPublisher.DEFAULT_MAX_IN_FLIGHT, mappingObserver);
+    }
+
+    /*
+     * The same but the events are gathered into batches first, and the batches are what is in flight
+     */
+    private Publisher<ExecutionResult> batchedExecutionResults(ExecutionContext executionContext, ExecutionStrategyParameters parameters, Publisher<Object> sourceEventStream) {
+        BatchingPublisher<Object> batches = new BatchingPublisher<>(sourceEventStream, eventBatching.getMaxBatchSize(), eventBatching.getMaxDelay(), eventBatching.getScheduler());
+        if (eventBatching.isBatchedResults()) {
+            Function<List<Object>, CompletionStage<ExecutionResult>> mapperFunction = eventPayloads -> executeSubscriptionEvents(executionContext, parameters, eventPayloads);
+            CompletionStageMappingPublisher.MappingObserver<List<Object>, ExecutionResult> mappingObserver = (eventPayloads, inFlight) ->
+                    beginSubscriptionEvent(executionContext, eventPayloads, inFlight);
+            return new CompletionStageMappingPublisher<>(batches, mapperFunction, CompletionStageMappingPublisher.DEFAULT_MAX_IN_FLIGHT, mappingObserver);
+        }
+        Function<List<Object>, CompletionStage<List<ExecutionResult>>> mapperFunction = eventPayloads -> executeSubscriptionEventsSeparately(executionContext, parameters, eventPayloads);
+        CompletionStageMappingPublisher.MappingObserver<List<Object>, List<ExecutionResult>> mappingObserver = (eventPayloads, inFlight) -> {
+            List<BiConsumer<ExecutionResult, Throwable>> publishedEvents = new ArrayList<>(eventPayloads.size());
+            for (Object eventPayload : eventPayloads) {
+                publishedEvents.add(beginSubscriptionEvent(executionContext, eventPayload, inFlight));
+            }
+            return (executionResults, throwable) -> {
+                for (int i = 0; i < publishedEvents.size(); i++) {
+                    publishedEvents.get(i).accept(throwable == null ? executionResults.get(i) : null, throwable);
+                }
+            };
+        };
+        return new FlatteningPublisher<>(new CompletionStageMappingPublisher<>(batches, mapperFunction, CompletionStageMappingPublisher.DEFAULT_MAX_IN_FLIGHT, mappingObserver));
+    }
+
+    private BiConsumer<ExecutionResult, Throwable> beginSubscriptionEvent(ExecutionContext executionContext, Object eventPayload, int inFlight) {
+        Instrumentation instrumentation = executionContext.getInstrumentation();
+        InstrumentationSubscriptionEventParameters i13nParameters = new InstrumentationSubscriptionEventParameters(executionContext, eventPayload, inFlight);
+        InstrumentationContext<ExecutionResult> subscriptionEventCtx = nonNullCtx(instrumentation.beginSubscriptionEvent(
+                i13nParameters, executionContext.getInstrumentationState()
+        ));
+        CompletableFuture<ExecutionResult> published = new CompletableFuture<>();
+        subscriptionEventCtx.onDispatched(published);
+        published.whenComplete(subscriptionEventCtx::onCompleted);
+        return (executionResult, throwable) -> {
+            if (throwable != null) {
+                published.completeExceptionally(throwable);
+            } else {
+                published.complete(executionResult);
+            }
+        };
+    }
 
     /*
         https://github.com/facebook/graphql/blob/master/spec/Section%206%20--%20Execution.md
@@ -150,6 +291,134 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
         return overallResult;
     }
 
+    /*
+     * Executes a batch of events as one list of the subscribed field and publishes it as one result
+     */
+    private CompletableFuture<ExecutionResult> executeSubscriptionEvents(ExecutionContext executionContext, ExecutionStrategyParameters parameters, List<Object> eventPayloads) {
+        Instrumentation instrumentation = executionContext.getInstrumentation();
+
+        ExecutionStrategyParameters newParameters = firstFieldOfSubscriptionSelection(parameters);
+        ExecutionStepInfo subscribedFieldStepInfo = createSubscribedFieldStepInfo(executionContext, newParameters);
+
+        InstrumentationFieldParameters i13nFieldParameters = new InstrumentationFieldParameters(executionContext, () -> subscribedFieldStepInfo);
+        InstrumentationContext<ExecutionResult> subscribedFieldCtx = nonNullCtx(instrumentation.beginSubscribedFieldEvent(
+                i13nFieldParameters, executionContext.getInstrumentationState()
+        ));
+
+        CompletableFuture<ExecutionResult> overallResult = completeSubscriptionEvents(executionContext, newParameters, subscribedFieldStepInfo, subscribedFieldStepInfo.getType(), eventPayloads)
+                .thenApply(executionResult -> wrapWithRootFieldName(newParameters, executionResult));
+
+        subscribedFieldCtx.onDispatched(overallResult);
+        overallResult.whenComplete(subscribedFieldCtx::onCompleted);
+
+        InstrumentationExecutionParameters i13nExecutionParameters = new InstrumentationExecutionParameters(
+                executionContext.getExecutionInput(), executionContext.getGraphQLSchema(), executionContext.getInstrumentationState());
+
+        overallResult = overallResult.thenCompose(executionResult -> instrumentation.instrumentExecutionResult(executionResult, i13nExecutionParameters, executionContext.getInstrumentationState()));
+        return overallResult;
+    }
+
+    /*
+     * Executes a batch of events as one list of the subscribed field too, but splits the completed list back into one result
+     * per event.  The events are completed as nullable list elements, so that a null in one event does not make the
+     * others null, and a null event of a non null subscribed field makes the data of its own result null.
+     */
+    private CompletableFuture<List<ExecutionResult>> executeSubscriptionEventsSeparately(ExecutionContext executionContext, ExecutionStrategyParameters parameters, List<Object> eventPayloads) {
+        Instrumentation instrumentation = executionContext.getInstrumentation();
+
+        ExecutionStrategyParameters newParameters = firstFieldOfSubscriptionSelection(parameters);
+        ExecutionStepInfo subscribedFieldStepInfo = createSubscribedFieldStepInfo(executionContext, newParameters);
+
+        InstrumentationFieldParameters i13nFieldParameters = new InstrumentationFieldParameters(executionContext, () -> subscribedFieldStepInfo);
+        InstrumentationContext<ExecutionResult> subscribedFieldCtx = nonNullCtx(instrumentation.beginSubscribedFieldEvent(
+                i13nFieldParameters, executionContext.getInstrumentationState()
+        ));
+
+        // the errors that events bring along in a DataFetcherResult have no path to tell them apart by, so they are taken out first
+        List<List<GraphQLError>> eventErrors = new ArrayList<>(eventPayloads.size());
+        List<Object> events = new ArrayList<>(eventPayloads.size());
+        for (Object eventPayload : eventPayloads) {
+            if (eventPayload instanceof DataFetcherResult && ((DataFetcherResult<?>) eventPayload).hasErrors()) {
+                DataFetcherResult<?> dataFetcherResult = (DataFetcherResult<?>) eventPayload;
+                eventErrors.add(new ArrayList<>(dataFetcherResult.getErrors()));
+                events.add(dataFetcherResult.transform(DataFetcherResult.Builder::clearErrors));
+            } else {
+                eventErrors.add(new ArrayList<>());
+                events.add(eventPayload);
+            }
+        }
+
+        GraphQLOutputType eventType = (GraphQLOutputType) GraphQLTypeUtil.unwrapNonNull(subscribedFieldStepInfo.getType());
+        CompletableFuture<ExecutionResult> batchResult = completeSubscriptionEvents(executionContext, newParameters, subscribedFieldStepInfo, eventType, events);
+
+        subscribedFieldCtx.onDispatched(batchResult);
+        batchResult.whenComplete(subscribedFieldCtx::onCompleted);
+
+        InstrumentationExecutionParameters i13nExecutionParameters = new InstrumentationExecutionParameters(
+                executionContext.getExecutionInput(), executionContext.getGraphQLSchema(), executionContext.getInstrumentationState());
+
+        return batchResult.thenCompose(executionResult -> {
+            List<ExecutionResult> eventResults = splitSubscriptionEvents(newParameters, subscribedFieldStepInfo, executionResult, eventErrors);
+            // allow them to instrument each ER should they want to
+            return Async.each(eventResults, eventResult -> instrumentation.instrumentExecutionResult(eventResult, i13nExecutionParameters, executionContext.getInstrumentationState()));
+        });
+    }
+
+    /*
+     * Completes the events of a batch as one list, so the execution context and step info are set up once per batch rather than
+     * once per event.  The errors of the events are gathered in the one execution context and have the index of their event
+     * in their path.
+     */
+    private CompletableFuture<ExecutionResult> completeSubscriptionEvents(ExecutionContext executionContext, ExecutionStrategyParameters newParameters, ExecutionStepInfo subscribedFieldStepInfo, GraphQLOutputType eventType, List<Object> eventPayloads) {
+        ExecutionContext newExecutionContext = executionContext.transform(builder -> builder
+                .root(eventPayloads)
+                .resetErrors()
+        );
+        ExecutionStepInfo batchStepInfo = subscribedFieldStepInfo.transform(builder -> builder.type(GraphQLList.list(eventType)));
+        ExecutionStrategyParameters batchParameters = newParameters.transform(builder -> builder
+                .executionStepInfo(batchStepInfo)
+                .source(eventPayloads)
+                .nonNullFieldValidator(new NonNullableFieldValidator(newExecutionContext, batchStepInfo))
+        );
+        return completeValueForList(newExecutionContext, batchParameters, eventPayloads).getFieldValue();
+    }
+
+    private List<ExecutionResult> splitSubscriptionEvents(ExecutionStrategyParameters parameters, ExecutionStepInfo subscribedFieldStepInfo, ExecutionResult batchResult, List<List<GraphQLError>> eventErrors) {
+        String rootFieldName = getRootFieldName(parameters);
+        int eventCount = eventErrors.size();
+        for (GraphQLError error : batchResult.getErrors()) {
+            List<Object> path = error.getPath();
+            if (path != null && path.size() > 1 && path.get(1) instanceof Integer) {
+                int index = (Integer) path.get(1);
+                List<Object> eventPath = new ArrayList<>(path.size() - 1);
+                eventPath.add(path.get(0));
+                eventPath.addAll(path.subList(2, path.size()));
+                eventErrors.get(index).add(new SubscriptionEventError(error, eventPath));
+            } else {
+                // without the index of an event it can't be told which event it belongs to, so every event is told about it
+                eventErrors.forEach(errors -> errors.add(error));
+            }
+        }
+
+        List<Object> values = batchResult.getData();
+        List<ExecutionResult> eventResults = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            Object value = values == null ? null : values.get(i);
+            List<GraphQLError> errors = eventErrors.get(i);
+            if (value == null && subscribedFieldStepInfo.isNonNullType()) {
+                if (errors.isEmpty()) {
+                    // the event itself was null, which is the error a non null subscribed field reports on its own
+                    ResultPath path = parameters.getPath();
+                    errors.add(new NonNullableFieldWasNullError(new NonNullableFieldWasNullException(subscribedFieldStepInfo, path)));
+                }
+                eventResults.add(new ExecutionResultImpl(null, errors));
+            } else {
+                eventResults.add(new ExecutionResultImpl(singletonMap(rootFieldName, value), errors));
+            }
+        }
+        return eventResults;
+    }
+
     private ExecutionResult wrapWithRootFieldName(ExecutionStrategyParameters parameters, ExecutionResult executionResult) {
         String rootFieldName = getRootFieldName(parameters);
         return new ExecutionResultImpl(
@@ -177,4 +446,42 @@ public class SubscriptionExecutionStrategy extends ExecutionStrategy {
         GraphQLFieldDefinition fieldDef = getFieldDef(executionContext.getGraphQLSchema(), parentType, field);
         return createExecutionStepInfo(executionContext, parameters, fieldDef, parentType);
     }
+
+    /*
+     * An error of an event in a batch, with the index of the event taken out of its path
+     */
+    private static class SubscriptionEventError implements GraphQLError {
+        private final GraphQLError error;
+        private final List<Object> path;
+
+        private SubscriptionEventError(GraphQLError error, List<Object> path) {
+            this.error = error;
+            this.path = path;
+        }
+
+        @Override
+        public String getMessage() {
+            return error.getMessage();
+        }
+
+        @Override
+        public List<SourceLocation> getLocations() {
+            return error.getLocations();
+        }
+
+        @Override
+        public ErrorClassification getErrorType() {
+            return error.getErrorType();
+        }
+
+        @Override
+        public List<Object> getPath() {
+            return path;
+        }
+
+        @Override
+        public Map<String, Object> getExtensions() {
+            return error.getExtensions();
+        }
+    }
 }
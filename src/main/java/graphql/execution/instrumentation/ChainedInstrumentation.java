@@ -16,6 +16,7 @@ import graphql.execution.instrumentation.parameters.InstrumentationExecutionStra
 import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationSubscriptionEventParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
 import graphql.language.Document;
 import graphql.schema.DataFetcher;
@@ -179,6 +180,14 @@ public class ChainedInstrumentation implements Instrumentation {
         });
     }
 
+    @Override
+    public InstrumentationContext<ExecutionResult> beginSubscriptionEvent(InstrumentationSubscriptionEventParameters parameters, InstrumentationState state) {
+        return chainedCtx(instrumentation -> {
+            InstrumentationState specificState = getSpecificState(instrumentation, state);
+            return instrumentation.beginSubscriptionEvent(parameters, specificState);
+        });
+    }
+
     @Override
     @NotNull
     public InstrumentationContext<ExecutionResult> beginField(InstrumentationFieldParameters parameters) {
@@ -3,6 +3,7 @@ package graphql.execution.instrumentation;
 import graphql.DeprecatedAt;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
 import graphql.PublicSpi;
 import graphql.execution.ExecutionContext;
 import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
@@ -12,6 +13,7 @@ import graphql.execution.instrumentation.parameters.InstrumentationExecutionStra
 import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationSubscriptionEventParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
 import graphql.language.Document;
 import graphql.schema.DataFetcher;
@@ -234,6 +236,9 @@ public interface Instrumentation {
 
     /**
      * This is called each time a subscription field produces a new reactive stream event value and it needs to be mapped over via the graphql field subselection.
+     * <p>
+     * See {@link #beginSubscriptionEvent(InstrumentationSubscriptionEventParameters, InstrumentationState)} for a step that also
+     * covers the time an event waits before it is published.
      *
      * @param parameters the parameters to this step
      * @param state      the state created during the call to {@link #createState(InstrumentationCreateStateParameters)}
@@ -245,6 +250,31 @@ public interface Instrumentation {
         return beginSubscribedFieldEvent(parameters.withNewState(state));
     }
 
+    /**
+     * This is called each time a subscription field produces a new reactive stream event value, before it is mapped over via the
+     * graphql field subselection.  The parameters say how many events of the subscription are then in flight, that is being
+     * executed or waiting for the events before them to be published, and the step ends when the {@link ExecutionResult} of
+     * the event is published, so it covers the time the event spent waiting as well as executing.  If the event is never
+     * published, because the subscription was cancelled or an earlier event failed, the step ends with a
+     * {@link java.util.concurrent.CancellationException}.
+     * <p>
+     * This differs from {@link #beginSubscribedFieldEvent(InstrumentationFieldParameters, InstrumentationState)}, which is
+     * called once the event is executed and only covers executing the subselection, and which is called once per batch
+     * when {@link graphql.execution.SubscriptionEventBatching} gathers the events into batches.  This one is called as the
+     * event arrives and once per event, unless the batches are published as single results in which case it is called
+     * once per batch with the list of the events as the payload.
+     *
+     * @param parameters the parameters to this step
+     * @param state      the state created during the call to {@link #createState(InstrumentationCreateStateParameters)}
+     *
+     * @return a nullable {@link InstrumentationContext} object that will be called back when the step ends (assuming it's not null)
+     */
+    @ExperimentalApi
+    @Nullable
+    default InstrumentationContext<ExecutionResult> beginSubscriptionEvent(InstrumentationSubscriptionEventParameters parameters, InstrumentationState state) {
+        return noOp();
+    }
+
     /**
      * This is called just before a field is resolved into a value.
      *
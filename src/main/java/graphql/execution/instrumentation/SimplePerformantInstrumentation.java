@@ -11,6 +11,7 @@ import graphql.execution.instrumentation.parameters.InstrumentationExecutionStra
 import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationSubscriptionEventParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationValidationParameters;
 import graphql.language.Document;
 import graphql.schema.DataFetcher;
@@ -116,6 +117,11 @@ public class SimplePerformantInstrumentation implements Instrumentation {
         return noOp();
     }
 
+    @Override
+    public @Nullable InstrumentationContext<ExecutionResult> beginSubscriptionEvent(InstrumentationSubscriptionEventParameters parameters, InstrumentationState state) {
+        return noOp();
+    }
+
     @Override
     public @NotNull InstrumentationContext<ExecutionResult> beginField(InstrumentationFieldParameters parameters) {
         return assertShouldNeverHappen("The deprecated " + "beginField" + " was called");
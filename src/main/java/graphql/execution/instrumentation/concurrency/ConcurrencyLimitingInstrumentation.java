@@ -0,0 +1,150 @@
+package graphql.execution.instrumentation.concurrency;
+
+import graphql.ExperimentalApi;
+import graphql.TrivialDataFetcher;
+import graphql.execution.Async;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * This {@link graphql.execution.instrumentation.Instrumentation} caps the number of data fetcher invocations that a single
+ * request can have in flight at the same time, so that one large query can't fan out thousands of fetches and take over the
+ * executors that the fetches of other requests run on.
+ * <p>
+ * A fetch is in flight from the time its {@link DataFetcher} is called until the value it returns is complete.  While a request
+ * is at its limit its further fetches are queued, breadth first so the fields nearer the root of the query go first, and they are
+ * called as the fetches in flight complete.  A queued fetch is called on the thread that completed the fetch before it.
+ * <p>
+ * A queued fetch counts as fetched for the {@link graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation}
+ * as soon as it is queued, so the data loaders of its level may be dispatched before it is called.  So the
+ * {@link org.dataloader.DataLoaderRegistry} of the request is dispatched again after queued fetches have been called, which
+ * means the values a level loads can come in more than one batch when the level has more fetches than the limit.
+ * <p>
+ * Give it a {@link FetchQueueObserver} to record how deep the queue gets and how long fetches wait in it.
+ * <pre>
+ * {@code
+ *     GraphQL graphQL = GraphQL.newGraphQL(schema)
+ *             .instrumentation(ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation()
+ *                     .maxConcurrentFetches(32)
+ *                     .fetchQueueObserver(metrics)
+ *                     .build())
+ *             .build();
+ * }
+ * </pre>
+ * {@link TrivialDataFetcher}s are never limited.
+ */
+@ExperimentalApi
+public class ConcurrencyLimitingInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final FetchQueueObserver NOOP = new FetchQueueObserver() {
+    };
+
+    private final int maxConcurrentFetches;
+    private final FetchQueueObserver fetchQueueObserver;
+
+    private ConcurrencyLimitingInstrumentation(int maxConcurrentFetches, FetchQueueObserver fetchQueueObserver) {
+        this.maxConcurrentFetches = maxConcurrentFetches;
+        this.fetchQueueObserver = fetchQueueObserver;
+    }
+
+    /**
+     * @return the maximum number of fetches a request can have in flight at the same time
+     */
+    public int getMaxConcurrentFetches() {
+        return maxConcurrentFetches;
+    }
+
+    @Override
+    public @Nullable InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        return new FetchScheduler(maxConcurrentFetches, null, fetchQueueObserver);
+    }
+
+    @Override
+    public @NotNull DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (dataFetcher instanceof TrivialDataFetcher || !(state instanceof FetchScheduler)) {
+            return dataFetcher;
+        }
+        FetchScheduler scheduler = (FetchScheduler) state;
+        return environment -> {
+            if (scheduler.tryAcquire()) {
+                return invokeWithPermit(dataFetcher, environment, scheduler);
+            }
+            return scheduler.schedule(environment, () -> invokeQueued(dataFetcher, environment)).thenCompose(value -> value);
+        };
+    }
+
+    private static Object invokeWithPermit(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment, FetchScheduler scheduler) throws Exception {
+        Object value;
+        try {
+            value = dataFetcher.get(environment);
+        } catch (Exception e) {
+            scheduler.release();
+            throw e;
+        }
+        if (value instanceof CompletionStage) {
+            ((CompletionStage<?>) value).whenComplete((v, t) -> scheduler.release());
+        } else {
+            scheduler.release();
+        }
+        return value;
+    }
+
+    private static CompletionStage<?> invokeQueued(DataFetcher<?> dataFetcher, DataFetchingEnvironment environment) {
+        Object value;
+        try {
+            value = dataFetcher.get(environment);
+        } catch (Exception e) {
+            return Async.exceptionallyCompletedFuture(e);
+        }
+        if (value instanceof CompletionStage) {
+            return (CompletionStage<?>) value;
+        }
+        return CompletableFuture.completedFuture(value);
+    }
+
+    public static Builder newConcurrencyLimitingInstrumentation() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private int maxConcurrentFetches = 64;
+        private FetchQueueObserver fetchQueueObserver = NOOP;
+
+        /**
+         * @param maxConcurrentFetches the maximum number of fetches a request can have in flight at the same time, 64 by default
+         *
+         * @return this builder
+         */
+        public Builder maxConcurrentFetches(int maxConcurrentFetches) {
+            assertTrue(maxConcurrentFetches > 0, () -> "maxConcurrentFetches must be greater than 0");
+            this.maxConcurrentFetches = maxConcurrentFetches;
+            return this;
+        }
+
+        /**
+         * @param fetchQueueObserver the observer to tell about the fetches that have to wait
+         *
+         * @return this builder
+         */
+        public Builder fetchQueueObserver(FetchQueueObserver fetchQueueObserver) {
+            this.fetchQueueObserver = assertNotNull(fetchQueueObserver, () -> "fetchQueueObserver can't be null");
+            return this;
+        }
+
+        public ConcurrencyLimitingInstrumentation build() {
+            return new ConcurrencyLimitingInstrumentation(maxConcurrentFetches, fetchQueueObserver);
+        }
+    }
+}
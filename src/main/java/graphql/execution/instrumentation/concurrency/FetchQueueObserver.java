@@ -0,0 +1,37 @@
+package graphql.execution.instrumentation.concurrency;
+
+import graphql.PublicSpi;
+import graphql.schema.DataFetchingEnvironment;
+
+import java.time.Duration;
+
+/**
+ * This is told when the fetches of a request have to wait because the request is at its limit of concurrent fetches, say
+ * to record the depth of the queue and the time spent in it as metrics.
+ * <p>
+ * The calls are made on the thread that queues or starts the fetch, so they should be quick and must not block.
+ *
+ * @see ConcurrencyLimitingInstrumentation
+ */
+@PublicSpi
+public interface FetchQueueObserver {
+
+    /**
+     * Called when a fetch is put in the queue
+     *
+     * @param environment the environment of the fetch
+     * @param queueDepth  the number of fetches of the request in the queue, including this one
+     */
+    default void fetchQueued(DataFetchingEnvironment environment, int queueDepth) {
+    }
+
+    /**
+     * Called when a fetch is taken from the queue to be started
+     *
+     * @param environment the environment of the fetch
+     * @param waitTime    how long the fetch was in the queue
+     * @param queueDepth  the number of fetches of the request left in the queue
+     */
+    default void fetchDequeued(DataFetchingEnvironment environment, Duration waitTime, int queueDepth) {
+    }
+}
@@ -0,0 +1,263 @@
+package graphql.execution.instrumentation.concurrency;
+
+import graphql.Internal;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.schema.DataFetchingEnvironment;
+import org.dataloader.DataLoaderRegistry;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * This caps the number of data fetcher invocations of one request that are in flight at the same time.
+ * <p>
+ * A fetch holds a permit from the time it starts until the value it returns is complete.  Fetches that can't get a permit
+ * are queued breadth first, that is the fetches of fields nearer the root of the query start before the fields below them,
+ * and fetches of the same level start in the order they were asked for.  Queued fetches are started as permits are given
+ * back, either on an executor or on the thread that gave back the permit, so no thread ever waits for a permit.
+ * <p>
+ * It is the per request state of both the {@link ConcurrencyLimitingInstrumentation}, which starts fetches on the thread
+ * that gave back the permit, and of {@link graphql.execution.instrumentation.threadpools.ExecutorInstrumentation} with a
+ * limit on concurrent fetches, which starts them on its fetch executor.
+ * <p>
+ * A fetch that is queued or started on an executor runs after its field has been counted as fetched, so the
+ * {@link graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation} may already have dispatched the
+ * level of that field by the time the fetch asks its data loaders for values.  So the {@link DataLoaderRegistry} of such a
+ * fetch is dispatched again once it has started, the registries of the queued fetches started together are dispatched once
+ * after all of them have started.
+ */
+@Internal
+public class FetchScheduler implements InstrumentationState {
+
+    private static final Comparator<QueuedFetch> BREADTH_FIRST = Comparator.<QueuedFetch>comparingInt(fetch -> fetch.level)
+            .thenComparingLong(fetch -> fetch.sequence);
+
+    private final Executor executor;
+    private final FetchQueueObserver observer;
+    private final AtomicInteger permits;
+    private final Queue<QueuedFetch> queue = new PriorityBlockingQueue<>(11, BREADTH_FIRST);
+    private final AtomicLong sequence = new AtomicLong();
+    // the count of calls to dispatch() that have not been looked at, only the caller that moves it from 0 dispatches
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
+
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong queuedFetchCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    /**
+     * @param maxConcurrentFetches the maximum number of fetches in flight at the same time
+     * @param executor             the executor to start fetches on or null to start them on the current thread
+     * @param observer             the observer of the queue
+     */
+    public FetchScheduler(int maxConcurrentFetches, Executor executor, FetchQueueObserver observer) {
+        assertTrue(maxConcurrentFetches > 0, () -> "maxConcurrentFetches must be greater than 0");
+        this.permits = new AtomicInteger(maxConcurrentFetches);
+        this.executor = executor;
+        this.observer = assertNotNull(observer);
+    }
+
+    /**
+     * Takes a permit if one is available and no fetch is queued.  The caller must then call {@link #release()} once the
+     * fetch is complete.
+     *
+     * @return true if a permit was taken
+     */
+    public boolean tryAcquire() {
+        while (queue.isEmpty()) {
+            int available = permits.get();
+            if (available == 0) {
+                return false;
+            }
+            if (permits.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives back a permit taken by {@link #tryAcquire()} and starts a queued fetch if there is one
+     */
+    public void release() {
+        permits.incrementAndGet();
+        dispatch();
+    }
+
+    /**
+     * Starts the fetch once a permit is available.  The permit is given back when the value of the fetch is complete.
+     *
+     * @param environment the environment of the fetch, which may be null
+     * @param fetch       the fetch to start
+     *
+     * @return a future of the value of the fetch
+     */
+    public CompletableFuture<CompletionStage<?>> schedule(DataFetchingEnvironment environment, Supplier<CompletionStage<?>> fetch) {
+        QueuedFetch queuedFetch = new QueuedFetch(environment, fetch);
+        if (tryAcquire()) {
+            start(queuedFetch);
+            return queuedFetch.result;
+        }
+        queuedFetch.queue(levelOf(environment), sequence.getAndIncrement());
+        queue.add(queuedFetch);
+        int queueDepth = queue.size();
+        queuedFetchCount.incrementAndGet();
+        maxQueueDepth.accumulateAndGet(queueDepth, Math::max);
+        observer.fetchQueued(environment, queueDepth);
+        dispatch();
+        return queuedFetch.result;
+    }
+
+    private static int levelOf(DataFetchingEnvironment environment) {
+        if (environment == null || environment.getExecutionStepInfo() == null) {
+            return 0;
+        }
+        return environment.getExecutionStepInfo().getPath().getLevel();
+    }
+
+    private void dispatch() {
+        if (dispatchRequests.getAndIncrement() != 0) {
+            // another thread is dispatching and will look at the queue again
+            return;
+        }
+        int missed = 1;
+        do {
+            startQueuedFetches();
+            missed = dispatchRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void startQueuedFetches() {
+        // the registries of the fetches started on this thread, dispatched once they have all started
+        Set<DataLoaderRegistry> startedRegistries = null;
+        while (!queue.isEmpty()) {
+            int available = permits.get();
+            if (available == 0) {
+                break;
+            }
+            if (!permits.compareAndSet(available, available - 1)) {
+                continue;
+            }
+            QueuedFetch fetch = queue.poll();
+            if (fetch == null) {
+                permits.incrementAndGet();
+                break;
+            }
+            long waitNanos = System.nanoTime() - fetch.queuedAt;
+            totalWaitNanos.addAndGet(waitNanos);
+            observer.fetchDequeued(fetch.environment, Duration.ofNanos(waitNanos), queue.size());
+            start(fetch);
+            DataLoaderRegistry registry = dataLoaderRegistryOf(fetch.environment);
+            if (executor == null && registry != null) {
+                if (startedRegistries == null) {
+                    startedRegistries = Collections.newSetFromMap(new IdentityHashMap<>());
+                }
+                startedRegistries.add(registry);
+            }
+        }
+        if (startedRegistries != null) {
+            startedRegistries.forEach(DataLoaderRegistry::dispatchAll);
+        }
+    }
+
+    private static DataLoaderRegistry dataLoaderRegistryOf(DataFetchingEnvironment environment) {
+        return environment == null ? null : environment.getDataLoaderRegistry();
+    }
+
+    private void start(QueuedFetch fetch) {
+        if (executor == null) {
+            fetch.run();
+            return;
+        }
+        try {
+            executor.execute(fetch);
+        } catch (RuntimeException e) {
+            // the executor has refused the fetch, say because it has been shut down
+            fetch.result.completeExceptionally(e);
+            release();
+        }
+    }
+
+    /**
+     * @return the number of fetches waiting for a permit
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the largest number of fetches that have waited for a permit at the same time
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the number of fetches that have had to wait for a permit
+     */
+    public long getQueuedFetchCount() {
+        return queuedFetchCount.get();
+    }
+
+    /**
+     * @return the time that fetches have spent waiting for a permit, added up
+     */
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.get());
+    }
+
+    private class QueuedFetch implements Runnable {
+        private final DataFetchingEnvironment environment;
+        private final Supplier<CompletionStage<?>> fetch;
+        private final CompletableFuture<CompletionStage<?>> result = new CompletableFuture<>();
+        // set before the fetch is put in the queue
+        private int level;
+        private long sequence;
+        private long queuedAt;
+
+        QueuedFetch(DataFetchingEnvironment environment, Supplier<CompletionStage<?>> fetch) {
+            this.environment = environment;
+            this.fetch = fetch;
+        }
+
+        void queue(int level, long sequence) {
+            this.level = level;
+            this.sequence = sequence;
+            this.queuedAt = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            CompletionStage<?> value;
+            try {
+                value = fetch.get();
+            } catch (Throwable e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            value.whenComplete((v, t) -> release());
+            if (executor != null) {
+                // the field has been counted as fetched before this fetch started on the executor
+                DataLoaderRegistry registry = dataLoaderRegistryOf(environment);
+                if (registry != null) {
+                    registry.dispatchAll();
+                }
+            }
+            result.complete(value);
+        }
+    }
+}
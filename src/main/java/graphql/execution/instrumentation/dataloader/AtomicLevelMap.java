@@ -0,0 +1,85 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.Internal;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A thread safe version of {@link LevelMap} that tracks counts per level via atomic counters
+ * rather than requiring callers to hold a lock.
+ * <p>
+ * The counts are held in fixed size segments of {@link AtomicIntegerArray}s.  Only adding a new segment
+ * takes a lock, and since existing segments are shared with the grown segment table, no counts are lost
+ * while growing.
+ */
+@Internal
+public class AtomicLevelMap {
+
+    private static final int SEGMENT_SIZE = 16;
+
+    private volatile AtomicIntegerArray[] segments = new AtomicIntegerArray[]{new AtomicIntegerArray(SEGMENT_SIZE)};
+
+    public int get(int level) {
+        checkLevel(level);
+        AtomicIntegerArray[] segments = this.segments;
+        int segmentIndex = level / SEGMENT_SIZE;
+        if (segmentIndex >= segments.length) {
+            return 0;
+        }
+        return segments[segmentIndex].get(level % SEGMENT_SIZE);
+    }
+
+    public int increment(int level, int by) {
+        return segmentFor(level).addAndGet(level % SEGMENT_SIZE, by);
+    }
+
+    public void set(int level, int newValue) {
+        segmentFor(level).set(level % SEGMENT_SIZE, newValue);
+    }
+
+    public boolean compareAndSet(int level, int expectedValue, int newValue) {
+        return segmentFor(level).compareAndSet(level % SEGMENT_SIZE, expectedValue, newValue);
+    }
+
+    private AtomicIntegerArray segmentFor(int level) {
+        checkLevel(level);
+        int segmentIndex = level / SEGMENT_SIZE;
+        AtomicIntegerArray[] segments = this.segments;
+        if (segmentIndex < segments.length) {
+            return segments[segmentIndex];
+        }
+        return grow(segmentIndex);
+    }
+
+    private synchronized AtomicIntegerArray grow(int segmentIndex) {
+        AtomicIntegerArray[] segments = this.segments;
+        if (segmentIndex >= segments.length) {
+            AtomicIntegerArray[] newSegments = Arrays.copyOf(segments, Math.max(segmentIndex + 1, segments.length * 2));
+            for (int i = segments.length; i < newSegments.length; i++) {
+                newSegments[i] = new AtomicIntegerArray(SEGMENT_SIZE);
+            }
+            this.segments = newSegments;
+            segments = newSegments;
+        }
+        return segments[segmentIndex];
+    }
+
+    private static void checkLevel(int level) {
+        if (level < 0) {
+            throw new IllegalArgumentException("negative level " + level);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("AtomicLevelMap[");
+        AtomicIntegerArray[] segments = this.segments;
+        for (int i = 0; i < segments.length * SEGMENT_SIZE; i++) {
+            result.append("level=").append(i).append(",count=").append(segments[i / SEGMENT_SIZE].get(i % SEGMENT_SIZE)).append(" ");
+        }
+        result.append("]");
+        return result.toString();
+    }
+}
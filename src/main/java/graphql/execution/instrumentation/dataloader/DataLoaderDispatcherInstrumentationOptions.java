@@ -9,13 +9,15 @@ import graphql.PublicApi;
 public class DataLoaderDispatcherInstrumentationOptions {
 
     private final boolean includeStatistics;
+    private final boolean eagerDispatching;
 
-    private DataLoaderDispatcherInstrumentationOptions(boolean includeStatistics) {
+    private DataLoaderDispatcherInstrumentationOptions(boolean includeStatistics, boolean eagerDispatching) {
         this.includeStatistics = includeStatistics;
+        this.eagerDispatching = eagerDispatching;
     }
 
     public static DataLoaderDispatcherInstrumentationOptions newOptions() {
-        return new DataLoaderDispatcherInstrumentationOptions(false);
+        return new DataLoaderDispatcherInstrumentationOptions(false, false);
     }
 
     /**
@@ -27,7 +29,28 @@ public class DataLoaderDispatcherInstrumentationOptions {
      * @return a new options object
      */
     public DataLoaderDispatcherInstrumentationOptions includeStatistics(boolean flag) {
-        return new DataLoaderDispatcherInstrumentationOptions(flag);
+        return new DataLoaderDispatcherInstrumentationOptions(flag, eagerDispatching);
+    }
+
+    /**
+     * By default the data loaders are dispatched level by level, that is once all the fields of a level of the query
+     * have been fetched.  A slow field on one level therefore holds up the dispatching of the next level for all the
+     * other fields.
+     * <p>
+     * With eager dispatching the data loaders are dispatched as soon as no more work is in progress that could
+     * enqueue further loads, that is straight after the data fetchers of the fetched values have been invoked.
+     * This reduces the latency of queries with mixed synchronous and asynchronous data fetchers at the cost of
+     * possibly smaller batches.
+     * <p>
+     * As with level by level dispatching, the loads must be made by the data fetchers themselves and not in later
+     * stages of the futures they return.
+     *
+     * @param flag the switch to follow
+     *
+     * @return a new options object
+     */
+    public DataLoaderDispatcherInstrumentationOptions eagerDispatching(boolean flag) {
+        return new DataLoaderDispatcherInstrumentationOptions(includeStatistics, flag);
     }
 
 
@@ -35,4 +58,8 @@ public class DataLoaderDispatcherInstrumentationOptions {
         return includeStatistics;
     }
 
+    public boolean isEagerDispatching() {
+        return eagerDispatching;
+    }
+
 }
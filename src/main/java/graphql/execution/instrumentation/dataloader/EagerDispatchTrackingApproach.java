@@ -0,0 +1,151 @@
+package graphql.execution.instrumentation.dataloader;
+
+import graphql.ExecutionResult;
+import graphql.Internal;
+import graphql.execution.FieldValueInfo;
+import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.GraphQLType;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderRegistry;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static graphql.execution.instrumentation.SimpleInstrumentationContext.noOp;
+import static graphql.schema.GraphQLTypeUtil.isLeaf;
+import static graphql.schema.GraphQLTypeUtil.unwrapAll;
+
+/**
+ * This approach dispatches the data loaders as soon as no more loads can be enqueued without a dispatch, rather
+ * than waiting for whole levels of the query to be fetched.
+ * <p>
+ * Data fetchers are only ever invoked while the root fields are being resolved or while the value of a field of
+ * an object or list type is being completed.  This work happens synchronously and it is counted as running work.
+ * Once no work is running anymore, every pending data fetcher result is either waiting on a data loader or on some
+ * other asynchronous work, and so the data loaders with queued loads are dispatched.  When a pending result completes,
+ * its completion is counted as running work again, which in turn dispatches the loads it enqueued.
+ * <p>
+ * A dispatched batch is counted as running work until the values of all its keys have been completed, so that
+ * the loads made while completing the values of a batch are themselves dispatched as a single batch.
+ */
+@Internal
+public class EagerDispatchTrackingApproach extends FieldLevelTrackingApproach {
+
+    private static class RunningWork implements InstrumentationState {
+
+        private final AtomicInteger runningCount = new AtomicInteger();
+
+        void begin() {
+            runningCount.incrementAndGet();
+        }
+
+        boolean finishAndCheckIfNothingRunning() {
+            return runningCount.decrementAndGet() == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "RunningWork{runningCount=" + runningCount + '}';
+        }
+    }
+
+    private final Supplier<DataLoaderRegistry> dataLoaderRegistrySupplier;
+    private final Logger log;
+
+    public EagerDispatchTrackingApproach(Logger log, Supplier<DataLoaderRegistry> dataLoaderRegistrySupplier) {
+        super(log, dataLoaderRegistrySupplier);
+        this.dataLoaderRegistrySupplier = dataLoaderRegistrySupplier;
+        this.log = log;
+    }
+
+    @Override
+    public InstrumentationState createState() {
+        return new RunningWork();
+    }
+
+    @Override
+    ExecutionStrategyInstrumentationContext beginExecutionStrategy(InstrumentationExecutionStrategyParameters parameters, InstrumentationState rawState) {
+        //
+        // the nested strategy calls happen while completing field values, which is already counted
+        if (!parameters.getExecutionStrategyParameters().getPath().isRootPath()) {
+            return ExecutionStrategyInstrumentationContext.NOOP;
+        }
+        RunningWork runningWork = (RunningWork) rawState;
+        runningWork.begin();
+        return new ExecutionStrategyInstrumentationContext() {
+            @Override
+            public void onDispatched(CompletableFuture<ExecutionResult> result) {
+                finish(runningWork);
+            }
+
+            @Override
+            public void onCompleted(ExecutionResult result, Throwable t) {
+            }
+
+            @Override
+            public void onFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList) {
+            }
+        };
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters, InstrumentationState rawState) {
+        return noOp();
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginFieldComplete(InstrumentationFieldCompleteParameters parameters, InstrumentationState rawState) {
+        //
+        // completing scalars and enums (or lists of them) never invokes data fetchers
+        GraphQLType fieldType = parameters.getExecutionStepInfo().getUnwrappedNonNullType();
+        if (isLeaf(unwrapAll(fieldType))) {
+            return noOp();
+        }
+        RunningWork runningWork = (RunningWork) rawState;
+        runningWork.begin();
+        return new InstrumentationContext<ExecutionResult>() {
+            @Override
+            public void onDispatched(CompletableFuture<ExecutionResult> result) {
+                finish(runningWork);
+            }
+
+            @Override
+            public void onCompleted(ExecutionResult result, Throwable t) {
+            }
+        };
+    }
+
+    private void finish(RunningWork runningWork) {
+        if (runningWork.finishAndCheckIfNothingRunning()) {
+            DataLoaderRegistry dataLoaderRegistry = dataLoaderRegistrySupplier.get();
+            if (dataLoaderRegistry.dispatchDepth() > 0) {
+                dispatch(runningWork, dataLoaderRegistry);
+            }
+        }
+    }
+
+    private void dispatch(RunningWork runningWork, DataLoaderRegistry dataLoaderRegistry) {
+        if (log.isDebugEnabled()) {
+            log.debug("Eagerly dispatching data loaders ({})", dataLoaderRegistry.getKeys());
+        }
+        runningWork.begin();
+        try {
+            for (DataLoader<?, ?> dataLoader : dataLoaderRegistry.getDataLoaders()) {
+                if (dataLoader.dispatchDepth() > 0) {
+                    runningWork.begin();
+                    dataLoader.dispatch().whenComplete((values, throwable) -> finish(runningWork));
+                }
+            }
+        } finally {
+            finish(runningWork);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package graphql.execution.instrumentation.dataloader;
 
-import graphql.Assert;
 import graphql.ExecutionResult;
 import graphql.Internal;
 import graphql.execution.FieldValueInfo;
@@ -9,16 +8,17 @@ import graphql.execution.instrumentation.ExecutionStrategyInstrumentationContext
 import graphql.execution.instrumentation.InstrumentationContext;
 import graphql.execution.instrumentation.InstrumentationState;
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionStrategyParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import org.dataloader.DataLoaderRegistry;
 import org.slf4j.Logger;
 
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
+import static graphql.execution.instrumentation.SimpleInstrumentationContext.noOp;
+
 /**
  * This approach uses field level tracking to achieve its aims of making the data loader more efficient
  */
@@ -27,15 +27,23 @@ public class FieldLevelTrackingApproach {
     private final Supplier<DataLoaderRegistry> dataLoaderRegistrySupplier;
     private final Logger log;
 
+    /**
+     * The call stack is updated concurrently from the threads that complete the data fetchers, so rather than
+     * guarding it with a lock, every count is an atomic counter per level.
+     * <p>
+     * The counts only ever go up, and for every "happened" count the matching "expected" count is always increased
+     * before it.  So once the checks in {@link #levelReady(CallStack, int)} have been passed in order (the lower levels first,
+     * then the strategy calls, then the fetches) the counts for that level are final and the level can be dispatched.
+     */
     private static class CallStack implements InstrumentationState {
 
-        private final LevelMap expectedFetchCountPerLevel = new LevelMap();
-        private final LevelMap fetchCountPerLevel = new LevelMap();
-        private final LevelMap expectedStrategyCallsPerLevel = new LevelMap();
-        private final LevelMap happenedStrategyCallsPerLevel = new LevelMap();
-        private final LevelMap happenedOnFieldValueCallsPerLevel = new LevelMap();
+        private final AtomicLevelMap expectedFetchCountPerLevel = new AtomicLevelMap();
+        private final AtomicLevelMap fetchCountPerLevel = new AtomicLevelMap();
+        private final AtomicLevelMap expectedStrategyCallsPerLevel = new AtomicLevelMap();
+        private final AtomicLevelMap happenedStrategyCallsPerLevel = new AtomicLevelMap();
+        private final AtomicLevelMap happenedOnFieldValueCallsPerLevel = new AtomicLevelMap();
 
-        private final Set<Integer> dispatchedLevels = new LinkedHashSet<>();
+        private final AtomicLevelMap dispatchedLevels = new AtomicLevelMap();
 
         CallStack() {
             expectedStrategyCallsPerLevel.set(1, 1);
@@ -85,27 +93,15 @@ public class FieldLevelTrackingApproach {
                     '}';
         }
 
+        /**
+         * More than one thread can see the same level as ready, but only one of them gets to dispatch it
+         *
+         * @param level the level to dispatch
+         *
+         * @return true if the calling thread should dispatch the level
+         */
         public boolean dispatchIfNotDispatchedBefore(int level) {
-            if (dispatchedLevels.contains(level)) {
-                Assert.assertShouldNeverHappen("level " + level + " already dispatched");
-                return false;
-            }
-            dispatchedLevels.add(level);
-            return true;
-        }
-
-        public void clearAndMarkCurrentLevelAsReady(int level) {
-            expectedFetchCountPerLevel.clear();
-            fetchCountPerLevel.clear();
-            expectedStrategyCallsPerLevel.clear();
-            happenedStrategyCallsPerLevel.clear();
-            happenedOnFieldValueCallsPerLevel.clear();
-            dispatchedLevels.clear();
-
-            // make sure the level is ready
-            expectedFetchCountPerLevel.increment(level, 1);
-            expectedStrategyCallsPerLevel.increment(level, 1);
-            happenedStrategyCallsPerLevel.increment(level, 1);
+            return dispatchedLevels.compareAndSet(level, 0, 1);
         }
     }
 
@@ -124,10 +120,9 @@ public class FieldLevelTrackingApproach {
         int parentLevel = path.getLevel();
         int curLevel = parentLevel + 1;
         int fieldCount = parameters.getExecutionStrategyParameters().getFields().size();
-        synchronized (callStack) {
-            callStack.increaseExpectedFetchCount(curLevel, fieldCount);
-            callStack.increaseHappenedStrategyCalls(curLevel);
-        }
+        // the expected fetches must be known before the strategy call is counted as happened
+        callStack.increaseExpectedFetchCount(curLevel, fieldCount);
+        callStack.increaseHappenedStrategyCalls(curLevel);
 
         return new ExecutionStrategyInstrumentationContext() {
             @Override
@@ -142,10 +137,7 @@ public class FieldLevelTrackingApproach {
 
             @Override
             public void onFieldValuesInfo(List<FieldValueInfo> fieldValueInfoList) {
-                boolean dispatchNeeded;
-                synchronized (callStack) {
-                    dispatchNeeded = handleOnFieldValuesInfo(fieldValueInfoList, callStack, curLevel);
-                }
+                boolean dispatchNeeded = handleOnFieldValuesInfo(fieldValueInfoList, callStack, curLevel);
                 if (dispatchNeeded) {
                     dispatch();
                 }
@@ -153,20 +145,16 @@ public class FieldLevelTrackingApproach {
 
             @Override
             public void onFieldValuesException() {
-                synchronized (callStack) {
-                    callStack.increaseHappenedOnFieldValueCalls(curLevel);
-                }
+                callStack.increaseHappenedOnFieldValueCalls(curLevel);
             }
         };
     }
 
-    //
-    // thread safety : called with synchronised(callStack)
-    //
     private boolean handleOnFieldValuesInfo(List<FieldValueInfo> fieldValueInfos, CallStack callStack, int curLevel) {
-        callStack.increaseHappenedOnFieldValueCalls(curLevel);
+        // the expected strategy calls of the next level must be known before the on field value call is counted as happened
         int expectedStrategyCalls = getCountForList(fieldValueInfos);
         callStack.increaseExpectedStrategyCalls(curLevel + 1, expectedStrategyCalls);
+        callStack.increaseHappenedOnFieldValueCalls(curLevel);
         return dispatchIfNeeded(callStack, curLevel + 1);
     }
 
@@ -191,11 +179,8 @@ public class FieldLevelTrackingApproach {
 
             @Override
             public void onDispatched(CompletableFuture<Object> result) {
-                boolean dispatchNeeded;
-                synchronized (callStack) {
-                    callStack.increaseFetchCount(level);
-                    dispatchNeeded = dispatchIfNeeded(callStack, level);
-                }
+                callStack.increaseFetchCount(level);
+                boolean dispatchNeeded = dispatchIfNeeded(callStack, level);
                 if (dispatchNeeded) {
                     dispatch();
                 }
@@ -209,9 +194,6 @@ public class FieldLevelTrackingApproach {
     }
 
 
-    //
-    // thread safety : called with synchronised(callStack)
-    //
     private boolean dispatchIfNeeded(CallStack callStack, int level) {
         if (levelReady(callStack, level)) {
             return callStack.dispatchIfNotDispatchedBefore(level);
@@ -219,8 +201,13 @@ public class FieldLevelTrackingApproach {
         return false;
     }
 
+    public InstrumentationContext<ExecutionResult> beginFieldComplete(InstrumentationFieldCompleteParameters parameters, InstrumentationState rawState) {
+        return noOp();
+    }
+
     //
-    // thread safety : called with synchronised(callStack)
+    // thread safety : the order of the checks matters - the checks of a level are only reliable once the
+    // counts they depend on are final, which the checks before them guarantee
     //
     private boolean levelReady(CallStack callStack, int level) {
         if (level == 1) {
@@ -0,0 +1,177 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExecutionResult;
+import graphql.ExperimentalApi;
+import graphql.execution.ExecutionStrategyParameters;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldCompleteParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLNamedType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * This {@link graphql.execution.instrumentation.Instrumentation} measures how long the fields of a schema take to fetch and
+ * to complete, aggregated per {@link FieldCoordinates} across all requests, so that slow data fetchers can be found in production.
+ * <p>
+ * Unlike {@link graphql.execution.instrumentation.tracing.TracingInstrumentation} nothing is kept per request, each latency is
+ * recorded straight into a lock-free {@link LatencyHistogram} of its field.  The cost per field is two calls to {@link System#nanoTime()},
+ * a map lookup and a small context object, and with a sample rate below 1 the requests that are not sampled cost nothing per field.
+ * <p>
+ * The fetch latency of a field is from the call of its data fetcher until its value is available, and the completion latency is
+ * the time taken to complete the value, which for objects and lists includes the fields below it.
+ * <pre>
+ * {@code
+ *     FieldLatencyInstrumentation fieldLatency = FieldLatencyInstrumentation.newFieldLatencyInstrumentation().sampleRate(0.1).build();
+ *     ...
+ *     // say once a minute
+ *     fieldLatency.snapshotAndReset().forEach((coordinates, latency) -> report(coordinates, latency.getFetchLatency()));
+ * }
+ * </pre>
+ */
+@ExperimentalApi
+public class FieldLatencyInstrumentation extends SimplePerformantInstrumentation {
+
+    // the state of a sampled request, requests that are not sampled have no state
+    private static final InstrumentationState SAMPLED = new InstrumentationState() {
+    };
+
+    private final double sampleRate;
+    // by type name and then field name, so no coordinates need to be allocated to find a field
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, FieldLatency>> latencies = new ConcurrentHashMap<>();
+
+    private FieldLatencyInstrumentation(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @return the fraction of requests that are measured
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    @Override
+    public @Nullable InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return SAMPLED;
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+        if (state != SAMPLED) {
+            return null;
+        }
+        return new LatencyContext<>(fieldLatency(parameters.getExecutionStrategyParameters()).fetchLatency);
+    }
+
+    @Override
+    public @Nullable InstrumentationContext<ExecutionResult> beginFieldComplete(InstrumentationFieldCompleteParameters parameters, InstrumentationState state) {
+        if (state != SAMPLED) {
+            return null;
+        }
+        return new LatencyContext<>(fieldLatency(parameters.getExecutionStrategyParameters()).completionLatency);
+    }
+
+    private FieldLatency fieldLatency(ExecutionStrategyParameters parameters) {
+        // the step info of the parameters is the one of the object the field belongs to
+        String typeName = ((GraphQLNamedType) parameters.getExecutionStepInfo().getUnwrappedNonNullType()).getName();
+        String fieldName = parameters.getField().getName();
+        ConcurrentHashMap<String, FieldLatency> typeLatencies = latencies.get(typeName);
+        if (typeLatencies == null) {
+            typeLatencies = latencies.computeIfAbsent(typeName, name -> new ConcurrentHashMap<>());
+        }
+        FieldLatency fieldLatency = typeLatencies.get(fieldName);
+        if (fieldLatency == null) {
+            fieldLatency = typeLatencies.computeIfAbsent(fieldName, name -> new FieldLatency());
+        }
+        return fieldLatency;
+    }
+
+    /**
+     * @return the latencies of the fields that have been measured
+     */
+    public Map<FieldCoordinates, FieldLatencySnapshot> snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Takes the latencies of the fields that have been measured and starts measuring again from empty, which suits
+     * metrics that are reported per interval
+     *
+     * @return the latencies of the fields that have been measured
+     */
+    public Map<FieldCoordinates, FieldLatencySnapshot> snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private Map<FieldCoordinates, FieldLatencySnapshot> snapshot(boolean reset) {
+        Map<FieldCoordinates, FieldLatencySnapshot> snapshot = new LinkedHashMap<>();
+        latencies.forEach((typeName, typeLatencies) -> typeLatencies.forEach((fieldName, fieldLatency) -> {
+            FieldCoordinates coordinates = FieldCoordinates.coordinates(typeName, fieldName);
+            LatencySnapshot fetchLatency = reset ? fieldLatency.fetchLatency.snapshotAndReset() : fieldLatency.fetchLatency.snapshot();
+            LatencySnapshot completionLatency = reset ? fieldLatency.completionLatency.snapshotAndReset() : fieldLatency.completionLatency.snapshot();
+            snapshot.put(coordinates, new FieldLatencySnapshot(coordinates, fetchLatency, completionLatency));
+        }));
+        return snapshot;
+    }
+
+    private static class FieldLatency {
+        private final LatencyHistogram fetchLatency = new LatencyHistogram();
+        private final LatencyHistogram completionLatency = new LatencyHistogram();
+    }
+
+    private static class LatencyContext<T> implements InstrumentationContext<T> {
+        private final LatencyHistogram histogram;
+        private final long startNanos = System.nanoTime();
+
+        private LatencyContext(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void onDispatched(CompletableFuture<T> result) {
+        }
+
+        @Override
+        public void onCompleted(T result, Throwable t) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    public static Builder newFieldLatencyInstrumentation() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private double sampleRate = 1;
+
+        /**
+         * @param sampleRate the fraction of requests to measure, from 0 to 1, which is 1 by default
+         *
+         * @return this builder
+         */
+        public Builder sampleRate(double sampleRate) {
+            assertTrue(sampleRate >= 0 && sampleRate <= 1, () -> "sampleRate must be between 0 and 1");
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public FieldLatencyInstrumentation build() {
+            return new FieldLatencyInstrumentation(sampleRate);
+        }
+    }
+}
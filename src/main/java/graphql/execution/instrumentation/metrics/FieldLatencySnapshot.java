@@ -0,0 +1,48 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExperimentalApi;
+import graphql.schema.FieldCoordinates;
+
+/**
+ * The fetch and completion latencies of a field, as measured by {@link FieldLatencyInstrumentation}
+ */
+@ExperimentalApi
+public class FieldLatencySnapshot {
+
+    private final FieldCoordinates coordinates;
+    private final LatencySnapshot fetchLatency;
+    private final LatencySnapshot completionLatency;
+
+    FieldLatencySnapshot(FieldCoordinates coordinates, LatencySnapshot fetchLatency, LatencySnapshot completionLatency) {
+        this.coordinates = coordinates;
+        this.fetchLatency = fetchLatency;
+        this.completionLatency = completionLatency;
+    }
+
+    public FieldCoordinates getCoordinates() {
+        return coordinates;
+    }
+
+    /**
+     * @return the time from calling the data fetcher of the field until its value was available
+     */
+    public LatencySnapshot getFetchLatency() {
+        return fetchLatency;
+    }
+
+    /**
+     * @return the time taken to complete the value of the field, including the fields below it
+     */
+    public LatencySnapshot getCompletionLatency() {
+        return completionLatency;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldLatencySnapshot{" +
+                "coordinates=" + coordinates +
+                ", fetchLatency=" + fetchLatency +
+                ", completionLatency=" + completionLatency +
+                '}';
+    }
+}
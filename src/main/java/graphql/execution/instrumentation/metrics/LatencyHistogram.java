@@ -0,0 +1,93 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExperimentalApi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that many threads can record into at the same time without locking.
+ * <p>
+ * Like an HDR histogram the buckets are log-linear, every power of two range is split into 8 buckets, so a value is
+ * known to within 12.5% whatever its size while the histogram stays a fixed size.  Values of more than 2<sup>41</sup>
+ * nanoseconds, about 36 minutes, are counted in the last bucket.
+ */
+@ExperimentalApi
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a latency
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketIndex(nanos));
+        totalNanos.add(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * @return the latencies recorded so far
+     */
+    public LatencySnapshot snapshot() {
+        long[] bucketCounts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts.get(i);
+        }
+        return new LatencySnapshot(bucketCounts, totalNanos.sum(), maxNanos.get());
+    }
+
+    /**
+     * Takes the latencies recorded so far and starts again from empty.  Latencies that are recorded while this runs
+     * end up in either the snapshot or the emptied histogram.
+     *
+     * @return the latencies recorded so far
+     */
+    public LatencySnapshot snapshotAndReset() {
+        long[] bucketCounts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts.getAndSet(i, 0);
+        }
+        return new LatencySnapshot(bucketCounts, totalNanos.sumThenReset(), maxNanos.getAndSet(0));
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /*
+     * the largest value that is counted in the bucket
+     */
+    static long bucketHighestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,85 @@
+package graphql.execution.instrumentation.metrics;
+
+import graphql.ExperimentalApi;
+
+import java.time.Duration;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * The latencies that a {@link LatencyHistogram} had recorded at a point in time
+ */
+@ExperimentalApi
+public class LatencySnapshot {
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    LatencySnapshot(long[] bucketCounts, long totalNanos, long maxNanos) {
+        this.bucketCounts = bucketCounts;
+        long count = 0;
+        for (long bucketCount : bucketCounts) {
+            count += bucketCount;
+        }
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * @return the number of latencies recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean latency or zero if none were recorded
+     */
+    public Duration getMean() {
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos / count);
+    }
+
+    /**
+     * @return the largest latency recorded
+     */
+    public Duration getMax() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    /**
+     * Returns the latency that the given percentage of latencies are at or below, to the precision of the histogram buckets
+     *
+     * @param percentile the percentile, from 0 to 100
+     *
+     * @return the latency at that percentile or zero if none were recorded
+     */
+    public Duration getValueAtPercentile(double percentile) {
+        assertTrue(percentile >= 0 && percentile <= 100, () -> "percentile must be between 0 and 100");
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(LatencyHistogram.bucketHighestValue(i), maxNanos));
+            }
+        }
+        return Duration.ofNanos(maxNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{" +
+                "count=" + count +
+                ", mean=" + getMean() +
+                ", p50=" + getValueAtPercentile(50) +
+                ", p99=" + getValueAtPercentile(99) +
+                ", max=" + getMax() +
+                '}';
+    }
+}
@@ -56,6 +56,14 @@ public class InstrumentationFieldFetchParameters extends InstrumentationFieldPar
         return environment.get();
     }
 
+    /**
+     * @return the execution strategy parameters of the field being fetched, which unlike {@link #getEnvironment()} are
+     * available without building anything
+     */
+    public ExecutionStrategyParameters getExecutionStrategyParameters() {
+        return executionStrategyParameters;
+    }
+
     public boolean isTrivialDataFetcher() {
         return trivialDataFetcher;
     }
@@ -0,0 +1,39 @@
+package graphql.execution.instrumentation.parameters;
+
+import graphql.ExperimentalApi;
+import graphql.execution.ExecutionContext;
+
+/**
+ * Parameters sent to {@link graphql.execution.instrumentation.Instrumentation} methods
+ */
+@ExperimentalApi
+public class InstrumentationSubscriptionEventParameters {
+
+    private final ExecutionContext executionContext;
+    private final Object eventPayload;
+    private final int inFlightEvents;
+
+    public InstrumentationSubscriptionEventParameters(ExecutionContext executionContext, Object eventPayload, int inFlightEvents) {
+        this.executionContext = executionContext;
+        this.eventPayload = eventPayload;
+        this.inFlightEvents = inFlightEvents;
+    }
+
+    public ExecutionContext getExecutionContext() {
+        return executionContext;
+    }
+
+    /**
+     * @return the event from the source event stream of the subscription
+     */
+    public Object getEventPayload() {
+        return eventPayload;
+    }
+
+    /**
+     * @return the number of events of the subscription that are being executed or are waiting to be published, including this one
+     */
+    public int getInFlightEvents() {
+        return inFlightEvents;
+    }
+}
@@ -7,10 +7,14 @@ import graphql.TrivialDataFetcher;
 import graphql.execution.Async;
 import graphql.execution.instrumentation.InstrumentationState;
 import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.concurrency.FetchQueueObserver;
+import graphql.execution.instrumentation.concurrency.FetchScheduler;
+import graphql.execution.instrumentation.parameters.InstrumentationCreateStateParameters;
 import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -38,6 +42,11 @@ import static graphql.execution.instrumentation.threadpools.ExecutorInstrumentat
  * <p>
  * This code uses {@link CompletableFuture#supplyAsync(Supplier, Executor)} and {@link CompletableFuture#thenApplyAsync(Function, Executor)} to transfer
  * control between thread pools.
+ * <p>
+ * If your data fetchers block then {@link FetchExecutors#newVirtualThreadPerTaskExecutor()} gives each fetch its own virtual thread
+ * on JDK 21 and later, so you are not limited by the size of a pool.  Use {@link Builder#maxConcurrentFetches(int)} to bound how many
+ * fetches a single request can have running at the same time, the fetches of a request over that limit are queued until others
+ * complete.
  */
 @Internal
 @Beta
@@ -45,6 +54,8 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
 
     private static final Consumer<Action> NOOP = a -> {
     };
+    private static final FetchQueueObserver NO_FETCH_QUEUE_OBSERVER = new FetchQueueObserver() {
+    };
 
     /**
      * This describes what action is currently being done.  This is mostly intended for testing.
@@ -53,11 +64,13 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
 
     private final Executor fetchExecutor;
     private final Executor processingExecutor;
+    private final int maxConcurrentFetches;
     private final Consumer<Action> actionObserver;
 
-    private ExecutorInstrumentation(Executor fetchExecutor, Executor processingExecutor, Consumer<Action> actionObserver) {
+    private ExecutorInstrumentation(Executor fetchExecutor, Executor processingExecutor, int maxConcurrentFetches, Consumer<Action> actionObserver) {
         this.fetchExecutor = fetchExecutor;
         this.processingExecutor = processingExecutor;
+        this.maxConcurrentFetches = maxConcurrentFetches;
         this.actionObserver = actionObserver;
     }
 
@@ -69,6 +82,13 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
         return processingExecutor;
     }
 
+    /**
+     * @return the maximum number of fetches a request can have running at the same time or 0 if there is no limit
+     */
+    public int getMaxConcurrentFetches() {
+        return maxConcurrentFetches;
+    }
+
     public static Builder newThreadPoolExecutionInstrumentation() {
         return new Builder();
     }
@@ -76,6 +96,7 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
     public static class Builder {
         Executor fetchExecutor;
         Executor processingExecutor;
+        int maxConcurrentFetches;
         private Consumer<Action> actionObserver;
 
         public Builder fetchExecutor(Executor fetchExecutor) {
@@ -88,6 +109,28 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
             return this;
         }
 
+        /**
+         * Limits how many data fetchers a single request can have running on the fetch executor at the same time.  A fetch
+         * counts towards the limit until the value it returns is complete, and fetches over the limit wait in a queue without
+         * holding a thread, the fields nearest the root of the query first.
+         * <p>
+         * The fetches run on the fetch executor after their fields have been counted as fetched by the
+         * {@link graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation}, so the
+         * {@link org.dataloader.DataLoaderRegistry} of the request is dispatched again once each of them has started, which
+         * means the values a level loads can come in more than one batch.
+         * <p>
+         * This needs a fetch executor.
+         *
+         * @param maxConcurrentFetches the maximum number of fetches per request, or 0 for no limit
+         *
+         * @return this builder
+         */
+        public Builder maxConcurrentFetches(int maxConcurrentFetches) {
+            Assert.assertTrue(maxConcurrentFetches >= 0, () -> "maxConcurrentFetches can't be negative");
+            this.maxConcurrentFetches = maxConcurrentFetches;
+            return this;
+        }
+
         /**
          * This is really intended for testing but this consumer will be called during
          * stages to indicate what is happening.
@@ -102,11 +145,20 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
         }
 
         public ExecutorInstrumentation build() {
-            return new ExecutorInstrumentation(fetchExecutor, processingExecutor, actionObserver != null ? actionObserver : NOOP);
+            Assert.assertTrue(maxConcurrentFetches == 0 || fetchExecutor != null, () -> "maxConcurrentFetches requires a fetchExecutor");
+            return new ExecutorInstrumentation(fetchExecutor, processingExecutor, maxConcurrentFetches, actionObserver != null ? actionObserver : NOOP);
         }
 
     }
 
+    @Override
+    public @Nullable InstrumentationState createState(InstrumentationCreateStateParameters parameters) {
+        if (maxConcurrentFetches > 0) {
+            return new FetchScheduler(maxConcurrentFetches, fetchExecutor, NO_FETCH_QUEUE_OBSERVER);
+        }
+        return null;
+    }
+
     @Override
     public @NotNull DataFetcher<?> instrumentDataFetcher(DataFetcher<?> originalDataFetcher, InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
         if (originalDataFetcher instanceof TrivialDataFetcher) {
@@ -114,7 +166,10 @@ public class ExecutorInstrumentation extends SimplePerformantInstrumentation {
         }
         return environment -> {
             CompletableFuture<CompletionStage<?>> invokedCF;
-            if (fetchExecutor != null) {
+            if (state instanceof FetchScheduler) {
+                // run the fetch on the fetch executor once the request is below its limit of concurrent fetches
+                invokedCF = ((FetchScheduler) state).schedule(environment, invokedAsync(originalDataFetcher, environment));
+            } else if (fetchExecutor != null) {
                 // run the fetch asynchronously via the fetch executor
                 // the CF will be left running on that fetch executors thread
                 invokedCF = CompletableFuture.supplyAsync(invokedAsync(originalDataFetcher, environment), fetchExecutor);
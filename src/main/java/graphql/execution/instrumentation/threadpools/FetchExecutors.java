@@ -0,0 +1,71 @@
+package graphql.execution.instrumentation.threadpools;
+
+import com.google.common.annotations.Beta;
+import graphql.Internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors that suit data fetchers that block, say on a JDBC call, and that can be given to
+ * {@link ExecutorInstrumentation.Builder#fetchExecutor(java.util.concurrent.Executor)}.
+ * <p>
+ * graphql-java is built for Java 11, so the virtual thread executor of JDK 21 and later is looked up when this class is
+ * loaded, and a pool of platform threads is used on older JDKs.
+ */
+@Internal
+@Beta
+public class FetchExecutors {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private static MethodHandle findVirtualThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true if the JDK that is running supports virtual threads
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for each task it is given, or on JDKs without virtual threads,
+     * an executor that runs tasks on a cached pool of daemon platform threads named {@code graphql-java-fetch-N}.
+     * <p>
+     * Neither executor limits how many tasks run at the same time, so use
+     * {@link ExecutorInstrumentation.Builder#maxConcurrentFetches(int)} to bound what a single request can use.
+     *
+     * @return a new executor for data fetchers that block
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+            } catch (Throwable e) {
+                // fall back to platform threads
+            }
+        }
+        return newPlatformThreadExecutor();
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "graphql-java-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+}
@@ -0,0 +1,280 @@
+package graphql.execution.preparsed;
+
+import graphql.ExecutionInput;
+import graphql.PublicApi;
+import graphql.language.Node;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * A {@link PreparsedDocumentProvider} that keeps the parsed and validated documents in a bounded in memory cache
+ * keyed by the query text.
+ * <p>
+ * The cache is bounded by the number of entries and by an estimated weight, which is the number of AST nodes
+ * of the cached documents.  The least recently used entries are evicted once a bound is exceeded, so a flood of
+ * distinct query strings can not grow the cache without limits.  To keep contention down, the entries are
+ * striped over a number of segments which each own an equal share of the bounds and evict independently.
+ * <p>
+ * Concurrent misses for the same query text share a single call of the parse and validate function, the other
+ * callers are handed a promise to its result.
+ * <p>
+ * Documents that failed to parse or validate, that is entries that {@link PreparsedDocumentEntry#hasErrors() have errors},
+ * are handed to the callers that asked for them at the time but are not cached.
+ * <p>
+ * Note that the documents are validated against the schema in play when they were first seen, so a provider
+ * instance should only be used with a single schema or be {@link #clear() cleared} when the schema changes.
+ */
+@PublicApi
+public class CachingPreparsedDocumentProvider implements PreparsedDocumentProvider {
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private CachingPreparsedDocumentProvider(Builder builder) {
+        int segmentCount = Integer.highestOneBit((int) Math.max(1, Math.min(builder.segments, builder.maxEntries)));
+        long maxEntriesPerSegment = Math.max(1, ceilDiv(builder.maxEntries, segmentCount));
+        long maxWeightPerSegment = Math.max(1, ceilDiv(builder.maxWeight, segmentCount));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxEntriesPerSegment, maxWeightPerSegment);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    @Override
+    @Deprecated
+    public PreparsedDocumentEntry getDocument(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        return getDocumentAsync(executionInput, parseAndValidateFunction).join();
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        String query = executionInput.getQuery();
+        Segment segment = segmentFor(query);
+        CacheEntry entry;
+        synchronized (segment) {
+            CacheEntry cached = segment.entries.get(query);
+            if (cached != null) {
+                hitCount.increment();
+                return cached.documentEntry;
+            }
+            missCount.increment();
+            entry = new CacheEntry();
+            segment.entries.put(query, entry);
+            evictIfNeeded(segment);
+        }
+
+        PreparsedDocumentEntry documentEntry;
+        try {
+            documentEntry = parseAndValidateFunction.apply(executionInput);
+        } catch (RuntimeException e) {
+            synchronized (segment) {
+                segment.entries.remove(query, entry);
+            }
+            entry.documentEntry.completeExceptionally(e);
+            // the caller gets the exception in the same way as without a cache
+            throw e;
+        }
+
+        synchronized (segment) {
+            if (documentEntry.hasErrors()) {
+                // malformed or invalid queries are not kept, or else they could crowd out the valid ones
+                segment.entries.remove(query, entry);
+            } else if (segment.entries.get(query) == entry) {
+                // it might have been evicted while it was being parsed
+                entry.weight = weigh(documentEntry);
+                segment.weight += entry.weight;
+                evictIfNeeded(segment);
+            }
+        }
+        entry.documentEntry.complete(documentEntry);
+        return entry.documentEntry;
+    }
+
+    /**
+     * @return the number of times a document was found in the cache (or was already being parsed)
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of times a document was not found in the cache and had to be parsed and validated
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of entries that have been evicted to keep the cache within its bounds
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return the number of entries currently in the cache
+     */
+    public long getEntryCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.entries.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the estimated weight of the entries currently in the cache, which is the number of AST nodes of their documents
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                weight += segment.weight;
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Removes all entries from the cache.  This does not count as evictions.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.weight = 0;
+            }
+        }
+    }
+
+    private Segment segmentFor(String query) {
+        int hash = query.hashCode();
+        // spread the higher bits since the mask only looks at the lower ones
+        hash ^= (hash >>> 16);
+        return segments[hash & segmentMask];
+    }
+
+    //
+    // thread safety : called with synchronised(segment)
+    //
+    private void evictIfNeeded(Segment segment) {
+        Iterator<CacheEntry> eldestFirst = segment.entries.values().iterator();
+        while (eldestFirst.hasNext() && (segment.entries.size() > segment.maxEntries || segment.weight > segment.maxWeight)) {
+            CacheEntry evicted = eldestFirst.next();
+            eldestFirst.remove();
+            segment.weight -= evicted.weight;
+            evictionCount.increment();
+        }
+    }
+
+    private static long weigh(PreparsedDocumentEntry documentEntry) {
+        if (documentEntry.getDocument() == null) {
+            return 1;
+        }
+        long nodeCount = 0;
+        Deque<Node<?>> nodes = new ArrayDeque<>();
+        nodes.push(documentEntry.getDocument());
+        while (!nodes.isEmpty()) {
+            Node<?> node = nodes.pop();
+            nodeCount++;
+            for (Node<?> child : node.getChildren()) {
+                nodes.push(child);
+            }
+        }
+        return nodeCount;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        // dividend + divisor - 1 would overflow for bounds close to Long.MAX_VALUE
+        return dividend / divisor + (dividend % divisor == 0 ? 0 : 1);
+    }
+
+    private static class Segment {
+        // access ordered and hence iterates from the least recently used entry
+        private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long maxEntries;
+        private final long maxWeight;
+        private long weight;
+
+        private Segment(long maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    private static class CacheEntry {
+        private final CompletableFuture<PreparsedDocumentEntry> documentEntry = new CompletableFuture<>();
+        // the weight is only known once the document has been parsed
+        private long weight;
+    }
+
+    public static Builder newCachingPreparsedDocumentProvider() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private long maxEntries = 1000;
+        private long maxWeight = Long.MAX_VALUE;
+        private int segments = 16;
+
+        /**
+         * The maximum number of documents to cache, defaults to 1000
+         *
+         * @param maxEntries the maximum number of documents
+         *
+         * @return this builder
+         */
+        public Builder maxEntries(long maxEntries) {
+            assertTrue(maxEntries > 0, () -> "maxEntries must be greater than zero");
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * The maximum estimated weight of the cached documents, where the weight of a document is its number of
+         * AST nodes.  By default only the number of entries is bounded.
+         *
+         * @param maxWeight the maximum total number of AST nodes
+         *
+         * @return this builder
+         */
+        public Builder maxWeight(long maxWeight) {
+            assertTrue(maxWeight > 0, () -> "maxWeight must be greater than zero");
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * The number of segments the entries are striped over, which is rounded down to a power of two.  More segments
+         * mean less contention but since each segment evicts on its own, the eviction becomes less precise.
+         * Defaults to 16.
+         *
+         * @param segments the number of segments
+         *
+         * @return this builder
+         */
+        public Builder segments(int segments) {
+            assertTrue(segments > 0, () -> "segments must be greater than zero");
+            this.segments = segments;
+            return this;
+        }
+
+        public CachingPreparsedDocumentProvider build() {
+            return new CachingPreparsedDocumentProvider(this);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package graphql.execution.preparsed;
 
+import graphql.ExperimentalApi;
 import graphql.GraphQLError;
 import graphql.PublicApi;
+import graphql.execution.ExecutionPlan;
 import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static graphql.Assert.assertNotNull;
 import static java.util.Collections.singletonList;
@@ -22,8 +28,15 @@ import static java.util.Collections.singletonList;
  */
 @PublicApi
 public class PreparsedDocumentEntry implements Serializable {
+    /**
+     * A document is rarely executed with more than a few schemas and operation names, and the plans of schemas
+     * that have been replaced are let go once there are more than this
+     */
+    private static final int MAX_EXECUTION_PLANS = 8;
+
     private final Document document;
     private final List<? extends GraphQLError> errors;
+    private transient volatile Map<PlanKey, ExecutionPlan> executionPlans;
 
     public PreparsedDocumentEntry(Document document,
                                   List<? extends GraphQLError> errors) {
@@ -60,4 +73,74 @@ public class PreparsedDocumentEntry implements Serializable {
     public boolean hasErrors() {
         return errors != null && !errors.isEmpty();
     }
+
+    /**
+     * An {@link ExecutionPlan} is kept alongside the document so that a cached entry can re-use the fields collected
+     * during previous executions of the same document.  A plan is kept per schema and operation name, so documents
+     * with several operations or that are executed against several schemas keep all their plans.  The plans are not
+     * serialised and are re-created after the entry has been deserialised.
+     *
+     * @param graphQLSchema the schema the document is executed against
+     * @param operationName the name of the operation being executed
+     *
+     * @return the execution plan for this document, schema and operation name
+     */
+    @ExperimentalApi
+    public ExecutionPlan getExecutionPlan(GraphQLSchema graphQLSchema, String operationName) {
+        assertNotNull(document, () -> "An execution plan requires a document");
+        Map<PlanKey, ExecutionPlan> plans = executionPlans();
+        PlanKey key = new PlanKey(graphQLSchema, operationName);
+        ExecutionPlan plan = plans.get(key);
+        if (plan != null) {
+            return plan;
+        }
+        if (plans.size() >= MAX_EXECUTION_PLANS) {
+            plans.clear();
+        }
+        return plans.computeIfAbsent(key, ignored -> new ExecutionPlan(graphQLSchema, document, operationName));
+    }
+
+    private Map<PlanKey, ExecutionPlan> executionPlans() {
+        Map<PlanKey, ExecutionPlan> plans = executionPlans;
+        if (plans == null) {
+            synchronized (this) {
+                plans = executionPlans;
+                if (plans == null) {
+                    plans = new ConcurrentHashMap<>();
+                    executionPlans = plans;
+                }
+            }
+        }
+        return plans;
+    }
+
+    /**
+     * Schemas are compared by identity as a plan holds on to the types of the schema it was made for
+     */
+    private static class PlanKey {
+        private final GraphQLSchema graphQLSchema;
+        private final String operationName;
+
+        private PlanKey(GraphQLSchema graphQLSchema, String operationName) {
+            this.graphQLSchema = graphQLSchema;
+            this.operationName = operationName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PlanKey that = (PlanKey) o;
+            return graphQLSchema == that.graphQLSchema && Objects.equals(operationName, that.operationName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(graphQLSchema) + Objects.hashCode(operationName);
+        }
+    }
 }
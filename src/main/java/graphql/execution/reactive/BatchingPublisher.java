@@ -0,0 +1,208 @@
+package graphql.execution.reactive;
+
+import graphql.Internal;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A reactive Publisher that bridges over another Publisher and publishes its values in batches.  A batch is published
+ * once it has the maximum number of values or once the maximum delay has passed since its first value arrived, whichever
+ * comes first, and any partial batch is published when the upstream publisher completes.
+ * <p>
+ * Upstream values are only requested to fill a batch the downstream subscriber has asked for, so back pressure is kept
+ * in units of batches.
+ *
+ * @param <T> the things to batch
+ */
+@SuppressWarnings("ReactiveStreamsPublisherImplementation")
+@Internal
+public class BatchingPublisher<T> implements Publisher<List<T>> {
+
+    private final Publisher<T> upstreamPublisher;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param upstreamPublisher an upstream source of data
+     * @param maxBatchSize      the most values in a batch
+     * @param maxDelay          the longest a value waits for its batch to fill up
+     * @param scheduler         the scheduler that publishes the batches that do not fill up in time
+     */
+    public BatchingPublisher(Publisher<T> upstreamPublisher, int maxBatchSize, Duration maxDelay, ScheduledExecutorService scheduler) {
+        assertTrue(maxBatchSize > 0, () -> "maxBatchSize must be greater than 0");
+        assertTrue(!maxDelay.isNegative() && !maxDelay.isZero(), () -> "maxDelay must be greater than zero");
+        this.upstreamPublisher = assertNotNull(upstreamPublisher);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.scheduler = assertNotNull(scheduler);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super List<T>> downstreamSubscriber) {
+        upstreamPublisher.subscribe(new BatchingSubscriber(downstreamSubscriber));
+    }
+
+    @SuppressWarnings("ReactiveStreamsSubscriberImplementation")
+    private class BatchingSubscriber implements Subscriber<T>, Subscription {
+        private final Subscriber<? super List<T>> downstreamSubscriber;
+        private final NonBlockingMutexExecutor mutex = new NonBlockingMutexExecutor();
+
+        // only touched inside the mutex
+        private Subscription upstreamSubscription;
+        private List<T> batch = new ArrayList<>();
+        private final Deque<List<T>> fullBatches = new ArrayDeque<>();
+        private ScheduledFuture<?> timeout;
+        private long demand;
+        private long upstreamOutstanding;
+        private boolean upstreamDone;
+        private Throwable upstreamError;
+        private boolean finished;
+
+        private BatchingSubscriber(Subscriber<? super List<T>> downstreamSubscriber) {
+            this.downstreamSubscriber = downstreamSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            mutex.execute(() -> {
+                upstreamSubscription = subscription;
+                downstreamSubscriber.onSubscribe(this);
+            });
+        }
+
+        @Override
+        public void onNext(T value) {
+            mutex.execute(() -> {
+                if (finished || upstreamDone) {
+                    return;
+                }
+                upstreamOutstanding--;
+                batch.add(value);
+                if (batch.size() >= maxBatchSize) {
+                    closeBatch();
+                } else if (batch.size() == 1) {
+                    List<T> timedBatch = batch;
+                    timeout = scheduler.schedule(() -> mutex.execute(() -> {
+                        // the batch may have filled up in the meantime
+                        if (batch == timedBatch && !finished) {
+                            closeBatch();
+                        }
+                    }), maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            mutex.execute(() -> {
+                upstreamError = t;
+                onUpstreamDone();
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            mutex.execute(this::onUpstreamDone);
+        }
+
+        private void onUpstreamDone() {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+            if (!batch.isEmpty()) {
+                closeBatch();
+            } else {
+                publish();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            mutex.execute(() -> {
+                if (finished) {
+                    return;
+                }
+                if (n <= 0) {
+                    cancel();
+                    finished = true;
+                    downstreamSubscriber.onError(new IllegalArgumentException("Reactive streams 3.9 spec violation: non-positive subscription request"));
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Overflow protection
+                publish();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            mutex.execute(() -> {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                cancelTimeout();
+                batch = new ArrayList<>();
+                fullBatches.clear();
+                upstreamSubscription.cancel();
+            });
+        }
+
+        private void closeBatch() {
+            cancelTimeout();
+            fullBatches.add(batch);
+            batch = new ArrayList<>();
+            publish();
+        }
+
+        private void cancelTimeout() {
+            if (timeout != null) {
+                timeout.cancel(false);
+                timeout = null;
+            }
+        }
+
+        private void publish() {
+            while (!finished && demand > 0 && !fullBatches.isEmpty()) {
+                demand--;
+                downstreamSubscriber.onNext(fullBatches.poll());
+            }
+            if (finished) {
+                return;
+            }
+            if (upstreamDone) {
+                if (fullBatches.isEmpty()) {
+                    finished = true;
+                    if (upstreamError != null) {
+                        downstreamSubscriber.onError(upstreamError);
+                    } else {
+                        downstreamSubscriber.onComplete();
+                    }
+                }
+                return;
+            }
+            // fill the next batch that has been asked for, one batch at a time
+            if (demand > fullBatches.size()) {
+                long toRequest = maxBatchSize - batch.size() - upstreamOutstanding;
+                if (toRequest > 0) {
+                    upstreamOutstanding += toRequest;
+                    upstreamSubscription.request(toRequest);
+                }
+            }
+        }
+    }
+}
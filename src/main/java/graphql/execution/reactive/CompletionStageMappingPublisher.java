@@ -5,17 +5,26 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 
-import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
 /**
  * A reactive Publisher that bridges over another Publisher of `D` and maps the results
  * to type `U` via a CompletionStage, handling errors in that stage
+ * <p>
+ * The mapped values are published in the order of the upstream values, whatever order their CompletionStages complete in,
+ * and no more than a set number of upstream values are requested ahead of being published, so a fast upstream publisher
+ * can't build up an unbounded number of CompletionStages in flight.  Upstream values are only requested as the downstream
+ * subscriber asks for mapped values.
  *
  * @param <D> the down stream type
  * @param <U> the up stream type to be mapped to
@@ -23,8 +32,16 @@ import java.util.function.Function;
 @SuppressWarnings("ReactiveStreamsPublisherImplementation")
 @Internal
 public class CompletionStageMappingPublisher<D, U> implements Publisher<D> {
+
+    /**
+     * The number of mapped values that can be in flight by default
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 32;
+
     private final Publisher<U> upstreamPublisher;
     private final Function<U, CompletionStage<D>> mapper;
+    private final int maxInFlight;
+    private final MappingObserver<U, D> mappingObserver;
 
     /**
      * You need the following :
@@ -33,8 +50,23 @@ public class CompletionStageMappingPublisher<D, U> implements Publisher<D> {
      * @param mapper            a mapper function that turns upstream data into a promise of mapped D downstream data
      */
     public CompletionStageMappingPublisher(Publisher<U> upstreamPublisher, Function<U, CompletionStage<D>> mapper) {
+        this(upstreamPublisher, mapper, DEFAULT_MAX_IN_FLIGHT, null);
+    }
+
+    /**
+     * You need the following :
+     *
+     * @param upstreamPublisher an upstream source of data
+     * @param mapper            a mapper function that turns upstream data into a promise of mapped D downstream data
+     * @param maxInFlight       the most upstream values that can be requested or mapped but not yet published
+     * @param mappingObserver   an optional observer that is told as each value is mapped and published
+     */
+    public CompletionStageMappingPublisher(Publisher<U> upstreamPublisher, Function<U, CompletionStage<D>> mapper, int maxInFlight, MappingObserver<U, D> mappingObserver) {
+        assertTrue(maxInFlight > 0, () -> "maxInFlight must be greater than 0");
         this.upstreamPublisher = upstreamPublisher;
-        this.mapper = mapper;
+        this.mapper = assertNotNull(mapper);
+        this.maxInFlight = maxInFlight;
+        this.mappingObserver = mappingObserver;
     }
 
     @Override
@@ -50,89 +82,128 @@ public class CompletionStageMappingPublisher<D, U> implements Publisher<D> {
         return upstreamPublisher;
     }
 
+    /**
+     * @return the most upstream values that can be requested or mapped but not yet published
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Told about each upstream value as it is mapped, which can be used to measure how deep the in flight values get and how
+     * long each value takes to be published
+     *
+     * @param <U> the up stream type
+     * @param <D> the down stream type
+     */
+    @Internal
+    public interface MappingObserver<U, D> {
+        /**
+         * Called as an upstream value is about to be mapped
+         *
+         * @param upstreamValue the upstream value
+         * @param inFlight      the number of values in flight, including this one
+         *
+         * @return called back when the mapped value is published downstream or has failed, or with a {@link CancellationException}
+         * when the value is dropped because the downstream subscriber has cancelled or an earlier value has failed
+         */
+        BiConsumer<D, Throwable> onMapping(U upstreamValue, int inFlight);
+    }
+
     @SuppressWarnings("ReactiveStreamsSubscriberImplementation")
     @Internal
-    public class CompletionStageSubscriber implements Subscriber<U> {
+    public class CompletionStageSubscriber implements Subscriber<U>, Subscription {
         private final Subscriber<? super D> downstreamSubscriber;
-        Subscription delegatingSubscription;
-        final Queue<CompletionStage<?>> inFlightDataQ;
-        final AtomicReference<Runnable> onCompleteOrErrorRun;
-        final AtomicBoolean onCompleteOrErrorRunCalled;
+        private final Queue<InFlight> inFlightDataQ = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlightCount = new AtomicInteger();
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile Subscription upstreamSubscription;
+        private volatile boolean upstreamDone;
+        private volatile Throwable upstreamError;
+        // set by a non positive request, which the draining thread passes on so the downstream signals stay serialised
+        private volatile Throwable requestError;
+        private volatile boolean cancelled;
+        // only touched while draining - upstream values requested that have not been published yet
+        private long requestedUpstream;
+        // only touched while draining - set once no more values will be published, with the reason the rest are dropped
+        private CancellationException terminationReason;
 
         public CompletionStageSubscriber(Subscriber<? super D> downstreamSubscriber) {
             this.downstreamSubscriber = downstreamSubscriber;
-            inFlightDataQ = new ArrayDeque<>();
-            onCompleteOrErrorRun = new AtomicReference<>();
-            onCompleteOrErrorRunCalled = new AtomicBoolean(false);
         }
 
-
         @Override
         public void onSubscribe(Subscription subscription) {
-            delegatingSubscription = new DelegatingSubscription(subscription);
-            downstreamSubscriber.onSubscribe(delegatingSubscription);
+            upstreamSubscription = subscription;
+            downstreamSubscriber.onSubscribe(this);
         }
 
         @Override
         public void onNext(U u) {
             // for safety - no more data after we have called done/error - we should not get this BUT belts and braces
-            if (onCompleteOrErrorRunCalled.get()) {
+            if (cancelled || upstreamDone) {
+                return;
+            }
+            InFlight inFlight = new InFlight();
+            if (mappingObserver != null) {
+                inFlight.onPublished = mappingObserver.onMapping(u, inFlightCount.incrementAndGet());
+            } else {
+                inFlightCount.incrementAndGet();
+            }
+            // upstream values arrive one at a time so the queue is in upstream order
+            inFlightDataQ.offer(inFlight);
+            if (cancelled) {
+                // cancelled while this value was being queued, so make sure it is let go of
+                drain();
                 return;
             }
             try {
                 CompletionStage<D> completionStage = mapper.apply(u);
-                offerToInFlightQ(completionStage);
-                completionStage.whenComplete(whenNextFinished(completionStage));
+                completionStage.whenComplete((d, throwable) -> {
+                    inFlight.complete(d, throwable);
+                    drain();
+                });
             } catch (RuntimeException throwable) {
-                handleThrowable(throwable);
-            }
-        }
-
-        private BiConsumer<D, Throwable> whenNextFinished(CompletionStage<D> completionStage) {
-            return (d, throwable) -> {
-                try {
-                    if (throwable != null) {
-                        handleThrowable(throwable);
-                    } else {
-                        downstreamSubscriber.onNext(d);
-                    }
-                } finally {
-                    Runnable runOnCompleteOrErrorRun = onCompleteOrErrorRun.get();
-                    boolean empty = removeFromInFlightQAndCheckIfEmpty(completionStage);
-                    if (empty && runOnCompleteOrErrorRun != null) {
-                        onCompleteOrErrorRun.set(null);
-                        runOnCompleteOrErrorRun.run();
-                    }
-                }
-            };
-        }
-
-        private void handleThrowable(Throwable throwable) {
-            downstreamSubscriber.onError(throwable);
-            //
-            // reactive semantics say that IF an exception happens on a publisher
-            // then onError is called and no more messages flow.  But since the exception happened
-            // during the mapping, the upstream publisher does not no about this.
-            // so we cancel to bring the semantics back together, that is as soon as an exception
-            // has happened, no more messages flow
-            //
-            delegatingSubscription.cancel();
+                inFlight.complete(null, throwable);
+                drain();
+            }
         }
 
         @Override
         public void onError(Throwable t) {
-            onCompleteOrError(() -> {
-                onCompleteOrErrorRunCalled.set(true);
-                downstreamSubscriber.onError(t);
-            });
+            upstreamError = t;
+            upstreamDone = true;
+            drain();
         }
 
         @Override
         public void onComplete() {
-            onCompleteOrError(() -> {
-                onCompleteOrErrorRunCalled.set(true);
-                downstreamSubscriber.onComplete();
-            });
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("Reactive streams 3.9 spec violation: non-positive subscription request");
+                drain();
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = demand.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n; // Overflow protection
+            } while (!demand.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstreamSubscription.cancel();
+            drain();
         }
 
         /**
@@ -143,32 +214,143 @@ public class CompletionStageMappingPublisher<D, U> implements Publisher<D> {
             return downstreamSubscriber;
         }
 
-        private void onCompleteOrError(Runnable doneCodeToRun) {
-            if (inFlightQIsEmpty()) {
-                // run right now
-                doneCodeToRun.run();
-            } else {
-                onCompleteOrErrorRun.set(doneCodeToRun);
+        /**
+         * @return the number of upstream values that have been mapped but not published yet
+         */
+        public int getInFlightCount() {
+            return inFlightCount.get();
+        }
+
+        // publishes what it can, only ever on one thread at a time
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (; ; ) {
+                if (terminationReason != null) {
+                    // values queued by an onNext that raced the termination are let go of too
+                    dropInFlight(terminationReason);
+                } else {
+                    drainOnce();
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
             }
         }
 
-        private void offerToInFlightQ(CompletionStage<?> completionStage) {
-            synchronized (inFlightDataQ) {
-                inFlightDataQ.offer(completionStage);
+        private void drainOnce() {
+            if (cancelled) {
+                terminate(new CancellationException("The subscription has been cancelled"));
+                return;
+            }
+            if (requestError != null) {
+                cancelled = true;
+                upstreamSubscription.cancel();
+                terminate(new CancellationException("The subscription has failed"));
+                downstreamSubscriber.onError(requestError);
+                return;
             }
+            long wanted = demand.get();
+            long published = 0;
+            for (; ; ) {
+                InFlight head = inFlightDataQ.peek();
+                if (head == null || !head.completed) {
+                    break;
+                }
+                if (head.throwable != null) {
+                    handleThrowable(head);
+                    return;
+                }
+                if (published == wanted) {
+                    break;
+                }
+                inFlightDataQ.poll();
+                inFlightCount.decrementAndGet();
+                published++;
+                downstreamSubscriber.onNext(head.value);
+                head.published(null);
+            }
+            if (published != 0) {
+                requestedUpstream -= published;
+                if (wanted != Long.MAX_VALUE) {
+                    demand.addAndGet(-published);
+                }
+            }
+            if (upstreamDone && inFlightDataQ.isEmpty()) {
+                cancelled = true;
+                terminate(new CancellationException("The subscription has completed"));
+                if (upstreamError != null) {
+                    downstreamSubscriber.onError(upstreamError);
+                } else {
+                    downstreamSubscriber.onComplete();
+                }
+                return;
+            }
+            requestMoreUpstream();
+        }
+
+        private void terminate(CancellationException reason) {
+            terminationReason = reason;
+            dropInFlight(reason);
+        }
+
+        private void requestMoreUpstream() {
+            if (upstreamDone) {
+                return;
+            }
+            long toRequest = Math.min(demand.get(), maxInFlight) - requestedUpstream;
+            if (toRequest > 0) {
+                requestedUpstream += toRequest;
+                upstreamSubscription.request(toRequest);
+            }
+        }
+
+        private void handleThrowable(InFlight failed) {
+            cancelled = true;
+            inFlightDataQ.poll();
+            inFlightCount.decrementAndGet();
+            terminate(new CancellationException("An earlier value has failed"));
+            downstreamSubscriber.onError(failed.throwable);
+            failed.published(failed.throwable);
+            //
+            // reactive semantics say that IF an exception happens on a publisher
+            // then onError is called and no more messages flow.  But since the exception happened
+            // during the mapping, the upstream publisher does not no about this.
+            // so we cancel to bring the semantics back together, that is as soon as an exception
+            // has happened, no more messages flow
+            //
+            upstreamSubscription.cancel();
         }
 
-        private boolean removeFromInFlightQAndCheckIfEmpty(CompletionStage<?> completionStage) {
-            // uncontested locks in java are cheap - we don't expect much contention here
-            synchronized (inFlightDataQ) {
-                inFlightDataQ.remove(completionStage);
-                return inFlightDataQ.isEmpty();
+        // the values that will never be published are told so, so that whoever observes them can finish up
+        private void dropInFlight(CancellationException reason) {
+            InFlight dropped;
+            while ((dropped = inFlightDataQ.poll()) != null) {
+                inFlightCount.decrementAndGet();
+                dropped.published(reason);
             }
         }
+    }
+
+    private class InFlight {
+        private volatile boolean completed;
+        private D value;
+        private Throwable throwable;
+        private BiConsumer<D, Throwable> onPublished;
+
+        private void complete(D value, Throwable throwable) {
+            this.value = value;
+            this.throwable = throwable;
+            // the volatile write publishes the value and throwable to the draining thread
+            this.completed = true;
+        }
 
-        private boolean inFlightQIsEmpty() {
-            synchronized (inFlightDataQ) {
-                return inFlightDataQ.isEmpty();
+        private void published(Throwable throwable) {
+            if (onPublished != null) {
+                onPublished.accept(value, throwable);
             }
         }
     }
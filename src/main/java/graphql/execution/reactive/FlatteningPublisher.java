@@ -0,0 +1,147 @@
+package graphql.execution.reactive;
+
+import graphql.Internal;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * A reactive Publisher that bridges over a Publisher of lists and publishes the values of each list one by one, in order.
+ * <p>
+ * The next list is only requested from upstream once the values of the previous one have all been asked for downstream,
+ * so back pressure is kept in units of values.
+ *
+ * @param <T> the things to publish
+ */
+@SuppressWarnings("ReactiveStreamsPublisherImplementation")
+@Internal
+public class FlatteningPublisher<T> implements Publisher<T> {
+
+    private final Publisher<? extends List<T>> upstreamPublisher;
+
+    /**
+     * @param upstreamPublisher an upstream source of lists
+     */
+    public FlatteningPublisher(Publisher<? extends List<T>> upstreamPublisher) {
+        this.upstreamPublisher = assertNotNull(upstreamPublisher);
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> downstreamSubscriber) {
+        upstreamPublisher.subscribe(new FlatteningSubscriber(downstreamSubscriber));
+    }
+
+    @SuppressWarnings("ReactiveStreamsSubscriberImplementation")
+    private class FlatteningSubscriber implements Subscriber<List<T>>, Subscription {
+        private final Subscriber<? super T> downstreamSubscriber;
+        private final NonBlockingMutexExecutor mutex = new NonBlockingMutexExecutor();
+
+        // only touched inside the mutex
+        private Subscription upstreamSubscription;
+        private final Deque<T> values = new ArrayDeque<>();
+        private long demand;
+        private boolean upstreamOutstanding;
+        private boolean upstreamDone;
+        private Throwable upstreamError;
+        private boolean finished;
+
+        private FlatteningSubscriber(Subscriber<? super T> downstreamSubscriber) {
+            this.downstreamSubscriber = downstreamSubscriber;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            mutex.execute(() -> {
+                upstreamSubscription = subscription;
+                downstreamSubscriber.onSubscribe(this);
+            });
+        }
+
+        @Override
+        public void onNext(List<T> list) {
+            mutex.execute(() -> {
+                if (finished || upstreamDone) {
+                    return;
+                }
+                upstreamOutstanding = false;
+                values.addAll(list);
+                publish();
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            mutex.execute(() -> {
+                upstreamDone = true;
+                upstreamError = t;
+                publish();
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            mutex.execute(() -> {
+                upstreamDone = true;
+                publish();
+            });
+        }
+
+        @Override
+        public void request(long n) {
+            mutex.execute(() -> {
+                if (finished) {
+                    return;
+                }
+                if (n <= 0) {
+                    cancel();
+                    finished = true;
+                    downstreamSubscriber.onError(new IllegalArgumentException("Reactive streams 3.9 spec violation: non-positive subscription request"));
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Overflow protection
+                publish();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            mutex.execute(() -> {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                values.clear();
+                upstreamSubscription.cancel();
+            });
+        }
+
+        private void publish() {
+            while (!finished && demand > 0 && !values.isEmpty()) {
+                demand--;
+                downstreamSubscriber.onNext(values.poll());
+            }
+            if (finished || !values.isEmpty()) {
+                return;
+            }
+            if (upstreamDone) {
+                finished = true;
+                if (upstreamError != null) {
+                    downstreamSubscriber.onError(upstreamError);
+                } else {
+                    downstreamSubscriber.onComplete();
+                }
+                return;
+            }
+            if (demand > 0 && !upstreamOutstanding) {
+                upstreamOutstanding = true;
+                upstreamSubscription.request(1);
+            }
+        }
+    }
+}
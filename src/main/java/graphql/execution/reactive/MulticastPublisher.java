@@ -0,0 +1,329 @@
+package graphql.execution.reactive;
+
+import graphql.Internal;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertNotNullWithNPE;
+import static graphql.Assert.assertTrue;
+
+/**
+ * A Publisher that subscribes once to an upstream Publisher and publishes each of its values to all of its own subscribers.
+ * <p>
+ * The upstream subscription is made when the first subscriber arrives and is cancelled when the last one leaves, and a
+ * subscriber that arrives while the upstream subscription is live gets the values published after it arrived.  The upstream
+ * publisher is only ever subscribed to once, since it may not allow more than one subscription, so a subscriber that arrives
+ * after the upstream subscription has ended is told straight away: with the error the upstream publisher failed with, and
+ * otherwise as complete, which includes when the upstream subscription was cancelled because all the subscribers had left.
+ * <p>
+ * Each value is held once in a ring buffer and each subscriber reads from it as its own demand allows, so a slow subscriber
+ * does not hold up the others until it is a whole buffer behind, at which point no more values are requested from upstream
+ * until it catches up.  This keeps to reactive streams back pressure for every subscriber.
+ * <p>
+ * All the state is changed inside a {@link NonBlockingMutexExecutor} so the signals from upstream and from the subscribers
+ * are handled one at a time, on whichever thread sent them.
+ *
+ * @param <T> the things to publish
+ */
+@SuppressWarnings("ReactiveStreamsPublisherImplementation")
+@Internal
+public class MulticastPublisher<T> implements Publisher<T> {
+
+    // given to the subscribers that arrive after the upstream subscription has ended
+    private static final Subscription ENDED = new Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final Publisher<T> upstreamPublisher;
+    private final int bufferSize;
+    private final Runnable onDisconnect;
+    private final NonBlockingMutexExecutor mutex = new NonBlockingMutexExecutor();
+
+    // only touched inside the mutex
+    private Connection connection;
+    // the upstream subscription that has ended, if there has been one
+    private Connection endedConnection;
+
+    /**
+     * @param upstreamPublisher the publisher to share
+     * @param bufferSize        how many values a subscriber can fall behind the upstream publisher
+     * @param onDisconnect      called when the upstream subscription ends, because all the subscribers have left or because it completed
+     */
+    public MulticastPublisher(Publisher<T> upstreamPublisher, int bufferSize, Runnable onDisconnect) {
+        assertTrue(bufferSize > 0, () -> "bufferSize must be greater than 0");
+        this.upstreamPublisher = assertNotNull(upstreamPublisher);
+        this.bufferSize = bufferSize;
+        this.onDisconnect = assertNotNull(onDisconnect);
+    }
+
+    /**
+     * @return the publisher that is shared
+     */
+    public Publisher<T> getUpstreamPublisher() {
+        return upstreamPublisher;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        assertNotNullWithNPE(subscriber, () -> "Subscriber passed to subscribe must not be null");
+        mutex.execute(() -> {
+            if (endedConnection != null) {
+                subscriber.onSubscribe(ENDED);
+                if (endedConnection.error != null) {
+                    subscriber.onError(endedConnection.error);
+                } else {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+            boolean connect = connection == null;
+            if (connect) {
+                connection = new Connection();
+            }
+            Member member = connection.join(subscriber);
+            subscriber.onSubscribe(member);
+            if (connect) {
+                upstreamPublisher.subscribe(connection);
+            }
+        });
+    }
+
+    /**
+     * One subscription to the upstream publisher along with the subscribers it publishes to
+     */
+    @SuppressWarnings("ReactiveStreamsSubscriberImplementation")
+    private class Connection implements Subscriber<T> {
+        private final Object[] buffer = new Object[bufferSize];
+        private final Set<Member> members = new LinkedHashSet<>();
+        private Subscription subscription;
+        // values requested from upstream that have not arrived yet
+        private long outstanding;
+        // values received from upstream, the next one goes in buffer[received % bufferSize]
+        private long received;
+        // the fewest values any member has read and how many members have read that many
+        private long minConsumed;
+        private int atMinimum;
+        private boolean terminated;
+        private Throwable error;
+
+        private boolean isLive() {
+            return connection == this;
+        }
+
+        private Member join(Subscriber<? super T> subscriber) {
+            Member member = new Member(this, subscriber, received);
+            members.add(member);
+            if (received == minConsumed) {
+                atMinimum++;
+            }
+            return member;
+        }
+
+        private void leave(Member member) {
+            if (!members.remove(member)) {
+                return;
+            }
+            if (member.consumed == minConsumed && --atMinimum == 0) {
+                recomputeMinimum();
+            }
+            if (members.isEmpty() && isLive()) {
+                connection = null;
+                endedConnection = this;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                onDisconnect.run();
+            }
+        }
+
+        private void advanced(long previouslyConsumed) {
+            if (previouslyConsumed == minConsumed && --atMinimum == 0) {
+                recomputeMinimum();
+            }
+        }
+
+        private void recomputeMinimum() {
+            long previousMinimum = minConsumed;
+            long minimum = received;
+            int count = 0;
+            for (Member member : members) {
+                if (member.consumed < minimum) {
+                    minimum = member.consumed;
+                    count = 1;
+                } else if (member.consumed == minimum) {
+                    count++;
+                }
+            }
+            // let go of the values every member has read
+            for (long i = previousMinimum; i < minimum; i++) {
+                buffer[(int) (i % bufferSize)] = null;
+            }
+            minConsumed = minimum;
+            atMinimum = count;
+        }
+
+        private void requestMore() {
+            if (!isLive() || subscription == null) {
+                return;
+            }
+            long free = bufferSize - (received - minConsumed) - outstanding;
+            if (free > 0) {
+                outstanding += free;
+                subscription.request(free);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T valueAt(long index) {
+            return (T) buffer[(int) (index % bufferSize)];
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            mutex.execute(() -> {
+                if (!isLive()) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+                requestMore();
+            });
+        }
+
+        @Override
+        public void onNext(T value) {
+            mutex.execute(() -> {
+                // values can still arrive after the last member has left and upstream has been cancelled
+                if (!isLive()) {
+                    return;
+                }
+                buffer[(int) (received % bufferSize)] = value;
+                received++;
+                outstanding--;
+                drainAll();
+                requestMore();
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            mutex.execute(() -> terminate(t));
+        }
+
+        @Override
+        public void onComplete() {
+            mutex.execute(() -> terminate(null));
+        }
+
+        private void terminate(Throwable t) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            error = t;
+            if (isLive()) {
+                connection = null;
+                endedConnection = this;
+                onDisconnect.run();
+            }
+            // the members read what is left in the buffer before they are told
+            drainAll();
+        }
+
+        private void drainAll() {
+            // members can leave while they are drained
+            for (Member member : new ArrayList<>(members)) {
+                member.drain();
+            }
+        }
+    }
+
+    /**
+     * A subscriber of the publisher, along with how far it has read and how much more it wants
+     */
+    private class Member implements Subscription {
+        private final Connection connection;
+        private final Subscriber<? super T> subscriber;
+        private long consumed;
+        private long demand;
+        private boolean done;
+
+        private Member(Connection connection, Subscriber<? super T> subscriber, long consumed) {
+            this.connection = connection;
+            this.subscriber = subscriber;
+            this.consumed = consumed;
+        }
+
+        @Override
+        public void request(long n) {
+            mutex.execute(() -> {
+                if (done) {
+                    return;
+                }
+                if (n <= 0) {
+                    finish();
+                    subscriber.onError(new IllegalArgumentException("Reactive streams 3.9 spec violation: non-positive subscription request"));
+                    return;
+                }
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // Overflow protection
+                drain();
+                connection.requestMore();
+            });
+        }
+
+        @Override
+        public void cancel() {
+            mutex.execute(() -> {
+                if (!done) {
+                    finish();
+                }
+            });
+        }
+
+        private void finish() {
+            done = true;
+            connection.leave(this);
+        }
+
+        private void drain() {
+            long previouslyConsumed = consumed;
+            try {
+                while (!done && demand > 0 && consumed < connection.received) {
+                    T value = connection.valueAt(consumed);
+                    consumed++;
+                    demand--;
+                    subscriber.onNext(value);
+                }
+            } catch (RuntimeException e) {
+                // reactive streams 2.13 - a subscriber that throws is treated as cancelled
+                consumed = previouslyConsumed;
+                done = true;
+                connection.leave(this);
+                return;
+            }
+            if (consumed != previouslyConsumed) {
+                connection.advanced(previouslyConsumed);
+            }
+            if (!done && connection.terminated && consumed == connection.received) {
+                finish();
+                if (connection.error != null) {
+                    subscriber.onError(connection.error);
+                } else {
+                    subscriber.onComplete();
+                }
+            }
+        }
+    }
+}
@@ -24,7 +24,8 @@ import java.util.function.Function;
 @PublicApi
 public class SubscriptionPublisher implements Publisher<ExecutionResult> {
 
-    private final CompletionStageMappingPublisher<ExecutionResult, Object> mappingPublisher;
+    private final Publisher<Object> upstreamPublisher;
+    private final Publisher<ExecutionResult> executionResults;
 
     /**
      * Subscription consuming code is not expected to create instances of this class
@@ -34,7 +35,25 @@ public class SubscriptionPublisher implements Publisher<ExecutionResult> {
      */
     @Internal
     public  SubscriptionPublisher(Publisher<Object> upstreamPublisher, Function<Object, CompletionStage<ExecutionResult>> mapper) {
-        mappingPublisher = new CompletionStageMappingPublisher<>(upstreamPublisher, mapper);
+        this(upstreamPublisher, new CompletionStageMappingPublisher<>(upstreamPublisher, mapper));
+    }
+
+    private SubscriptionPublisher(Publisher<Object> upstreamPublisher, Publisher<ExecutionResult> executionResults) {
+        this.upstreamPublisher = upstreamPublisher;
+        this.executionResults = executionResults;
+    }
+
+    /**
+     * Subscription consuming code is not expected to create instances of this class
+     *
+     * @param upstreamPublisher the original publisher of objects that then have a graphql selection set applied to them
+     * @param executionResults  a publisher of the execution results of those objects, which may be shared with other subscriptions
+     *
+     * @return a subscription publisher of the execution results
+     */
+    @Internal
+    public static SubscriptionPublisher ofExecutionResults(Publisher<Object> upstreamPublisher, Publisher<ExecutionResult> executionResults) {
+        return new SubscriptionPublisher(upstreamPublisher, executionResults);
     }
 
     /**
@@ -42,11 +61,11 @@ public class SubscriptionPublisher implements Publisher<ExecutionResult> {
      * to execution results
      */
     public Publisher<Object> getUpstreamPublisher() {
-        return mappingPublisher.getUpstreamPublisher();
+        return upstreamPublisher;
     }
 
     @Override
     public void subscribe(Subscriber<? super ExecutionResult> subscriber) {
-        mappingPublisher.subscribe(subscriber);
+        executionResults.subscribe(subscriber);
     }
 }
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static graphql.Assert.assertNotNull;
 import static graphql.Assert.assertTrue;
@@ -58,6 +59,8 @@ public class ExecutableNormalizedField {
     // Mutable List on purpose: it is modified after creation
     private final LinkedHashSet<String> objectTypeNames;
     private final ArrayList<ExecutableNormalizedField> children;
+    // collects the children on first use when the operation is expanded lazily
+    private volatile Supplier<List<ExecutableNormalizedField>> childrenCollector;
     private ExecutableNormalizedField parent;
 
     private final String fieldName;
@@ -172,7 +175,7 @@ public class ExecutableNormalizedField {
     }
 
     public boolean hasChildren() {
-        return children.size() > 0;
+        return ensureChildren().size() > 0;
     }
 
     public GraphQLOutputType getType(GraphQLSchema schema) {
@@ -247,12 +250,35 @@ public class ExecutableNormalizedField {
 
     @Internal
     public void addChild(ExecutableNormalizedField executableNormalizedField) {
-        this.children.add(executableNormalizedField);
+        ensureChildren().add(executableNormalizedField);
     }
 
     @Internal
     public void clearChildren() {
-        this.children.clear();
+        ensureChildren().clear();
+    }
+
+    /**
+     * The children of this field are collected by the given collector the first time they are asked for
+     *
+     * @param childrenCollector collects the children of this field
+     */
+    void collectChildrenLazily(Supplier<List<ExecutableNormalizedField>> childrenCollector) {
+        this.childrenCollector = childrenCollector;
+    }
+
+    private ArrayList<ExecutableNormalizedField> ensureChildren() {
+        if (childrenCollector != null) {
+            synchronized (this) {
+                Supplier<List<ExecutableNormalizedField>> collector = childrenCollector;
+                if (collector != null) {
+                    children.addAll(collector.get());
+                    // the collector is released once the children are in place so other threads see them all
+                    childrenCollector = null;
+                }
+            }
+        }
+        return children;
     }
 
     /**
@@ -407,7 +433,7 @@ public class ExecutableNormalizedField {
      * @return the children of the {@link ExecutableNormalizedField}
      */
     public List<ExecutableNormalizedField> getChildren() {
-        return children;
+        return ensureChildren();
     }
 
     /**
@@ -418,7 +444,7 @@ public class ExecutableNormalizedField {
      * @return a list of all direct {@link ExecutableNormalizedField} children with the specified result key
      */
     public List<ExecutableNormalizedField> getChildrenWithSameResultKey(String resultKey) {
-        return FpKit.filterList(children, child -> child.getResultKey().equals(resultKey));
+        return FpKit.filterList(ensureChildren(), child -> child.getResultKey().equals(resultKey));
     }
 
     public List<ExecutableNormalizedField> getChildren(int includingRelativeLevel) {
@@ -439,7 +465,7 @@ public class ExecutableNormalizedField {
      * @return a list of child fields that would apply to that object type
      */
     public List<ExecutableNormalizedField> getChildren(String objectTypeName) {
-        return children.stream()
+        return ensureChildren().stream()
                 .filter(cld -> cld.objectTypeNames.contains(objectTypeName))
                 .collect(toList());
     }
@@ -473,7 +499,7 @@ public class ExecutableNormalizedField {
                 objectTypeNamesToString() + "." + fieldName +
                 ", alias=" + alias +
                 ", level=" + level +
-                ", children=" + children.stream().map(ExecutableNormalizedField::toString).collect(joining("\n")) +
+                ", children=" + ensureChildren().stream().map(ExecutableNormalizedField::toString).collect(joining("\n")) +
                 '}';
     }
 
@@ -598,7 +624,7 @@ public class ExecutableNormalizedField {
             this.resolvedArguments = existing.resolvedArguments;
             this.objectTypeNames = new LinkedHashSet<>(existing.getObjectTypeNames());
             this.fieldName = existing.getFieldName();
-            this.children = new ArrayList<>(existing.children);
+            this.children = new ArrayList<>(existing.ensureChildren());
             this.level = existing.getLevel();
             this.parent = existing.getParent();
         }
@@ -16,6 +16,7 @@ import graphql.execution.conditional.ConditionalNodes;
 import graphql.execution.directives.QueryDirectives;
 import graphql.execution.directives.QueryDirectivesImpl;
 import graphql.introspection.Introspection;
+import graphql.language.AstComparator;
 import graphql.language.Document;
 import graphql.language.Field;
 import graphql.language.FragmentDefinition;
@@ -43,6 +44,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -53,6 +55,7 @@ import static graphql.Assert.assertNotNull;
 import static graphql.Assert.assertShouldNeverHappen;
 import static graphql.collect.ImmutableKit.map;
 import static graphql.schema.GraphQLTypeUtil.unwrapAll;
+import static graphql.util.FpKit.filterList;
 import static graphql.util.FpKit.filterSet;
 import static graphql.util.FpKit.groupingBy;
 import static graphql.util.FpKit.intersection;
@@ -66,23 +69,33 @@ import static java.util.Collections.singletonList;
 @PublicApi
 public class ExecutableNormalizedOperationFactory {
     public static class Options {
+        /**
+         * When this key is set to true in the {@link GraphQLContext} of an execution, the {@link ExecutableNormalizedOperation}
+         * of the execution is created with {@link #lazyChildren(boolean)}
+         */
+        public static final String LAZY_CHILDREN_CONTEXT_KEY = "graphql.normalized.lazyChildren";
+
         private final GraphQLContext graphQLContext;
         private final Locale locale;
         private final int maxChildrenDepth;
+        private final boolean lazyChildren;
 
         private Options(GraphQLContext graphQLContext,
                         Locale locale,
-                        int maxChildrenDepth) {
+                        int maxChildrenDepth,
+                        boolean lazyChildren) {
             this.graphQLContext = graphQLContext;
             this.locale = locale;
             this.maxChildrenDepth = maxChildrenDepth;
+            this.lazyChildren = lazyChildren;
         }
 
         public static Options defaultOptions() {
             return new Options(
                     GraphQLContext.getDefault(),
                     Locale.getDefault(),
-                    Integer.MAX_VALUE);
+                    Integer.MAX_VALUE,
+                    false);
         }
 
         /**
@@ -94,7 +107,7 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options locale(Locale locale) {
-            return new Options(this.graphQLContext, locale, this.maxChildrenDepth);
+            return new Options(this.graphQLContext, locale, this.maxChildrenDepth, this.lazyChildren);
         }
 
         /**
@@ -106,7 +119,7 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options graphQLContext(GraphQLContext graphQLContext) {
-            return new Options(graphQLContext, this.locale, this.maxChildrenDepth);
+            return new Options(graphQLContext, this.locale, this.maxChildrenDepth, this.lazyChildren);
         }
 
         /**
@@ -117,7 +130,25 @@ public class ExecutableNormalizedOperationFactory {
          * @return new options object to use
          */
         public Options maxChildrenDepth(int maxChildrenDepth) {
-            return new Options(this.graphQLContext, this.locale, maxChildrenDepth);
+            return new Options(this.graphQLContext, this.locale, maxChildrenDepth, this.lazyChildren);
+        }
+
+        /**
+         * Controls whether the children of a field are collected when the operation is created or only when they are
+         * first asked for, which keeps the operation small when only parts of it are ever looked at, say when
+         * fields of interfaces or unions with many implementations are only used via
+         * {@link graphql.schema.DataFetchingFieldSelectionSet}s.
+         * <p>
+         * A lazy operation does not merge fields for different object types as described in {@link ENFMerger}, instead
+         * object types share one field when they select the same fields and declare the field in the same interface.
+         * Its maps, such as {@link ExecutableNormalizedOperation#getNormalizedFieldToMergedField()}, expand the
+         * whole operation when asked for.
+         *
+         * @param lazyChildren true to collect the children of fields when they are first asked for
+         * @return new options object to use
+         */
+        public Options lazyChildren(boolean lazyChildren) {
+            return new Options(this.graphQLContext, this.locale, this.maxChildrenDepth, lazyChildren);
         }
 
         /**
@@ -143,6 +174,14 @@ public class ExecutableNormalizedOperationFactory {
         public int getMaxChildrenDepth() {
             return maxChildrenDepth;
         }
+
+        /**
+         * @return whether the children of fields are collected when first asked for
+         * @see #lazyChildren(boolean)
+         */
+        public boolean isLazyChildren() {
+            return lazyChildren;
+        }
     }
 
     private final ConditionalNodes conditionalNodes = new ConditionalNodes();
@@ -196,6 +235,31 @@ public class ExecutableNormalizedOperationFactory {
                 Options.defaultOptions());
     }
 
+    /**
+     * This will create a runtime representation of the graphql operation that would be executed
+     * in a runtime sense.
+     *
+     * @param graphQLSchema         the schema to be used
+     * @param operationDefinition   the operation to be executed
+     * @param fragments             a set of fragments associated with the operation
+     * @param coercedVariableValues the coerced variables to use
+     * @param options               the {@link Options} to use for parsing
+     *
+     * @return a runtime representation of the graphql operation.
+     */
+    public static ExecutableNormalizedOperation createExecutableNormalizedOperation(GraphQLSchema graphQLSchema,
+                                                                                    OperationDefinition operationDefinition,
+                                                                                    Map<String, FragmentDefinition> fragments,
+                                                                                    CoercedVariables coercedVariableValues,
+                                                                                    Options options) {
+        return new ExecutableNormalizedOperationFactory().createNormalizedQueryImpl(graphQLSchema,
+                operationDefinition,
+                fragments,
+                coercedVariableValues,
+                null,
+                options);
+    }
+
     /**
      * This will create a runtime representation of the graphql operation that would be executed
      * in a runtime sense.
@@ -315,9 +379,15 @@ public class ExecutableNormalizedOperationFactory {
                 .schema(graphQLSchema)
                 .coercedVariables(coercedVariableValues.toMap())
                 .normalizedVariables(normalizedVariableValues)
+                .graphQLContext(options.getGraphQLContext())
+                .locale(options.getLocale())
+                .lazyChildren(options.isLazyChildren())
                 .build();
 
         GraphQLObjectType rootType = SchemaUtil.getOperationRootType(graphQLSchema, operationDefinition);
+        if (options.isLazyChildren()) {
+            return createLazyNormalizedQuery(graphQLSchema, operationDefinition, coercedVariableValues, options, parameters, rootType);
+        }
 
         CollectNFResult collectFromOperationResult = collectFromOperation(parameters, operationDefinition, rootType);
 
@@ -368,6 +438,56 @@ public class ExecutableNormalizedOperationFactory {
     }
 
 
+    private ExecutableNormalizedOperation createLazyNormalizedQuery(GraphQLSchema graphQLSchema,
+                                                                    OperationDefinition operationDefinition,
+                                                                    CoercedVariables coercedVariableValues,
+                                                                    Options options,
+                                                                    FieldCollectorNormalizedQueryParams parameters,
+                                                                    GraphQLObjectType rootType) {
+        CollectNFResult collectFromOperationResult = collectFromOperation(parameters, operationDefinition, rootType);
+        if (!collectFromOperationResult.children.isEmpty() && 1 > options.getMaxChildrenDepth()) {
+            throw new AbortExecutionException("Maximum query depth exceeded 1 > " + options.getMaxChildrenDepth());
+        }
+
+        LazyExecutableNormalizedOperation normalizedOperation = new LazyExecutableNormalizedOperation(
+                operationDefinition.getOperation(),
+                operationDefinition.getName(),
+                new ArrayList<>(collectFromOperationResult.children),
+                graphQLSchema,
+                coercedVariableValues,
+                options);
+        for (ExecutableNormalizedField topLevel : collectFromOperationResult.children) {
+            ImmutableList<FieldAndAstParent> fieldAndAstParents = collectFromOperationResult.normalizedFieldToAstFields.get(topLevel);
+            normalizedOperation.addMergedField(topLevel, newMergedField(fieldAndAstParents));
+            collectChildrenLazily(topLevel, fieldAndAstParents, parameters, normalizedOperation, 1, options.getMaxChildrenDepth());
+        }
+        return normalizedOperation;
+    }
+
+    private void collectChildrenLazily(ExecutableNormalizedField executableNormalizedField,
+                                       ImmutableList<FieldAndAstParent> fieldAndAstParents,
+                                       FieldCollectorNormalizedQueryParams fieldCollectorNormalizedQueryParams,
+                                       LazyExecutableNormalizedOperation normalizedOperation,
+                                       int curLevel,
+                                       int maxLevel) {
+        // leaf fields have no children to collect
+        if (fieldAndAstParents.stream().allMatch(fieldAndAstParent -> fieldAndAstParent.field.getSelectionSet() == null)) {
+            return;
+        }
+        executableNormalizedField.collectChildrenLazily(() -> {
+            CollectNFResult nextLevel = collectFromMergedField(fieldCollectorNormalizedQueryParams, executableNormalizedField, fieldAndAstParents, curLevel + 1);
+            if (!nextLevel.children.isEmpty() && curLevel + 1 > maxLevel) {
+                throw new AbortExecutionException("Maximum query depth exceeded " + (curLevel + 1) + " > " + maxLevel);
+            }
+            for (ExecutableNormalizedField childENF : nextLevel.children) {
+                ImmutableList<FieldAndAstParent> childFieldAndAstParents = nextLevel.normalizedFieldToAstFields.get(childENF);
+                normalizedOperation.addMergedField(childENF, newMergedField(childFieldAndAstParents));
+                collectChildrenLazily(childENF, childFieldAndAstParents, fieldCollectorNormalizedQueryParams, normalizedOperation, curLevel + 1, maxLevel);
+            }
+            return ImmutableList.copyOf(nextLevel.children);
+        });
+    }
+
     private void buildFieldWithChildren(ExecutableNormalizedField executableNormalizedField,
                                         ImmutableList<FieldAndAstParent> fieldAndAstParents,
                                         FieldCollectorNormalizedQueryParams fieldCollectorNormalizedQueryParams,
@@ -511,7 +631,7 @@ public class ExecutableNormalizedOperationFactory {
                            ExecutableNormalizedField parent) {
         for (String resultKey : fieldsByName.keySet()) {
             List<CollectedField> fieldsWithSameResultKey = fieldsByName.get(resultKey);
-            List<CollectedFieldGroup> commonParentsGroups = groupByCommonParents(fieldsWithSameResultKey);
+            List<CollectedFieldGroup> commonParentsGroups = groupByCommonParents(parameters, fieldsWithSameResultKey);
             for (CollectedFieldGroup fieldGroup : commonParentsGroups) {
                 ExecutableNormalizedField nf = createNF(parameters, fieldGroup, level, parent);
                 if (nf == null) {
@@ -522,7 +642,7 @@ public class ExecutableNormalizedOperationFactory {
                 }
                 nfListBuilder.add(nf);
             }
-            if (commonParentsGroups.size() > 1) {
+            if (commonParentsGroups.size() > 1 && !parameters.isLazyChildren()) {
                 parameters.addPossibleMergers(parent, resultKey);
             }
         }
@@ -567,7 +687,7 @@ public class ExecutableNormalizedOperationFactory {
         }
     }
 
-    private List<CollectedFieldGroup> groupByCommonParents(Collection<CollectedField> fields) {
+    private List<CollectedFieldGroup> groupByCommonParents(FieldCollectorNormalizedQueryParams parameters, Collection<CollectedField> fields) {
         ImmutableSet.Builder<GraphQLObjectType> objectTypes = ImmutableSet.builder();
         for (CollectedField collectedField : fields) {
             objectTypes.addAll(collectedField.objectTypes);
@@ -577,6 +697,9 @@ public class ExecutableNormalizedOperationFactory {
         if (groupByAstParent.size() == 1) {
             return singletonList(new CollectedFieldGroup(ImmutableSet.copyOf(fields), allRelevantObjects));
         }
+        if (parameters.isLazyChildren()) {
+            return groupBySharedFields(fields, allRelevantObjects);
+        }
         ImmutableList.Builder<CollectedFieldGroup> result = ImmutableList.builder();
         for (GraphQLObjectType objectType : allRelevantObjects) {
             Set<CollectedField> relevantFields = filterSet(fields, field -> field.objectTypes.contains(objectType));
@@ -585,6 +708,61 @@ public class ExecutableNormalizedOperationFactory {
         return result.build();
     }
 
+    /*
+     * Object types share one group when they select the same fields and declare the field in the same interface, which
+     * stands in for the ENFMerger in lazy operations: the object types of a shared group have the same children.
+     */
+    private List<CollectedFieldGroup> groupBySharedFields(Collection<CollectedField> fields, Set<GraphQLObjectType> allRelevantObjects) {
+        String fieldName = fields.iterator().next().field.getName();
+        List<CollectedFieldGroup> groups = new ArrayList<>();
+        List<List<CollectedField>> groupSelections = new ArrayList<>();
+        List<String> groupDeclarations = new ArrayList<>();
+        for (GraphQLObjectType objectType : allRelevantObjects) {
+            List<CollectedField> relevantFields = filterList(fields, field -> field.objectTypes.contains(objectType));
+            String declaration = fieldDeclaration(objectType, fieldName);
+            int groupIndex = 0;
+            while (groupIndex < groups.size()
+                    && !(groupDeclarations.get(groupIndex).equals(declaration) && sameSelection(groupSelections.get(groupIndex), relevantFields))) {
+                groupIndex++;
+            }
+            if (groupIndex == groups.size()) {
+                groups.add(new CollectedFieldGroup(new LinkedHashSet<>(), new LinkedHashSet<>()));
+                groupSelections.add(relevantFields);
+                groupDeclarations.add(declaration);
+            }
+            CollectedFieldGroup group = groups.get(groupIndex);
+            group.fields.addAll(relevantFields);
+            group.objectTypes.add(objectType);
+        }
+        return groups;
+    }
+
+    private boolean sameSelection(List<CollectedField> fieldsOne, List<CollectedField> fieldsTwo) {
+        if (fieldsOne.size() != fieldsTwo.size()) {
+            return false;
+        }
+        for (int i = 0; i < fieldsOne.size(); i++) {
+            Field fieldOne = fieldsOne.get(i).field;
+            Field fieldTwo = fieldsTwo.get(i).field;
+            if (fieldOne != fieldTwo && !AstComparator.isEqual(fieldOne, fieldTwo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String fieldDeclaration(GraphQLObjectType objectType, String fieldName) {
+        if (fieldName.equals(Introspection.TypeNameMetaFieldDef.getName())) {
+            return fieldName;
+        }
+        for (GraphQLNamedOutputType interfaceType : objectType.getInterfaces()) {
+            if (((GraphQLInterfaceType) interfaceType).getFieldDefinition(fieldName) != null) {
+                return interfaceType.getName();
+            }
+        }
+        return objectType.getName();
+    }
+
 
     private void collectFromSelectionSet(FieldCollectorNormalizedQueryParams parameters,
                                          SelectionSet selectionSet,
@@ -22,6 +22,7 @@ public class FieldCollectorNormalizedQueryParams {
     private final Map<String, NormalizedInputValue> normalizedVariableValues;
     private final GraphQLContext graphQLContext;
     private final Locale locale;
+    private final boolean lazyChildren;
 
     private final List<PossibleMerger> possibleMergerList = new ArrayList<>();
 
@@ -69,6 +70,10 @@ public class FieldCollectorNormalizedQueryParams {
         return locale;
     }
 
+    public boolean isLazyChildren() {
+        return lazyChildren;
+    }
+
     private FieldCollectorNormalizedQueryParams(Builder builder) {
         this.fragmentsByName = builder.fragmentsByName;
         this.graphQLSchema = builder.graphQLSchema;
@@ -76,6 +81,7 @@ public class FieldCollectorNormalizedQueryParams {
         this.normalizedVariableValues = builder.normalizedVariableValues;
         this.graphQLContext = builder.graphQLContext;
         this.locale = builder.locale;
+        this.lazyChildren = builder.lazyChildren;
     }
 
     public static Builder newParameters() {
@@ -89,6 +95,7 @@ public class FieldCollectorNormalizedQueryParams {
         private Map<String, NormalizedInputValue> normalizedVariableValues;
         private GraphQLContext graphQLContext = GraphQLContext.getDefault();
         private Locale locale = Locale.getDefault();
+        private boolean lazyChildren;
 
         /**
          * @see FieldCollectorNormalizedQueryParams#newParameters()
@@ -127,6 +134,11 @@ public class FieldCollectorNormalizedQueryParams {
             return this;
         }
 
+        public Builder lazyChildren(boolean lazyChildren) {
+            this.lazyChildren = lazyChildren;
+            return this;
+        }
+
         public FieldCollectorNormalizedQueryParams build() {
             Assert.assertNotNull(graphQLSchema, () -> "You must provide a schema");
             return new FieldCollectorNormalizedQueryParams(this);
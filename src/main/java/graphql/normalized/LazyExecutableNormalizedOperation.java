@@ -0,0 +1,182 @@
+package graphql.normalized;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import graphql.Assert;
+import graphql.Internal;
+import graphql.execution.CoercedVariables;
+import graphql.execution.MergedField;
+import graphql.execution.ResultPath;
+import graphql.execution.directives.QueryDirectives;
+import graphql.execution.directives.QueryDirectivesImpl;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.schema.FieldCoordinates;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ExecutableNormalizedOperation} whose fields collect their children the first time they are asked for,
+ * see {@link ExecutableNormalizedOperationFactory.Options#lazyChildren(boolean)}.
+ * <p>
+ * Looking up a field by its result path only expands the fields along that path, while the maps over all the fields
+ * of the operation expand the whole operation the first time one of them is asked for.
+ */
+@Internal
+class LazyExecutableNormalizedOperation extends ExecutableNormalizedOperation {
+
+    private final GraphQLSchema graphQLSchema;
+    private final CoercedVariables coercedVariables;
+    private final ExecutableNormalizedOperationFactory.Options options;
+    private final Map<ExecutableNormalizedField, MergedField> normalizedFieldToMergedField = new ConcurrentHashMap<>();
+    private final Map<ExecutableNormalizedField, QueryDirectives> normalizedFieldToQueryDirectives = new ConcurrentHashMap<>();
+    private volatile ExpandedOperation expandedOperation;
+
+    LazyExecutableNormalizedOperation(OperationDefinition.Operation operation,
+                                      String operationName,
+                                      List<ExecutableNormalizedField> topLevelFields,
+                                      GraphQLSchema graphQLSchema,
+                                      CoercedVariables coercedVariables,
+                                      ExecutableNormalizedOperationFactory.Options options) {
+        super(operation, operationName, topLevelFields, ImmutableListMultimap.of(), ImmutableMap.of(), ImmutableMap.of(), ImmutableListMultimap.of());
+        this.graphQLSchema = graphQLSchema;
+        this.coercedVariables = coercedVariables;
+        this.options = options;
+    }
+
+    void addMergedField(ExecutableNormalizedField executableNormalizedField, MergedField mergedField) {
+        normalizedFieldToMergedField.put(executableNormalizedField, mergedField);
+    }
+
+    @Override
+    public ImmutableListMultimap<FieldCoordinates, ExecutableNormalizedField> getCoordinatesToNormalizedFields() {
+        return expandedOperation().coordinatesToNormalizedFields;
+    }
+
+    @Override
+    public ImmutableListMultimap<Field, ExecutableNormalizedField> getFieldToNormalizedField() {
+        return expandedOperation().fieldToNormalizedField;
+    }
+
+    @Override
+    public List<ExecutableNormalizedField> getNormalizedFields(Field field) {
+        return expandedOperation().fieldToNormalizedField.get(field);
+    }
+
+    @Override
+    public Map<ExecutableNormalizedField, MergedField> getNormalizedFieldToMergedField() {
+        return expandedOperation().normalizedFieldToMergedField;
+    }
+
+    @Override
+    public MergedField getMergedField(ExecutableNormalizedField executableNormalizedField) {
+        return normalizedFieldToMergedField.get(executableNormalizedField);
+    }
+
+    @Override
+    public Map<ExecutableNormalizedField, QueryDirectives> getNormalizedFieldToQueryDirectives() {
+        return expandedOperation().normalizedFieldToQueryDirectives;
+    }
+
+    @Override
+    public QueryDirectives getQueryDirectives(ExecutableNormalizedField executableNormalizedField) {
+        MergedField mergedField = normalizedFieldToMergedField.get(executableNormalizedField);
+        if (mergedField == null) {
+            return null;
+        }
+        // QueryDirectivesImpl is a lazy object and only computes itself when asked for
+        return normalizedFieldToQueryDirectives.computeIfAbsent(executableNormalizedField, ignored ->
+                new QueryDirectivesImpl(mergedField, graphQLSchema, coercedVariables.toMap(), options.getGraphQLContext(), options.getLocale()));
+    }
+
+    @Override
+    public ExecutableNormalizedField getNormalizedField(MergedField mergedField, GraphQLFieldsContainer fieldsContainer, ResultPath resultPath) {
+        List<String> keysOnlyPath = resultPath.getKeysOnly();
+        List<ExecutableNormalizedField> candidates = getTopLevelFields();
+        for (int i = 0; i < keysOnlyPath.size() - 1; i++) {
+            // only the fields along the path have their children collected
+            List<ExecutableNormalizedField> children = new ArrayList<>();
+            for (ExecutableNormalizedField candidate : candidates) {
+                if (candidate.getResultKey().equals(keysOnlyPath.get(i))) {
+                    children.addAll(candidate.getChildren());
+                }
+            }
+            candidates = children;
+        }
+        Field field = mergedField.getSingleField();
+        for (ExecutableNormalizedField candidate : candidates) {
+            if (candidate.getResultKey().equals(keysOnlyPath.get(keysOnlyPath.size() - 1))
+                    && candidate.getObjectTypeNames().contains(fieldsContainer.getName())
+                    && containsField(normalizedFieldToMergedField.get(candidate), field)) {
+                return candidate;
+            }
+        }
+        return Assert.assertShouldNeverHappen("normalized field not found");
+    }
+
+    private static boolean containsField(MergedField mergedField, Field field) {
+        for (Field mergedFieldField : mergedField.getFields()) {
+            if (mergedFieldField == field) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ExpandedOperation expandedOperation() {
+        ExpandedOperation expanded = expandedOperation;
+        if (expanded == null) {
+            expanded = new ExpandedOperation();
+            expandedOperation = expanded;
+        }
+        return expanded;
+    }
+
+    /**
+     * The maps over all the fields of the operation, in the order the eager operation has them
+     */
+    private class ExpandedOperation {
+        private final ImmutableListMultimap<Field, ExecutableNormalizedField> fieldToNormalizedField;
+        private final ImmutableMap<ExecutableNormalizedField, MergedField> normalizedFieldToMergedField;
+        private final ImmutableMap<ExecutableNormalizedField, QueryDirectives> normalizedFieldToQueryDirectives;
+        private final ImmutableListMultimap<FieldCoordinates, ExecutableNormalizedField> coordinatesToNormalizedFields;
+
+        private ExpandedOperation() {
+            ImmutableListMultimap.Builder<Field, ExecutableNormalizedField> fieldToNormalizedField = ImmutableListMultimap.builder();
+            ImmutableMap.Builder<ExecutableNormalizedField, MergedField> normalizedFieldToMergedField = ImmutableMap.builder();
+            ImmutableMap.Builder<ExecutableNormalizedField, QueryDirectives> normalizedFieldToQueryDirectives = ImmutableMap.builder();
+            ImmutableListMultimap.Builder<FieldCoordinates, ExecutableNormalizedField> coordinatesToNormalizedFields = ImmutableListMultimap.builder();
+            for (ExecutableNormalizedField topLevel : getTopLevelFields()) {
+                add(topLevel, fieldToNormalizedField, normalizedFieldToMergedField, normalizedFieldToQueryDirectives, coordinatesToNormalizedFields);
+            }
+            this.fieldToNormalizedField = fieldToNormalizedField.build();
+            this.normalizedFieldToMergedField = normalizedFieldToMergedField.build();
+            this.normalizedFieldToQueryDirectives = normalizedFieldToQueryDirectives.build();
+            this.coordinatesToNormalizedFields = coordinatesToNormalizedFields.build();
+        }
+
+        private void add(ExecutableNormalizedField executableNormalizedField,
+                         ImmutableListMultimap.Builder<Field, ExecutableNormalizedField> fieldToNormalizedField,
+                         ImmutableMap.Builder<ExecutableNormalizedField, MergedField> normalizedFieldToMergedField,
+                         ImmutableMap.Builder<ExecutableNormalizedField, QueryDirectives> normalizedFieldToQueryDirectives,
+                         ImmutableListMultimap.Builder<FieldCoordinates, ExecutableNormalizedField> coordinatesToNormalizedFields) {
+            MergedField mergedField = getMergedField(executableNormalizedField);
+            normalizedFieldToMergedField.put(executableNormalizedField, mergedField);
+            normalizedFieldToQueryDirectives.put(executableNormalizedField, getQueryDirectives(executableNormalizedField));
+            for (Field field : mergedField.getFields()) {
+                fieldToNormalizedField.put(field, executableNormalizedField);
+            }
+            for (String objectType : executableNormalizedField.getObjectTypeNames()) {
+                coordinatesToNormalizedFields.put(FieldCoordinates.coordinates(objectType, executableNormalizedField.getFieldName()), executableNormalizedField);
+            }
+            for (ExecutableNormalizedField child : executableNormalizedField.getChildren()) {
+                add(child, fieldToNormalizedField, normalizedFieldToMergedField, normalizedFieldToQueryDirectives, coordinatesToNormalizedFields);
+            }
+        }
+    }
+}
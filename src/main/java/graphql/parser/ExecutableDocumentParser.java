@@ -0,0 +1,866 @@
+package graphql.parser;
+
+import com.google.common.collect.ImmutableList;
+import graphql.Internal;
+import graphql.i18n.I18n;
+import graphql.language.Argument;
+import graphql.language.ArrayValue;
+import graphql.language.BooleanValue;
+import graphql.language.Comment;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FloatValue;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.ListType;
+import graphql.language.NodeBuilder;
+import graphql.language.NonNullType;
+import graphql.language.NullValue;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.SourceLocation;
+import graphql.language.StringValue;
+import graphql.language.Type;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static graphql.collect.ImmutableKit.emptyList;
+import static graphql.parser.StringValueParsing.parseSingleQuotedString;
+import static graphql.parser.StringValueParsing.parseTripleQuotedString;
+
+/**
+ * A hand written recursive descent parser for executable documents, that is documents made of operations and fragments.
+ * <p>
+ * It scans the characters of the document and builds the {@link graphql.language} nodes directly, instead of
+ * building an ANTLR token stream and parse tree and then converting that into the AST.  The nodes it builds
+ * are the same as the ones {@link GraphqlAntlrToLanguage} would build, including source locations and comments.
+ * <p>
+ * This parser only handles the happy path.  If the document is not a valid executable document, contains type system
+ * definitions or breaks one of the {@link ParserOptions} limits then it gives up and returns null, and the
+ * document has to be parsed by the ANTLR based {@link Parser}, which then produces the exact same errors as it
+ * always has.
+ * <p>
+ * The limits are counted like the {@link SafeTokenSource} counts the tokens of the ANTLR lexer, per token channel:
+ * <ul>
+ *     <li>every ignored character, that is a space, tab, comma, byte order mark, line feed, carriage return or unicode
+ *     line terminator, is one whitespace token counted against {@link ParserOptions#getMaxWhitespaceTokens()}</li>
+ *     <li>every comment, which runs up to the next line feed or carriage return, is one token counted against
+ *     {@link ParserOptions#getMaxTokens()}, separately from the grammar tokens</li>
+ *     <li>every name, number, string, block string, {@code ...} and punctuator is one grammar token, as is the end of
+ *     the document, counted against {@link ParserOptions#getMaxTokens()}</li>
+ * </ul>
+ * A document that reaches a limit is handed to the ANTLR based parser, so the limits can only let a document through
+ * when the ANTLR based parser lets it through as well.
+ */
+@Internal
+public class ExecutableDocumentParser {
+
+    private static final int EOF = -1;
+    private static final int NAME = -2;
+    private static final int INT = -3;
+    private static final int FLOAT = -4;
+    private static final int STRING = -5;
+    private static final int BLOCK_STRING = -6;
+    private static final int SPREAD = -7;
+    // all other tokens are single punctuator characters and use the character as their kind
+
+    private static final List<Comment> NO_COMMENTS = emptyList();
+
+    private final char[] chars;
+    private final int length;
+    private final I18n i18N;
+    private final boolean captureSourceLocation;
+    private final boolean captureLineComments;
+    private final int maxTokens;
+    private final int maxWhitespaceTokens;
+    private final int maxRuleDepth;
+
+    // the scanner state - lines are 0 based and are only ended by \n like in the ANTLR lexer
+    private int pos;
+    private int line;
+    private int lineStart;
+    private int surrogatePairsOnLine;
+    private int tokenCount;
+    private int commentCount;
+    private int whitespaceCount;
+    private int lineTerminatorCount = -1;
+
+    // the current token
+    private int kind;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int tokenColumn;
+    private List<Comment> tokenComments;
+    private SourceLocation tokenSourceLocation;
+
+    private ExecutableDocumentParser(char[] chars, int length, ParserOptions parserOptions, I18n i18N) {
+        this.chars = chars;
+        this.length = length;
+        this.i18N = i18N;
+        this.captureSourceLocation = parserOptions.isCaptureSourceLocation();
+        this.captureLineComments = parserOptions.isCaptureLineComments();
+        this.maxTokens = parserOptions.getMaxTokens();
+        this.maxWhitespaceTokens = parserOptions.getMaxWhitespaceTokens();
+        this.maxRuleDepth = parserOptions.getMaxRuleDepth();
+    }
+
+    /**
+     * Parses the characters of an executable document
+     *
+     * @param chars         the characters of the document
+     * @param length        the number of characters in the array that make up the document
+     * @param parserOptions the parser options to use
+     * @param i18N          the {@link I18n} to use
+     *
+     * @return the parsed document or null if the document can not be parsed by this parser
+     */
+    @Nullable
+    public static Document parse(char[] chars, int length, ParserOptions parserOptions, I18n i18N) {
+        ExecutableDocumentParser parser = new ExecutableDocumentParser(chars, length, parserOptions, i18N);
+        try {
+            return parser.parseDocument();
+        } catch (CannotParseException | InvalidSyntaxException e) {
+            // invalid string escapes are reported by the ANTLR based parser as well, after it has checked the limits
+            return null;
+        }
+    }
+
+    //
+    // The rule depths mirror the ANTLR grammar rules so that the max rule depth is honoured.  Where the grammar rule
+    // depends on tokens that are yet to come, the deeper of the rules is assumed.
+    //
+
+    private Document parseDocument() {
+        nextToken();
+        checkDepth(1);
+        Document.Builder document = Document.newDocument();
+        addCommonData(document);
+        ImmutableList.Builder<Definition> definitions = ImmutableList.builder();
+        do {
+            definitions.add(parseDefinition(2));
+        } while (kind != EOF);
+        document.definitions(definitions.build());
+        return document.build();
+    }
+
+    private Definition parseDefinition(int depth) {
+        checkDepth(depth);
+        if (kind == '{' || isKeyword("query") || isKeyword("mutation") || isKeyword("subscription")) {
+            return parseOperationDefinition(depth + 1);
+        }
+        if (isKeyword("fragment")) {
+            return parseFragmentDefinition(depth + 1);
+        }
+        // type system definitions and anything unexpected
+        throw CannotParseException.INSTANCE;
+    }
+
+    private OperationDefinition parseOperationDefinition(int depth) {
+        checkDepth(depth);
+        OperationDefinition.Builder operationDefinition = OperationDefinition.newOperationDefinition();
+        addCommonData(operationDefinition);
+        if (kind == '{') {
+            operationDefinition.operation(OperationDefinition.Operation.QUERY);
+        } else {
+            checkDepth(depth + 1);
+            operationDefinition.operation(parseOperation());
+            if (kind == NAME) {
+                operationDefinition.name(parseName(depth + 1));
+            }
+        }
+        operationDefinition.variableDefinitions(parseVariableDefinitions(depth + 1));
+        List<Directive> directives = parseDirectives(depth + 1);
+        operationDefinition.selectionSet(parseSelectionSet(depth + 1));
+        operationDefinition.directives(directives);
+        return operationDefinition.build();
+    }
+
+    private OperationDefinition.Operation parseOperation() {
+        OperationDefinition.Operation operation;
+        if (isKeyword("query")) {
+            operation = OperationDefinition.Operation.QUERY;
+        } else if (isKeyword("mutation")) {
+            operation = OperationDefinition.Operation.MUTATION;
+        } else {
+            operation = OperationDefinition.Operation.SUBSCRIPTION;
+        }
+        nextToken();
+        return operation;
+    }
+
+    private List<VariableDefinition> parseVariableDefinitions(int depth) {
+        if (kind != '(') {
+            return emptyList();
+        }
+        checkDepth(depth);
+        nextToken();
+        ImmutableList.Builder<VariableDefinition> variableDefinitions = ImmutableList.builder();
+        do {
+            variableDefinitions.add(parseVariableDefinition(depth + 1));
+        } while (kind != ')');
+        nextToken();
+        return variableDefinitions.build();
+    }
+
+    private VariableDefinition parseVariableDefinition(int depth) {
+        checkDepth(depth);
+        VariableDefinition.Builder variableDefinition = VariableDefinition.newVariableDefinition();
+        addCommonData(variableDefinition);
+        expect('$');
+        variableDefinition.name(parseName(depth + 2));
+        expect(':');
+        variableDefinition.type(parseType(depth + 1));
+        if (kind == '=') {
+            checkDepth(depth + 1);
+            nextToken();
+            variableDefinition.defaultValue(parseValue(depth + 2, true));
+        }
+        variableDefinition.directives(parseDirectives(depth + 1));
+        return variableDefinition.build();
+    }
+
+    private FragmentDefinition parseFragmentDefinition(int depth) {
+        checkDepth(depth);
+        FragmentDefinition.Builder fragmentDefinition = FragmentDefinition.newFragmentDefinition();
+        addCommonData(fragmentDefinition);
+        nextToken();
+        fragmentDefinition.name(parseFragmentName(depth + 1));
+        checkDepth(depth + 1);
+        if (!isKeyword("on")) {
+            throw CannotParseException.INSTANCE;
+        }
+        nextToken();
+        // the ANTLR based parser does not capture the source location and comments of the type condition here
+        checkDepth(depth + 2);
+        fragmentDefinition.typeCondition(TypeName.newTypeName().name(parseName(depth + 3)).build());
+        fragmentDefinition.directives(parseDirectives(depth + 1));
+        fragmentDefinition.selectionSet(parseSelectionSet(depth + 1));
+        return fragmentDefinition.build();
+    }
+
+    private SelectionSet parseSelectionSet(int depth) {
+        checkDepth(depth);
+        SelectionSet.Builder selectionSet = SelectionSet.newSelectionSet();
+        addCommonData(selectionSet);
+        expect('{');
+        ImmutableList.Builder<Selection> selections = ImmutableList.builder();
+        do {
+            selections.add(parseSelection(depth + 1));
+        } while (kind != '}');
+        nextToken();
+        selectionSet.selections(selections.build());
+        return selectionSet.build();
+    }
+
+    private Selection<?> parseSelection(int depth) {
+        checkDepth(depth);
+        if (kind == SPREAD) {
+            return parseFragment(depth + 1);
+        }
+        return parseField(depth + 1);
+    }
+
+    private Field parseField(int depth) {
+        checkDepth(depth);
+        Field.Builder field = Field.newField();
+        addCommonData(field);
+        String name = parseName(depth + 1);
+        if (kind == ':') {
+            checkDepth(depth + 3);
+            nextToken();
+            field.alias(name);
+            name = parseName(depth + 1);
+        }
+        field.name(name);
+        List<Argument> arguments = parseArguments(depth + 1);
+        field.directives(parseDirectives(depth + 1));
+        field.arguments(arguments);
+        field.selectionSet(kind == '{' ? parseSelectionSet(depth + 1) : null);
+        return field.build();
+    }
+
+    private Selection<?> parseFragment(int depth) {
+        checkDepth(depth);
+        SourceLocation sourceLocation = sourceLocation();
+        List<Comment> comments = tokenComments;
+        nextToken();
+        if (kind == NAME && !isKeyword("on")) {
+            FragmentSpread.Builder fragmentSpread = FragmentSpread.newFragmentSpread().name(parseFragmentName(depth + 1));
+            addCommonData(fragmentSpread, sourceLocation, comments);
+            fragmentSpread.directives(parseDirectives(depth + 1));
+            return fragmentSpread.build();
+        }
+        InlineFragment.Builder inlineFragment = InlineFragment.newInlineFragment();
+        addCommonData(inlineFragment, sourceLocation, comments);
+        if (kind == NAME) {
+            checkDepth(depth + 1);
+            nextToken();
+            inlineFragment.typeCondition(parseTypeName(depth + 2));
+        }
+        inlineFragment.directives(parseDirectives(depth + 1));
+        inlineFragment.selectionSet(parseSelectionSet(depth + 1));
+        return inlineFragment.build();
+    }
+
+    private List<Argument> parseArguments(int depth) {
+        if (kind != '(') {
+            return emptyList();
+        }
+        checkDepth(depth);
+        nextToken();
+        ImmutableList.Builder<Argument> arguments = ImmutableList.builder();
+        do {
+            arguments.add(parseArgument(depth + 1));
+        } while (kind != ')');
+        nextToken();
+        return arguments.build();
+    }
+
+    private Argument parseArgument(int depth) {
+        checkDepth(depth);
+        Argument.Builder argument = Argument.newArgument();
+        addCommonData(argument);
+        argument.name(parseName(depth + 1));
+        expect(':');
+        argument.value(parseValue(depth + 1, false));
+        return argument.build();
+    }
+
+    private List<Directive> parseDirectives(int depth) {
+        if (kind != '@') {
+            return emptyList();
+        }
+        checkDepth(depth);
+        ImmutableList.Builder<Directive> directives = ImmutableList.builder();
+        do {
+            directives.add(parseDirective(depth + 1));
+        } while (kind == '@');
+        return directives.build();
+    }
+
+    private Directive parseDirective(int depth) {
+        checkDepth(depth);
+        Directive.Builder directive = Directive.newDirective();
+        addCommonData(directive);
+        nextToken();
+        directive.name(parseName(depth + 1));
+        directive.arguments(parseArguments(depth + 1));
+        return directive.build();
+    }
+
+    private Type<?> parseType(int depth) {
+        checkDepth(depth);
+        SourceLocation sourceLocation = sourceLocation();
+        List<Comment> comments = tokenComments;
+        Type<?> type;
+        if (kind == '[') {
+            checkDepth(depth + 2);
+            ListType.Builder listType = ListType.newListType();
+            addCommonData(listType);
+            nextToken();
+            listType.type(parseType(depth + 3));
+            expect(']');
+            type = listType.build();
+        } else {
+            type = parseTypeName(depth + 2);
+        }
+        if (kind != '!') {
+            return type;
+        }
+        nextToken();
+        NonNullType.Builder nonNullType = NonNullType.newNonNullType();
+        addCommonData(nonNullType, sourceLocation, comments);
+        nonNullType.type(type);
+        return nonNullType.build();
+    }
+
+    private TypeName parseTypeName(int depth) {
+        checkDepth(depth);
+        TypeName.Builder typeName = TypeName.newTypeName();
+        addCommonData(typeName);
+        typeName.name(parseName(depth + 1));
+        return typeName.build();
+    }
+
+    private Value<?> parseValue(int depth, boolean constant) {
+        checkDepth(depth);
+        switch (kind) {
+            case INT: {
+                IntValue.Builder intValue = IntValue.newIntValue().value(new BigInteger(tokenText()));
+                addCommonData(intValue);
+                nextToken();
+                return intValue.build();
+            }
+            case FLOAT: {
+                FloatValue.Builder floatValue = FloatValue.newFloatValue().value(new BigDecimal(tokenText()));
+                addCommonData(floatValue);
+                nextToken();
+                return floatValue.build();
+            }
+            case STRING:
+            case BLOCK_STRING: {
+                StringValue.Builder stringValue = StringValue.newStringValue().value(quotedString());
+                addCommonData(stringValue);
+                nextToken();
+                return stringValue.build();
+            }
+            case NAME:
+                return parseNameValue(depth);
+            case '$': {
+                if (constant) {
+                    throw CannotParseException.INSTANCE;
+                }
+                checkDepth(depth + 1);
+                VariableReference.Builder variableReference = VariableReference.newVariableReference();
+                addCommonData(variableReference);
+                nextToken();
+                variableReference.name(parseName(depth + 2));
+                return variableReference.build();
+            }
+            case '[': {
+                checkDepth(depth + 1);
+                ArrayValue.Builder arrayValue = ArrayValue.newArrayValue();
+                addCommonData(arrayValue);
+                nextToken();
+                ImmutableList.Builder<Value> values = ImmutableList.builder();
+                while (kind != ']') {
+                    values.add(parseValue(depth + 2, constant));
+                }
+                nextToken();
+                arrayValue.values(values.build());
+                return arrayValue.build();
+            }
+            case '{': {
+                checkDepth(depth + 1);
+                ObjectValue.Builder objectValue = ObjectValue.newObjectValue();
+                addCommonData(objectValue);
+                nextToken();
+                ImmutableList.Builder<ObjectField> objectFields = ImmutableList.builder();
+                while (kind != '}') {
+                    // the ANTLR based parser does not capture the source location and comments of object fields
+                    checkDepth(depth + 2);
+                    String name = parseName(depth + 3);
+                    expect(':');
+                    objectFields.add(ObjectField.newObjectField()
+                            .name(name)
+                            .value(parseValue(depth + 3, constant))
+                            .build());
+                }
+                nextToken();
+                objectValue.objectFields(objectFields.build());
+                return objectValue.build();
+            }
+            default:
+                throw CannotParseException.INSTANCE;
+        }
+    }
+
+    private Value<?> parseNameValue(int depth) {
+        if (isKeyword("true") || isKeyword("false")) {
+            BooleanValue.Builder booleanValue = BooleanValue.newBooleanValue().value(isKeyword("true"));
+            addCommonData(booleanValue);
+            nextToken();
+            return booleanValue.build();
+        }
+        if (isKeyword("null")) {
+            NullValue.Builder nullValue = NullValue.newNullValue();
+            addCommonData(nullValue);
+            nextToken();
+            return nullValue.build();
+        }
+        checkDepth(depth + 3);
+        EnumValue.Builder enumValue = EnumValue.newEnumValue().name(tokenText());
+        addCommonData(enumValue);
+        nextToken();
+        return enumValue.build();
+    }
+
+    private String quotedString() {
+        String text = tokenText();
+        if (kind == BLOCK_STRING) {
+            return parseTripleQuotedString(text);
+        }
+        // the location of escaping errors is always captured
+        SourceLocation sourceLocation = new SourceLocation(tokenLine + 1, tokenColumn + 1, null);
+        return parseSingleQuotedString(i18N, text, sourceLocation);
+    }
+
+    private String parseName(int depth) {
+        // name -> baseName
+        checkDepth(depth + 1);
+        if (kind != NAME) {
+            throw CannotParseException.INSTANCE;
+        }
+        String name = tokenText();
+        nextToken();
+        return name;
+    }
+
+    private String parseFragmentName(int depth) {
+        if (isKeyword("on")) {
+            throw CannotParseException.INSTANCE;
+        }
+        return parseName(depth);
+    }
+
+    private void expect(int expectedKind) {
+        if (kind != expectedKind) {
+            throw CannotParseException.INSTANCE;
+        }
+        nextToken();
+    }
+
+    private void checkDepth(int depth) {
+        if (depth > maxRuleDepth) {
+            throw CannotParseException.INSTANCE;
+        }
+    }
+
+    private boolean isKeyword(String keyword) {
+        int tokenLength = end - start;
+        if (kind != NAME || tokenLength != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < tokenLength; i++) {
+            if (chars[start + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String tokenText() {
+        return new String(chars, start, end - start);
+    }
+
+    private void addCommonData(NodeBuilder nodeBuilder) {
+        addCommonData(nodeBuilder, sourceLocation(), tokenComments);
+    }
+
+    private void addCommonData(NodeBuilder nodeBuilder, SourceLocation sourceLocation, List<Comment> comments) {
+        if (!comments.isEmpty()) {
+            nodeBuilder.comments(comments);
+        }
+        nodeBuilder.sourceLocation(sourceLocation);
+    }
+
+    private SourceLocation sourceLocation() {
+        if (!captureSourceLocation) {
+            return SourceLocation.EMPTY;
+        }
+        // all the nodes that start at the same token share the location
+        if (tokenSourceLocation == null) {
+            tokenSourceLocation = new SourceLocation(tokenLine + 1, tokenColumn + 1, null);
+        }
+        return tokenSourceLocation;
+    }
+
+    //
+    // the scanner
+    //
+
+    private void nextToken() {
+        ImmutableList.Builder<Comment> comments = null;
+        while (pos < length) {
+            char c = chars[pos];
+            if (c == '\n') {
+                whitespace();
+                pos++;
+                line++;
+                lineStart = pos;
+                surrogatePairsOnLine = 0;
+            } else if (c == ' ' || c == ',' || c == '\t' || c == '\r' || c == '\ufeff' || c == '\u2028' || c == '\u2029') {
+                whitespace();
+                pos++;
+            } else if (c == '#') {
+                Comment comment = scanComment();
+                if (comment != null) {
+                    if (comments == null) {
+                        comments = ImmutableList.builder();
+                    }
+                    comments.add(comment);
+                }
+            } else {
+                break;
+            }
+        }
+        tokenComments = comments == null ? NO_COMMENTS : comments.build();
+        tokenSourceLocation = null;
+        tokenLine = line;
+        tokenColumn = column();
+        start = pos;
+        // the end of the document is a token as well
+        if (++tokenCount > maxTokens) {
+            throw CannotParseException.INSTANCE;
+        }
+        if (pos >= length) {
+            kind = EOF;
+            end = pos;
+            return;
+        }
+        char c = chars[pos];
+        if (isNameStart(c)) {
+            pos++;
+            while (pos < length && isNameContinue(chars[pos])) {
+                pos++;
+            }
+            kind = NAME;
+        } else if (c == '-' || isDigit(c)) {
+            scanNumber();
+        } else if (c == '"') {
+            scanString();
+        } else if (c == '.') {
+            if (pos + 2 >= length || chars[pos + 1] != '.' || chars[pos + 2] != '.') {
+                throw CannotParseException.INSTANCE;
+            }
+            pos += 3;
+            kind = SPREAD;
+        } else if (c == '{' || c == '}' || c == '(' || c == ')' || c == '[' || c == ']' || c == ':' || c == '$' || c == '@' || c == '=' || c == '!') {
+            pos++;
+            kind = c;
+        } else {
+            throw CannotParseException.INSTANCE;
+        }
+        end = pos;
+    }
+
+    private void whitespace() {
+        if (++whitespaceCount > maxWhitespaceTokens) {
+            throw CannotParseException.INSTANCE;
+        }
+    }
+
+    private Comment scanComment() {
+        if (++commentCount > maxTokens) {
+            throw CannotParseException.INSTANCE;
+        }
+        int commentLine = line;
+        int commentColumn = column();
+        int textStart = pos + 1;
+        pos = textStart;
+        while (pos < length && chars[pos] != '\n' && chars[pos] != '\r') {
+            pos = skipSourceCharacter(pos);
+        }
+        if (!captureLineComments) {
+            return null;
+        }
+        SourceLocation sourceLocation = SourceLocation.EMPTY;
+        if (captureSourceLocation) {
+            // the ANTLR based parser uses the 1 based ANTLR line as the 0 based reader line here
+            int commentReaderLine = Math.min(commentLine + 1, lineTerminatorCount());
+            sourceLocation = new SourceLocation(commentReaderLine + 1, commentColumn, null);
+        }
+        return new Comment(new String(chars, textStart, pos - textStart), sourceLocation);
+    }
+
+    private void scanNumber() {
+        int p = pos;
+        if (chars[p] == '-') {
+            p++;
+        }
+        if (p < length && chars[p] == '0') {
+            p++;
+        } else if (p < length && chars[p] >= '1' && chars[p] <= '9') {
+            p = skipDigits(p + 1);
+        } else {
+            throw CannotParseException.INSTANCE;
+        }
+        boolean isFloat = false;
+        if (p < length && chars[p] == '.') {
+            if (p + 1 >= length || !isDigit(chars[p + 1])) {
+                throw CannotParseException.INSTANCE;
+            }
+            p = skipDigits(p + 1);
+            isFloat = true;
+        }
+        if (p < length && (chars[p] == 'e' || chars[p] == 'E')) {
+            int exponent = p + 1;
+            if (exponent < length && (chars[exponent] == '+' || chars[exponent] == '-')) {
+                exponent++;
+            }
+            if (exponent < length && isDigit(chars[exponent])) {
+                p = skipDigits(exponent);
+                isFloat = true;
+            }
+        }
+        // a number can not be directly followed by a digit, a dot or a name
+        if (p < length && (isDigit(chars[p]) || chars[p] == '.' || isNameStart(chars[p]))) {
+            throw CannotParseException.INSTANCE;
+        }
+        pos = p;
+        kind = isFloat ? FLOAT : INT;
+    }
+
+    private int skipDigits(int p) {
+        while (p < length && isDigit(chars[p])) {
+            p++;
+        }
+        return p;
+    }
+
+    private void scanString() {
+        if (pos + 2 < length && chars[pos + 1] == '"' && chars[pos + 2] == '"') {
+            scanBlockString();
+            return;
+        }
+        int p = pos + 1;
+        // the empty string can not be followed by another quote since that is a block string
+        if (p < length && chars[p] == '"') {
+            pos = p + 1;
+            kind = STRING;
+            return;
+        }
+        while (true) {
+            if (p >= length) {
+                throw CannotParseException.INSTANCE;
+            }
+            char c = chars[p];
+            if (c == '"') {
+                break;
+            }
+            if (c == '\n' || c == '\r') {
+                throw CannotParseException.INSTANCE;
+            }
+            if (c == '\\') {
+                p = skipEscape(p + 1);
+            } else {
+                p = skipSourceCharacter(p);
+            }
+        }
+        pos = p + 1;
+        kind = STRING;
+    }
+
+    private int skipEscape(int p) {
+        if (p >= length) {
+            throw CannotParseException.INSTANCE;
+        }
+        char c = chars[p];
+        if (c == 'u') {
+            p++;
+            if (p < length && chars[p] == '{') {
+                int hexStart = ++p;
+                while (p < length && isHex(chars[p])) {
+                    p++;
+                }
+                if (p == hexStart || p >= length || chars[p] != '}') {
+                    throw CannotParseException.INSTANCE;
+                }
+                return p + 1;
+            }
+            for (int i = 0; i < 4; i++, p++) {
+                if (p >= length || !isHex(chars[p])) {
+                    throw CannotParseException.INSTANCE;
+                }
+            }
+            return p;
+        }
+        if (c == '"' || c == '\\' || c == '/' || c == 'b' || c == 'f' || c == 'n' || c == 'r' || c == 't') {
+            return p + 1;
+        }
+        throw CannotParseException.INSTANCE;
+    }
+
+    private void scanBlockString() {
+        int p = pos + 3;
+        while (true) {
+            if (p >= length) {
+                throw CannotParseException.INSTANCE;
+            }
+            char c = chars[p];
+            if (c == '"' && p + 2 < length && chars[p + 1] == '"' && chars[p + 2] == '"') {
+                p += 3;
+                break;
+            }
+            if (c == '\\' && p + 3 < length && chars[p + 1] == '"' && chars[p + 2] == '"' && chars[p + 3] == '"') {
+                p += 4;
+            } else if (c == '\n') {
+                p++;
+                line++;
+                lineStart = p;
+                surrogatePairsOnLine = 0;
+            } else {
+                p = skipSourceCharacter(p);
+            }
+        }
+        pos = p;
+        kind = BLOCK_STRING;
+    }
+
+    private int skipSourceCharacter(int p) {
+        char c = chars[p];
+        if (Character.isHighSurrogate(c) && p + 1 < length && Character.isLowSurrogate(chars[p + 1])) {
+            // columns are counted in code points
+            surrogatePairsOnLine++;
+            return p + 2;
+        }
+        if (Character.isSurrogate(c)) {
+            throw CannotParseException.INSTANCE;
+        }
+        return p + 1;
+    }
+
+    private int column() {
+        return pos - lineStart - surrogatePairsOnLine;
+    }
+
+    private int lineTerminatorCount() {
+        // this is how the line number reader of the MultiSourceReader counts lines, \r\n being a single terminator
+        if (lineTerminatorCount < 0) {
+            int count = 0;
+            for (int i = 0; i < length; i++) {
+                char c = chars[i];
+                if (c == '\n' || (c == '\r' && (i + 1 >= length || chars[i + 1] != '\n'))) {
+                    count++;
+                }
+            }
+            lineTerminatorCount = count;
+        }
+        return lineTerminatorCount;
+    }
+
+    private static boolean isNameStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isNameContinue(char c) {
+        return isNameStart(c) || isDigit(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHex(char c) {
+        return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Thrown when the document can not be parsed by this parser, it has no stack trace since it is cheaply
+     * caught at the top
+     */
+    private static class CannotParseException extends RuntimeException {
+
+        private static final CannotParseException INSTANCE = new CannotParseException();
+
+        private CannotParseException() {
+            super(null, null, false, false);
+        }
+    }
+}
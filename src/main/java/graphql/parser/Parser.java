@@ -4,6 +4,7 @@ import com.google.common.collect.ImmutableList;
 import graphql.DeprecatedAt;
 import graphql.Internal;
 import graphql.PublicApi;
+import graphql.i18n.I18n;
 import graphql.language.Document;
 import graphql.language.Node;
 import graphql.language.SourceLocation;
@@ -28,10 +29,13 @@ import org.antlr.v4.runtime.tree.ParseTreeListener;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -220,6 +224,16 @@ public class Parser {
     }
 
     private Document parseDocumentImpl(ParserEnvironment environment) throws InvalidSyntaxException {
+        ParserOptions parserOptions = Optional.ofNullable(environment.getParserOptions()).orElse(ParserOptions.getDefaultParserOptions());
+        if (canUseExecutableDocumentParser(environment, parserOptions)) {
+            char[] chars = readDocument(environment, parserOptions);
+            Document doc = ExecutableDocumentParser.parse(chars, chars.length, parserOptions, environment.getI18N());
+            if (doc != null) {
+                return doc;
+            }
+            // everything else, including any syntax errors, is left to ANTLR
+            environment = withDocument(environment, new CharArrayReader(chars));
+        }
         BiFunction<GraphqlParser, GraphqlAntlrToLanguage, Object[]> nodeFunction = (parser, toLanguage) -> {
             GraphqlParser.DocumentContext documentContext = parser.document();
             Document doc = toLanguage.createDocument(documentContext);
@@ -228,6 +242,57 @@ public class Parser {
         return (Document) parseImpl(environment, nodeFunction);
     }
 
+    private boolean canUseExecutableDocumentParser(ParserEnvironment environment, ParserOptions parserOptions) {
+        // sub classes may customise the ANTLR to AST code
+        return parserOptions.isExecutableDocumentParsing()
+                && getClass() == Parser.class
+                && !parserOptions.isCaptureIgnoredChars()
+                && parserOptions.getParsingListener() == ParsingListener.NOOP
+                && !(environment.getDocument() instanceof MultiSourceReader);
+    }
+
+    private static char[] readDocument(ParserEnvironment environment, ParserOptions parserOptions) {
+        int maxCharacters = parserOptions.getMaxCharacters();
+        CharArrayWriter document = new CharArrayWriter();
+        char[] buffer = new char[1024];
+        try {
+            int read;
+            while ((read = environment.getDocument().read(buffer)) != -1) {
+                document.write(buffer, 0, read);
+                if (document.size() > maxCharacters) {
+                    throw new ParseCancelledTooManyCharsException(environment.getI18N(), maxCharacters);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return document.toCharArray();
+    }
+
+    private static ParserEnvironment withDocument(ParserEnvironment environment, Reader document) {
+        return new ParserEnvironment() {
+            @Override
+            public Reader getDocument() {
+                return document;
+            }
+
+            @Override
+            public ParserOptions getParserOptions() {
+                return environment.getParserOptions();
+            }
+
+            @Override
+            public Locale getLocale() {
+                return environment.getLocale();
+            }
+
+            @Override
+            public I18n getI18N() {
+                return environment.getI18N();
+            }
+        };
+    }
+
     private Value<?> parseValueImpl(String input) throws InvalidSyntaxException {
         BiFunction<GraphqlParser, GraphqlAntlrToLanguage, Object[]> nodeFunction = (parser, toLanguage) -> {
             GraphqlParser.ValueContext documentContext = parser.value();
@@ -190,6 +190,7 @@ public class ParserOptions {
     private final int maxWhitespaceTokens;
     private final int maxRuleDepth;
     private final ParsingListener parsingListener;
+    private final boolean executableDocumentParsing;
 
     private ParserOptions(Builder builder) {
         this.captureIgnoredChars = builder.captureIgnoredChars;
@@ -201,6 +202,7 @@ public class ParserOptions {
         this.maxWhitespaceTokens = builder.maxWhitespaceTokens;
         this.maxRuleDepth = builder.maxRuleDepth;
         this.parsingListener = builder.parsingListener;
+        this.executableDocumentParsing = builder.executableDocumentParsing;
     }
 
     /**
@@ -298,6 +300,20 @@ public class ParserOptions {
         return parsingListener;
     }
 
+    /**
+     * Executable documents, that is operations and fragments, can be parsed by a hand written parser that builds the
+     * AST directly which is considerably faster than the ANTLR based parsing.  Documents that contain type system definitions
+     * or syntax errors are still parsed by ANTLR so that the errors are the same.
+     * <p>
+     * The hand written parser is not used when ignored chars are captured, when a {@link ParsingListener} is in place or
+     * when the document is given as a {@link MultiSourceReader}.
+     *
+     * @return true if executable documents should be parsed by the hand written parser
+     */
+    public boolean isExecutableDocumentParsing() {
+        return executableDocumentParsing;
+    }
+
     public ParserOptions transform(Consumer<Builder> builderConsumer) {
         Builder builder = new Builder(this);
         builderConsumer.accept(builder);
@@ -319,6 +335,7 @@ public class ParserOptions {
         private int maxTokens = MAX_QUERY_TOKENS;
         private int maxWhitespaceTokens = MAX_WHITESPACE_TOKENS;
         private int maxRuleDepth = MAX_RULE_DEPTH;
+        private boolean executableDocumentParsing = false;
 
         Builder() {
         }
@@ -332,6 +349,7 @@ public class ParserOptions {
             this.maxWhitespaceTokens = parserOptions.maxWhitespaceTokens;
             this.maxRuleDepth = parserOptions.maxRuleDepth;
             this.parsingListener = parserOptions.parsingListener;
+            this.executableDocumentParsing = parserOptions.executableDocumentParsing;
         }
 
         public Builder captureIgnoredChars(boolean captureIgnoredChars) {
@@ -379,6 +397,11 @@ public class ParserOptions {
             return this;
         }
 
+        public Builder executableDocumentParsing(boolean executableDocumentParsing) {
+            this.executableDocumentParsing = executableDocumentParsing;
+            return this;
+        }
+
         public ParserOptions build() {
             return new ParserOptions(this);
         }
@@ -11,16 +11,41 @@ import java.util.function.BiFunction;
 @PublicApi
 public class DataFetcherFactories {
 
+    /*
+     * The default factory of the code registry, a property data fetcher only depends on the name of its field
+     */
+    static final DataFetcherFactory<?> PROPERTY_DATA_FETCHER_FACTORY = new DataFetcherFactory<Object>() {
+        @Override
+        public DataFetcher<Object> get(DataFetcherFactoryEnvironment environment) {
+            return PropertyDataFetcher.fetching(environment.getFieldDefinition().getName());
+        }
+
+        @Override
+        public boolean isStable() {
+            return true;
+        }
+    };
+
     /**
      * Creates a {@link graphql.schema.DataFetcherFactory} that always returns the provided {@link graphql.schema.DataFetcher}
      *
      * @param dataFetcher the data fetcher to always return
      * @param <T>         the type of the data fetcher
      *
-     * @return a data fetcher factory that always returns the provided data fetcher
+     * @return a stable data fetcher factory that always returns the provided data fetcher
      */
     public static <T> DataFetcherFactory<T> useDataFetcher(DataFetcher<T> dataFetcher) {
-        return fieldDefinition -> dataFetcher;
+        return new DataFetcherFactory<T>() {
+            @Override
+            public DataFetcher<T> get(DataFetcherFactoryEnvironment environment) {
+                return dataFetcher;
+            }
+
+            @Override
+            public boolean isStable() {
+                return true;
+            }
+        };
     }
 
     /**
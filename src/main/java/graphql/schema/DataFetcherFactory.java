@@ -22,4 +22,17 @@ public interface DataFetcherFactory<T> {
      */
     DataFetcher<T> get(DataFetcherFactoryEnvironment environment);
 
+    /**
+     * A stable factory returns the same data fetcher, or one that behaves the same, every time it is asked for the data fetcher
+     * of a field definition.  Execution asks a stable factory once per field of a schema and then re-uses the data fetcher,
+     * rather than asking on every fetch of the field.
+     * <p>
+     * Factories that bind data fetchers late, say per request, must not say they are stable, which is the default.
+     *
+     * @return true if the data fetchers of this factory can be re-used
+     */
+    default boolean isStable() {
+        return false;
+    }
+
 }
@@ -0,0 +1,133 @@
+package graphql.schema;
+
+import graphql.Internal;
+import graphql.introspection.Introspection;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static graphql.schema.DataFetcherFactoryEnvironment.newDataFetchingFactoryEnvironment;
+import static graphql.schema.visibility.DefaultGraphqlFieldVisibility.DEFAULT_FIELD_VISIBILITY;
+
+/**
+ * This holds, for every field of every object type of a schema, what execution needs to know to fetch the field, namely
+ * its {@link GraphQLFieldDefinition}, its {@link FieldCoordinates} and the {@link DataFetcherFactory} of the field in the
+ * {@link GraphQLCodeRegistry}.  This is worked out once per schema so execution does a single lookup per field rather
+ * than going through the introspection special cases, the field map of the type and the code registry each time.
+ * <p>
+ * If the factory of a field is {@link DataFetcherFactory#isStable() stable} the entry of the field keeps the data fetcher
+ * the factory gives the first time it is asked for, so the table holds at most one data fetcher per field of the schema
+ * and goes away with the schema.
+ * <p>
+ * The schema types can be shared between schemas, so the table is keyed by the identity of the object types of its schema.
+ * <p>
+ * A {@link graphql.schema.visibility.GraphqlFieldVisibility} can decide which fields can be seen differently per request,
+ * so the table is empty unless the schema uses the default field visibility, and callers must then find the fields the
+ * usual way.
+ */
+@Internal
+public class FieldLookupTable {
+
+    private static final FieldLookupTable EMPTY = new FieldLookupTable(Collections.emptyMap());
+
+    private final Map<GraphQLObjectType, Map<String, FieldEntry>> fieldsByType;
+
+    private FieldLookupTable(Map<GraphQLObjectType, Map<String, FieldEntry>> fieldsByType) {
+        this.fieldsByType = fieldsByType;
+    }
+
+    static FieldLookupTable build(GraphQLSchema schema) {
+        GraphQLCodeRegistry codeRegistry = schema.getCodeRegistry();
+        if (codeRegistry == null || codeRegistry.getFieldVisibility() != DEFAULT_FIELD_VISIBILITY) {
+            return EMPTY;
+        }
+        Map<GraphQLObjectType, Map<String, FieldEntry>> fieldsByType = new IdentityHashMap<>();
+        for (GraphQLNamedType type : schema.getTypeMap().values()) {
+            if (!(type instanceof GraphQLObjectType)) {
+                continue;
+            }
+            GraphQLObjectType objectType = (GraphQLObjectType) type;
+            Map<String, FieldEntry> fields = new HashMap<>();
+            for (GraphQLFieldDefinition fieldDefinition : objectType.getFieldDefinitions()) {
+                fields.put(fieldDefinition.getName(), newFieldEntry(codeRegistry, objectType, fieldDefinition));
+            }
+            GraphQLFieldDefinition typeNameField = schema.getIntrospectionTypenameFieldDefinition();
+            fields.put(typeNameField.getName(), newFieldEntry(codeRegistry, objectType, typeNameField));
+            if (objectType == schema.getQueryType()) {
+                GraphQLFieldDefinition schemaField = schema.getIntrospectionSchemaFieldDefinition();
+                GraphQLFieldDefinition typeField = schema.getIntrospectionTypeFieldDefinition();
+                fields.put(schemaField.getName(), newFieldEntry(codeRegistry, objectType, schemaField));
+                fields.put(typeField.getName(), newFieldEntry(codeRegistry, objectType, typeField));
+            }
+            fieldsByType.put(objectType, fields);
+        }
+        return new FieldLookupTable(fieldsByType);
+    }
+
+    private static FieldEntry newFieldEntry(GraphQLCodeRegistry codeRegistry, GraphQLObjectType objectType, GraphQLFieldDefinition fieldDefinition) {
+        FieldCoordinates coordinates = FieldCoordinates.coordinates(objectType, fieldDefinition);
+        return new FieldEntry(coordinates, fieldDefinition, codeRegistry.getDataFetcherFactory(coordinates, fieldDefinition));
+    }
+
+    /**
+     * Finds the field of an object type in the same way as {@link Introspection#getFieldDef(GraphQLSchema, GraphQLCompositeType, String)}
+     *
+     * @param objectType the object type of the schema
+     * @param fieldName  the name of the field
+     *
+     * @return the field or null if the object type or the field are not in the table
+     */
+    public FieldEntry getField(GraphQLObjectType objectType, String fieldName) {
+        Map<String, FieldEntry> fields = fieldsByType.get(objectType);
+        return fields == null ? null : fields.get(fieldName);
+    }
+
+    /**
+     * A field of an object type
+     */
+    @Internal
+    public static class FieldEntry {
+        private final FieldCoordinates coordinates;
+        private final GraphQLFieldDefinition fieldDefinition;
+        private final DataFetcherFactory<?> dataFetcherFactory;
+        // the data fetcher of a stable factory, once it has been asked for
+        private volatile DataFetcher<?> stableDataFetcher;
+
+        private FieldEntry(FieldCoordinates coordinates, GraphQLFieldDefinition fieldDefinition, DataFetcherFactory<?> dataFetcherFactory) {
+            this.coordinates = coordinates;
+            this.fieldDefinition = fieldDefinition;
+            this.dataFetcherFactory = dataFetcherFactory;
+        }
+
+        public FieldCoordinates getCoordinates() {
+            return coordinates;
+        }
+
+        public GraphQLFieldDefinition getFieldDefinition() {
+            return fieldDefinition;
+        }
+
+        /**
+         * @return the data fetcher of the field, as {@link GraphQLCodeRegistry#getDataFetcher(FieldCoordinates, GraphQLFieldDefinition)} would return it
+         */
+        public DataFetcher<?> getDataFetcher() {
+            if (!dataFetcherFactory.isStable()) {
+                return newDataFetcher();
+            }
+            DataFetcher<?> dataFetcher = stableDataFetcher;
+            if (dataFetcher == null) {
+                dataFetcher = newDataFetcher();
+                stableDataFetcher = dataFetcher;
+            }
+            return dataFetcher;
+        }
+
+        private DataFetcher<?> newDataFetcher() {
+            return dataFetcherFactory.get(newDataFetchingFactoryEnvironment()
+                    .fieldDefinition(fieldDefinition)
+                    .build());
+        }
+    }
+}
@@ -70,6 +70,8 @@ public class GraphQLSchema {
     private final ImmutableMap<String, GraphQLNamedType> typeMap;
     private final ImmutableMap<String, ImmutableList<GraphQLObjectType>> interfaceNameToObjectTypes;
     private final ImmutableMap<String, ImmutableList<String>> interfaceNameToObjectTypeNames;
+    // built on first use since many schemas are never executed
+    private volatile FieldLookupTable fieldLookupTable;
 
     /*
      * This constructs partial GraphQL schema object which has has the schema (query / mutation / subscription) trees
@@ -196,6 +198,20 @@ public class GraphQLSchema {
         return codeRegistry;
     }
 
+    /**
+     * @return the fields of the object types of this schema, as execution looks them up
+     */
+    @Internal
+    public FieldLookupTable getFieldLookupTable() {
+        FieldLookupTable table = fieldLookupTable;
+        if (table == null) {
+            // building it twice in a race is harmless
+            table = FieldLookupTable.build(this);
+            fieldLookupTable = table;
+        }
+        return table;
+    }
+
     /**
      * @return the special system field called "__schema"
      */
@@ -22,6 +22,10 @@ public class PropertyDataFetcherHelper {
         return impl.getPropertyValue(propertyName, object, graphQLType, true, environment::get);
     }
 
+    public static boolean resolvePropertyAccessor(String propertyName, Class<?> clazz, GraphQLType graphQLType) {
+        return impl.resolvePropertyAccessor(propertyName, clazz, graphQLType, true);
+    }
+
     public static void clearReflectionCache() {
         impl.clearReflectionCache();
     }
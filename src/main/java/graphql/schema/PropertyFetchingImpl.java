@@ -13,7 +13,6 @@ import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -37,85 +36,116 @@ public class PropertyFetchingImpl {
     private final AtomicBoolean USE_SET_ACCESSIBLE = new AtomicBoolean(true);
     private final AtomicBoolean USE_LAMBDA_FACTORY = new AtomicBoolean(true);
     private final AtomicBoolean USE_NEGATIVE_CACHE = new AtomicBoolean(true);
-    private final ConcurrentMap<CacheKey, CachedLambdaFunction> LAMBDA_CACHE = new ConcurrentHashMap<>();
-    private final ConcurrentMap<CacheKey, CachedMethod> METHOD_CACHE = new ConcurrentHashMap<>();
-    private final ConcurrentMap<CacheKey, Field> FIELD_CACHE = new ConcurrentHashMap<>();
-    private final ConcurrentMap<CacheKey, CacheKey> NEGATIVE_CACHE = new ConcurrentHashMap<>();
+    // the accessors are cached per class, which keeps classes with the same name from different class loaders apart
+    // and lets them be unloaded together with their class.  A new class value is created to clear the cache
+    private volatile ClassValue<ClassAccessors> accessorCache = newAccessorCache();
     private final Class<?> singleArgumentType;
 
     public PropertyFetchingImpl(Class<?> singleArgumentType) {
         this.singleArgumentType = singleArgumentType;
     }
 
-    private final class CachedMethod {
+    /*
+     * How a property of a class is fetched, via exactly one of a lambda getter, a method or a field, or not at all
+     * if none of them could be found.
+     *
+     * Lambda getters that were resolved ahead of time are not verified until they have been called once, since
+     * only calling them shows whether class loading allows them to be used.
+     */
+    private static final class CachedAccessor {
+        private static final CachedAccessor NOT_FOUND = new CachedAccessor(null, true, null, false, null);
+
+        private final Function<Object, Object> getter;
+        private final boolean verified;
         private final Method method;
         private final boolean takesSingleArgumentTypeAsOnlyArgument;
+        private final Field field;
 
-        CachedMethod(Method method) {
+        private CachedAccessor(Function<Object, Object> getter, boolean verified, Method method, boolean takesSingleArgumentTypeAsOnlyArgument, Field field) {
+            this.getter = getter;
+            this.verified = verified;
             this.method = method;
-            this.takesSingleArgumentTypeAsOnlyArgument = takesSingleArgumentTypeAsOnlyArgument(method);
+            this.takesSingleArgumentTypeAsOnlyArgument = takesSingleArgumentTypeAsOnlyArgument;
+            this.field = field;
         }
     }
 
-    private static final class CachedLambdaFunction {
-        private final Function<Object, Object> getter;
+    private static final class ClassAccessors {
+        // an instanceof check is surprisingly costly for all the classes that are not maps, so it is made once per class
+        private final boolean isMap;
+        private final ConcurrentMap<String, CachedAccessor> accessors;
 
-        CachedLambdaFunction(Function<Object, Object> getter) {
-            this.getter = getter;
+        private ClassAccessors(Class<?> clazz) {
+            this.isMap = Map.class.isAssignableFrom(clazz);
+            this.accessors = isMap ? null : new ConcurrentHashMap<>();
         }
     }
 
+    private static ClassValue<ClassAccessors> newAccessorCache() {
+        return new ClassValue<ClassAccessors>() {
+            @Override
+            protected ClassAccessors computeValue(Class<?> type) {
+                return new ClassAccessors(type);
+            }
+        };
+    }
+
     public Object getPropertyValue(String propertyName, Object object, GraphQLType graphQLType, boolean dfeInUse, Supplier<Object> singleArgumentValue) {
-        if (object instanceof Map) {
+        ClassAccessors classAccessors = accessorCache.get(object.getClass());
+        if (classAccessors.isMap) {
             return ((Map<?, ?>) object).get(propertyName);
         }
 
-        CacheKey cacheKey = mkCacheKey(object, propertyName);
+        ConcurrentMap<String, CachedAccessor> accessors = classAccessors.accessors;
 
-        // let's try positive cache mechanisms first.  If we have seen the method or field before
+        // let's try the cached accessor first.  If we have seen the method or field before
         // then we invoke it directly without burning any cycles doing reflection.
-        CachedLambdaFunction cachedFunction = LAMBDA_CACHE.get(cacheKey);
-        if (cachedFunction != null) {
-            return cachedFunction.getter.apply(object);
-        }
-        CachedMethod cachedMethod = METHOD_CACHE.get(cacheKey);
-        if (cachedMethod != null) {
-            try {
-                return invokeMethod(object, singleArgumentValue, cachedMethod.method, cachedMethod.takesSingleArgumentTypeAsOnlyArgument);
-            } catch (NoSuchMethodException ignored) {
-                assertShouldNeverHappen("A method cached as '%s' is no longer available??", cacheKey);
+        CachedAccessor cachedAccessor = accessors.get(propertyName);
+        if (cachedAccessor != null && cachedAccessor.verified) {
+            if (cachedAccessor.getter != null) {
+                return cachedAccessor.getter.apply(object);
+            }
+            if (cachedAccessor.method != null) {
+                try {
+                    return invokeMethod(object, singleArgumentValue, cachedAccessor.method, cachedAccessor.takesSingleArgumentTypeAsOnlyArgument);
+                } catch (NoSuchMethodException ignored) {
+                    assertShouldNeverHappen("A method cached as '%s' is no longer available??", mkCacheKey(accessors, object, propertyName));
+                }
+            }
+            if (cachedAccessor.field != null) {
+                return invokeField(object, cachedAccessor.field);
+            }
+            //
+            // if we have tried all strategies before, and they have all failed then we negatively cache
+            // the property and assume that it's never going to turn up.  This shortcuts the property lookup
+            // in systems where there was a `foo` graphql property, but they never provided an POJO
+            // version of `foo`.
+            //
+            if (USE_NEGATIVE_CACHE.get()) {
+                return null;
             }
-        }
-        Field cachedField = FIELD_CACHE.get(cacheKey);
-        if (cachedField != null) {
-            return invokeField(object, cachedField);
         }
 
-        //
-        // if we have tried all strategies before, and they have all failed then we negatively cache
-        // the cacheKey and assume that it's never going to turn up.  This shortcuts the property lookup
-        // in systems where there was a `foo` graphql property, but they never provided an POJO
-        // version of `foo`.
-        //
-        // we do this second because we believe in the positive cached version will mostly prevail
-        // but if we then look it up and negatively cache it then lest do that look up next
-        //
-        if (isNegativelyCached(cacheKey)) {
-            return null;
-        }
+        CacheKey cacheKey = mkCacheKey(accessors, object, propertyName);
 
         //
         // ok we haven't cached it, and we haven't negatively cached it, so we have to find the POJO method which is the most
         // expensive operation here
         //
 
-        Optional<Function<Object, Object>> getterOpt = lambdaGetter(propertyName, object);
+        Optional<Function<Object, Object>> getterOpt;
+        if (cachedAccessor != null && cachedAccessor.getter != null && USE_LAMBDA_FACTORY.get()) {
+            // resolved ahead of time and now called for the first time.  If lambda getters have been turned off since,
+            // the property is looked up via reflection and what is found there replaces it
+            getterOpt = Optional.of(cachedAccessor.getter);
+        } else {
+            getterOpt = lambdaGetter(propertyName, object);
+        }
         if (getterOpt.isPresent()) {
             try {
                 Function<Object, Object> getter = getterOpt.get();
                 Object value = getter.apply(object);
-                cachedFunction = new CachedLambdaFunction(getter);
-                LAMBDA_CACHE.putIfAbsent(cacheKey, cachedFunction);
+                cacheKey.cache(new CachedAccessor(getter, true, null, false, null));
                 return value;
             } catch (LinkageError | ClassCastException ignored) {
                 //
@@ -171,6 +201,68 @@ public class PropertyFetchingImpl {
         return null;
     }
 
+    /**
+     * Finds and caches how a property is fetched from the objects of a class, without fetching it.  This follows the
+     * same lookup strategies as {@link #getPropertyValue(String, Object, GraphQLType, boolean, Supplier)}.
+     *
+     * @param propertyName the name of the property
+     * @param clazz        the class of the objects the property will be fetched from
+     * @param graphQLType  the type of the field the property is fetched for
+     * @param dfeInUse     whether the property is fetched with a single argument value available
+     *
+     * @return true if the property can be fetched from objects of the class
+     */
+    public boolean resolvePropertyAccessor(String propertyName, Class<?> clazz, GraphQLType graphQLType, boolean dfeInUse) {
+        ClassAccessors classAccessors = accessorCache.get(clazz);
+        if (classAccessors.isMap) {
+            return true;
+        }
+        ConcurrentMap<String, CachedAccessor> accessors = classAccessors.accessors;
+        CachedAccessor cachedAccessor = accessors.get(propertyName);
+        if (cachedAccessor == null) {
+            resolvePropertyAccessor(new CacheKey(accessors, clazz, propertyName), clazz, propertyName, graphQLType, dfeInUse);
+            cachedAccessor = accessors.get(propertyName);
+        }
+        return cachedAccessor != null && cachedAccessor != CachedAccessor.NOT_FOUND;
+    }
+
+    private void resolvePropertyAccessor(CacheKey cacheKey, Class<?> clazz, String propertyName, GraphQLType graphQLType, boolean dfeInUse) {
+        if (USE_LAMBDA_FACTORY.get()) {
+            Optional<Function<Object, Object>> getterOpt = LambdaFetchingSupport.createGetter(clazz, propertyName);
+            if (getterOpt.isPresent()) {
+                cacheKey.cache(new CachedAccessor(getterOpt.get(), false, null, false, null));
+                return;
+            }
+        }
+        // the finders cache what they find
+        try {
+            findRecordMethod(cacheKey, clazz, propertyName);
+            return;
+        } catch (NoSuchMethodException ignored) {
+        }
+        try {
+            findGetterMethod(clazz, propertyName, graphQLType, (rootClass, methodName) -> findPubliclyAccessibleMethod(cacheKey, rootClass, methodName, dfeInUse, false));
+            return;
+        } catch (NoSuchMethodException ignored) {
+        }
+        try {
+            findGetterMethod(clazz, propertyName, graphQLType, (rootClass, methodName) -> findPubliclyAccessibleMethod(cacheKey, rootClass, methodName, dfeInUse, true));
+            return;
+        } catch (NoSuchMethodException ignored) {
+        }
+        try {
+            findGetterMethod(clazz, propertyName, graphQLType, (aClass, methodName) -> findViaSetAccessible(cacheKey, aClass, methodName, dfeInUse));
+            return;
+        } catch (NoSuchMethodException ignored) {
+        }
+        try {
+            findField(cacheKey, clazz, propertyName);
+            return;
+        } catch (NoSuchMethodException ignored) {
+        }
+        putInNegativeCache(cacheKey);
+    }
+
     private Optional<Function<Object, Object>> lambdaGetter(String propertyName, Object object) {
         if (USE_LAMBDA_FACTORY.get()) {
             return LambdaFetchingSupport.createGetter(object.getClass(), propertyName);
@@ -178,17 +270,18 @@ public class PropertyFetchingImpl {
         return Optional.empty();
     }
 
-    private boolean isNegativelyCached(CacheKey key) {
+    private void putInNegativeCache(CacheKey key) {
         if (USE_NEGATIVE_CACHE.get()) {
-            return NEGATIVE_CACHE.containsKey(key);
+            key.cache(CachedAccessor.NOT_FOUND);
         }
-        return false;
     }
 
-    private void putInNegativeCache(CacheKey key) {
-        if (USE_NEGATIVE_CACHE.get()) {
-            NEGATIVE_CACHE.put(key, key);
-        }
+    private void cacheMethod(CacheKey key, Method method) {
+        key.cache(new CachedAccessor(null, true, method, takesSingleArgumentTypeAsOnlyArgument(method), null));
+    }
+
+    private void cacheField(CacheKey key, Field field) {
+        key.cache(new CachedAccessor(null, true, null, false, field));
     }
 
     private interface MethodFinder {
@@ -213,11 +306,27 @@ public class PropertyFetchingImpl {
     }
 
     private Object getPropertyViaGetterUsingPrefix(Object object, String propertyName, String prefix, MethodFinder methodFinder, Supplier<Object> singleArgumentValue) throws NoSuchMethodException {
-        String getterName = prefix + propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
-        Method method = methodFinder.apply(object.getClass(), getterName);
+        Method method = findGetterUsingPrefix(object.getClass(), propertyName, prefix, methodFinder);
         return invokeMethod(object, singleArgumentValue, method, takesSingleArgumentTypeAsOnlyArgument(method));
     }
 
+    private Method findGetterMethod(Class<?> clazz, String propertyName, GraphQLType graphQLType, MethodFinder methodFinder) throws NoSuchMethodException {
+        if (isBooleanProperty(graphQLType)) {
+            try {
+                return findGetterUsingPrefix(clazz, propertyName, "is", methodFinder);
+            } catch (NoSuchMethodException e) {
+                return findGetterUsingPrefix(clazz, propertyName, "get", methodFinder);
+            }
+        } else {
+            return findGetterUsingPrefix(clazz, propertyName, "get", methodFinder);
+        }
+    }
+
+    private Method findGetterUsingPrefix(Class<?> clazz, String propertyName, String prefix, MethodFinder methodFinder) throws NoSuchMethodException {
+        String getterName = prefix + propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
+        return methodFinder.apply(clazz, getterName);
+    }
+
     /**
      * Invoking public methods on package-protected classes via reflection
      * causes exceptions. This method searches a class's hierarchy for
@@ -236,7 +345,7 @@ public class PropertyFetchingImpl {
                     try {
                         Method method = currentClass.getMethod(methodName, singleArgumentType);
                         if (isSuitablePublicMethod(method, allowStaticMethods)) {
-                            METHOD_CACHE.putIfAbsent(cacheKey, new CachedMethod(method));
+                            cacheMethod(cacheKey, method);
                             return method;
                         }
                     } catch (NoSuchMethodException e) {
@@ -245,7 +354,7 @@ public class PropertyFetchingImpl {
                 }
                 Method method = currentClass.getMethod(methodName);
                 if (isSuitablePublicMethod(method, allowStaticMethods)) {
-                    METHOD_CACHE.putIfAbsent(cacheKey, new CachedMethod(method));
+                    cacheMethod(cacheKey, method);
                     return method;
                 }
             }
@@ -305,7 +414,7 @@ public class PropertyFetchingImpl {
                     // few JVMs actually enforce this but it might happen
                     Method method = m.get();
                     method.setAccessible(true);
-                    METHOD_CACHE.putIfAbsent(cacheKey, new CachedMethod(method));
+                    cacheMethod(cacheKey, method);
                     return method;
                 } catch (SecurityException ignored) {
                 }
@@ -316,11 +425,15 @@ public class PropertyFetchingImpl {
     }
 
     private Object getPropertyViaFieldAccess(CacheKey cacheKey, Object object, String propertyName) throws FastNoSuchMethodException {
-        Class<?> aClass = object.getClass();
+        Field field = findField(cacheKey, object.getClass(), propertyName);
+        return invokeField(object, field);
+    }
+
+    private Field findField(CacheKey cacheKey, Class<?> aClass, String propertyName) throws FastNoSuchMethodException {
         try {
             Field field = aClass.getField(propertyName);
-            FIELD_CACHE.putIfAbsent(cacheKey, field);
-            return field.get(object);
+            cacheField(cacheKey, field);
+            return field;
         } catch (NoSuchFieldException e) {
             if (!USE_SET_ACCESSIBLE.get()) {
                 throw new FastNoSuchMethodException(cacheKey.toString());
@@ -329,15 +442,11 @@ public class PropertyFetchingImpl {
             try {
                 Field field = aClass.getDeclaredField(propertyName);
                 field.setAccessible(true);
-                FIELD_CACHE.putIfAbsent(cacheKey, field);
-                return field.get(object);
+                cacheField(cacheKey, field);
+                return field;
             } catch (SecurityException | NoSuchFieldException ignored2) {
                 throw new FastNoSuchMethodException(cacheKey.toString());
-            } catch (IllegalAccessException e1) {
-                throw new GraphQLException(e);
             }
-        } catch (IllegalAccessException e) {
-            throw new GraphQLException(e);
         }
     }
 
@@ -377,10 +486,7 @@ public class PropertyFetchingImpl {
     }
 
     public void clearReflectionCache() {
-        LAMBDA_CACHE.clear();
-        METHOD_CACHE.clear();
-        FIELD_CACHE.clear();
-        NEGATIVE_CACHE.clear();
+        accessorCache = newAccessorCache();
     }
 
     public boolean setUseSetAccessible(boolean flag) {
@@ -395,49 +501,38 @@ public class PropertyFetchingImpl {
         return USE_NEGATIVE_CACHE.getAndSet(flag);
     }
 
-    private CacheKey mkCacheKey(Object object, String propertyName) {
-        Class<?> clazz = object.getClass();
-        ClassLoader classLoader = clazz.getClassLoader();
-        return new CacheKey(classLoader, clazz.getName(), propertyName);
+    private CacheKey mkCacheKey(ConcurrentMap<String, CachedAccessor> accessors, Object object, String propertyName) {
+        return new CacheKey(accessors, object.getClass(), propertyName);
     }
 
+    /*
+     * Only created when a property is looked up via reflection, to remember how it was found
+     */
     private static final class CacheKey {
-        private final ClassLoader classLoader;
-        private final String className;
+        private final ConcurrentMap<String, CachedAccessor> accessors;
+        private final Class<?> clazz;
         private final String propertyName;
 
-        private CacheKey(ClassLoader classLoader, String className, String propertyName) {
-            this.classLoader = classLoader;
-            this.className = className;
+        private CacheKey(ConcurrentMap<String, CachedAccessor> accessors, Class<?> clazz, String propertyName) {
+            this.accessors = accessors;
+            this.clazz = clazz;
             this.propertyName = propertyName;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
+        private void cache(CachedAccessor accessor) {
+            CachedAccessor existing = accessors.putIfAbsent(propertyName, accessor);
+            // a found accessor replaces a negatively cached one, which can happen when the lookup options changed,
+            // and whatever was found by fetching the property replaces a lambda getter that was not verified yet
+            if (existing != null && (!existing.verified || existing == CachedAccessor.NOT_FOUND && accessor != CachedAccessor.NOT_FOUND)) {
+                accessors.replace(propertyName, existing, accessor);
             }
-            if (!(o instanceof CacheKey)) {
-                return false;
-            }
-            CacheKey cacheKey = (CacheKey) o;
-            return Objects.equals(classLoader, cacheKey.classLoader) && Objects.equals(className, cacheKey.className) && Objects.equals(propertyName, cacheKey.propertyName);
-        }
-
-        @Override
-        public int hashCode() {
-            int result = 1;
-            result = 31 * result + Objects.hashCode(classLoader);
-            result = 31 * result + Objects.hashCode(className);
-            result = 31 * result + Objects.hashCode(propertyName);
-            return result;
         }
 
         @Override
         public String toString() {
             return "CacheKey{" +
-                    "classLoader=" + classLoader +
-                    ", className='" + className + '\'' +
+                    "classLoader=" + clazz.getClassLoader() +
+                    ", className='" + clazz.getName() + '\'' +
                     ", propertyName='" + propertyName + '\'' +
                     '}';
         }
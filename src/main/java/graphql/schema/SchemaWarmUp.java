@@ -0,0 +1,107 @@
+package graphql.schema;
+
+import com.google.common.collect.ImmutableList;
+import graphql.ExperimentalApi;
+
+import java.util.List;
+import java.util.Map;
+
+import static graphql.Assert.assertNotNull;
+
+/**
+ * The {@link PropertyDataFetcher} finds out how to read a property from a class the first time it is asked to, which
+ * means the first requests after a start are slower and do that work on the request threads.
+ * <p>
+ * Given the Java classes that back the object types of a schema, this looks up how every field of those types will be
+ * fetched ahead of time and reports the fields whose property can not be found on their class.
+ * <pre>
+ * {@code
+ *     SchemaWarmUp warmUp = SchemaWarmUp.warmUp(schema, Map.of("Query", Query.class, "Book", Book.class));
+ *     if (!warmUp.isFullyBound()) {
+ *         log.warn("these fields will always be null : {}", warmUp.getUnboundFields());
+ *     }
+ * }
+ * </pre>
+ * Fields with a data fetcher other than a property data fetcher are always considered bound, and so are the fields of
+ * types that are backed by a {@link Map}.
+ * <p>
+ * The property data fetcher caches what it finds by the runtime class of the object it fetches from.  A warm up
+ * therefore only saves work at fetch time when it is given the concrete classes of the objects, and not an interface
+ * or a super class that they are declared as.  Given such a class, the warm up still reports which fields can be bound,
+ * but the lookups for the actual classes happen on the first requests as before.
+ */
+@ExperimentalApi
+public class SchemaWarmUp {
+
+    private final List<FieldCoordinates> boundFields;
+    private final List<FieldCoordinates> unboundFields;
+
+    private SchemaWarmUp(List<FieldCoordinates> boundFields, List<FieldCoordinates> unboundFields) {
+        this.boundFields = boundFields;
+        this.unboundFields = unboundFields;
+    }
+
+    /**
+     * Looks up how the fields of the given object types are fetched from the objects of their classes
+     *
+     * @param schema            the schema to warm up
+     * @param objectTypeClasses the runtime classes of the objects that back the object types, by the name of the object type
+     *
+     * @return the fields that could and could not be bound to a property of their class
+     */
+    public static SchemaWarmUp warmUp(GraphQLSchema schema, Map<String, Class<?>> objectTypeClasses) {
+        assertNotNull(schema, () -> "schema can't be null");
+        assertNotNull(objectTypeClasses, () -> "objectTypeClasses can't be null");
+
+        GraphQLCodeRegistry codeRegistry = schema.getCodeRegistry();
+        ImmutableList.Builder<FieldCoordinates> boundFields = ImmutableList.builder();
+        ImmutableList.Builder<FieldCoordinates> unboundFields = ImmutableList.builder();
+        objectTypeClasses.forEach((typeName, clazz) -> {
+            GraphQLObjectType objectType = assertNotNull(schema.getObjectType(typeName), () -> String.format("There is no object type named '%s' in the schema", typeName));
+            assertNotNull(clazz, () -> String.format("The class of object type '%s' can't be null", typeName));
+            for (GraphQLFieldDefinition fieldDefinition : objectType.getFieldDefinitions()) {
+                FieldCoordinates coordinates = FieldCoordinates.coordinates(objectType, fieldDefinition);
+                DataFetcher<?> dataFetcher = codeRegistry.getDataFetcher(coordinates, fieldDefinition);
+                if (isBound(dataFetcher, clazz, fieldDefinition)) {
+                    boundFields.add(coordinates);
+                } else {
+                    unboundFields.add(coordinates);
+                }
+            }
+        });
+        return new SchemaWarmUp(boundFields.build(), unboundFields.build());
+    }
+
+    private static boolean isBound(DataFetcher<?> dataFetcher, Class<?> clazz, GraphQLFieldDefinition fieldDefinition) {
+        if (!(dataFetcher instanceof PropertyDataFetcher)) {
+            return true;
+        }
+        String propertyName = ((PropertyDataFetcher<?>) dataFetcher).getPropertyName();
+        if (propertyName == null) {
+            // a function based property fetcher
+            return true;
+        }
+        return PropertyDataFetcherHelper.resolvePropertyAccessor(propertyName, clazz, fieldDefinition.getType());
+    }
+
+    /**
+     * @return the fields whose values can be fetched
+     */
+    public List<FieldCoordinates> getBoundFields() {
+        return boundFields;
+    }
+
+    /**
+     * @return the fields whose property could not be found on the class of their type, and hence will always be null
+     */
+    public List<FieldCoordinates> getUnboundFields() {
+        return unboundFields;
+    }
+
+    /**
+     * @return true if all the fields could be bound
+     */
+    public boolean isFullyBound() {
+        return unboundFields.isEmpty();
+    }
+}
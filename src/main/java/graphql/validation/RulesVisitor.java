@@ -1,8 +1,12 @@
 package graphql.validation;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
@@ -26,29 +30,111 @@ import graphql.language.VariableReference;
 @Internal
 @SuppressWarnings("rawtypes")
 public class RulesVisitor implements DocumentVisitor {
+
+    /**
+     * The callbacks of {@link AbstractRule}.  Rules are only called back for the nodes they have overridden the
+     * callback of, so that most nodes are only dispatched to a handful of rules.
+     */
+    private enum Callback {
+        CHECK_DOCUMENT("checkDocument", Document.class),
+        CHECK_ARGUMENT("checkArgument", Argument.class),
+        CHECK_TYPE_NAME("checkTypeName", TypeName.class),
+        CHECK_VARIABLE_DEFINITION("checkVariableDefinition", VariableDefinition.class),
+        CHECK_FIELD("checkField", Field.class),
+        CHECK_INLINE_FRAGMENT("checkInlineFragment", InlineFragment.class),
+        CHECK_DIRECTIVE("checkDirective", Directive.class, List.class),
+        CHECK_FRAGMENT_SPREAD("checkFragmentSpread", FragmentSpread.class),
+        CHECK_FRAGMENT_DEFINITION("checkFragmentDefinition", FragmentDefinition.class),
+        CHECK_OPERATION_DEFINITION("checkOperationDefinition", OperationDefinition.class),
+        LEAVE_OPERATION_DEFINITION("leaveOperationDefinition", OperationDefinition.class),
+        CHECK_SELECTION_SET("checkSelectionSet", SelectionSet.class),
+        LEAVE_SELECTION_SET("leaveSelectionSet", SelectionSet.class),
+        CHECK_VARIABLE("checkVariable", VariableReference.class),
+        DOCUMENT_FINISHED("documentFinished", Document.class),
+        CHECK_OBJECT_VALUE("checkObjectValue", ObjectValue.class);
+
+        private final String methodName;
+        private final Class<?>[] parameterTypes;
+
+        Callback(String methodName, Class<?>... parameterTypes) {
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+        }
+
+        private boolean isOverriddenBy(Class<?> ruleClass) {
+            try {
+                Method method = ruleClass.getMethod(methodName, parameterTypes);
+                return method.getDeclaringClass() != AbstractRule.class;
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        }
+    }
+
+    // rule classes are few and long lived, so the reflection is only ever done once per class
+    private static final ClassValue<Set<Callback>> OVERRIDDEN_CALLBACKS = new ClassValue<Set<Callback>>() {
+        @Override
+        protected Set<Callback> computeValue(Class<?> ruleClass) {
+            Set<Callback> callbacks = EnumSet.noneOf(Callback.class);
+            for (Callback callback : Callback.values()) {
+                if (callback.isOverriddenBy(ruleClass)) {
+                    callbacks.add(callback);
+                }
+            }
+            return callbacks;
+        }
+    };
+
+    /**
+     * A set of rules indexed by the callbacks they are interested in
+     */
+    private static class IndexedRules {
+        private final List<AbstractRule> rules;
+        private final Map<Callback, List<AbstractRule>> rulesByCallback = new EnumMap<>(Callback.class);
+
+        private IndexedRules(List<AbstractRule> rules) {
+            this.rules = rules;
+            for (Callback callback : Callback.values()) {
+                List<AbstractRule> interestedRules = new ArrayList<>();
+                for (AbstractRule rule : rules) {
+                    if (OVERRIDDEN_CALLBACKS.get(rule.getClass()).contains(callback)) {
+                        interestedRules.add(rule);
+                    }
+                }
+                rulesByCallback.put(callback, ImmutableList.copyOf(interestedRules));
+            }
+        }
+
+        private List<AbstractRule> get(Callback callback) {
+            return rulesByCallback.get(callback);
+        }
+    }
+
     private final ValidationContext validationContext;
-    private final List<AbstractRule> allRules;
-    private List<AbstractRule> currentRules;
+    private final IndexedRules allRules;
+    private IndexedRules currentRules;
     private final Set<String> visitedFragmentSpreads = new HashSet<>();
-    private final List<AbstractRule> fragmentSpreadVisitRules;
-    private final List<AbstractRule> nonFragmentSpreadRules;
+    private final IndexedRules fragmentSpreadVisitRules;
+    private final IndexedRules nonFragmentSpreadRules;
     private boolean operationScope = false;
     private int fragmentSpreadVisitDepth = 0;
 
     public RulesVisitor(ValidationContext validationContext, List<AbstractRule> rules) {
         this.validationContext = validationContext;
-        this.allRules = rules;
+        this.allRules = new IndexedRules(rules);
         this.currentRules = allRules;
-        this.nonFragmentSpreadRules = filterRulesVisitingFragmentSpreads(allRules, false);
-        this.fragmentSpreadVisitRules = filterRulesVisitingFragmentSpreads(allRules, true);
+        this.nonFragmentSpreadRules = new IndexedRules(filterRulesVisitingFragmentSpreads(rules, false));
+        this.fragmentSpreadVisitRules = new IndexedRules(filterRulesVisitingFragmentSpreads(rules, true));
     }
 
     private List<AbstractRule> filterRulesVisitingFragmentSpreads(List<AbstractRule> rules, boolean isVisitFragmentSpreads) {
-        Iterator<AbstractRule> itr = rules
-            .stream()
-            .filter(r -> r.isVisitFragmentSpreads() == isVisitFragmentSpreads)
-            .iterator();
-        return ImmutableList.copyOf(itr);
+        ImmutableList.Builder<AbstractRule> filteredRules = ImmutableList.builder();
+        for (AbstractRule rule : rules) {
+            if (rule.isVisitFragmentSpreads() == isVisitFragmentSpreads) {
+                filteredRules.add(rule);
+            }
+        }
+        return filteredRules.build();
     }
 
     @Override
@@ -85,42 +171,59 @@ public class RulesVisitor implements DocumentVisitor {
     }
 
     private void checkDocument(Document node) {
-        currentRules.forEach(r -> r.checkDocument(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_DOCUMENT)) {
+            rule.checkDocument(node);
+        }
     }
 
     private void checkArgument(Argument node) {
-        currentRules.forEach(r -> r.checkArgument(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_ARGUMENT)) {
+            rule.checkArgument(node);
+        }
     }
 
     private void checkTypeName(TypeName node) {
-        currentRules.forEach(r -> r.checkTypeName(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_TYPE_NAME)) {
+            rule.checkTypeName(node);
+        }
     }
 
     private void checkVariableDefinition(VariableDefinition node) {
-        currentRules.forEach(r -> r.checkVariableDefinition(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_VARIABLE_DEFINITION)) {
+            rule.checkVariableDefinition(node);
+        }
     }
 
     private void checkField(Field node) {
-        currentRules.forEach(r -> r.checkField(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_FIELD)) {
+            rule.checkField(node);
+        }
     }
 
     private void checkInlineFragment(InlineFragment node) {
-        currentRules.forEach(r -> r.checkInlineFragment(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_INLINE_FRAGMENT)) {
+            rule.checkInlineFragment(node);
+        }
     }
 
     private void checkDirective(Directive node, List<Node> ancestors) {
-        currentRules.forEach(r -> r.checkDirective(node, ancestors));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_DIRECTIVE)) {
+            rule.checkDirective(node, ancestors);
+        }
     }
 
     private void checkFragmentSpread(FragmentSpread node, List<Node> ancestors) {
-        currentRules.forEach(r -> r.checkFragmentSpread(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_FRAGMENT_SPREAD)) {
+            rule.checkFragmentSpread(node);
+        }
 
-        if (operationScope) {
+        // there is no point in walking the fragment if no rule wants to see it
+        if (operationScope && !fragmentSpreadVisitRules.rules.isEmpty()) {
             FragmentDefinition fragment = validationContext.getFragment(node.getName());
-            if (fragment != null && !visitedFragmentSpreads.contains(node.getName())) {
-                // Manually traverse into the FragmentDefinition
-                visitedFragmentSpreads.add(node.getName());
-                List<AbstractRule> prevRules = currentRules;
+            if (fragment != null && visitedFragmentSpreads.add(node.getName())) {
+                // Manually traverse into the FragmentDefinition, this happens once per fragment and operation
+                // no matter how often the fragment is spread
+                IndexedRules prevRules = currentRules;
                 currentRules = fragmentSpreadVisitRules;
                 fragmentSpreadVisitDepth++;
                 new LanguageTraversal(ancestors).traverse(fragment, this);
@@ -138,24 +241,34 @@ public class RulesVisitor implements DocumentVisitor {
             currentRules = nonFragmentSpreadRules;
         }
 
-        currentRules.forEach(r -> r.checkFragmentDefinition(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_FRAGMENT_DEFINITION)) {
+            rule.checkFragmentDefinition(node);
+        }
     }
 
     private void checkOperationDefinition(OperationDefinition node) {
         operationScope = true;
-        currentRules.forEach(r -> r.checkOperationDefinition(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_OPERATION_DEFINITION)) {
+            rule.checkOperationDefinition(node);
+        }
     }
 
     private void checkSelectionSet(SelectionSet node) {
-        currentRules.forEach(r -> r.checkSelectionSet(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_SELECTION_SET)) {
+            rule.checkSelectionSet(node);
+        }
     }
 
     private void checkVariable(VariableReference node) {
-        currentRules.forEach(r -> r.checkVariable(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_VARIABLE)) {
+            rule.checkVariable(node);
+        }
     }
 
     private void checkObjectValue(ObjectValue node) {
-        currentRules.forEach(r -> r.checkObjectValue(node));
+        for (AbstractRule rule : currentRules.get(Callback.CHECK_OBJECT_VALUE)) {
+            rule.checkObjectValue(node);
+        }
     }
 
     @Override
@@ -174,18 +287,24 @@ public class RulesVisitor implements DocumentVisitor {
     }
 
     private void leaveSelectionSet(SelectionSet node) {
-        currentRules.forEach(r -> r.leaveSelectionSet(node));
+        for (AbstractRule rule : currentRules.get(Callback.LEAVE_SELECTION_SET)) {
+            rule.leaveSelectionSet(node);
+        }
     }
 
     private void leaveOperationDefinition(OperationDefinition node) {
         // fragments should be revisited for each operation
         visitedFragmentSpreads.clear();
         operationScope = false;
-        currentRules.forEach(r -> r.leaveOperationDefinition(node));
+        for (AbstractRule rule : currentRules.get(Callback.LEAVE_OPERATION_DEFINITION)) {
+            rule.leaveOperationDefinition(node);
+        }
     }
 
     private void documentFinished(Document node) {
-        currentRules.forEach(r -> r.documentFinished(node));
+        for (AbstractRule rule : currentRules.get(Callback.DOCUMENT_FINISHED)) {
+            rule.documentFinished(node);
+        }
     }
 
     private void leaveFragmentDefinition(FragmentDefinition node) {
@@ -0,0 +1,203 @@
+package graphql.validation;
+
+import graphql.PublicApi;
+import graphql.language.Document;
+import graphql.schema.GraphQLSchema;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static graphql.Assert.assertNotNull;
+import static graphql.Assert.assertTrue;
+
+/**
+ * Remembers which documents have been found valid against a schema so that they do not need to be validated again.
+ * <p>
+ * The documents are keyed by their query text, or by the identity of the {@link Document} when there is no query text
+ * that it was parsed from, say when a document is re-used from a {@link graphql.execution.preparsed.PreparsedDocumentProvider}.
+ * Looking up a document hence costs no more than a hash lookup, but documents that only differ in their layout
+ * have entries of their own.
+ * <p>
+ * Only documents that were validated without errors are remembered, invalid documents are validated each time
+ * so that their errors are reported in the requested locale.  The cache is bounded by the number of entries per
+ * schema and drops entries once it holds more, in no particular order.
+ * <p>
+ * The entries are kept per schema instance, so a cache can be shared by several {@link graphql.GraphQL} instances
+ * with different schemas.  The entries of the schemas that have been used least recently are dropped once the cache
+ * has seen more than a few schema instances.
+ */
+@PublicApi
+public class ValidationCache {
+
+    private static final int MAX_SCHEMAS = 8;
+    private static final long LAST_USED_PRECISION_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long maxEntries;
+    private final Map<GraphQLSchema, SchemaEntries> entriesBySchema = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private ValidationCache(Builder builder) {
+        this.maxEntries = builder.maxEntries;
+    }
+
+    /**
+     * Returns no errors if the query text is known to be valid against the schema, otherwise the validation function is
+     * called and its errors are returned.
+     *
+     * @param schema             the schema the document is validated against
+     * @param query              the query text of the document to validate
+     * @param validationFunction the function that validates the document
+     *
+     * @return the validation errors, which are empty for a valid document
+     */
+    public List<ValidationError> validate(GraphQLSchema schema, String query, Supplier<List<ValidationError>> validationFunction) {
+        return validate(schema, (Object) assertNotNull(query, () -> "query must not be null"), validationFunction);
+    }
+
+    /**
+     * Returns no errors if this document instance is known to be valid against the schema, otherwise the validation function
+     * is called and its errors are returned.
+     *
+     * @param schema             the schema the document is validated against
+     * @param document           the document to validate
+     * @param validationFunction the function that validates the document
+     *
+     * @return the validation errors, which are empty for a valid document
+     */
+    public List<ValidationError> validate(GraphQLSchema schema, Document document, Supplier<List<ValidationError>> validationFunction) {
+        return validate(schema, (Object) assertNotNull(document, () -> "document must not be null"), validationFunction);
+    }
+
+    private List<ValidationError> validate(GraphQLSchema schema, Object key, Supplier<List<ValidationError>> validationFunction) {
+        assertNotNull(schema, () -> "schema must not be null");
+        SchemaEntries entries = entriesFor(schema);
+        if (entries.validDocuments.containsKey(key)) {
+            hitCount.increment();
+            return Collections.emptyList();
+        }
+        missCount.increment();
+
+        List<ValidationError> validationErrors = validationFunction.get();
+        if (validationErrors.isEmpty()) {
+            entries.validDocuments.put(key, Boolean.TRUE);
+            evictIfNeeded(entries.validDocuments);
+        }
+        return validationErrors;
+    }
+
+    /**
+     * @return the number of times a document was known to be valid
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of times a document had to be validated
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of entries that have been evicted to keep the cache within its bounds
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @return the number of documents currently known to be valid, over all the schemas
+     */
+    public long getEntryCount() {
+        long entryCount = 0;
+        for (SchemaEntries entries : entriesBySchema.values()) {
+            entryCount += entries.validDocuments.size();
+        }
+        return entryCount;
+    }
+
+    /**
+     * Removes all entries from the cache.  This does not count as evictions.
+     */
+    public void clear() {
+        entriesBySchema.clear();
+    }
+
+    private SchemaEntries entriesFor(GraphQLSchema schema) {
+        SchemaEntries entries = entriesBySchema.get(schema);
+        if (entries == null) {
+            entries = entriesBySchema.computeIfAbsent(schema, ignored -> new SchemaEntries());
+            if (entriesBySchema.size() > MAX_SCHEMAS) {
+                dropLeastRecentlyUsedSchema(schema);
+            }
+        }
+        long now = System.nanoTime();
+        // schemas are dropped rarely, so the time they were used only needs to be roughly right
+        if (now - entries.lastUsed > LAST_USED_PRECISION_NANOS) {
+            entries.lastUsed = now;
+        }
+        return entries;
+    }
+
+    private void dropLeastRecentlyUsedSchema(GraphQLSchema keep) {
+        GraphQLSchema leastRecentlyUsed = null;
+        long leastRecentlyUsedAt = Long.MAX_VALUE;
+        for (Map.Entry<GraphQLSchema, SchemaEntries> entry : entriesBySchema.entrySet()) {
+            if (entry.getKey() != keep && entry.getValue().lastUsed - leastRecentlyUsedAt < 0) {
+                leastRecentlyUsed = entry.getKey();
+                leastRecentlyUsedAt = entry.getValue().lastUsed;
+            }
+        }
+        if (leastRecentlyUsed != null) {
+            entriesBySchema.remove(leastRecentlyUsed);
+        }
+    }
+
+    private void evictIfNeeded(Map<Object, Boolean> validDocuments) {
+        Iterator<Object> keys = validDocuments.keySet().iterator();
+        while (keys.hasNext() && validDocuments.size() > maxEntries) {
+            keys.next();
+            keys.remove();
+            evictionCount.increment();
+        }
+    }
+
+    private static class SchemaEntries {
+        private final Map<Object, Boolean> validDocuments = new ConcurrentHashMap<>();
+        private volatile long lastUsed = System.nanoTime();
+    }
+
+    public static Builder newValidationCache() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private long maxEntries = 1000;
+
+        /**
+         * The maximum number of valid documents to remember per schema, defaults to 1000
+         *
+         * @param maxEntries the maximum number of documents
+         *
+         * @return this builder
+         */
+        public Builder maxEntries(long maxEntries) {
+            assertTrue(maxEntries > 0, () -> "maxEntries must be greater than zero");
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        public ValidationCache build() {
+            return new ValidationCache(this);
+        }
+    }
+}
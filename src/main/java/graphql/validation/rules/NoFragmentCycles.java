@@ -1,10 +1,12 @@
 package graphql.validation.rules;
 
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -27,6 +29,7 @@ import static graphql.validation.ValidationErrorType.FragmentCycle;
 public class NoFragmentCycles extends AbstractRule {
 
     private final Map<String, Set<String>> fragmentSpreads = new HashMap<>();
+    private Set<String> fragmentsReachingCycles;
 
     public NoFragmentCycles(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
         super(validationContext, validationErrorCollector);
@@ -65,54 +68,78 @@ public class NoFragmentCycles extends AbstractRule {
 
     @Override
     public void checkFragmentDefinition(FragmentDefinition fragmentDefinition) {
-        LinkedList<String> path = new LinkedList<>();
-        path.add(0, fragmentDefinition.getName());
-        Map<String, Set<String>> transitiveSpreads = buildTransitiveSpreads(path, new HashMap<>());
-
-        for (Map.Entry<String, Set<String>> entry : transitiveSpreads.entrySet()) {
-            if (entry.getValue().contains(entry.getKey())) {
-                String message = i18n(FragmentCycle, "NoFragmentCycles.cyclesNotAllowed");
-                addError(ValidationErrorType.FragmentCycle, Collections.singletonList(fragmentDefinition), message);
-            }
+        if (fragmentsReachingCycles == null) {
+            fragmentsReachingCycles = findFragmentsReachingCycles();
         }
-    }
-
-    private Map<String, Set<String>> buildTransitiveSpreads(LinkedList<String> path, Map<String, Set<String>> transitiveSpreads) {
-        String name = path.peekFirst();
-
-        if (transitiveSpreads.containsKey(name)) {
-            return transitiveSpreads;
-        }
-
-        Set<String> spreads = fragmentSpreads.get(name);
-
-        // spreads may be null when there is no corresponding FragmentDefinition for this spread.
-        // This will be handled by KnownFragmentNames
-        if (spreads == null || spreads.isEmpty()) {
-            return transitiveSpreads;
+        if (fragmentsReachingCycles.contains(fragmentDefinition.getName())) {
+            String message = i18n(FragmentCycle, "NoFragmentCycles.cyclesNotAllowed");
+            addError(ValidationErrorType.FragmentCycle, Collections.singletonList(fragmentDefinition), message);
         }
+    }
 
-        // Add the current spreads to the transitive spreads of each ancestor in the traversal path
-        for (String ancestor : path) {
-            Set<String> ancestorSpreads = transitiveSpreads.get(ancestor);
-            if (ancestorSpreads == null) {
-                ancestorSpreads = new HashSet<>();
+    /**
+     * The fragments of the document that are part of a cycle or that spread a fragment that is, worked out once
+     * per document rather than walking the spreads again for each fragment definition.  The strongly connected
+     * fragments are found with Tarjan's algorithm, which finishes a group of fragments only after all the groups
+     * it spreads have been finished.
+     */
+    private Set<String> findFragmentsReachingCycles() {
+        Set<String> reachingCycles = new HashSet<>();
+        Map<String, Integer> indexes = new HashMap<>();
+        Map<String, Integer> lowLinks = new HashMap<>();
+        Deque<String> stack = new ArrayDeque<>();
+        Set<String> onStack = new HashSet<>();
+        for (String name : fragmentSpreads.keySet()) {
+            if (!indexes.containsKey(name)) {
+                connect(name, indexes, lowLinks, stack, onStack, reachingCycles);
             }
-            ancestorSpreads.addAll(spreads);
-            transitiveSpreads.put(ancestor, ancestorSpreads);
         }
+        return reachingCycles;
+    }
+
+    private void connect(String name, Map<String, Integer> indexes, Map<String, Integer> lowLinks, Deque<String> stack, Set<String> onStack, Set<String> reachingCycles) {
+        int index = indexes.size();
+        indexes.put(name, index);
+        lowLinks.put(name, index);
+        stack.push(name);
+        onStack.add(name);
 
+        Set<String> spreads = fragmentSpreads.get(name);
         for (String child : spreads) {
-            // don't recurse infinitely, expect the recursion check to happen in checkFragmentDefinition
-            if (path.contains(child) || transitiveSpreads.containsKey(child)) {
+            // spreads of fragments that are not defined are handled by KnownFragmentNames
+            if (!fragmentSpreads.containsKey(child)) {
                 continue;
             }
+            if (!indexes.containsKey(child)) {
+                connect(child, indexes, lowLinks, stack, onStack, reachingCycles);
+                lowLinks.put(name, Math.min(lowLinks.get(name), lowLinks.get(child)));
+            } else if (onStack.contains(child)) {
+                lowLinks.put(name, Math.min(lowLinks.get(name), indexes.get(child)));
+            }
+        }
 
-            // descend into each spread in the current fragment
-            LinkedList<String> childPath = new LinkedList<>(path);
-            childPath.add(0, child);
-            buildTransitiveSpreads(childPath, transitiveSpreads);
+        if (lowLinks.get(name).equals(indexes.get(name))) {
+            List<String> component = new ArrayList<>();
+            String member;
+            do {
+                member = stack.pop();
+                onStack.remove(member);
+                component.add(member);
+            } while (!member.equals(name));
+
+            boolean reachesCycle = component.size() > 1 || spreads.contains(name);
+            for (int i = 0; i < component.size() && !reachesCycle; i++) {
+                for (String child : fragmentSpreads.get(component.get(i))) {
+                    // the groups spread from here have already been finished
+                    if (reachingCycles.contains(child)) {
+                        reachesCycle = true;
+                        break;
+                    }
+                }
+            }
+            if (reachesCycle) {
+                reachingCycles.addAll(component);
+            }
         }
-        return transitiveSpreads;
     }
 }
@@ -6,6 +6,7 @@ import graphql.Internal;
 import graphql.execution.TypeFromAST;
 import graphql.language.Argument;
 import graphql.language.AstComparator;
+import graphql.language.Definition;
 import graphql.language.Field;
 import graphql.language.FragmentDefinition;
 import graphql.language.FragmentSpread;
@@ -26,6 +27,9 @@ import graphql.validation.ValidationErrorCollector;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -56,6 +60,12 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
     private final Set<Set<FieldAndType>> sameResponseShapeChecked = new LinkedHashSet<>();
     private final Set<Set<FieldAndType>> sameForCommonParentsChecked = new LinkedHashSet<>();
     private final Set<Set<Field>> conflictsReported = new LinkedHashSet<>();
+    // the collected fields are shared, so a field map that has been checked once can be skipped as a whole
+    private final Set<Map<String, Set<FieldAndType>>> sameResponseShapeMapsChecked = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Map<String, Set<FieldAndType>>> sameForCommonParentsMapsChecked = Collections.newSetFromMap(new IdentityHashMap<>());
+    // the fields of a selection set only depend on the selection set and its parent type and hence are collected once
+    private final Map<SelectionSetAndType, Map<String, Set<FieldAndType>>> collectedFields = new HashMap<>();
+    private Boolean fragmentCycles;
 
     public OverlappingFieldsCanBeMerged(ValidationContext validationContext, ValidationErrorCollector validationErrorCollector) {
         super(validationContext, validationErrorCollector);
@@ -63,9 +73,7 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
 
     @Override
     public void leaveSelectionSet(SelectionSet selectionSet) {
-        Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>();
-        Set<String> visitedFragmentSpreads = new LinkedHashSet<>();
-        collectFields(fieldMap, selectionSet, getValidationContext().getOutputType(), visitedFragmentSpreads);
+        Map<String, Set<FieldAndType>> fieldMap = getFields(selectionSet, getValidationContext().getOutputType());
         List<Conflict> conflicts = findConflicts(fieldMap);
         for (Conflict conflict : conflicts) {
             if (conflictsReported.contains(conflict.fields)) {
@@ -79,6 +87,42 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
     }
 
     private void collectFields(Map<String, Set<FieldAndType>> fieldMap, SelectionSet selectionSet, GraphQLType parentType, Set<String> visitedFragmentSpreads) {
+        // the collected fields of a fragment would miss the fields of the fragments that are still being collected
+        // when fragments spread each other, so these (invalid) documents are always walked in full
+        if (hasFragmentCycles()) {
+            collectSelections(fieldMap, selectionSet, parentType, visitedFragmentSpreads);
+            return;
+        }
+        Map<String, Set<FieldAndType>> fields = getCollectedFields(selectionSet, parentType);
+        for (Map.Entry<String, Set<FieldAndType>> entry : fields.entrySet()) {
+            fieldMap.computeIfAbsent(entry.getKey(), responseName -> new LinkedHashSet<>()).addAll(entry.getValue());
+        }
+    }
+
+    /*
+     * The returned map must not be modified since it might be shared
+     */
+    private Map<String, Set<FieldAndType>> getFields(SelectionSet selectionSet, GraphQLType parentType) {
+        if (hasFragmentCycles()) {
+            Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>();
+            collectSelections(fieldMap, selectionSet, parentType, new LinkedHashSet<>());
+            return fieldMap;
+        }
+        return getCollectedFields(selectionSet, parentType);
+    }
+
+    private Map<String, Set<FieldAndType>> getCollectedFields(SelectionSet selectionSet, GraphQLType parentType) {
+        SelectionSetAndType key = new SelectionSetAndType(selectionSet, parentType);
+        Map<String, Set<FieldAndType>> fields = collectedFields.get(key);
+        if (fields == null) {
+            fields = new LinkedHashMap<>();
+            collectSelections(fields, selectionSet, parentType, new LinkedHashSet<>());
+            collectedFields.put(key, fields);
+        }
+        return fields;
+    }
+
+    private void collectSelections(Map<String, Set<FieldAndType>> fieldMap, SelectionSet selectionSet, GraphQLType parentType, Set<String> visitedFragmentSpreads) {
 
         for (Selection selection : selectionSet.getSelections()) {
             if (selection instanceof Field) {
@@ -106,6 +150,62 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
         collectFields(fieldMap, fragment.getSelectionSet(), graphQLType, visitedFragmentSpreads);
     }
 
+    private boolean hasFragmentCycles() {
+        if (fragmentCycles == null) {
+            Map<String, Set<String>> spreadsByFragment = new HashMap<>();
+            for (Definition definition : getValidationContext().getDocument().getDefinitions()) {
+                if (definition instanceof FragmentDefinition) {
+                    Set<String> spreads = new LinkedHashSet<>();
+                    gatherFragmentSpreads(((FragmentDefinition) definition).getSelectionSet(), spreads);
+                    spreadsByFragment.put(((FragmentDefinition) definition).getName(), spreads);
+                }
+            }
+            Set<String> finished = new HashSet<>();
+            Set<String> inProgress = new HashSet<>();
+            boolean cycles = false;
+            for (String fragmentName : spreadsByFragment.keySet()) {
+                if (hasFragmentCycle(fragmentName, spreadsByFragment, inProgress, finished)) {
+                    cycles = true;
+                    break;
+                }
+            }
+            fragmentCycles = cycles;
+        }
+        return fragmentCycles;
+    }
+
+    private boolean hasFragmentCycle(String fragmentName, Map<String, Set<String>> spreadsByFragment, Set<String> inProgress, Set<String> finished) {
+        if (finished.contains(fragmentName)) {
+            return false;
+        }
+        if (!inProgress.add(fragmentName)) {
+            return true;
+        }
+        for (String spread : spreadsByFragment.getOrDefault(fragmentName, Collections.emptySet())) {
+            if (hasFragmentCycle(spread, spreadsByFragment, inProgress, finished)) {
+                return true;
+            }
+        }
+        inProgress.remove(fragmentName);
+        finished.add(fragmentName);
+        return false;
+    }
+
+    private void gatherFragmentSpreads(SelectionSet selectionSet, Set<String> spreads) {
+        if (selectionSet == null) {
+            return;
+        }
+        for (Selection selection : selectionSet.getSelections()) {
+            if (selection instanceof Field) {
+                gatherFragmentSpreads(((Field) selection).getSelectionSet(), spreads);
+            } else if (selection instanceof InlineFragment) {
+                gatherFragmentSpreads(((InlineFragment) selection).getSelectionSet(), spreads);
+            } else if (selection instanceof FragmentSpread) {
+                spreads.add(((FragmentSpread) selection).getName());
+            }
+        }
+    }
+
     private GraphQLType getGraphQLTypeForFragmentDefinition(FragmentDefinition fragment) {
         return TypeFromAST.getTypeFromAST(getValidationContext().getSchema(),
                 fragment.getTypeCondition());
@@ -156,6 +256,9 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
     }
 
     private void sameResponseShapeByName(Map<String, Set<FieldAndType>> fieldMap, ImmutableList<String> currentPath, List<Conflict> conflictsResult) {
+        if (!sameResponseShapeMapsChecked.add(fieldMap)) {
+            return;
+        }
         for (Map.Entry<String, Set<FieldAndType>> entry : fieldMap.entrySet()) {
             if (sameResponseShapeChecked.contains(entry.getValue())) {
                 continue;
@@ -173,6 +276,14 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
     }
 
     private Map<String, Set<FieldAndType>> mergeSubSelections(Set<FieldAndType> sameNameFields) {
+        if (sameNameFields.size() == 1) {
+            // nothing to merge, which is the common case
+            FieldAndType fieldAndType = sameNameFields.iterator().next();
+            if (fieldAndType.field.getSelectionSet() == null) {
+                return Collections.emptyMap();
+            }
+            return getFields(fieldAndType.field.getSelectionSet(), fieldAndType.graphQLType);
+        }
         Map<String, Set<FieldAndType>> fieldMap = new LinkedHashMap<>();
         for (FieldAndType fieldAndType : sameNameFields) {
             if (fieldAndType.field.getSelectionSet() != null) {
@@ -184,6 +295,9 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
     }
 
     private void sameForCommonParentsByName(Map<String, Set<FieldAndType>> fieldMap, ImmutableList<String> currentPath, List<Conflict> conflictsResult) {
+        if (!sameForCommonParentsMapsChecked.add(fieldMap)) {
+            return;
+        }
         for (Map.Entry<String, Set<FieldAndType>> entry : fieldMap.entrySet()) {
             List<Set<FieldAndType>> groups = groupByCommonParents(entry.getValue());
             ImmutableList<String> newPath = addToList(currentPath, entry.getKey());
@@ -384,6 +498,36 @@ public class OverlappingFieldsCanBeMerged extends AbstractRule {
         }
     }
 
+    private static class SelectionSetAndType {
+        final SelectionSet selectionSet;
+        final GraphQLType parentType;
+
+        public SelectionSetAndType(SelectionSet selectionSet, GraphQLType parentType) {
+            this.selectionSet = selectionSet;
+            this.parentType = parentType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            SelectionSetAndType that = (SelectionSetAndType) o;
+
+            // the same selection set node can be reached with different parent types
+            return selectionSet == that.selectionSet && parentType == that.parentType;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(selectionSet) + System.identityHashCode(parentType);
+        }
+    }
+
     private static class Conflict {
         final String reason;
         final Set<Field> fields = new LinkedHashSet<>();
@@ -0,0 +1,97 @@
+package graphql
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import graphql.language.SourceLocation
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+
+class ExecutionResultJsonWriterTest extends Specification {
+
+    static ObjectMapper objectMapper = new ObjectMapper()
+
+    static Object readJson(String json) {
+        objectMapper.readValue(json, Object)
+    }
+
+    def "writes the same JSON as the specification map"() {
+        expect:
+        def json = ExecutionResultJsonWriter.toJson(executionResult)
+        readJson(json) == readJson(objectMapper.writeValueAsString(executionResult.toSpecification()))
+        json.startsWith(expectedStart)
+
+        where:
+        executionResult                                                                                    | expectedStart
+        ExecutionResultImpl.newExecutionResult().data([hero: [name: "R2-D2", friends: [[name: "Luke"]]]]).build() | '{"data":{"hero":{"name":"R2-D2"'
+        ExecutionResultImpl.newExecutionResult().build()                                                  | '{}'
+        ExecutionResultImpl.newExecutionResult().data(null).build()                                       | '{"data":null'
+        ExecutionResultImpl.newExecutionResult().data([a: 1])
+                .addError(GraphqlErrorBuilder.newError().message("bad").path(["a", 1]).location(new SourceLocation(1, 2)).build())
+                .addExtension("cost", [total: 1.5]).build()                                                 | '{"errors":[{"message":"bad"'
+    }
+
+    def "encodes values"() {
+        def executionResult = ExecutionResultImpl.newExecutionResult().data([
+                string : 'quote " backslash \\ newline \n tab \t control \u0001 unicode é 😀',
+                numbers: [1, -2L, 2.5d, 1.5f, new BigDecimal("1.10"), BigInteger.TEN],
+                others : [true, false, null, MyEnum.A, 'c' as char],
+                array  : [1, 2] as int[],
+                set    : ["x"] as LinkedHashSet,
+        ]).build()
+
+        when:
+        def json = ExecutionResultJsonWriter.toJson(executionResult)
+
+        then:
+        json == '{"data":{' +
+                '"string":"quote \\" backslash \\\\ newline \\n tab \\t control \\u0001 unicode é 😀",' +
+                '"numbers":[1,-2,2.5,1.5,1.10,10],' +
+                '"others":[true,false,null,"A","c"],' +
+                '"array":[1,2],' +
+                '"set":["x"]}}'
+        readJson(json).data.string == executionResult.getData().string
+    }
+
+    def "values that JSON can not represent are rejected"() {
+        def executionResult = ExecutionResultImpl.newExecutionResult().data([value: value]).build()
+
+        when:
+        ExecutionResultJsonWriter.toJson(executionResult)
+
+        then:
+        def exception = thrown(GraphQLException)
+        exception.message == message
+
+        where:
+        value                    | message
+        Double.NaN               | "The number 'NaN' can not be written as JSON"
+        Float.POSITIVE_INFINITY  | "The number 'Infinity' can not be written as JSON"
+        [new Object()]           | "A value of type 'java.lang.Object' can not be written as JSON"
+        [a: UUID.randomUUID()]   | "A value of type 'java.util.UUID' can not be written as JSON"
+    }
+
+    def "writes UTF-8 to output streams"() {
+        def executionResult = ExecutionResultImpl.newExecutionResult().data([name: "é 😀"]).build()
+        def outputStream = new ByteArrayOutputStream()
+
+        when:
+        ExecutionResultJsonWriter.writeJson(executionResult, outputStream)
+
+        then:
+        new String(outputStream.toByteArray(), StandardCharsets.UTF_8) == '{"data":{"name":"é 😀"}}'
+    }
+
+    def "writes executed results"() {
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).build()
+
+        when:
+        def executionResult = graphQL.execute('{ hero { name friends { name } } nope }')
+
+        then:
+        readJson(ExecutionResultJsonWriter.toJson(executionResult)) == readJson(objectMapper.writeValueAsString(executionResult.toSpecification()))
+    }
+
+    enum MyEnum {
+        A
+    }
+}
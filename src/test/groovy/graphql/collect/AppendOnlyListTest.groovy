@@ -0,0 +1,82 @@
+package graphql.collect
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class AppendOnlyListTest extends Specification {
+
+    def "elements are kept in the order they are added"() {
+        def list = new AppendOnlyList<Integer>()
+
+        when:
+        (0..<100).each { list.add(it) }
+        list.addAll([100, 101])
+        list.addAll([])
+
+        then:
+        list.size() == 102
+        list.snapshot() == (0..101).toList()
+    }
+
+    def "snapshots do not see elements added later"() {
+        def list = new AppendOnlyList<String>()
+
+        when:
+        list.add("a")
+        def snapshot = list.snapshot()
+        list.add("b")
+
+        then:
+        snapshot == ["a"]
+        list.snapshot() == ["a", "b"]
+
+        when:
+        snapshot.get(1)
+
+        then:
+        thrown(IndexOutOfBoundsException)
+    }
+
+    def "snapshots are immutable"() {
+        def list = new AppendOnlyList<String>()
+        list.add("a")
+
+        when:
+        list.snapshot().add("b")
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "elements can be added concurrently"() {
+        def threads = 8
+        def elementsPerThread = 10000
+        def list = new AppendOnlyList<String>()
+        def executor = Executors.newFixedThreadPool(threads)
+        def start = new CountDownLatch(1)
+
+        when:
+        def futures = (0..<threads).collect { thread ->
+            executor.submit({
+                start.await()
+                (0..<elementsPerThread).each {
+                    list.add("$thread-$it".toString())
+                    def snapshot = list.snapshot()
+                    assert snapshot.isEmpty() || snapshot.get(snapshot.size() - 1) != null
+                }
+            })
+        }
+        start.countDown()
+        futures.each { it.get(30, TimeUnit.SECONDS) }
+
+        then:
+        list.snapshot().size() == threads * elementsPerThread
+        list.snapshot().toSet().size() == threads * elementsPerThread
+
+        cleanup:
+        executor.shutdown()
+    }
+}
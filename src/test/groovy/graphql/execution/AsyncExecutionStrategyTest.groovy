@@ -141,6 +141,7 @@ class AsyncExecutionStrategyTest extends Specification {
                 .instrumentation(SimplePerformantInstrumentation.INSTANCE)
                 .locale(Locale.getDefault())
                 .graphQLContext(GraphQLContext.getDefault())
+                .directValueCompletion(directValueCompletion)
                 .build()
         ExecutionStrategyParameters executionStrategyParameters = ExecutionStrategyParameters
                 .newParameters()
@@ -156,6 +157,9 @@ class AsyncExecutionStrategyTest extends Specification {
         then:
         result.isDone()
         result.get().data == ['hello': 'world', 'hello2': 'world2']
+
+        where:
+        directValueCompletion << [false, true]
     }
 
     def "async execution"() {
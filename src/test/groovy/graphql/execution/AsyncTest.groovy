@@ -130,4 +130,46 @@ class AsyncTest extends Specification {
         exception.getCause().getMessage() == "some error"
     }
 
+    def "combined builder completes straight away when all values are present"() {
+        when:
+        def many = Async.ofExpectedSize(3, true)
+        many.add(completedFuture('x'))
+        many.add(completedFuture('y'))
+        many.add(completedFuture('z'))
+        def single = Async.ofExpectedSize(1, true)
+        single.add(completedFuture('x'))
+
+        then:
+        many.await().isDone()
+        many.await().join() == ['x', 'y', 'z']
+        single.await().isDone()
+        single.await().join() == ['x']
+    }
+
+    def "combined builder waits for values that are not yet present"() {
+        def cf = new CompletableFuture()
+        def many = Async.ofExpectedSize(2, true)
+        many.add(completedFuture('x'))
+        many.add(cf)
+
+        when:
+        def result = many.await()
+
+        then:
+        !result.isDone()
+
+        when:
+        cf.complete('y')
+
+        then:
+        result.isDone()
+        result.join() == ['x', 'y']
+    }
+
+    def "isCompletedNormally test"() {
+        expect:
+        Async.isCompletedNormally(completedFuture('x'))
+        !Async.isCompletedNormally(new CompletableFuture())
+        !Async.isCompletedNormally(Async.exceptionallyCompletedFuture(new RuntimeException()))
+    }
 }
@@ -0,0 +1,91 @@
+package graphql.execution
+
+import graphql.ExecutionResultImpl
+import graphql.GraphqlErrorBuilder
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class ExecutionContextTest extends Specification {
+
+    static def error(String message, List<Object> path = null) {
+        def builder = GraphqlErrorBuilder.newError().message(message)
+        if (path != null) {
+            builder.path(path)
+        }
+        builder.build()
+    }
+
+    def executionContext = ExecutionContextBuilder.newExecutionContextBuilder().executionId(ExecutionId.generate()).build()
+
+    def "errors are kept in the order they are added and only once per path"() {
+        when:
+        executionContext.addError(error("a"), ResultPath.parse("/a"))
+        executionContext.addError(error("a again"), ResultPath.parse("/a"))
+        executionContext.addError(error("b", ["b"]))
+        executionContext.addError(error("b again"), ResultPath.parse("/b"))
+        executionContext.addErrors([error("c"), error("d", ["d"])])
+        executionContext.addError(error("d again"), ResultPath.parse("/d"))
+
+        then:
+        executionContext.getErrors().collect { it.message } == ["a", "b", "c", "d"]
+    }
+
+    def "the errors are a snapshot"() {
+        when:
+        executionContext.addError(error("a"))
+        def errors = executionContext.getErrors()
+        executionContext.addError(error("b"))
+
+        then:
+        errors.collect { it.message } == ["a"]
+        executionContext.getErrors().collect { it.message } == ["a", "b"]
+        executionContext.getErrors() === executionContext.getErrors()
+    }
+
+    def "execution results share the errors rather than copying them"() {
+        when:
+        executionContext.addError(error("a"))
+        def errors = executionContext.getErrors()
+        def result = new ExecutionResultImpl(null, errors)
+
+        then:
+        result.getErrors().is(errors)
+
+        when:
+        errors.add(error("b"))
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    def "errors can be added concurrently"() {
+        def threads = 8
+        def errorsPerThread = 1000
+        def executor = Executors.newFixedThreadPool(threads)
+        def start = new CountDownLatch(1)
+
+        when:
+        def futures = (0..<threads).collect { thread ->
+            executor.submit({
+                start.await()
+                (0..<errorsPerThread).each {
+                    // every second error is for a path that another thread also uses
+                    def path = it % 2 == 0 ? ResultPath.parse("/shared/$it") : ResultPath.parse("/t$thread/$it")
+                    executionContext.addError(error("$thread-$it"), path)
+                    executionContext.getErrors()
+                }
+            })
+        }
+        start.countDown()
+        futures.each { it.get(30, TimeUnit.SECONDS) }
+
+        then:
+        executionContext.getErrors().size() == errorsPerThread / 2 + threads * errorsPerThread / 2
+
+        cleanup:
+        executor.shutdown()
+    }
+}
@@ -0,0 +1,182 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.StarWarsSchema
+import graphql.TestUtil
+import graphql.execution.preparsed.PreparsedDocumentEntry
+import graphql.execution.preparsed.TestingPreparsedDocumentProvider
+import graphql.language.Field
+import graphql.language.OperationDefinition
+import graphql.parser.Parser
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+class ExecutionPlanTest extends Specification {
+
+    def query = '''
+        query HeroQuery($withFriends: Boolean!) {
+            hero {
+                id
+                name
+                friends @include(if: $withFriends) {
+                    name
+                }
+                ... on Droid {
+                    primaryFunction
+                }
+            }
+        }
+        '''
+
+    def "executing with execution plans gives the same results as without"() {
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).build()
+        def plannedGraphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .preparsedDocumentProvider(new TestingPreparsedDocumentProvider())
+                .executionPlanCaching(true)
+                .build()
+
+        when:
+        def input = ExecutionInput.newExecutionInput(query).variables([withFriends: withFriends]).build()
+        def expected = graphQL.execute(input)
+        def firstResult = plannedGraphQL.execute(input)
+        def secondResult = plannedGraphQL.execute(input)
+
+        then:
+        plannedGraphQL.isExecutionPlanCaching()
+        firstResult.errors.isEmpty()
+        firstResult.data == expected.data
+        secondResult.data == expected.data
+
+        where:
+        withFriends << [true, false]
+    }
+
+    def "variable dependent selections are collected per request"() {
+        def plannedGraphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .preparsedDocumentProvider(new TestingPreparsedDocumentProvider())
+                .executionPlanCaching(true)
+                .build()
+
+        when:
+        def withFriends = plannedGraphQL.execute(ExecutionInput.newExecutionInput(query).variables([withFriends: true]).build())
+        def withoutFriends = plannedGraphQL.execute(ExecutionInput.newExecutionInput(query).variables([withFriends: false]).build())
+
+        then:
+        withFriends.data["hero"]["friends"] == [[name: "Luke Skywalker"], [name: "Han Solo"], [name: "Leia Organa"]]
+        !(withoutFriends.data["hero"] as Map).containsKey("friends")
+    }
+
+    def "plan records collected fields but not variable dependent ones"() {
+        def document = new Parser().parseDocument(query)
+        def plan = new ExecutionPlan(StarWarsSchema.starWarsSchema, document, null)
+        def queryType = StarWarsSchema.starWarsSchema.getQueryType()
+        def rootSelectionSet = document.getDefinitionsOfType(OperationDefinition)[0].getSelectionSet()
+        def rootFields = MergedSelectionSet.newMergedSelectionSet().build()
+
+        def heroField = MergedField.newMergedField(rootSelectionSet.getSelectionsOfType(Field)[0]).build()
+        def droidType = StarWarsSchema.droidType
+
+        when:
+        plan.putRootFields(queryType, rootSelectionSet, rootFields)
+        plan.putSubFields(droidType, heroField, MergedSelectionSet.newMergedSelectionSet().build())
+
+        then:
+        plan.getRootFields(queryType, rootSelectionSet) == rootFields
+        // hero has a variable dependent @include in its sub selection
+        plan.getSubFields(droidType, heroField) == null
+        plan.getCachedSelectionSetCount() == 1
+    }
+
+    def "plans are created per schema and operation name"() {
+        def document = new Parser().parseDocument(query)
+        def entry = new PreparsedDocumentEntry(document)
+        def otherSchema = TestUtil.schema("type Query { f : String }")
+
+        when:
+        def plan1 = entry.getExecutionPlan(StarWarsSchema.starWarsSchema, null)
+        def plan2 = entry.getExecutionPlan(StarWarsSchema.starWarsSchema, null)
+        def plan3 = entry.getExecutionPlan(otherSchema, null)
+        def plan4 = entry.getExecutionPlan(otherSchema, "HeroQuery")
+
+        then:
+        plan1 === plan2
+        plan1 !== plan3
+        plan3 !== plan4
+        plan4.isPlanFor(otherSchema, document, "HeroQuery")
+    }
+
+    def "plans are kept for every schema and operation name a document is executed with"() {
+        def document = new Parser().parseDocument(query)
+        def entry = new PreparsedDocumentEntry(document)
+        def otherSchema = TestUtil.schema("type Query { f : String }")
+
+        when:
+        def plans = (1..3).collect {
+            [entry.getExecutionPlan(StarWarsSchema.starWarsSchema, null),
+             entry.getExecutionPlan(otherSchema, null),
+             entry.getExecutionPlan(StarWarsSchema.starWarsSchema, "HeroQuery")]
+        }
+
+        then:
+        plans[0][0] !== plans[0][1]
+        plans[0][0] !== plans[0][2]
+        plans.every { it[0] === plans[0][0] && it[1] === plans[0][1] && it[2] === plans[0][2] }
+    }
+
+    def "concurrent requests share one plan"() {
+        def document = new Parser().parseDocument(query)
+        def entry = new PreparsedDocumentEntry(document)
+        def pool = Executors.newFixedThreadPool(8)
+
+        when:
+        def futures = (1..64).collect { pool.submit({ entry.getExecutionPlan(StarWarsSchema.starWarsSchema, null) } as Callable) }
+        def plans = futures.collect { it.get() }
+
+        then:
+        plans.every { it === plans[0] }
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "only the most recently used normalized execution plans are kept"() {
+        def document = new Parser().parseDocument(query)
+        def plan = new ExecutionPlan(StarWarsSchema.starWarsSchema, document, null)
+        def operationDefinition = document.getDefinitionsOfType(OperationDefinition)[0]
+        def normalizedPlan = { int id ->
+            plan.getNormalizedExecutionPlan(operationDefinition, CoercedVariables.of([withFriends: true]), new Locale("l" + id))
+        }
+
+        when:
+        def first = normalizedPlan(0)
+        def recent = (1..40).collect { normalizedPlan(it) }
+
+        then:
+        plan.getNormalizedExecutionPlanCount() == 32
+        normalizedPlan(40).is(recent[-1])
+        !normalizedPlan(0).is(first)
+        plan.getNormalizedExecutionPlanCount() == 32
+    }
+
+    def "normalized execution plans are only told apart by the variables of @skip and @include"() {
+        def document = new Parser().parseDocument(query)
+        def plan = new ExecutionPlan(StarWarsSchema.starWarsSchema, document, null)
+        def operationDefinition = document.getDefinitionsOfType(OperationDefinition)[0]
+        def normalizedPlan = { Map variables ->
+            plan.getNormalizedExecutionPlan(operationDefinition, CoercedVariables.of(variables), Locale.ENGLISH)
+        }
+
+        when:
+        def withFriends = normalizedPlan([withFriends: true, id: 1])
+        def withoutFriends = normalizedPlan([withFriends: false, id: 1])
+
+        then:
+        (2..40).every { normalizedPlan([withFriends: true, id: it]).is(withFriends) }
+        normalizedPlan([withFriends: false, id: 2]).is(withoutFriends)
+        !withFriends.is(withoutFriends)
+        plan.getNormalizedExecutionPlanCount() == 2
+    }
+}
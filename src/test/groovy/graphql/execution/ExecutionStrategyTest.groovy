@@ -3,6 +3,7 @@ package graphql.execution
 import graphql.Assert
 import graphql.ExceptionWhileDataFetching
 import graphql.ExecutionResult
+import graphql.ExecutionResultImpl
 import graphql.GraphQLContext
 import graphql.GraphqlErrorBuilder
 import graphql.Scalars
@@ -946,6 +947,102 @@ class ExecutionStrategyTest extends Specification {
         executionResult.get().data == [1L, 2L, 3L]
     }
 
+    def "completes a list of enums and reports serialization problems at the index of the value"() {
+        given:
+        ExecutionContext executionContext = buildContext()
+        GraphQLEnumType enumType = newEnum().name("Enum").value("A").value("B").build()
+        def fieldType = list(enumType)
+        def fldDef = newFieldDefinition().name("test").type(fieldType).build()
+        def executionStepInfo = ExecutionStepInfo.newExecutionStepInfo().type(fieldType).path(ResultPath.rootPath()).fieldDefinition(fldDef).build()
+        NonNullableFieldValidator nullableFieldValidator = new NonNullableFieldValidator(executionContext, executionStepInfo)
+
+        def parameters = newParameters()
+                .executionStepInfo(executionStepInfo)
+                .source(["A", "not a enum value", null, "B"])
+                .nonNullFieldValidator(nullableFieldValidator)
+                .fields(mergedSelectionSet(["fld": [mergedField(Field.newField().build())]]))
+                .field(mergedField(Field.newField().build()))
+                .build()
+
+        when:
+        def fieldValueInfo = executionStrategy.completeValue(executionContext, parameters)
+
+        then:
+        fieldValueInfo.fieldValue.join().data == ["A", null, null, "B"]
+        executionContext.errors.size() == 1
+        executionContext.errors[0] instanceof SerializationError
+        executionContext.errors[0].path == [1]
+
+        fieldValueInfo.fieldValueInfos.collect { it.completeValueType } == [FieldValueInfo.CompleteValueType.ENUM, FieldValueInfo.CompleteValueType.ENUM,
+                                                                             FieldValueInfo.CompleteValueType.NULL, FieldValueInfo.CompleteValueType.ENUM]
+        fieldValueInfo.fieldValueInfos.collect { it.fieldValue.join().data } == ["A", null, null, "B"]
+    }
+
+    def "a null value in a list of non null scalars makes the list null"() {
+        given:
+        ExecutionContext executionContext = buildContext()
+        def fieldType = list(nonNull(GraphQLString))
+        def fldDef = newFieldDefinition().name("test").type(fieldType).build()
+        def executionStepInfo = ExecutionStepInfo.newExecutionStepInfo().type(fieldType).path(ResultPath.rootPath()).fieldDefinition(fldDef).build()
+        NonNullableFieldValidator nullableFieldValidator = new NonNullableFieldValidator(executionContext, executionStepInfo)
+
+        def parameters = newParameters()
+                .executionStepInfo(executionStepInfo)
+                .source(["a", null, "c", Optional.empty()])
+                .nonNullFieldValidator(nullableFieldValidator)
+                .fields(mergedSelectionSet(["fld": [mergedField(Field.newField().build())]]))
+                .field(mergedField(Field.newField().build()))
+                .build()
+
+        when:
+        def fieldValueInfo = executionStrategy.completeValue(executionContext, parameters)
+
+        then:
+        fieldValueInfo.fieldValue.join().data == null
+        executionContext.errors.size() == 2
+        executionContext.errors.collect { it.path } == [[1], [3]]
+        executionContext.errors.every { it instanceof NonNullableFieldWasNullError }
+
+        fieldValueInfo.fieldValueInfos.size() == 4
+        fieldValueInfo.fieldValueInfos[0].fieldValue.join().data == "a"
+        fieldValueInfo.fieldValueInfos[1].fieldValue.isCompletedExceptionally()
+    }
+
+    def "a strategy that changes how scalars are completed is called for each value of a list"() {
+        given:
+        executionStrategy = new ExecutionStrategy(dataFetcherExceptionHandler) {
+
+            @Override
+            CompletableFuture<ExecutionResult> execute(ExecutionContext executionContext, ExecutionStrategyParameters parameters) {
+                return Assert.assertShouldNeverHappen("should not be called")
+            }
+
+            @Override
+            protected CompletableFuture<ExecutionResult> completeValueForScalar(ExecutionContext executionContext, ExecutionStrategyParameters parameters, GraphQLScalarType scalarType, Object result) {
+                return CompletableFuture.completedFuture(new ExecutionResultImpl(parameters.path.toString() + "=" + result, executionContext.errors))
+            }
+        }
+        ExecutionContext executionContext = buildContext()
+        def fieldType = list(GraphQLString)
+        def fldDef = newFieldDefinition().name("test").type(fieldType).build()
+        def executionStepInfo = ExecutionStepInfo.newExecutionStepInfo().type(fieldType).path(ResultPath.rootPath()).fieldDefinition(fldDef).build()
+        NonNullableFieldValidator nullableFieldValidator = new NonNullableFieldValidator(executionContext, executionStepInfo)
+
+        def parameters = newParameters()
+                .executionStepInfo(executionStepInfo)
+                .source(["a", "b"])
+                .nonNullFieldValidator(nullableFieldValidator)
+                .fields(mergedSelectionSet(["fld": [mergedField(Field.newField().build())]]))
+                .field(mergedField(Field.newField().build()))
+                .build()
+
+        when:
+        def executionResult = executionStrategy.completeValue(executionContext, parameters).fieldValue.join()
+
+        then:
+        executionResult.data == ["/[0]=a", "/[1]=b"]
+    }
+
     def "when completeValue expects GraphQLList and non iterable or non array is passed then it should yield a TypeMismatch error"() {
         given:
         ExecutionContext executionContext = buildContext()
@@ -0,0 +1,385 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.ExecutionResult
+import graphql.GraphQL
+import graphql.GraphQLContext
+import graphql.StarWarsSchema
+import graphql.TestUtil
+import graphql.execution.instrumentation.InstrumentationContext
+import graphql.execution.instrumentation.InstrumentationState
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters
+import graphql.language.StringValue
+import graphql.language.Value
+import graphql.schema.Coercing
+import graphql.schema.DataFetcher
+import graphql.schema.DataFetchingEnvironment
+import graphql.schema.GraphQLEnumType
+import graphql.schema.GraphQLInterfaceType
+import graphql.schema.GraphQLList
+import graphql.schema.GraphQLObjectType
+import graphql.schema.GraphQLScalarType
+import graphql.schema.GraphQLSchema
+import graphql.schema.GraphQLType
+import graphql.schema.GraphQLUnionType
+import graphql.schema.TypeResolver
+import graphql.schema.idl.FieldWiringEnvironment
+import graphql.schema.idl.InterfaceWiringEnvironment
+import graphql.schema.idl.RuntimeWiring
+import graphql.schema.idl.ScalarInfo
+import graphql.schema.idl.ScalarWiringEnvironment
+import graphql.schema.idl.UnionWiringEnvironment
+import graphql.schema.idl.WiringFactory
+import spock.lang.Specification
+
+import static graphql.execution.preparsed.CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider
+import static graphql.schema.GraphQLTypeUtil.unwrapNonNull
+
+class NormalizedOperationExecutionStrategyTest extends Specification {
+
+    static GraphQL asyncGraphQL(GraphQLSchema schema) {
+        GraphQL.newGraphQL(schema).build()
+    }
+
+    static GraphQL normalizedGraphQL(GraphQLSchema schema) {
+        GraphQL.newGraphQL(schema)
+                .queryExecutionStrategy(new NormalizedOperationExecutionStrategy())
+                .preparsedDocumentProvider(newCachingPreparsedDocumentProvider().build())
+                .executionPlanCaching(true)
+                .build()
+    }
+
+    static ExecutionResult execute(GraphQL graphQL, String query, Map<String, Object> variables = [:]) {
+        graphQL.execute(ExecutionInput.newExecutionInput(query).variables(variables).build())
+    }
+
+    // the string form keeps the order of the result keys
+    static String spec(ExecutionResult executionResult) {
+        executionResult.toSpecification().toString()
+    }
+
+    def "executes the StarWars queries just like the async execution strategy"() {
+        def async = asyncGraphQL(StarWarsSchema.starWarsSchema)
+        def normalized = normalizedGraphQL(StarWarsSchema.starWarsSchema)
+
+        when:
+        def expected = spec(execute(async, query, variables))
+        def first = spec(execute(normalized, query, variables))
+        def second = spec(execute(normalized, query, variables))
+
+        then:
+        first == expected
+        second == expected
+
+        where:
+        query                                                                                                          | variables
+        '{ hero { id name friends { name friends { name appearsIn } } } }'                                           | [:]
+        '{ hero(episode: EMPIRE) { name ... on Human { homePlanet } ... on Droid { primaryFunction } __typename } }'  | [:]
+        '{ luke: human(id: "1000") { name } leia: human(id: "1003") { ...HumanFields } } fragment HumanFields on Human { homePlanet name }' | [:]
+        'query q($id: String!) { human(id: $id) { name friends { ... on Droid { name } id ... on Human { name } } } }' | [id: "1000"]
+        'query q($id: String!) { human(id: $id) { name friends { ... on Droid { name } id ... on Human { name } } } }' | [id: "1002"]
+        'query q($id: String!) { droid(id: $id) { name } }'                                                          | [id: "does not exist"]
+        'query q($skip: Boolean!) { hero { id name @skip(if: $skip) friends { name @include(if: $skip) } } }'        | [skip: true]
+        'query q($skip: Boolean!) { hero { id name @skip(if: $skip) friends { name @include(if: $skip) } } }'        | [skip: false]
+        'query q($episode: Episode) { hero(episode: $episode) { name } }'                                            | [episode: "JEDI"]
+        'query q($episode: Episode) { hero(episode: $episode) { name } }'                                            | [episode: "NOT AN EPISODE"]
+        '{ __schema { queryType { name } } hero { __typename name } }'                                               | [:]
+    }
+
+    def "executes the large schema queries just like the async execution strategy"() {
+        def wiring = RuntimeWiring.newRuntimeWiring().wiringFactory(new FakeDataWiringFactory()).build()
+        def schema = TestUtil.schemaFile(schemaFile, wiring)
+        def query = getClass().getClassLoader().getResourceAsStream(queryFile).text
+        def async = asyncGraphQL(schema)
+        def normalized = normalizedGraphQL(schema)
+
+        when:
+        def expected = execute(async, query)
+        def first = execute(normalized, query)
+        def second = execute(normalized, query)
+
+        then:
+        spec(first) == spec(expected)
+        spec(second) == spec(expected)
+
+        where:
+        schemaFile                  | queryFile
+        "large-schema-1.graphqls"   | "large-schema-1-query.graphql"
+        "large-schema-2.graphqls"   | "large-schema-2-query.graphql"
+        "extra-large-schema-1.graphqls" | "extra-large-schema-1-query.graphql"
+    }
+
+    def "the fields of the normalized operation are re-used across executions with other argument variables"() {
+        def environments = []
+        def sdl = '''
+            type Query {
+                pet(name : String) : Pet
+            }
+            interface Pet {
+                name : String
+                friends(first : Int) : [Pet]
+            }
+            type Dog implements Pet {
+                name : String
+                barks : Boolean
+                friends(first : Int) : [Pet]
+            }
+            type Cat implements Pet {
+                name : String
+                meows : Boolean
+                friends(first : Int) : [Pet]
+            }
+        '''
+        def wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", { it.dataFetcher("pet", { env -> environments.add(env); [name: env.getArgument("name"), barks: true] } as DataFetcher) })
+                .type("Pet", { it.typeResolver({ env -> env.getSchema().getObjectType("Dog") } as TypeResolver) })
+                .build()
+        def graphQL = normalizedGraphQL(TestUtil.schema(sdl, wiring))
+        def query = 'query q($name : String, $first : Int) { pet(name : $name) { ... on Cat { meows } name ... on Dog { barks name friends(first : $first) { name } } } }'
+
+        when:
+        def first = execute(graphQL, query, [name: "Fido", first: 1])
+        def second = execute(graphQL, query, [name: "Rex", first: 2])
+
+        then:
+        first.data == [pet: [name: "Fido", barks: true, friends: null]]
+        second.data == [pet: [name: "Rex", barks: true, friends: null]]
+
+        environments[0].getMergedField().is(environments[1].getMergedField())
+        environments[0].getArguments() == [name: "Fido"]
+        environments[1].getArguments() == [name: "Rex"]
+        environments[0].getSelectionSet().getFields("friends")[0].getArguments() == [first: 1]
+        environments[1].getSelectionSet().getFields("friends")[0].getArguments() == [first: 2]
+        environments[1].getSelectionSet().contains("barks")
+        environments[1].getSelectionSet().contains("meows")
+    }
+
+    def "the arguments of the normalized operation are re-used across executions when they don't use variables"() {
+        def environments = []
+        def wiring = RuntimeWiring.newRuntimeWiring()
+                .type("Query", { it.dataFetcher("pet", { env -> environments.add(env); env.getArgument("name") } as DataFetcher) })
+                .build()
+        def graphQL = normalizedGraphQL(TestUtil.schema("type Query { pet(name : String) : String }", wiring))
+        def query = 'query q($skip : Boolean!) { pet(name : "Fido") other : pet(name : "Rex") @skip(if : $skip) }'
+
+        when:
+        def first = execute(graphQL, query, [skip: true])
+        def second = execute(graphQL, query, [skip: true])
+        def third = execute(graphQL, query, [skip: false])
+
+        then:
+        first.data == [pet: "Fido"]
+        second.data == [pet: "Fido"]
+        third.data == [pet: "Fido", other: "Rex"]
+
+        environments[0].getMergedField().is(environments[1].getMergedField())
+        environments[0].getArguments().is(environments[1].getArguments())
+        !environments[0].getMergedField().is(environments[2].getMergedField())
+    }
+
+    def "arguments of scalars that are not specified are resolved with the context of each request"() {
+        def arguments = []
+        def shout = GraphQLScalarType.newScalar().name("Shout").coercing(new Coercing<Object, Object>() {
+            @Override
+            Object serialize(Object input, GraphQLContext graphQLContext, Locale locale) {
+                input
+            }
+
+            @Override
+            Object parseValue(Object input, GraphQLContext graphQLContext, Locale locale) {
+                input + graphQLContext.get("suffix")
+            }
+
+            @Override
+            Object parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext graphQLContext, Locale locale) {
+                (input as StringValue).value + graphQLContext.get("suffix")
+            }
+        }).build()
+        def wiring = RuntimeWiring.newRuntimeWiring()
+                .scalar(shout)
+                .type("Query", { it.dataFetcher("shout", { env -> arguments.add(env.getArguments()); env.getArgument("text") } as DataFetcher) })
+                .build()
+        def graphQL = normalizedGraphQL(TestUtil.schema("scalar Shout type Query { shout(text : Shout) : String }", wiring))
+        def query = '{ shout(text : "hello") }'
+
+        when:
+        def first = graphQL.execute(ExecutionInput.newExecutionInput(query).graphQLContext([suffix: "!"]).build())
+        def second = graphQL.execute(ExecutionInput.newExecutionInput(query).graphQLContext([suffix: "?"]).build())
+
+        then:
+        first.data == [shout: "hello!"]
+        second.data == [shout: "hello?"]
+        !arguments[0].is(arguments[1])
+    }
+
+    def "the arguments shared between executions can't be changed"() {
+        def outcomes = []
+        def sdl = '''
+            type Query {
+                pets(filter : Filter) : [String]
+            }
+            input Filter {
+                names : [String]
+            }
+        '''
+        DataFetcher pets = { env ->
+            Map filter = env.getArgument("filter")
+            [{ filter.put("names", []) }, { (filter.names as List).add("Rex") }].each { change ->
+                try {
+                    change()
+                    outcomes.add("changed")
+                } catch (UnsupportedOperationException ignored) {
+                    outcomes.add("unchanged")
+                }
+            }
+            filter.names
+        }
+        def graphQL = normalizedGraphQL(TestUtil.schema(sdl, [Query: [pets: pets]]))
+        def query = '{ pets(filter : { names : ["Fido"] }) }'
+
+        when:
+        def first = execute(graphQL, query)
+        def second = execute(graphQL, query)
+
+        then:
+        first.data == [pets: ["Fido"]]
+        second.data == [pets: ["Fido"]]
+        outcomes == ["unchanged"] * 4
+    }
+
+    def "other execution strategies do not build normalized execution plans"() {
+        def executionPlans = []
+        def instrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<ExecutionResult> beginExecuteOperation(InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+                def executionContext = parameters.getExecutionContext()
+                executionContext.getNormalizedQueryTree().get()
+                executionPlans.add(executionContext.getExecutionPlan())
+                null
+            }
+        }
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .preparsedDocumentProvider(newCachingPreparsedDocumentProvider().build())
+                .executionPlanCaching(true)
+                .instrumentation(instrumentation)
+                .build()
+
+        when:
+        def result = graphQL.execute(ExecutionInput.newExecutionInput('{ hero { name } }').build())
+
+        then:
+        result.data == [hero: [name: "R2-D2"]]
+        executionPlans[0] != null
+        executionPlans[0].getNormalizedExecutionPlanCount() == 0
+    }
+
+    def "executes just like the async execution strategy without execution plan caching"() {
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema)
+                .queryExecutionStrategy(new NormalizedOperationExecutionStrategy())
+                .build()
+        def query = '{ hero { name ... on Droid { primaryFunction } } }'
+
+        when:
+        def result = execute(graphQL, query)
+
+        then:
+        spec(result) == spec(execute(asyncGraphQL(StarWarsSchema.starWarsSchema), query))
+    }
+
+    /**
+     * Fetches made up values that only depend on the path of a field, so two executions of the same query
+     * give the same results
+     */
+    static class FakeDataWiringFactory implements WiringFactory {
+
+        @Override
+        boolean providesScalar(ScalarWiringEnvironment environment) {
+            return !ScalarInfo.isGraphqlSpecifiedScalar(environment.getScalarTypeDefinition().getName())
+        }
+
+        @Override
+        GraphQLScalarType getScalar(ScalarWiringEnvironment environment) {
+            return GraphQLScalarType.newScalar().name(environment.getScalarTypeDefinition().getName()).coercing(new Coercing() {
+                @Override
+                Object serialize(Object dataFetcherResult) {
+                    return dataFetcherResult.toString()
+                }
+
+                @Override
+                Object parseValue(Object input) {
+                    return input
+                }
+
+                @Override
+                Object parseLiteral(Object input) {
+                    return input instanceof StringValue ? ((StringValue) input).getValue() : input.toString()
+                }
+            }).build()
+        }
+
+        @Override
+        boolean providesTypeResolver(InterfaceWiringEnvironment environment) {
+            return true
+        }
+
+        @Override
+        TypeResolver getTypeResolver(InterfaceWiringEnvironment environment) {
+            return { env -> pick(env.getSchema().getImplementations((GraphQLInterfaceType) env.getFieldType()), env.getObject()) } as TypeResolver
+        }
+
+        @Override
+        boolean providesTypeResolver(UnionWiringEnvironment environment) {
+            return true
+        }
+
+        @Override
+        TypeResolver getTypeResolver(UnionWiringEnvironment environment) {
+            return { env -> pick(((GraphQLUnionType) env.getFieldType()).getTypes(), env.getObject()) } as TypeResolver
+        }
+
+        @Override
+        boolean providesDataFetcher(FieldWiringEnvironment environment) {
+            return true
+        }
+
+        @Override
+        DataFetcher getDataFetcher(FieldWiringEnvironment environment) {
+            return { DataFetchingEnvironment env ->
+                def path = env.getExecutionStepInfo().getPath()
+                fakeValue(env.getFieldType(), path.toString(), path.getLevel())
+            } as DataFetcher
+        }
+
+        private static GraphQLObjectType pick(List<? extends GraphQLType> possibleTypes, Object path) {
+            def objectTypes = possibleTypes.collect { (GraphQLObjectType) it }.sort { it.name }
+            return objectTypes[Math.abs(path.hashCode() % objectTypes.size())]
+        }
+
+        // lists have 2 values near the root and 1 value further down to keep the results small
+        private static Object fakeValue(GraphQLType type, String path, int level) {
+            def unwrapped = unwrapNonNull(type)
+            if (unwrapped instanceof GraphQLList) {
+                def size = level < 4 ? 2 : 1
+                return (0..<size).collect { fakeValue(((GraphQLList) unwrapped).getWrappedType(), "$path[$it]".toString(), level + 1) }
+            }
+            if (unwrapped instanceof GraphQLEnumType) {
+                return ((GraphQLEnumType) unwrapped).getValues()[0].getName()
+            }
+            if (unwrapped instanceof GraphQLScalarType) {
+                switch (((GraphQLScalarType) unwrapped).getName()) {
+                    case "Int":
+                        return Math.abs(path.hashCode() % 100)
+                    case "Float":
+                        return Math.abs(path.hashCode() % 100) / 10.0d
+                    case "Boolean":
+                        return path.hashCode() % 2 == 0
+                    default:
+                        return path
+                }
+            }
+            // objects are their path and their fields make up values of their own
+            return path
+        }
+    }
+}
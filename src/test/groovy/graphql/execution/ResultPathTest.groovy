@@ -280,4 +280,46 @@ class ResultPathTest extends Specification {
         then:
         newPath.toList() == ["a", "b", "x"]
     }
+
+    def "level counts the named segments"() {
+        expect:
+        ResultPath.parse(path).getLevel() == level
+
+        where:
+        path            | level
+        ""              | 0
+        "/a"            | 1
+        "/a[0]"         | 1
+        "/a/b[0][1]/c"  | 3
+        "/a[0]/b[1]"    | 2
+    }
+
+    def "paths built in different ways are equal and have the same hash code"() {
+        def built = ResultPath.rootPath().segment("a").segment(1).segment("b")
+        def parsed = ResultPath.parse("/a[1]/b")
+        def fromList = ResultPath.fromList(["a", 1, "b"])
+
+        expect:
+        built == parsed
+        built == fromList
+        built.hashCode() == parsed.hashCode()
+        built.hashCode() == fromList.hashCode()
+        built != ResultPath.parse("/a[1]/b/c")
+        built != ResultPath.parse("/a[2]/b")
+        built != ResultPath.parse("/a/b")
+        ResultPath.parse("/a[1]") != ResultPath.parse("/a/1")
+    }
+
+    def "string and list forms are computed once"() {
+        def path = ResultPath.parse("/a/b[1]/c")
+
+        expect:
+        path.toString() == "/a/b[1]/c"
+        path.toString().is(path.toString())
+        path.toList() == ["a", "b", 1, "c"]
+        path.toList().is(path.toList())
+        path.getParent().toString() == "/a/b[1]"
+        ResultPath.rootPath().toString() == ""
+        ResultPath.rootPath().toList() == []
+    }
 }
@@ -0,0 +1,158 @@
+package graphql.execution
+
+import graphql.ExecutionInput
+import graphql.ExecutionResult
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.execution.pubsub.CapturingSubscriber
+import graphql.execution.reactive.SingleSubscriberPublisher
+import graphql.execution.reactive.SubscriptionPublisher
+import graphql.schema.DataFetcher
+import graphql.schema.idl.RuntimeWiring
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring
+
+class SharedSubscriptionsTest extends Specification {
+
+    def sdl = """
+        type Query {
+            name : String
+        }
+        type Message {
+            text : String
+        }
+        type Subscription {
+            newMessage(roomId : Int) : Message
+        }
+    """
+
+    Map<Integer, SingleSubscriberPublisher<Object>> rooms = [:]
+    int subscribedFieldFetches = 0
+    int textFetches = 0
+
+    DataFetcher newMessage = { env ->
+        subscribedFieldFetches++
+        rooms.computeIfAbsent(env.getArgument("roomId"), { new SingleSubscriberPublisher<Object>() })
+    }
+    DataFetcher text = { env ->
+        textFetches++
+        env.getSource()
+    }
+
+    GraphQL graphQL(SharedSubscriptions sharedSubscriptions) {
+        def runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Subscription").dataFetcher("newMessage", newMessage))
+                .type(newTypeWiring("Message").dataFetcher("text", text))
+                .build()
+        TestUtil.graphQL(sdl, runtimeWiring)
+                .subscriptionExecutionStrategy(new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), sharedSubscriptions))
+                .build()
+    }
+
+    def subscribe(GraphQL graphQL, int roomId) {
+        def executionResult = graphQL.execute(ExecutionInput.newExecutionInput()
+                .query('subscription NewMessage($roomId : Int) { newMessage(roomId : $roomId) { text } }')
+                .variables([roomId: roomId]))
+        assert executionResult.errors.isEmpty()
+        def subscriber = new CapturingSubscriber<ExecutionResult>()
+        (executionResult.getData() as Publisher<ExecutionResult>).subscribe(subscriber)
+        subscriber
+    }
+
+    def "the same subscriptions share one event stream and each event is executed once"() {
+        def sharedSubscriptions = SharedSubscriptions.newSharedSubscriptions().shareWhen({ true }).build()
+        def graphQL = graphQL(sharedSubscriptions)
+
+        when:
+        def subscribers = (1..3).collect { subscribe(graphQL, 1) }
+        rooms[1].offer("hello")
+        rooms[1].offer("world")
+        rooms[1].noMoreData()
+
+        then:
+        subscribedFieldFetches == 1
+        textFetches == 2
+        subscribers.every { subscriber ->
+            subscriber.events.collect { it.data } == [[newMessage: [text: "hello"]], [newMessage: [text: "world"]]]
+        }
+        subscribers.every { it.isDone().get() }
+        sharedSubscriptions.getSharedStreamCount() == 0
+    }
+
+    def "subscriptions with different variables are not shared"() {
+        def sharedSubscriptions = SharedSubscriptions.newSharedSubscriptions().shareWhen({ true }).build()
+        def graphQL = graphQL(sharedSubscriptions)
+
+        when:
+        def room1 = subscribe(graphQL, 1)
+        def room2 = subscribe(graphQL, 2)
+        rooms[1].offer("one")
+        rooms[2].offer("two")
+
+        then:
+        subscribedFieldFetches == 2
+        sharedSubscriptions.getSharedStreamCount() == 2
+        room1.events.collect { it.data } == [[newMessage: [text: "one"]]]
+        room2.events.collect { it.data } == [[newMessage: [text: "two"]]]
+    }
+
+    def "the shared stream still has the original publisher upstream"() {
+        def graphQL = graphQL(SharedSubscriptions.newSharedSubscriptions().shareWhen({ true }).build())
+
+        when:
+        def executionResult = graphQL.execute(ExecutionInput.newExecutionInput()
+                .query('subscription { newMessage(roomId : 1) { text } }'))
+
+        then:
+        executionResult.getData() instanceof SubscriptionPublisher
+        (executionResult.getData() as SubscriptionPublisher).upstreamPublisher == rooms[1]
+    }
+
+    def "subscriptions are only shared when allowed"() {
+        def sharedSubscriptions = SharedSubscriptions.newSharedSubscriptions()
+                .shareWhen({ executionInput -> executionInput.variables["roomId"] != 2 })
+                .build()
+        def graphQL = graphQL(sharedSubscriptions)
+
+        when:
+        subscribe(graphQL, 1)
+        subscribe(graphQL, 1)
+        subscribe(graphQL, 2)
+
+        then:
+        subscribedFieldFetches == 2
+        sharedSubscriptions.getSharedStreamCount() == 1
+    }
+
+    def "subscriptions are not shared by default"() {
+        def sharedSubscriptions = SharedSubscriptions.newSharedSubscriptions().build()
+        def graphQL = graphQL(sharedSubscriptions)
+
+        when:
+        subscribe(graphQL, 1)
+        subscribe(graphQL, 1)
+
+        then:
+        subscribedFieldFetches == 2
+        sharedSubscriptions.getSharedStreamCount() == 0
+    }
+
+    def "a subscription made after the shared stream has ended makes its own"() {
+        def sharedSubscriptions = SharedSubscriptions.newSharedSubscriptions().shareWhen({ true }).build()
+        def graphQL = graphQL(sharedSubscriptions)
+
+        when:
+        def first = subscribe(graphQL, 1)
+        rooms[1].noMoreData()
+        rooms.remove(1)
+        def second = subscribe(graphQL, 1)
+        rooms[1].offer("again")
+
+        then:
+        first.isDone().get()
+        subscribedFieldFetches == 2
+        second.events.collect { it.data } == [[newMessage: [text: "again"]]]
+    }
+}
@@ -8,8 +8,13 @@ import graphql.GraphQLError
 import graphql.GraphqlErrorBuilder
 import graphql.TestUtil
 import graphql.TypeMismatchError
+import graphql.execution.instrumentation.InstrumentationContext
+import graphql.execution.instrumentation.InstrumentationState
 import graphql.execution.instrumentation.LegacyTestingInstrumentation
+import graphql.execution.instrumentation.SimpleInstrumentationContext
+import graphql.execution.instrumentation.SimplePerformantInstrumentation
 import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters
+import graphql.execution.instrumentation.parameters.InstrumentationSubscriptionEventParameters
 import graphql.execution.pubsub.CapturingSubscriber
 import graphql.execution.pubsub.Message
 import graphql.execution.pubsub.ReactiveStreamsMessagePublisher
@@ -25,6 +30,7 @@ import org.reactivestreams.Publisher
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.time.Duration
 import java.util.concurrent.CompletableFuture
 
 import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring
@@ -627,4 +633,166 @@ class SubscriptionExecutionStrategyTest extends Specification {
         instrumentResultCalls.size() == 11 // one for the initial execution and then one for each stream event
     }
 
+    def "instrumentation is told about each subscription event in flight until it is published"() {
+        DataFetcher newMessageDF = new DataFetcher() {
+            @Override
+            Object get(DataFetchingEnvironment environment) {
+                new ReactiveStreamsObjectPublisher(10, { int index ->
+                    new Message("sender" + index, "text" + index)
+                })
+            }
+        }
+
+        def inFlightEvents = []
+        def publishedEvents = []
+        def instrumentation = new SimplePerformantInstrumentation() {
+            @Override
+            InstrumentationContext<ExecutionResult> beginSubscriptionEvent(InstrumentationSubscriptionEventParameters parameters, InstrumentationState state) {
+                inFlightEvents.add(parameters.inFlightEvents)
+                return new SimpleInstrumentationContext<ExecutionResult>() {
+                    @Override
+                    void onCompleted(ExecutionResult result, Throwable t) {
+                        publishedEvents.add(result.data)
+                    }
+                }
+            }
+        }
+        GraphQL graphQL = buildSubscriptionQL(newMessageDF).transform({ builder -> builder.instrumentation(instrumentation) })
+
+        when:
+        def executionResult = graphQL.execute("subscription { newMessage(roomId: 123) { sender } }")
+        def capturingSubscriber = new CapturingSubscriber<ExecutionResult>()
+        (executionResult.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber)
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+
+        // the subscriber asks for one event at a time
+        inFlightEvents == [1] * 10
+        publishedEvents == (0..9).collect { [newMessage: [sender: "sender" + it]] }
+        capturingSubscriber.events.collect { it.data } == publishedEvents
+    }
+
+    def "subscription events can be executed in batches with batched results #batchedResults"() {
+        DataFetcher newMessageDF = new DataFetcher() {
+            @Override
+            Object get(DataFetchingEnvironment environment) {
+                new ReactiveStreamsObjectPublisher(10, { int index ->
+                    new Message("sender" + index, "text" + index)
+                })
+            }
+        }
+        def eventBatching = SubscriptionEventBatching.newSubscriptionEventBatching()
+                .maxBatchSize(4)
+                .maxDelay(Duration.ofSeconds(10))
+                .batchedResults(batchedResults)
+                .build()
+        def strategy = new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, eventBatching)
+        GraphQL graphQL = buildSubscriptionQL(newMessageDF).transform({ builder -> builder.subscriptionExecutionStrategy(strategy) })
+
+        when:
+        def executionResult = graphQL.execute("subscription { newMessage(roomId: 123) { sender } }")
+        def capturingSubscriber = new CapturingSubscriber<ExecutionResult>()
+        (executionResult.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber)
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+
+        capturingSubscriber.events.collect { it.data } == expected
+
+        where:
+        batchedResults | expected
+        false          | (0..9).collect { [newMessage: [sender: "sender" + it]] }
+        true           | [(0..3), (4..7), (8..9)].collect { batch -> [newMessage: batch.collect { [sender: "sender" + it] }] }
+    }
+
+    def "errors in batched results have the index of their event in their path"() {
+        DataFetcher newMessageDF = new DataFetcher() {
+            @Override
+            Object get(DataFetchingEnvironment environment) {
+                new ReactiveStreamsObjectPublisher(3, { int index ->
+                    new Message("sender" + index, "text" + index)
+                })
+            }
+        }
+        DataFetcher senderDF = new DataFetcher() {
+            @Override
+            Object get(DataFetchingEnvironment environment) {
+                def message = environment.getSource() as Message
+                if (message.sender == "sender1") {
+                    throw new RuntimeException("Bang")
+                }
+                return message.sender
+            }
+        }
+        def eventBatching = SubscriptionEventBatching.newSubscriptionEventBatching()
+                .maxBatchSize(3)
+                .maxDelay(Duration.ofSeconds(10))
+                .batchedResults(true)
+                .build()
+        def strategy = new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, eventBatching)
+        GraphQL graphQL = buildSubscriptionQL(newMessageDF, senderDF, PropertyDataFetcher.fetching("text"))
+                .transform({ builder -> builder.subscriptionExecutionStrategy(strategy) })
+
+        when:
+        def executionResult = graphQL.execute("subscription { newMessage(roomId: 123) { sender text } }")
+        def capturingSubscriber = new CapturingSubscriber<ExecutionResult>()
+        (executionResult.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber)
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+
+        capturingSubscriber.events.size() == 1
+        def batch = capturingSubscriber.events[0]
+        // sender is non null so the bad message becomes null
+        batch.data == [newMessage: [[sender: "sender0", text: "text0"], null, [sender: "sender2", text: "text2"]]]
+        batch.errors.size() == 1
+        batch.errors[0].path == ["newMessage", 1, "sender"]
+    }
+
+    def "batched events that are published one by one keep their own nulls and errors"() {
+        DataFetcher newMessageDF = new DataFetcher() {
+            @Override
+            Object get(DataFetchingEnvironment environment) {
+                new ReactiveStreamsObjectPublisher(3, { int index ->
+                    def message = new Message("sender" + index, "text" + index)
+                    if (index == 2) {
+                        return DataFetcherResult.newResult().data(message).error(mkError("event error")).build()
+                    }
+                    return message
+                })
+            }
+        }
+        DataFetcher senderDF = new DataFetcher() {
+            @Override
+            Object get(DataFetchingEnvironment environment) {
+                def message = environment.getSource() as Message
+                if (message.sender == "sender1") {
+                    throw new RuntimeException("Bang")
+                }
+                return message.sender
+            }
+        }
+        def eventBatching = SubscriptionEventBatching.newSubscriptionEventBatching()
+                .maxBatchSize(3)
+                .maxDelay(Duration.ofSeconds(10))
+                .build()
+        def strategy = new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, eventBatching)
+        GraphQL graphQL = buildSubscriptionQL(newMessageDF, senderDF, PropertyDataFetcher.fetching("text"))
+                .transform({ builder -> builder.subscriptionExecutionStrategy(strategy) })
+
+        when:
+        def executionResult = graphQL.execute("subscription { newMessage(roomId: 123) { sender text } }")
+        def capturingSubscriber = new CapturingSubscriber<ExecutionResult>()
+        (executionResult.getData() as Publisher<ExecutionResult>).subscribe(capturingSubscriber)
+
+        then:
+        Awaitility.await().untilTrue(capturingSubscriber.isDone())
+
+        def events = capturingSubscriber.events
+        events.collect { it.data } == [[newMessage: [sender: "sender0", text: "text0"]], [newMessage: null], [newMessage: [sender: "sender2", text: "text2"]]]
+        events[0].errors.isEmpty()
+        events[1].errors.collect { it.path } == [["newMessage", "sender"]]
+        events[2].errors.collect { it.message } == ["event error"]
+    }
 }
@@ -0,0 +1,175 @@
+package graphql.execution.instrumentation.concurrency
+
+import graphql.AssertException
+import graphql.ExecutionInput
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import graphql.schema.DataFetchingEnvironment
+import graphql.schema.StaticDataFetcher
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class ConcurrencyLimitingInstrumentationTest extends Specification {
+
+    def sdl = """
+        type Query {
+            items : [Item]
+        }
+        type Item {
+            id : Int
+            children : [Item]
+        }
+    """
+
+    def executor = Executors.newFixedThreadPool(8)
+    def inFlight = new AtomicInteger()
+    def maxInFlight = new AtomicInteger()
+    def fetchedPaths = Collections.synchronizedList([])
+
+    DataFetcher asyncItems = { DataFetchingEnvironment env ->
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), { a, b -> Math.max(a, b) })
+        fetchedPaths.add(env.getExecutionStepInfo().getPath())
+        def parentId = env.getSource() == null ? 0 : env.getSource()["id"]
+        CompletableFuture.supplyAsync({
+            Thread.sleep(5)
+            inFlight.decrementAndGet()
+            (1..3).collect { [id: parentId * 10 + it] }
+        }, executor)
+    }
+
+    def graphQL(ConcurrencyLimitingInstrumentation instrumentation) {
+        TestUtil.graphQL(sdl, [Query: [items: asyncItems], Item: [children: asyncItems]]).instrumentation(instrumentation).build()
+    }
+
+    void cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "caps the fetches in flight and gives the same result"() {
+        def query = "{ items { id children { id children { id } } } }"
+        def expected = TestUtil.graphQL(sdl, [Query: [items: asyncItems], Item: [children: asyncItems]]).build().execute(query)
+        maxInFlight.set(0)
+
+        when:
+        def instrumentation = ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation().maxConcurrentFetches(2).build()
+        def er = graphQL(instrumentation).execute(query)
+
+        then:
+        er.errors.isEmpty()
+        er.data == expected.data
+        maxInFlight.get() <= 2
+    }
+
+    def "queued fetches start breadth first"() {
+        when:
+        def instrumentation = ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation().maxConcurrentFetches(1).build()
+        def er = graphQL(instrumentation).execute("{ items { children { children { id } } } }")
+
+        then:
+        er.errors.isEmpty()
+        def levels = fetchedPaths.collect { it.level }
+        levels == levels.sort(false)
+    }
+
+    def "the observer is told about the queue"() {
+        def queued = []
+        def dequeued = []
+        def observer = new FetchQueueObserver() {
+            @Override
+            void fetchQueued(DataFetchingEnvironment environment, int queueDepth) {
+                queued.add(queueDepth)
+            }
+
+            @Override
+            void fetchDequeued(DataFetchingEnvironment environment, Duration waitTime, int queueDepth) {
+                dequeued.add(waitTime)
+            }
+        }
+
+        when:
+        def instrumentation = ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation()
+                .maxConcurrentFetches(1)
+                .fetchQueueObserver(observer)
+                .build()
+        def er = graphQL(instrumentation).execute("{ items { children { id } } }")
+
+        then:
+        er.errors.isEmpty()
+        // the 3 children fetches are asked for together so at least 2 of them wait
+        queued.size() >= 2
+        queued.max() == queued.size()
+        dequeued.size() == queued.size()
+        dequeued.every { !it.isNegative() }
+    }
+
+    def "a queued fetch that throws is reported as an error"() {
+        def sdl = """
+            type Query {
+                a : String
+                b : String
+            }
+        """
+        def pending = new CompletableFuture()
+        DataFetcher a = { env -> pending }
+        DataFetcher b = { env -> throw new RuntimeException("BANG") }
+        def instrumentation = ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation().maxConcurrentFetches(1).build()
+        def graphQL = TestUtil.graphQL(sdl, [Query: [a: a, b: b]]).instrumentation(instrumentation).build()
+
+        when:
+        def erCF = graphQL.executeAsync("{ a b }")
+        pending.complete("A")
+        def er = erCF.join()
+
+        then:
+        er.data == [a: "A", b: null]
+        er.errors.size() == 1
+        er.errors[0].message.contains("BANG")
+    }
+
+    def "trivial data fetchers are not limited"() {
+        def fetcher = new StaticDataFetcher("static")
+        def instrumentation = ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation().build()
+
+        expect:
+        instrumentation.instrumentDataFetcher(fetcher, null, instrumentation.createState(null)) == fetcher
+    }
+
+    def "a level with more data loader fields than the limit does not hang"() {
+        def batches = Collections.synchronizedList([])
+        def dataLoader = DataLoaderFactory.newDataLoader({ List<String> keys ->
+            batches.add(keys)
+            CompletableFuture.completedFuture(keys.collect { it.toUpperCase() })
+        } as BatchLoader<String, String>)
+        def dataLoaderRegistry = new DataLoaderRegistry().register("names", dataLoader)
+        DataFetcher name = { env -> env.getDataLoader("names").load(env.getField().getName()) }
+        def graphQL = TestUtil.graphQL("type Query { a : String b : String c : String d : String e : String }",
+                [Query: [a: name, b: name, c: name, d: name, e: name]])
+                .instrumentation(ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation().maxConcurrentFetches(2).build())
+                .build()
+
+        when:
+        def er = graphQL.executeAsync(ExecutionInput.newExecutionInput("{ a b c d e }").dataLoaderRegistry(dataLoaderRegistry))
+                .get(5, TimeUnit.SECONDS)
+
+        then:
+        er.errors.isEmpty()
+        er.data == [a: "A", b: "B", c: "C", d: "D", e: "E"]
+        batches.flatten().sort() == ["a", "b", "c", "d", "e"]
+    }
+
+    def "the limit must be positive"() {
+        when:
+        ConcurrencyLimitingInstrumentation.newConcurrencyLimitingInstrumentation().maxConcurrentFetches(0)
+
+        then:
+        thrown(AssertException)
+    }
+}
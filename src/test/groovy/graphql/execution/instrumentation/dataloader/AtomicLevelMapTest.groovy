@@ -0,0 +1,96 @@
+package graphql.execution.instrumentation.dataloader
+
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class AtomicLevelMapTest extends Specification {
+
+    def "increase yields new count"() {
+        given:
+        AtomicLevelMap sut = new AtomicLevelMap()
+
+        expect:
+        sut.get(1) == 0
+        sut.increment(1, 1) == 1
+        sut.increment(1, 100) == 101
+        sut.get(1) == 101
+        sut.get(0) == 0
+    }
+
+    def "set yields new value"() {
+        given:
+        AtomicLevelMap sut = new AtomicLevelMap()
+
+        when:
+        sut.set(1, 1)
+        sut.increment(1, 100)
+
+        then:
+        sut.get(1) == 101
+
+        when:
+        sut.set(1, 666)
+
+        then:
+        sut.get(1) == 666
+    }
+
+    def "grows past its segments and keeps the counts"() {
+        given:
+        AtomicLevelMap sut = new AtomicLevelMap()
+        sut.increment(3, 3)
+
+        when:
+        sut.increment(100, 42)
+
+        then:
+        sut.get(3) == 3
+        sut.get(100) == 42
+        sut.get(1000) == 0
+    }
+
+    def "compare and set only succeeds once"() {
+        given:
+        AtomicLevelMap sut = new AtomicLevelMap()
+
+        expect:
+        sut.compareAndSet(2, 0, 1)
+        !sut.compareAndSet(2, 0, 1)
+        sut.get(2) == 1
+    }
+
+    def "negative levels are rejected"() {
+        when:
+        new AtomicLevelMap().increment(-1, 1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "concurrent increments are not lost"() {
+        given:
+        AtomicLevelMap sut = new AtomicLevelMap()
+        def threads = 8
+        def executor = Executors.newFixedThreadPool(threads)
+        def latch = new CountDownLatch(threads)
+
+        when:
+        threads.times {
+            executor.submit({
+                for (int i = 0; i < 1000; i++) {
+                    // different levels so the segments grow while counting
+                    sut.increment(i % 50, 1)
+                }
+                latch.countDown()
+            } as Runnable)
+        }
+        latch.await(10, TimeUnit.SECONDS)
+        executor.shutdown()
+
+        then:
+        (0..<50).every { sut.get(it) == threads * 20 }
+    }
+}
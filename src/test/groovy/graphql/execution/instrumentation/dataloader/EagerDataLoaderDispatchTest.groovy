@@ -0,0 +1,126 @@
+package graphql.execution.instrumentation.dataloader
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicInteger
+
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getExpectedData
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getExpectedExpensiveData
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getExpensiveQuery
+import static graphql.execution.instrumentation.dataloader.DataLoaderPerformanceData.getQuery
+
+class EagerDataLoaderDispatchTest extends Specification {
+
+    def eagerOptions = DataLoaderDispatcherInstrumentationOptions.newOptions().eagerDispatching(true)
+
+    def "eager dispatching batches lists"() {
+        given:
+        def batchCompareDataFetchers = new BatchCompareDataFetchers()
+        batchCompareDataFetchers.useAsyncBatchLoading(asyncBatchLoading)
+        def dataLoaderPerformanceData = new DataLoaderPerformanceData(batchCompareDataFetchers)
+        def graphQL = dataLoaderPerformanceData.setupGraphQL(new DataLoaderDispatcherInstrumentation(eagerOptions))
+
+        when:
+        def executionInput = ExecutionInput.newExecutionInput().query(query).dataLoaderRegistry(dataLoaderPerformanceData.setupDataLoaderRegistry()).build()
+        def result = graphQL.execute(executionInput)
+
+        then:
+        result.data == expectedData
+        batchCompareDataFetchers.departmentsForShopsBatchLoaderCounter.get() == 1
+        batchCompareDataFetchers.productsForDepartmentsBatchLoaderCounter.get() == 1
+
+        where:
+        asyncBatchLoading << [false, true]
+    }
+
+    def "eager dispatching batches multiple fields with lists"() {
+        given:
+        def batchCompareDataFetchers = new BatchCompareDataFetchers()
+        batchCompareDataFetchers.useAsyncBatchLoading(asyncBatchLoading)
+        def dataLoaderPerformanceData = new DataLoaderPerformanceData(batchCompareDataFetchers)
+        def graphQL = dataLoaderPerformanceData.setupGraphQL(new DataLoaderDispatcherInstrumentation(eagerOptions))
+
+        when:
+        def executionInput = ExecutionInput.newExecutionInput().query(expensiveQuery).dataLoaderRegistry(dataLoaderPerformanceData.setupDataLoaderRegistry()).build()
+        def result = graphQL.execute(executionInput)
+
+        then:
+        result.data == expectedExpensiveData
+        batchCompareDataFetchers.departmentsForShopsBatchLoaderCounter.get() <= 2
+        batchCompareDataFetchers.productsForDepartmentsBatchLoaderCounter.get() <= 2
+
+        where:
+        asyncBatchLoading << [false, true]
+    }
+
+    def "a slow field does not hold up the dispatching of its siblings when dispatching eagerly"() {
+        given:
+        def sdl = '''
+            type Query {
+                slow : String
+                items : [Item]
+            }
+            type Item {
+                id : ID
+                friend : Item
+            }
+        '''
+        def batchCount = new AtomicInteger()
+        BatchLoader<String, String> batchLoader = { keys ->
+            batchCount.incrementAndGet()
+            CompletableFuture.completedFuture(keys)
+        }
+        def slowValue = new CompletableFuture()
+        def schema = TestUtil.schema(sdl, [
+                Query: [
+                        slow : { env -> slowValue },
+                        items: { env -> ["a", "b", "c"] }
+                ],
+                Item : [
+                        id    : { env -> env.getSource() },
+                        friend: { env -> env.getDataLoader("friend").load(env.getSource()) }
+                ]
+        ])
+        def graphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(new DataLoaderDispatcherInstrumentation(options))
+                .build()
+        def registry = new DataLoaderRegistry()
+        registry.register("friend", DataLoaderFactory.newDataLoader(batchLoader))
+
+        when:
+        def executionInput = ExecutionInput.newExecutionInput()
+                .query("{ slow items { id friend { id } } }")
+                .dataLoaderRegistry(registry)
+                .build()
+        def result = graphQL.executeAsync(executionInput)
+
+        then:
+        !result.isDone()
+        batchCount.get() == expectedBatchesBeforeSlowCompletes
+
+        when:
+        slowValue.complete("slow")
+
+        then:
+        result.join().data == [slow: "slow", items: [[id: "a", friend: [id: "a"]], [id: "b", friend: [id: "b"]], [id: "c", friend: [id: "c"]]]]
+        batchCount.get() == 1
+
+        where:
+        options                                                                   | expectedBatchesBeforeSlowCompletes
+        DataLoaderDispatcherInstrumentationOptions.newOptions()                   | 0
+        DataLoaderDispatcherInstrumentationOptions.newOptions().eagerDispatching(true) | 1
+    }
+
+    def "eager dispatching is off by default"() {
+        expect:
+        !DataLoaderDispatcherInstrumentationOptions.newOptions().isEagerDispatching()
+        DataLoaderDispatcherInstrumentationOptions.newOptions().eagerDispatching(true).includeStatistics(true).isEagerDispatching()
+    }
+}
@@ -0,0 +1,92 @@
+package graphql.execution.instrumentation.metrics
+
+import graphql.AssertException
+import graphql.TestUtil
+import graphql.schema.DataFetcher
+import graphql.schema.FieldCoordinates
+import spock.lang.Specification
+
+import java.time.Duration
+
+class FieldLatencyInstrumentationTest extends Specification {
+
+    def sdl = """
+        type Query {
+            items : [Item]
+        }
+        type Item {
+            id : Int
+            slow : String
+        }
+    """
+
+    DataFetcher items = { env -> [[id: 1], [id: 2]] }
+    DataFetcher slow = { env ->
+        Thread.sleep(5)
+        "slow"
+    }
+
+    def graphQL(FieldLatencyInstrumentation instrumentation) {
+        TestUtil.graphQL(sdl, [Query: [items: items], Item: [slow: slow]]).instrumentation(instrumentation).build()
+    }
+
+    def "measures fetch and completion latency per field across requests"() {
+        def instrumentation = FieldLatencyInstrumentation.newFieldLatencyInstrumentation().build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        3.times {
+            assert graphQL.execute("{ items { id slow } }").errors.isEmpty()
+        }
+        def snapshot = instrumentation.snapshot()
+
+        then:
+        snapshot.keySet() == [FieldCoordinates.coordinates("Query", "items"),
+                              FieldCoordinates.coordinates("Item", "id"),
+                              FieldCoordinates.coordinates("Item", "slow")] as Set
+
+        def itemsLatency = snapshot[FieldCoordinates.coordinates("Query", "items")]
+        itemsLatency.fetchLatency.count == 3
+        itemsLatency.completionLatency.count == 3
+        // the items include their slow fields
+        itemsLatency.completionLatency.max >= Duration.ofMillis(10)
+
+        def slowLatency = snapshot[FieldCoordinates.coordinates("Item", "slow")]
+        slowLatency.fetchLatency.count == 6
+        slowLatency.fetchLatency.getValueAtPercentile(50) >= Duration.ofMillis(5)
+    }
+
+    def "snapshot and reset starts again from empty"() {
+        def instrumentation = FieldLatencyInstrumentation.newFieldLatencyInstrumentation().build()
+        def graphQL = graphQL(instrumentation)
+
+        when:
+        graphQL.execute("{ items { id } }")
+        def first = instrumentation.snapshotAndReset()
+        def second = instrumentation.snapshot()
+
+        then:
+        first[FieldCoordinates.coordinates("Item", "id")].fetchLatency.count == 2
+        second[FieldCoordinates.coordinates("Item", "id")].fetchLatency.count == 0
+    }
+
+    def "requests that are not sampled are not measured"() {
+        def instrumentation = FieldLatencyInstrumentation.newFieldLatencyInstrumentation().sampleRate(0).build()
+
+        when:
+        def er = graphQL(instrumentation).execute("{ items { id } }")
+
+        then:
+        er.errors.isEmpty()
+        er.data == [items: [[id: 1], [id: 2]]]
+        instrumentation.snapshot().isEmpty()
+    }
+
+    def "the sample rate must be a fraction"() {
+        when:
+        FieldLatencyInstrumentation.newFieldLatencyInstrumentation().sampleRate(1.5)
+
+        then:
+        thrown(AssertException)
+    }
+}
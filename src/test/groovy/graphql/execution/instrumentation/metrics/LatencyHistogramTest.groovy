@@ -0,0 +1,92 @@
+package graphql.execution.instrumentation.metrics
+
+import graphql.AssertException
+import spock.lang.Specification
+
+import java.time.Duration
+
+class LatencyHistogramTest extends Specification {
+
+    def "values are bucketed to within an eighth of their size"() {
+        expect:
+        def index = LatencyHistogram.bucketIndex(value)
+        def highest = LatencyHistogram.bucketHighestValue(index)
+        highest >= value
+        highest - value <= value / 8
+        index == 0 || LatencyHistogram.bucketHighestValue(index - 1) < value
+
+        where:
+        value << [0L, 1L, 7L, 8L, 9L, 15L, 16L, 17L, 1000L, 1023L, 1024L, 123_456_789L, (1L << 41) - 1]
+    }
+
+    def "very large values go in the last bucket"() {
+        expect:
+        LatencyHistogram.bucketIndex(1L << 41) == LatencyHistogram.BUCKETS - 1
+        LatencyHistogram.bucketIndex(Long.MAX_VALUE) == LatencyHistogram.BUCKETS - 1
+    }
+
+    def "percentiles count and mean are reported"() {
+        def histogram = new LatencyHistogram()
+
+        when:
+        (1..1000).each { histogram.record(it * 1000L) }
+        def snapshot = histogram.snapshot()
+
+        then:
+        snapshot.count == 1000
+        snapshot.mean == Duration.ofNanos(500_500)
+        snapshot.max == Duration.ofNanos(1_000_000)
+        within(snapshot.getValueAtPercentile(50), 500_000)
+        within(snapshot.getValueAtPercentile(90), 900_000)
+        snapshot.getValueAtPercentile(100) == Duration.ofNanos(1_000_000)
+    }
+
+    private static boolean within(Duration actual, long expectedNanos) {
+        actual.toNanos() >= expectedNanos && actual.toNanos() <= expectedNanos * 1.125
+    }
+
+    def "an empty histogram reports zeros"() {
+        def snapshot = new LatencyHistogram().snapshot()
+
+        expect:
+        snapshot.count == 0
+        snapshot.mean == Duration.ZERO
+        snapshot.max == Duration.ZERO
+        snapshot.getValueAtPercentile(99) == Duration.ZERO
+    }
+
+    def "snapshot and reset empties the histogram"() {
+        def histogram = new LatencyHistogram()
+        histogram.record(100)
+        histogram.record(200)
+
+        when:
+        def snapshot = histogram.snapshotAndReset()
+
+        then:
+        snapshot.count == 2
+        snapshot.max == Duration.ofNanos(200)
+        histogram.snapshot().count == 0
+        histogram.snapshot().max == Duration.ZERO
+    }
+
+    def "can record from many threads"() {
+        def histogram = new LatencyHistogram()
+
+        when:
+        def threads = (1..8).collect { n -> Thread.start { 10_000.times { histogram.record(n * 1000L) } } }
+        threads*.join()
+
+        then:
+        histogram.snapshot().count == 80_000
+        histogram.snapshot().max == Duration.ofNanos(8000)
+    }
+
+    def "percentiles must be between 0 and 100"() {
+        when:
+        new LatencyHistogram().snapshot().getValueAtPercentile(101)
+
+        then:
+        thrown(AssertException)
+    }
+}
@@ -1,17 +1,25 @@
 package graphql.execution.instrumentation.threadpools
 
 
+import graphql.AssertException
+import graphql.ExecutionInput
 import graphql.TestUtil
 import graphql.schema.DataFetcher
 import graphql.schema.DataFetchingEnvironment
 import graphql.schema.DataFetchingEnvironmentImpl
 import graphql.schema.PropertyDataFetcher
+import org.dataloader.BatchLoader
+import org.dataloader.DataLoaderFactory
+import org.dataloader.DataLoaderRegistry
 import spock.lang.Specification
 
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.Executor
 import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
 import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Consumer
 
 import static ExecutorInstrumentation.Action
@@ -208,4 +216,137 @@ class ExecutorInstrumentationTest extends Specification {
                 "PROCESSING on ProcessingThread", "PROCESSING on ProcessingThread"
         ]
     }
+
+    def "can limit the number of concurrent fetches of a request"() {
+        def sdl = """
+            type Query { 
+                items : [Item] 
+            }
+            type Item {
+                id : Int
+                name : String
+            }
+        """
+        def inFlight = new AtomicInteger()
+        def maxInFlight = new AtomicInteger()
+        DataFetcher items = { env -> (1..20).collect { [id: it] } }
+        DataFetcher name = { env ->
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), { a, b -> Math.max(a, b) })
+            Thread.sleep(10)
+            inFlight.decrementAndGet()
+            "name" + env.getSource()["id"]
+        }
+
+        instrumentation = ExecutorInstrumentation.newThreadPoolExecutionInstrumentation()
+                .fetchExecutor(FetchExecutors.newVirtualThreadPerTaskExecutor())
+                .maxConcurrentFetches(3)
+                .build()
+        def graphQL = TestUtil.graphQL(sdl, [Query: [items: items], Item: [name: name]]).instrumentation(instrumentation).build()
+
+        when:
+        def er = graphQL.execute("{ items { id name } }")
+
+        then:
+        er.errors.isEmpty()
+        er.data["items"] == (1..20).collect { [id: it, name: "name" + it] }
+        maxInFlight.get() <= 3
+    }
+
+    def "a fetch counts towards the limit until its value is complete"() {
+        when:
+        def pending = new CompletableFuture()
+        instrumentation = ExecutorInstrumentation.newThreadPoolExecutionInstrumentation()
+                .fetchExecutor(FetchExecutor)
+                .maxConcurrentFetches(1)
+                .build()
+        def state = instrumentation.createState(null)
+        def first = asCF(instrumentation.instrumentDataFetcher({ env -> pending }, null, state).get(null))
+        def second = asCF(instrumentation.instrumentDataFetcher({ env -> "second" }, null, state).get(null))
+        Thread.sleep(50)
+
+        then:
+        !first.isDone()
+        !second.isDone()
+
+        when:
+        pending.complete("first")
+
+        then:
+        first.join() == "first"
+        second.join() == "second"
+    }
+
+    def "a fetch that throws gives its permit back"() {
+        when:
+        instrumentation = ExecutorInstrumentation.newThreadPoolExecutionInstrumentation()
+                .fetchExecutor(FetchExecutor)
+                .maxConcurrentFetches(1)
+                .build()
+        def state = instrumentation.createState(null)
+        def first = asCF(instrumentation.instrumentDataFetcher({ env -> throw new RuntimeException("first") }, null, state).get(null))
+        def second = asCF(instrumentation.instrumentDataFetcher({ env -> "second" }, null, state).get(null))
+
+        then:
+        second.get(5, TimeUnit.SECONDS) == "second"
+        first.isCompletedExceptionally()
+    }
+
+    def "a fetch that the executor refuses gives its permit back"() {
+        def refusals = new AtomicInteger(1)
+        Executor refusingOnce = { Runnable runnable ->
+            if (refusals.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("refused")
+            }
+            FetchExecutor.execute(runnable)
+        }
+
+        when:
+        instrumentation = ExecutorInstrumentation.newThreadPoolExecutionInstrumentation()
+                .fetchExecutor(refusingOnce)
+                .maxConcurrentFetches(1)
+                .build()
+        def state = instrumentation.createState(null)
+        def first = asCF(instrumentation.instrumentDataFetcher({ env -> "first" }, null, state).get(null))
+        def second = asCF(instrumentation.instrumentDataFetcher({ env -> "second" }, null, state).get(null))
+
+        then:
+        second.get(5, TimeUnit.SECONDS) == "second"
+        first.isCompletedExceptionally()
+    }
+
+    def "a level with more data loader fields than the limit does not hang"() {
+        def batches = Collections.synchronizedList([])
+        def dataLoader = DataLoaderFactory.newDataLoader({ List<String> keys ->
+            batches.add(keys)
+            CompletableFuture.completedFuture(keys.collect { it.toUpperCase() })
+        } as BatchLoader<String, String>)
+        def dataLoaderRegistry = new DataLoaderRegistry().register("names", dataLoader)
+        DataFetcher name = { env -> env.getDataLoader("names").load(env.getField().getName()) }
+
+        instrumentation = ExecutorInstrumentation.newThreadPoolExecutionInstrumentation()
+                .fetchExecutor(FetchExecutor)
+                .maxConcurrentFetches(2)
+                .build()
+        def graphQL = TestUtil.graphQL("type Query { a : String b : String c : String d : String e : String }",
+                [Query: [a: name, b: name, c: name, d: name, e: name]])
+                .instrumentation(instrumentation)
+                .build()
+
+        when:
+        def er = graphQL.executeAsync(ExecutionInput.newExecutionInput("{ a b c d e }").dataLoaderRegistry(dataLoaderRegistry))
+                .get(5, TimeUnit.SECONDS)
+
+        then:
+        er.errors.isEmpty()
+        er.data == [a: "A", b: "B", c: "C", d: "D", e: "E"]
+        batches.flatten().sort() == ["a", "b", "c", "d", "e"]
+    }
+
+    def "a limit on concurrent fetches needs a fetch executor"() {
+        when:
+        ExecutorInstrumentation.newThreadPoolExecutionInstrumentation().maxConcurrentFetches(10).build()
+
+        then:
+        thrown(AssertException)
+    }
 }
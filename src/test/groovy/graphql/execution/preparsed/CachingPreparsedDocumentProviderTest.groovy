@@ -0,0 +1,190 @@
+package graphql.execution.preparsed
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.InvalidSyntaxError
+import graphql.StarWarsSchema
+import graphql.language.SourceLocation
+import graphql.parser.Parser
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+import static graphql.execution.preparsed.CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider
+
+class CachingPreparsedDocumentProviderTest extends Specification {
+
+    def parseCount = new AtomicInteger()
+
+    Function<ExecutionInput, PreparsedDocumentEntry> parseFunction = { ExecutionInput input ->
+        parseCount.incrementAndGet()
+        new PreparsedDocumentEntry(new Parser().parseDocument(input.getQuery()))
+    }
+
+    static ExecutionInput input(String query) {
+        ExecutionInput.newExecutionInput(query).build()
+    }
+
+    def "documents are cached by query"() {
+        def provider = newCachingPreparsedDocumentProvider().build()
+
+        when:
+        def entry1 = provider.getDocumentAsync(input("{ hero { name } }"), parseFunction).join()
+        def entry2 = provider.getDocumentAsync(input("{ hero { name } }"), parseFunction).join()
+        def entry3 = provider.getDocumentAsync(input("{ hero { id } }"), parseFunction).join()
+
+        then:
+        entry1 === entry2
+        entry1 !== entry3
+        parseCount.get() == 2
+        provider.getHitCount() == 1
+        provider.getMissCount() == 2
+        provider.getEntryCount() == 2
+        provider.getEvictionCount() == 0
+    }
+
+    def "least recently used entries are evicted when there are too many"() {
+        def provider = newCachingPreparsedDocumentProvider().maxEntries(2).segments(1).build()
+
+        when:
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        provider.getDocumentAsync(input("{ b }"), parseFunction).join()
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        provider.getDocumentAsync(input("{ c }"), parseFunction).join()
+
+        then:
+        provider.getEntryCount() == 2
+        provider.getEvictionCount() == 1
+
+        when: "b was the least recently used and hence is parsed again"
+        parseCount.set(0)
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        provider.getDocumentAsync(input("{ b }"), parseFunction).join()
+
+        then:
+        parseCount.get() == 1
+    }
+
+    def "entries are evicted when their weight is too large"() {
+        def provider = newCachingPreparsedDocumentProvider().maxWeight(20).segments(1).build()
+
+        when:
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+        def weightOfOne = provider.getWeight()
+        provider.getDocumentAsync(input("{ b { c d e f g h i j k l m n o p q r } }"), parseFunction).join()
+
+        then:
+        weightOfOne == 4 // document, operation, selection set and field
+        provider.getWeight() <= 20
+        provider.getEvictionCount() >= 1
+    }
+
+    def "the largest bounds do not limit the cache"() {
+        def provider = newCachingPreparsedDocumentProvider().maxEntries(Long.MAX_VALUE).maxWeight(Long.MAX_VALUE).build()
+
+        when:
+        (1..100).each { provider.getDocumentAsync(input("{ f$it }"), parseFunction).join() }
+
+        then:
+        provider.getEntryCount() == 100
+        provider.getEvictionCount() == 0
+    }
+
+    def "concurrent misses for the same query parse only once"() {
+        def provider = newCachingPreparsedDocumentProvider().build()
+        def parsing = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        Function<ExecutionInput, PreparsedDocumentEntry> slowParseFunction = { ExecutionInput input ->
+            parsing.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            parseFunction.apply(input)
+        }
+        def executor = Executors.newSingleThreadExecutor()
+
+        when:
+        def first = executor.submit({ provider.getDocumentAsync(input("{ hero { name } }"), slowParseFunction).join() })
+        parsing.await(5, TimeUnit.SECONDS)
+        def second = provider.getDocumentAsync(input("{ hero { name } }"), slowParseFunction)
+
+        then:
+        !second.isDone()
+
+        when:
+        release.countDown()
+
+        then:
+        second.get(5, TimeUnit.SECONDS) === first.get(5, TimeUnit.SECONDS)
+        parseCount.get() == 1
+        provider.getHitCount() == 1
+        provider.getMissCount() == 1
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "failed parses are not cached"() {
+        def provider = newCachingPreparsedDocumentProvider().build()
+        Function<ExecutionInput, PreparsedDocumentEntry> failingParseFunction = { ExecutionInput input ->
+            parseCount.incrementAndGet()
+            throw new RuntimeException("bang")
+        }
+
+        when:
+        provider.getDocumentAsync(input("{ a }"), failingParseFunction)
+
+        then:
+        thrown(RuntimeException)
+        provider.getEntryCount() == 0
+
+        when:
+        provider.getDocumentAsync(input("{ a }"), parseFunction).join()
+
+        then:
+        parseCount.get() == 2
+    }
+
+    def "documents with errors are not cached"() {
+        def provider = newCachingPreparsedDocumentProvider().build()
+        Function<ExecutionInput, PreparsedDocumentEntry> invalidParseFunction = { ExecutionInput input ->
+            parseCount.incrementAndGet()
+            new PreparsedDocumentEntry(new InvalidSyntaxError(new SourceLocation(1, 1), "bang"))
+        }
+
+        when:
+        def entry1 = provider.getDocumentAsync(input("{ a "), invalidParseFunction).join()
+        def entry2 = provider.getDocumentAsync(input("{ a "), invalidParseFunction).join()
+
+        then:
+        entry1.hasErrors()
+        entry2.hasErrors()
+        parseCount.get() == 2
+        provider.getEntryCount() == 0
+        provider.getWeight() == 0
+    }
+
+    def "can be used to execute queries"() {
+        def provider = newCachingPreparsedDocumentProvider().build()
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).preparsedDocumentProvider(provider).build()
+
+        when:
+        def result1 = graphQL.execute("{ hero { name } }")
+        def result2 = graphQL.execute("{ hero { name } }")
+
+        then:
+        result1.data == [hero: [name: "R2-D2"]]
+        result2.data == [hero: [name: "R2-D2"]]
+        provider.getHitCount() == 1
+        provider.getMissCount() == 1
+
+        when:
+        provider.clear()
+
+        then:
+        provider.getEntryCount() == 0
+        provider.getWeight() == 0
+    }
+}
@@ -0,0 +1,191 @@
+package graphql.execution.reactive
+
+import graphql.execution.pubsub.CapturingSubscriber
+import org.awaitility.Awaitility
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+
+class BatchingPublisherTest extends Specification {
+
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor()
+
+    def cleanup() {
+        scheduler.shutdownNow()
+    }
+
+    class DemandingSubscriber<T> implements Subscriber<T> {
+        List<T> events = []
+        Subscription subscription
+        Throwable throwable
+        boolean done
+
+        @Override
+        void onSubscribe(Subscription subscription) {
+            this.subscription = subscription
+        }
+
+        @Override
+        void onNext(T t) {
+            events.add(t)
+        }
+
+        @Override
+        void onError(Throwable t) {
+            throwable = t
+            done = true
+        }
+
+        @Override
+        void onComplete() {
+            done = true
+        }
+    }
+
+    // an upstream publisher that is driven by hand and records what is requested of it
+    class DirectPublisher<T> implements Publisher<T> {
+        Subscriber<? super T> subscriber
+        List<Long> requested = []
+        boolean cancelled
+
+        @Override
+        void subscribe(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                void request(long n) {
+                    requested.add(n)
+                }
+
+                @Override
+                void cancel() {
+                    cancelled = true
+                }
+            })
+        }
+    }
+
+    def "full batches are published straight away and the rest when upstream completes"() {
+        def source = new SingleSubscriberPublisher<Integer>()
+        def batching = new BatchingPublisher<Integer>(source, 4, Duration.ofHours(1), scheduler)
+        def subscriber = new CapturingSubscriber<List<Integer>>()
+
+        when:
+        batching.subscribe(subscriber)
+        (0..9).each { source.offer(it) }
+
+        then:
+        subscriber.events == [[0, 1, 2, 3], [4, 5, 6, 7]]
+        !subscriber.isDone().get()
+
+        when:
+        source.noMoreData()
+
+        then:
+        subscriber.events == [[0, 1, 2, 3], [4, 5, 6, 7], [8, 9]]
+        subscriber.isDone().get()
+    }
+
+    def "a batch that does not fill up is published once the delay has passed"() {
+        def source = new SingleSubscriberPublisher<Integer>()
+        def batching = new BatchingPublisher<Integer>(source, 100, Duration.ofMillis(10), scheduler)
+        def subscriber = new CapturingSubscriber<List<Integer>>()
+
+        when:
+        batching.subscribe(subscriber)
+        (0..2).each { source.offer(it) }
+
+        then:
+        Awaitility.await().until({ subscriber.events == [[0, 1, 2]] })
+
+        when:
+        source.offer(3)
+
+        then:
+        Awaitility.await().until({ subscriber.events == [[0, 1, 2], [3]] })
+    }
+
+    def "upstream values are only requested for the batches that are asked for"() {
+        def source = new DirectPublisher<Integer>()
+        def batching = new BatchingPublisher<Integer>(source, 4, Duration.ofHours(1), scheduler)
+        def subscriber = new DemandingSubscriber<List<Integer>>()
+
+        when:
+        batching.subscribe(subscriber)
+
+        then:
+        source.requested == []
+
+        when:
+        subscriber.subscription.request(1)
+        (0..3).each { source.subscriber.onNext(it) }
+
+        then:
+        source.requested == [4L]
+        subscriber.events == [[0, 1, 2, 3]]
+
+        when:
+        subscriber.subscription.request(1)
+
+        then:
+        source.requested == [4L, 4L]
+
+        when:
+        subscriber.subscription.cancel()
+
+        then:
+        source.cancelled
+    }
+
+    def "an upstream error is published after the partial batch before it"() {
+        def source = new DirectPublisher<Integer>()
+        def batching = new BatchingPublisher<Integer>(source, 2, Duration.ofHours(1), scheduler)
+        def subscriber = new DemandingSubscriber<List<Integer>>()
+
+        when:
+        batching.subscribe(subscriber)
+        subscriber.subscription.request(2)
+        (0..2).each { source.subscriber.onNext(it) }
+
+        then:
+        source.requested == [2L, 2L]
+        subscriber.events == [[0, 1]]
+        !subscriber.done
+
+        when:
+        source.subscriber.onError(new RuntimeException("Bang"))
+
+        then:
+        subscriber.events == [[0, 1], [2]]
+        subscriber.done
+        subscriber.throwable.message == "Bang"
+    }
+
+    def "the flattening publisher publishes the values of each batch in order"() {
+        def source = new SingleSubscriberPublisher<Integer>()
+        def batching = new BatchingPublisher<Integer>(source, 3, Duration.ofHours(1), scheduler)
+        def flattening = new FlatteningPublisher<Integer>(batching)
+        def subscriber = new DemandingSubscriber<Integer>()
+
+        when:
+        flattening.subscribe(subscriber)
+        subscriber.subscription.request(2)
+        (0..6).each { source.offer(it) }
+
+        then:
+        subscriber.events == [0, 1]
+
+        when:
+        subscriber.subscription.request(10)
+        source.noMoreData()
+
+        then:
+        subscriber.events == (0..6).toList()
+        subscriber.done
+    }
+}
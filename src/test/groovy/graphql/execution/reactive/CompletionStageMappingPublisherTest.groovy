@@ -4,10 +4,16 @@ import graphql.execution.pubsub.CapturingSubscriber
 import io.reactivex.Flowable
 import org.awaitility.Awaitility
 import org.reactivestreams.Publisher
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
 import spock.lang.Specification
 
+import java.util.concurrent.CancellationException
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionStage
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.BiConsumer
 import java.util.function.Function
 
 class CompletionStageMappingPublisherTest extends Specification {
@@ -141,6 +147,299 @@ class CompletionStageMappingPublisherTest extends Specification {
         capturingSubscriber.events[0] == "0"
     }
 
+    def "values are published in upstream order whatever order they complete in"() {
+        def futures = (0..4).collect { new CompletableFuture<String>() }
+        def mapper = new Function<Integer, CompletionStage<String>>() {
+            @Override
+            CompletionStage<String> apply(Integer integer) {
+                return futures[integer]
+            }
+        }
+        Publisher<String> rxStrings = new CompletionStageMappingPublisher<String, Integer>(Flowable.range(0, 5), mapper)
+        def capturingSubscriber = new CapturingSubscriber<>()
+
+        when:
+        rxStrings.subscribe(capturingSubscriber)
+        futures[4].complete("4")
+        futures[2].complete("2")
+
+        then:
+        capturingSubscriber.events == []
+
+        when:
+        futures[0].complete("0")
+        futures[1].complete("1")
+
+        then:
+        capturingSubscriber.events == ["0", "1", "2"]
+
+        when:
+        futures[3].complete("3")
+
+        then:
+        capturingSubscriber.events == ["0", "1", "2", "3", "4"]
+        capturingSubscriber.isDone().get()
+    }
+
+    def "no more than the maximum values are in flight"() {
+        def futures = []
+        def requested = 0
+        def mapper = new Function<Integer, CompletionStage<String>>() {
+            @Override
+            CompletionStage<String> apply(Integer integer) {
+                def future = new CompletableFuture<String>()
+                futures.add(future)
+                return future
+            }
+        }
+        def depths = []
+        def published = []
+        def observer = new CompletionStageMappingPublisher.MappingObserver<Integer, String>() {
+            @Override
+            BiConsumer<String, Throwable> onMapping(Integer upstreamValue, int inFlight) {
+                depths.add(inFlight)
+                return { value, throwable -> published.add(value) }
+            }
+        }
+        Publisher<Integer> rxIntegers = Flowable.range(0, 100).doOnRequest({ requested += it })
+        Publisher<String> rxStrings = new CompletionStageMappingPublisher<String, Integer>(rxIntegers, mapper, 3, observer)
+        def subscriber = new CapturingSubscriber<String>() {
+            @Override
+            void onSubscribe(Subscription subscription) {
+                subscription.request(Long.MAX_VALUE)
+            }
+
+            @Override
+            void onNext(String s) {
+                events.add(s)
+            }
+        }
+
+        when:
+        rxStrings.subscribe(subscriber)
+
+        then:
+        requested == 3
+        futures.size() == 3
+        depths == [1, 2, 3]
+
+        when:
+        futures[1].complete("1")
+        futures[0].complete("0")
+
+        then:
+        subscriber.events == ["0", "1"]
+        published == ["0", "1"]
+        requested == 5
+        futures.size() == 5
+    }
+
+    def "upstream values are only requested as they are asked for"() {
+        def requested = 0
+        Publisher<Integer> rxIntegers = Flowable.range(0, 100).doOnRequest({ requested += it })
+        Publisher<String> rxStrings = new CompletionStageMappingPublisher<String, Integer>(rxIntegers, mapperThatDelaysFor(0))
+        def capturingSubscriber = new CapturingSubscriber<String>() {
+            @Override
+            void onNext(Object o) {
+                events.add(o)
+            }
+        }
+
+        when:
+        rxStrings.subscribe(capturingSubscriber)
+        Awaitility.await().until({ capturingSubscriber.events.size() == 1 })
+
+        then:
+        requested == 1
+    }
+
+    def "values in flight are told when they will never be published"() {
+        def futures = []
+        def mapper = new Function<Integer, CompletionStage<String>>() {
+            @Override
+            CompletionStage<String> apply(Integer integer) {
+                def future = new CompletableFuture<String>()
+                futures.add(future)
+                return future
+            }
+        }
+        def published = []
+        def observer = new CompletionStageMappingPublisher.MappingObserver<Integer, String>() {
+            @Override
+            BiConsumer<String, Throwable> onMapping(Integer upstreamValue, int inFlight) {
+                return { value, throwable -> published.add([upstreamValue, value, throwable?.getClass()]) }
+            }
+        }
+        Publisher<String> rxStrings = new CompletionStageMappingPublisher<String, Integer>(Flowable.range(0, 100), mapper, 3, observer)
+        Subscription subscription = null
+        def subscriber = new CapturingSubscriber<String>() {
+            @Override
+            void onSubscribe(Subscription s) {
+                subscription = s
+                s.request(Long.MAX_VALUE)
+            }
+        }
+
+        when:
+        rxStrings.subscribe(subscriber)
+        futures[0].complete("0")
+
+        then:
+        published == [[0, "0", null]]
+
+        when:
+        if (cancel) {
+            subscription.cancel()
+        } else {
+            futures[1].completeExceptionally(new RuntimeException("Bang"))
+        }
+
+        then:
+        published == [[0, "0", null]] + expected
+
+        where:
+        cancel | expected
+        true   | [[1, null, CancellationException], [2, null, CancellationException], [3, null, CancellationException]]
+        false  | [[2, null, CancellationException], [3, null, CancellationException], [1, null, RuntimeException]]
+    }
+
+    def "a value that arrives as the subscription is cancelled is told it will never be published"() {
+        Subscriber<Integer> upstreamSubscriber = null
+        Publisher<Integer> upstream = { Subscriber<Integer> s ->
+            upstreamSubscriber = s
+            s.onSubscribe(new Subscription() {
+                @Override
+                void request(long n) {
+                }
+
+                @Override
+                void cancel() {
+                }
+            })
+        } as Publisher<Integer>
+        Subscription subscription = null
+        def published = []
+        def observer = new CompletionStageMappingPublisher.MappingObserver<Integer, String>() {
+            @Override
+            BiConsumer<String, Throwable> onMapping(Integer upstreamValue, int inFlight) {
+                // cancelled after onNext has checked for it but before the value is queued
+                subscription.cancel()
+                return { value, throwable -> published.add([upstreamValue, throwable?.getClass()]) }
+            }
+        }
+        def mapper = { Integer i -> new CompletableFuture<String>() } as Function<Integer, CompletionStage<String>>
+        def subscriber = new CapturingSubscriber<String>() {
+            @Override
+            void onSubscribe(Subscription s) {
+                subscription = s
+                s.request(10)
+            }
+        }
+
+        when:
+        new CompletionStageMappingPublisher<String, Integer>(upstream, mapper, 10, observer).subscribe(subscriber)
+        upstreamSubscriber.onNext(1)
+        upstreamSubscriber.onNext(2)
+
+        then:
+        published == [[1, CancellationException]]
+    }
+
+    def "values that race a cancel are all told they will never be published"() {
+        def lostValues = 0
+
+        when:
+        200.times {
+            Subscriber<Integer> upstreamSubscriber = null
+            Publisher<Integer> upstream = { Subscriber<Integer> s ->
+                upstreamSubscriber = s
+                s.onSubscribe(new Subscription() {
+                    @Override
+                    void request(long n) {
+                    }
+
+                    @Override
+                    void cancel() {
+                    }
+                })
+            } as Publisher<Integer>
+            def mapped = new AtomicInteger()
+            def told = new AtomicInteger()
+            def observer = new CompletionStageMappingPublisher.MappingObserver<Integer, String>() {
+                @Override
+                BiConsumer<String, Throwable> onMapping(Integer upstreamValue, int inFlight) {
+                    mapped.incrementAndGet()
+                    return { value, throwable -> told.incrementAndGet() }
+                }
+            }
+            def mapper = { Integer i -> new CompletableFuture<String>() } as Function<Integer, CompletionStage<String>>
+            Subscription subscription = null
+            def subscriber = new CapturingSubscriber<String>() {
+                @Override
+                void onSubscribe(Subscription s) {
+                    subscription = s
+                    s.request(100)
+                }
+            }
+            new CompletionStageMappingPublisher<String, Integer>(upstream, mapper, 100, observer).subscribe(subscriber)
+
+            def start = new CountDownLatch(1)
+            def producer = Thread.start {
+                start.await()
+                50.times { upstreamSubscriber.onNext(it) }
+            }
+            def canceller = Thread.start {
+                start.await()
+                subscription.cancel()
+            }
+            start.countDown()
+            producer.join()
+            canceller.join()
+            if (mapped.get() != told.get()) {
+                lostValues++
+            }
+        }
+
+        then:
+        lostValues == 0
+    }
+
+    def "a non positive request is an error after the values already published"() {
+        def published = []
+        def observer = new CompletionStageMappingPublisher.MappingObserver<Integer, String>() {
+            @Override
+            BiConsumer<String, Throwable> onMapping(Integer upstreamValue, int inFlight) {
+                return { value, throwable -> published.add(throwable?.getClass()) }
+            }
+        }
+        def futures = []
+        def mapper = new Function<Integer, CompletionStage<String>>() {
+            @Override
+            CompletionStage<String> apply(Integer integer) {
+                def future = new CompletableFuture<String>()
+                futures.add(future)
+                return future
+            }
+        }
+        Publisher<String> rxStrings = new CompletionStageMappingPublisher<String, Integer>(Flowable.range(0, 100), mapper, 2, observer)
+        Subscription subscription = null
+        def subscriber = new CapturingSubscriber<String>() {
+            @Override
+            void onSubscribe(Subscription s) {
+                subscription = s
+                s.request(2)
+            }
+        }
+
+        when:
+        rxStrings.subscribe(subscriber)
+        subscription.request(0)
+
+        then:
+        subscriber.throwable instanceof IllegalArgumentException
+        published == [CancellationException, CancellationException]
+    }
+
     Function<Integer, CompletionStage<String>> mapperThatDelaysFor(int delay) {
         def mapper = new Function<Integer, CompletionStage<String>>() {
             @Override
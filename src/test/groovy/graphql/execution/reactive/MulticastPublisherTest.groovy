@@ -0,0 +1,222 @@
+package graphql.execution.reactive
+
+import graphql.execution.pubsub.CapturingSubscriber
+import io.reactivex.Flowable
+import org.reactivestreams.Subscriber
+import org.reactivestreams.Subscription
+import spock.lang.Specification
+
+class MulticastPublisherTest extends Specification {
+
+    class DemandingSubscriber<T> implements Subscriber<T> {
+        List<T> events = []
+        Subscription subscription
+        boolean done
+
+        @Override
+        void onSubscribe(Subscription subscription) {
+            this.subscription = subscription
+        }
+
+        @Override
+        void onNext(T t) {
+            events.add(t)
+        }
+
+        @Override
+        void onError(Throwable t) {
+            done = true
+        }
+
+        @Override
+        void onComplete() {
+            done = true
+        }
+    }
+
+    def "each value is published to every subscriber from one upstream subscription"() {
+        def source = new SingleSubscriberPublisher<Integer>()
+        def disconnects = 0
+        def multicast = new MulticastPublisher<Integer>(source, 4, { disconnects++ })
+
+        def subscriber1 = new CapturingSubscriber<Integer>()
+        def subscriber2 = new CapturingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(subscriber1)
+        multicast.subscribe(subscriber2)
+        (0..9).each { source.offer(it) }
+        source.noMoreData()
+
+        then:
+        // the single subscriber publisher rejects a second subscription so there was only one
+        subscriber1.events == (0..9).toList()
+        subscriber2.events == (0..9).toList()
+        subscriber1.isDone().get()
+        subscriber2.isDone().get()
+        disconnects == 1
+    }
+
+    def "a slow subscriber holds back upstream demand once it is a buffer behind"() {
+        def source = new SingleSubscriberPublisher<Integer>()
+        def multicast = new MulticastPublisher<Integer>(source, 4, {})
+
+        def fast = new CapturingSubscriber<Integer>()
+        def slow = new DemandingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(fast)
+        multicast.subscribe(slow)
+        (0..9).each { source.offer(it) }
+
+        then:
+        fast.events == [0, 1, 2, 3]
+        slow.events == []
+
+        when:
+        slow.subscription.request(2)
+
+        then:
+        slow.events == [0, 1]
+        fast.events == [0, 1, 2, 3, 4, 5]
+
+        when:
+        slow.subscription.request(100)
+
+        then:
+        slow.events == (0..9).toList()
+        fast.events == (0..9).toList()
+    }
+
+    def "late subscribers get the values published after they arrive"() {
+        def source = new SingleSubscriberPublisher<Integer>()
+        def multicast = new MulticastPublisher<Integer>(source, 4, {})
+
+        def early = new CapturingSubscriber<Integer>()
+        def late = new CapturingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(early)
+        source.offer(0)
+        source.offer(1)
+        multicast.subscribe(late)
+        source.offer(2)
+
+        then:
+        early.events == [0, 1, 2]
+        late.events == [2]
+    }
+
+    def "upstream is cancelled when the last subscriber leaves"() {
+        def cancelled = false
+        def upstream = Flowable.<Integer> never().doOnCancel({ cancelled = true })
+        def disconnects = 0
+        def multicast = new MulticastPublisher<Integer>(upstream, 4, { disconnects++ })
+
+        def subscriber1 = new DemandingSubscriber<Integer>()
+        def subscriber2 = new DemandingSubscriber<Integer>()
+        multicast.subscribe(subscriber1)
+        multicast.subscribe(subscriber2)
+
+        when:
+        subscriber1.subscription.cancel()
+
+        then:
+        !cancelled
+
+        when:
+        subscriber2.subscription.cancel()
+
+        then:
+        cancelled
+        disconnects == 1
+    }
+
+    def "subscribers that arrive after upstream has completed are told so without subscribing again"() {
+        def subscriptions = 0
+        def upstream = Flowable.range(0, 3).doOnSubscribe({ subscriptions++ })
+        def disconnects = 0
+        def multicast = new MulticastPublisher<Integer>(upstream, 8, { disconnects++ })
+        def early = new CapturingSubscriber<Integer>()
+        def late = new CapturingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(early)
+        multicast.subscribe(late)
+
+        then:
+        early.events == [0, 1, 2]
+        early.isDone().get()
+        late.events == []
+        late.isDone().get()
+        late.throwable == null
+        subscriptions == 1
+        disconnects == 1
+    }
+
+    def "subscribers that arrive after upstream has failed get the error"() {
+        def multicast = new MulticastPublisher<Integer>(Flowable.error(new RuntimeException("Bang")), 8, {})
+        def early = new CapturingSubscriber<Integer>()
+        def late = new CapturingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(early)
+        multicast.subscribe(late)
+
+        then:
+        early.throwable.message == "Bang"
+        late.throwable.message == "Bang"
+    }
+
+    def "subscribers that arrive after everyone has left are told upstream has completed"() {
+        def subscriptions = 0
+        def upstream = Flowable.<Integer> never().doOnSubscribe({ subscriptions++ })
+        def multicast = new MulticastPublisher<Integer>(upstream, 4, {})
+        def early = new DemandingSubscriber<Integer>()
+        def late = new DemandingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(early)
+        early.subscription.cancel()
+        multicast.subscribe(late)
+
+        then:
+        late.done
+        subscriptions == 1
+    }
+
+    def "errors are published after the values before them"() {
+        def upstream = Flowable.range(0, 3).concatWith(Flowable.error(new RuntimeException("Bang")))
+        def multicast = new MulticastPublisher<Integer>(upstream, 8, {})
+        def subscriber = new DemandingSubscriber<Integer>()
+
+        when:
+        multicast.subscribe(subscriber)
+
+        then:
+        !subscriber.done
+
+        when:
+        subscriber.subscription.request(3)
+
+        then:
+        subscriber.events == [0, 1, 2]
+        subscriber.done
+    }
+
+    def "a non positive request is an error"() {
+        def multicast = new MulticastPublisher<Integer>(Flowable.range(0, 3), 8, {})
+        def subscriber = new CapturingSubscriber<Integer>() {
+            @Override
+            void onSubscribe(Subscription subscription) {
+                subscription.request(0)
+            }
+        }
+
+        when:
+        multicast.subscribe(subscriber)
+
+        then:
+        subscriber.throwable instanceof IllegalArgumentException
+    }
+}
@@ -3,9 +3,11 @@ package graphql.normalized
 import graphql.ExecutionInput
 import graphql.GraphQL
 import graphql.TestUtil
+import graphql.execution.AbortExecutionException
 import graphql.execution.CoercedVariables
 import graphql.execution.MergedField
 import graphql.execution.RawVariables
+import graphql.execution.ResultPath
 import graphql.execution.directives.QueryAppliedDirective
 import graphql.language.Document
 import graphql.language.Field
@@ -2875,4 +2877,107 @@ fragment personName on Person {
         then:
         noExceptionThrown()
     }
+
+    def "lazy operation has the same fields as the eager operation"() {
+        given:
+        def schema = schema('''
+        type Query {
+            pets: [Pet]
+            dogOrCat: DogOrCat
+        }
+        interface Pet {
+            name: String
+            friend: Pet
+        }
+        type Dog implements Pet {
+            name: String
+            friend: Pet
+            breed: String
+            barks: Boolean
+        }
+        type Cat implements Pet {
+            name: String
+            friend: Pet
+            breed: String
+            meows: Boolean
+        }
+        union DogOrCat = Dog | Cat
+        ''')
+        assertValidQuery(schema, query)
+        Document document = TestUtil.parseQuery(query)
+
+        when:
+        def eagerTree = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationWithRawVariables(schema, document, null, RawVariables.emptyVariables())
+        def lazyTree = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationWithRawVariables(schema, document, null, RawVariables.emptyVariables(),
+                ExecutableNormalizedOperationFactory.Options.defaultOptions().lazyChildren(true))
+
+        then:
+        printTreeWithLevelInfo(lazyTree, schema) == expectedTree
+        printTreeWithLevelInfo(eagerTree, schema) == expectedTree
+        lazyTree.getFieldToNormalizedField().size() == eagerTree.getFieldToNormalizedField().size()
+        lazyTree.getCoordinatesToNormalizedFields().keySet() == eagerTree.getCoordinatesToNormalizedFields().keySet()
+        lazyTree.getNormalizedFieldToMergedField().size() == expectedTree.size()
+        lazyTree.getNormalizedFieldToQueryDirectives().size() == expectedTree.size()
+
+        where:
+        query                                                                                                   | expectedTree
+        '{ pets { ... on Dog { name friend { name } breed } ... on Cat { name friend { name } breed } } }'      | ['-Query.pets: [Pet]',
+                                                                                                                   '--[Dog, Cat].name: String',
+                                                                                                                   '--[Dog, Cat].friend: Pet',
+                                                                                                                   '---[Cat, Dog].name: String',
+                                                                                                                   '--Dog.breed: String',
+                                                                                                                   '--Cat.breed: String']
+        '{ dogOrCat { ... on Dog { name friend { name } } ... on Cat { name friend { name ... on Dog { barks } } } } }' | ['-Query.dogOrCat: DogOrCat',
+                                                                                                                   '--[Dog, Cat].name: String',
+                                                                                                                   '--Dog.friend: Pet',
+                                                                                                                   '---[Cat, Dog].name: String',
+                                                                                                                   '--Cat.friend: Pet',
+                                                                                                                   '---[Cat, Dog].name: String',
+                                                                                                                   '---Dog.barks: Boolean']
+    }
+
+    def "lazy operation only collects the children of fields that are asked for"() {
+        given:
+        def schema = schema('''
+        type Query {
+            pet: Pet
+        }
+        interface Pet {
+            name: String
+            friend: Pet
+        }
+        type Dog implements Pet {
+            name: String
+            friend: Pet
+        }
+        type Cat implements Pet {
+            name: String
+            friend: Pet
+        }
+        ''')
+        def query = '{ pet { ... on Dog { friend { friend { name } } } ... on Cat { name } } }'
+        assertValidQuery(schema, query)
+        Document document = TestUtil.parseQuery(query)
+        def catInlineFragment = (document.getDefinitions()[0] as OperationDefinition).getSelectionSet().getSelections()[0].getSelectionSet().getSelections()[1]
+        def catName = catInlineFragment.getSelectionSet().getSelections()[0] as Field
+
+        when:
+        // the depth of the query is only checked for the fields that are expanded
+        def tree = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperationWithRawVariables(schema, document, null, RawVariables.emptyVariables(),
+                ExecutableNormalizedOperationFactory.Options.defaultOptions().lazyChildren(true).maxChildrenDepth(3))
+        def name = tree.getNormalizedField(MergedField.newMergedField(catName).build(), schema.getObjectType("Cat"), ResultPath.parse("/pet/name"))
+        def friend = tree.getTopLevelFields()[0].getChildren()[0]
+
+        then:
+        name.printDetails() == "Cat.name"
+        tree.getMergedField(name).getSingleField().is(catName)
+        friend.printDetails() == "Dog.friend"
+
+        when:
+        friend.getChildren()[0].getChildren()
+
+        then:
+        def exception = thrown(AbortExecutionException)
+        exception.message.contains("> 3")
+    }
 }
@@ -0,0 +1,254 @@
+package graphql.parser
+
+import graphql.language.AstPrinter
+import graphql.language.Document
+import graphql.language.Node
+import graphql.parser.exceptions.ParseCancelledException
+import graphql.parser.exceptions.ParseCancelledTooDeepException
+import graphql.parser.exceptions.ParseCancelledTooManyCharsException
+import spock.lang.Specification
+
+class ExecutableDocumentParserTest extends Specification {
+
+    static ParserOptions antlrOptions = ParserOptions.newParserOptions().build()
+    static ParserOptions handWrittenOptions = ParserOptions.newParserOptions().executableDocumentParsing(true).build()
+
+    static Document parse(String document, ParserOptions parserOptions) {
+        def environment = ParserEnvironment.newParserEnvironment()
+                .document(document)
+                .parserOptions(parserOptions)
+                .build()
+        Parser.parse(environment)
+    }
+
+    static Document parseHandWritten(String document, ParserOptions parserOptions) {
+        def chars = document.toCharArray()
+        ExecutableDocumentParser.parse(chars, chars.length, parserOptions, ParserEnvironment.newParserEnvironment().document(document).build().getI18N())
+    }
+
+    static void assertSameNodes(Node expected, Node actual, String path = "") {
+        assert actual.getClass() == expected.getClass(), path
+        assert actual.getSourceLocation() == expected.getSourceLocation(), path + " " + expected.getClass().getSimpleName()
+        assert actual.getComments().collect { [it.content, it.sourceLocation] } == expected.getComments().collect { [it.content, it.sourceLocation] }, path
+        assert actual.getChildren().size() == expected.getChildren().size(), path
+        expected.getChildren().eachWithIndex { Node child, int i ->
+            assertSameNodes(child, actual.getChildren()[i], path + "/" + i)
+        }
+    }
+
+    static void assertSameDocument(String document, ParserOptions parserOptions) {
+        def handWrittenOptions = parserOptions.transform({ it.executableDocumentParsing(true) })
+        def handWritten = parseHandWritten(document, handWrittenOptions)
+        assert handWritten != null
+        def antlr = parse(document, parserOptions)
+        assert AstPrinter.printAst(handWritten) == AstPrinter.printAst(antlr)
+        assert handWritten.isEqualTo(antlr)
+        assertSameNodes(antlr, handWritten)
+    }
+
+    def "builds the same documents as the ANTLR based parser"() {
+        expect:
+        assertSameDocument(document, antlrOptions)
+        assertSameDocument(document, antlrOptions.transform({ it.captureSourceLocation(false) }))
+        assertSameDocument(document, antlrOptions.transform({ it.captureLineComments(false) }))
+
+        where:
+        document << [
+                '{ hero { name } }',
+                'query { a }',
+                'query Named { a, b, c }',
+                'mutation M { doIt(input: {a: 1, b: [1, 2.5, -3e10, 0.1E-2], c: "s", d: ENUM, e: null, f: true, g: false}) { id } }',
+                'subscription S($id: ID!) { onEvent(id: $id) { id } }',
+                'query Q($a: Int = 1, $b: [String!]! = ["a"] @dir, $c: In = {a: {b: [on]}}) @op(a: $a) { f(a: $a, b: $b, c: $c) }',
+                'query { alias: field(arg: "value") @skip(if: true) @include(if: false) { ... on Type { a } ... Frag ... @dir { b } ... { c } } }',
+                'fragment Frag on Type @dir { a } query { ...Frag }',
+                'fragment null on Type { a } fragment true on Type { query mutation fragment on null }',
+                '{ query: query(query: query, on: on, true: true, null: null) }',
+                '{ f(a: "", b: "escaped \\" \\\\ \\/ \\b \\f \\n \\r \\t \\u00e9 \\u{1F600}", c: "unicode 😀 text") }',
+                '{ f(a: """block""", b: """\n    indented\n      block\n  """, c: """escaped \\""" quotes""", d: """""") }',
+                '# comment one\n# comment two\nquery {\n  # on a field\n  a # trailing\n  b(a: # in arguments\n   1)\n}\n# at the end\n',
+                '#😀 comment\r\n{ a(b: "😀") #😀 trailing\r  c }\r\n\r\n# last',
+                '\ufeff{\ta b c,,,d\r\n}',
+                '{a{b{c{d{e{f}}}}}}',
+                'query($a:[[Int!]!]!=[[1]]){a(a:$a)}',
+        ]
+    }
+
+    def "builds the same documents for the large query fixtures"() {
+        def options = antlrOptions.transform({ it.maxTokens(Integer.MAX_VALUE).maxWhitespaceTokens(Integer.MAX_VALUE).maxCharacters(Integer.MAX_VALUE) })
+
+        expect:
+        assertSameDocument(getClass().getClassLoader().getResource(fixture).text, options)
+
+        where:
+        fixture << [
+                "large-schema-1-query.graphql",
+                "large-schema-2-query.graphql",
+                "large-schema-4-query.graphql",
+                "extra-large-schema-1-query.graphql",
+        ]
+    }
+
+    def "leaves documents it does not handle to the ANTLR based parser"() {
+        expect:
+        parseHandWritten(document, handWrittenOptions) == null
+        AstPrinter.printAst(parse(document, handWrittenOptions)) == AstPrinter.printAst(parse(document, antlrOptions))
+
+        where:
+        document << [
+                'type Query { a : String }',
+                '{ a } type Query { a : String }',
+                'extend type Query { b : String }',
+                'schema { query : Query }',
+        ]
+    }
+
+    def "reports the same syntax errors as the ANTLR based parser"() {
+        when:
+        parse(document, antlrOptions)
+
+        then:
+        def antlrException = thrown(InvalidSyntaxException)
+
+        when:
+        parse(document, handWrittenOptions)
+
+        then:
+        def exception = thrown(InvalidSyntaxException)
+        exception.getClass() == antlrException.getClass()
+        exception.getMessage() == antlrException.getMessage()
+        exception.getLocation() == antlrException.getLocation()
+        exception.getSourcePreview() == antlrException.getSourcePreview()
+
+        where:
+        document << [
+                '',
+                '{ a ',
+                '{ a } }',
+                '{ }',
+                '{ a(b: 1e) }',
+                '{ a(b: 01) }',
+                '{ a(b: 1.) }',
+                '{ a(b: "unterminated) }',
+                '{ a(b: "bad escape \\x") }',
+                '{ a(b: "bad unicode \\u{110000}") }',
+                '{ a(b: """unterminated) }',
+                '{ a .. }',
+                '{ a ~ }',
+                '{ ... on { a } }',
+                'fragment on on Type { a }',
+                'query($a: Int = $b) { a }',
+                'query Q { a } garbage',
+        ]
+    }
+
+    def "honours the parser limits like the ANTLR based parser"() {
+        when:
+        parse(document, options)
+
+        then:
+        def antlrException = thrown(InvalidSyntaxException)
+
+        when:
+        parse(document, options.transform({ it.executableDocumentParsing(true) }))
+
+        then:
+        def exception = thrown(InvalidSyntaxException)
+        exception.getClass() == antlrException.getClass()
+        exception.getMessage() == antlrException.getMessage()
+
+        where:
+        document                             | options
+        '{ a b c d e f g h i j k l m n o p }' | antlrOptions.transform({ it.maxTokens(10) })
+        '{ a }\n# 1\n# 2\n# 3\n# 4\n# 5'       | antlrOptions.transform({ it.maxTokens(4) })
+        '{ a b c d e f g h i j k l m n o p }' | antlrOptions.transform({ it.maxWhitespaceTokens(10) })
+        '{a{b{c{d{e{f{g{h{i{j}}}}}}}}}}'     | antlrOptions.transform({ it.maxRuleDepth(20) })
+    }
+
+    def "the limits are exact"() {
+        def document = '{ a b c d e f g h }'
+
+        when: "10 grammar tokens and the end of the document"
+        def doc = parse(document, handWrittenOptions.transform({ it.maxTokens(11).maxWhitespaceTokens(9) }))
+
+        then:
+        doc.getDefinitions().size() == 1
+
+        when:
+        parse(document, handWrittenOptions.transform({ it.maxTokens(10) }))
+
+        then:
+        thrown(ParseCancelledException)
+
+        when:
+        parse(document, handWrittenOptions.transform({ it.maxWhitespaceTokens(8) }))
+
+        then:
+        thrown(ParseCancelledException)
+    }
+
+    static String outcome(String document, ParserOptions parserOptions) {
+        try {
+            parse(document, parserOptions)
+            return "parsed"
+        } catch (InvalidSyntaxException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage()
+        }
+    }
+
+    def "counts the tokens like the ANTLR based parser at the limits"() {
+        expect:
+        (1..80).each { limit ->
+            def options = antlrOptions.transform({ it."$limitName"(limit) })
+            def antlrOutcome = outcome(document, options)
+            assert outcome(document, options.transform({ it.executableDocumentParsing(true) })) == antlrOutcome, "$limitName $limit"
+            // the hand written parser must take the document exactly when the ANTLR based parser does
+            assert (parseHandWritten(document, options) != null) == (antlrOutcome == "parsed"), "$limitName $limit"
+        }
+
+        where:
+        [document, limitName] << [
+                [
+                        '{ a b c d }',
+                        '{ a }\n# 1\n# 2\n# 3',
+                        'query Q($v: Float = -1.5e3, $s: [String!] = ["x", ""]) {\r\n  a(v: $v) @skip(if: false) { ...F ... on T { b } }\r\n}\n# trailing',
+                        '\ufeff# leading\n{\u2028a,,,b\u2029c(s: \"\"\"block\n  string\"\"\")\t}\r\nfragment F on T { d }',
+                ],
+                ["maxTokens", "maxWhitespaceTokens"]
+        ].combinations()
+    }
+
+    def "rule depth is never under estimated"() {
+        def document = '{a{b{c{d{e{f{g{h{i{j}}}}}}}}}}'
+
+        expect:
+        // whenever the ANTLR based parser cancels, the hand written parser must give up
+        (1..40).each { maxRuleDepth ->
+            def options = antlrOptions.transform({ it.maxRuleDepth(maxRuleDepth) })
+            def antlrCancelled = false
+            try {
+                parse(document, options)
+            } catch (ParseCancelledTooDeepException ignored) {
+                antlrCancelled = true
+            }
+            if (antlrCancelled) {
+                assert parseHandWritten(document, options) == null
+            }
+        }
+    }
+
+    def "the max characters are honoured"() {
+        when:
+        parse('{ a b c d e f g h }', handWrittenOptions.transform({ it.maxCharacters(10) }))
+
+        then:
+        thrown(ParseCancelledTooManyCharsException)
+    }
+
+    def "is off by default"() {
+        expect:
+        !ParserOptions.getDefaultParserOptions().isExecutableDocumentParsing()
+        !ParserOptions.getDefaultOperationParserOptions().isExecutableDocumentParsing()
+        handWrittenOptions.transform({ it.maxTokens(1) }).isExecutableDocumentParsing()
+    }
+}
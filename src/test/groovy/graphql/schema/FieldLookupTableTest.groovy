@@ -0,0 +1,103 @@
+package graphql.schema
+
+import graphql.TestUtil
+import graphql.introspection.Introspection
+import graphql.schema.visibility.BlockedFields
+import spock.lang.Specification
+
+class FieldLookupTableTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            item : Item
+        }
+
+        type Item {
+            id : ID
+            name : String
+        }
+    '''
+
+    DataFetcher itemFetcher = { env -> [id: "1", name: "name"] }
+
+    def schema = TestUtil.schema(sdl, [Query: [item: itemFetcher]])
+
+    def "finds the same fields as introspection does"() {
+        def table = schema.getFieldLookupTable()
+        def queryType = schema.getObjectType("Query")
+        def itemType = schema.getObjectType("Item")
+
+        expect:
+        table.getField(type(typeName), fieldName).fieldDefinition == Introspection.getFieldDef(schema, type(typeName), fieldName)
+        table.getField(type(typeName), fieldName).coordinates == FieldCoordinates.coordinates(typeName, fieldName)
+
+        where:
+        typeName | fieldName
+        "Query"  | "item"
+        "Query"  | "__typename"
+        "Query"  | "__schema"
+        "Query"  | "__type"
+        "Item"   | "id"
+        "Item"   | "__typename"
+        "__Type" | "fields"
+    }
+
+    def type(String typeName) {
+        schema.getObjectType(typeName)
+    }
+
+    def "returns the data fetchers of the code registry"() {
+        def table = schema.getFieldLookupTable()
+
+        expect:
+        table.getField(type("Query"), "item").dataFetcher == itemFetcher
+        table.getField(type("Item"), "name").dataFetcher instanceof PropertyDataFetcher
+        (table.getField(type("Item"), "name").dataFetcher as PropertyDataFetcher).propertyName == "name"
+    }
+
+    def "keeps the data fetchers of stable factories"() {
+        def calls = 0
+        DataFetcherFactory lateBindingFactory = { env -> calls++; itemFetcher }
+        def lateBindingSchema = schema.transform({ builder ->
+            builder.codeRegistry(schema.codeRegistry.transform({ it.dataFetcher(FieldCoordinates.coordinates("Query", "item"), lateBindingFactory) }))
+        })
+        def table = lateBindingSchema.getFieldLookupTable()
+        def itemType = lateBindingSchema.getObjectType("Item")
+        def queryType = lateBindingSchema.getObjectType("Query")
+
+        when:
+        def nameFetcher = table.getField(itemType, "name").dataFetcher
+        table.getField(queryType, "item").dataFetcher
+        table.getField(queryType, "item").dataFetcher
+
+        then:
+        table.getField(itemType, "name").dataFetcher.is(nameFetcher)
+        // the code registry itself asks the factory every time
+        !lateBindingSchema.codeRegistry.getDataFetcher(itemType, itemType.getFieldDefinition("name")).is(nameFetcher)
+        calls == 2
+    }
+
+    def "unknown fields and types are not in the table"() {
+        def table = schema.getFieldLookupTable()
+        def otherType = GraphQLObjectType.newObject().name("Item").field({ it.name("id").type(Scalars.GraphQLID) }).build()
+
+        expect:
+        table.getField(type("Item"), "unknown") == null
+        table.getField(type("Item"), "__schema") == null
+        table.getField(otherType, "id") == null
+    }
+
+    def "is empty when the fields visibility is not the default"() {
+        def blockedSchema = schema.transform({ builder ->
+            builder.codeRegistry(schema.codeRegistry.transform({ it.fieldVisibility(BlockedFields.newBlock().addPattern("Item.name").build()) }))
+        })
+
+        expect:
+        blockedSchema.getFieldLookupTable().getField(blockedSchema.getObjectType("Item"), "id") == null
+    }
+
+    def "is built once per schema"() {
+        expect:
+        schema.getFieldLookupTable().is(schema.getFieldLookupTable())
+    }
+}
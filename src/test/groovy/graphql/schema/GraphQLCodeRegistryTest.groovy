@@ -395,4 +395,22 @@ class GraphQLCodeRegistryTest extends Specification {
         then:
         newCodeRegistry.hasChanged()
     }
+
+    def "factories that are not stable are asked every time"() {
+        def calls = 0
+        DataFetcherFactory lateBindingFactory = { env -> calls++; new NamedDF("late") }
+        def humanName = StarWarsSchema.humanType.getFieldDefinition("name")
+        def codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(FieldCoordinates.coordinates("Human", "name"), lateBindingFactory)
+                .build()
+
+        when:
+        def first = codeRegistry.getDataFetcher(StarWarsSchema.humanType, humanName)
+        def second = codeRegistry.getDataFetcher(StarWarsSchema.humanType, humanName)
+
+        then:
+        calls == 2
+        !first.is(second)
+        first.get(null) == "late"
+    }
 }
@@ -483,6 +483,40 @@ class PropertyDataFetcherTest extends Specification {
 
     }
 
+    def "a negatively cached property is replaced once it can be found"() {
+        def environment = env(new TestClass())
+        def fetcher = new PropertyDataFetcher("privateProperty")
+
+        when:
+        PropertyDataFetcher.setUseSetAccessible(false)
+        def result = fetcher.get(environment)
+        then:
+        result == null
+
+        when:
+        PropertyDataFetcher.setUseSetAccessible(true)
+        PropertyDataFetcher.setUseNegativeCache(false)
+        result = fetcher.get(environment)
+        then:
+        result == "privateValue"
+
+        when:
+        PropertyDataFetcher.setUseNegativeCache(true)
+        result = fetcher.get(environment)
+        then:
+        result == "privateValue"
+    }
+
+    def "maps and objects can be fetched from with the same fetcher"() {
+        def fetcher = new PropertyDataFetcher("publicProperty")
+
+        expect:
+        fetcher.get(env(new TestClass())) == "publicValue"
+        fetcher.get(env([publicProperty: "mapValue"])) == "mapValue"
+        fetcher.get(env(new LinkedHashMap([publicProperty: "linkedMapValue"]))) == "linkedMapValue"
+        fetcher.get(env(new TestClass())) == "publicValue"
+    }
+
     static class ProductDTO {
         String name
         String model
@@ -0,0 +1,99 @@
+package graphql.schema
+
+import graphql.AssertException
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.TestUtil
+import graphql.schema.somepackage.TestClass
+import spock.lang.Specification
+
+class SchemaWarmUpTest extends Specification {
+
+    def sdl = '''
+        type Query {
+            test : Test
+            other : String
+        }
+
+        type Test {
+            publicProperty : String
+            privateProperty : String
+            publicField : String
+            notThere : String
+            computed : String
+        }
+    '''
+
+    def schema = TestUtil.schema(sdl, [Test: [computed: { env -> "computed" } as DataFetcher]])
+
+    void setup() {
+        PropertyDataFetcher.setUseSetAccessible(true)
+        PropertyDataFetcher.setUseNegativeCache(true)
+        PropertyDataFetcherHelper.setUseLambdaFactory(true)
+        PropertyDataFetcher.clearReflectionCache()
+    }
+
+    void cleanup() {
+        PropertyDataFetcherHelper.setUseLambdaFactory(true)
+    }
+
+    def "reports the fields that can not be bound to a property"() {
+        when:
+        def warmUp = SchemaWarmUp.warmUp(schema, [Test: TestClass, Query: HashMap])
+
+        then:
+        !warmUp.isFullyBound()
+        warmUp.unboundFields == [FieldCoordinates.coordinates("Test", "notThere")]
+        warmUp.boundFields.collect { it.toString() }.sort() == ["Query.other", "Query.test", "Test.computed", "Test.privateProperty", "Test.publicField", "Test.publicProperty"]
+    }
+
+    def "fetches the same values after a warm up"() {
+        def graphQL = GraphQL.newGraphQL(schema).build()
+        def query = "{ test { publicProperty privateProperty publicField notThere computed } other }"
+        def input = { ExecutionInput.newExecutionInput(query).root([test: new TestClass(), other: "other"]).build() }
+
+        when:
+        def warmUp = SchemaWarmUp.warmUp(schema, [Test: TestClass])
+        def first = graphQL.execute(input())
+        def second = graphQL.execute(input())
+
+        then:
+        warmUp.unboundFields.size() == 1
+        first.errors.isEmpty()
+        first.data == [test : [publicProperty: "publicValue", privateProperty: "privateValue", publicField: "publicFieldValue", notThere: null, computed: "computed"],
+                       other: "other"]
+        second.data == first.data
+    }
+
+    def "follows the lookup options of the property data fetcher"() {
+        when:
+        PropertyDataFetcher.setUseSetAccessible(false)
+        def warmUp = SchemaWarmUp.warmUp(schema, [Test: TestClass])
+
+        then:
+        warmUp.unboundFields.collect { it.fieldName }.sort() == ["notThere", "privateProperty"]
+    }
+
+    def "warmed up lambda getters are not used once lambda getters are turned off"() {
+        def graphQL = GraphQL.newGraphQL(schema).build()
+        def query = "{ test { publicProperty privateProperty } }"
+
+        when:
+        SchemaWarmUp.warmUp(schema, [Test: TestClass])
+        PropertyDataFetcherHelper.setUseLambdaFactory(false)
+        def result = graphQL.execute(ExecutionInput.newExecutionInput(query).root([test: new TestClass()]).build())
+
+        then:
+        result.errors.isEmpty()
+        result.data == [test: [publicProperty: "publicValue", privateProperty: "privateValue"]]
+    }
+
+    def "the object types must be in the schema"() {
+        when:
+        SchemaWarmUp.warmUp(schema, [Missing: TestClass])
+
+        then:
+        def e = thrown(AssertException)
+        e.message == "There is no object type named 'Missing' in the schema"
+    }
+}
@@ -3,6 +3,7 @@ package graphql.validation
 import graphql.TestUtil
 import graphql.i18n.I18n
 import graphql.language.Document
+import graphql.language.Field
 import graphql.parser.Parser
 import spock.lang.Specification
 
@@ -93,5 +94,29 @@ class RulesVisitorTest extends Specification {
         2 * visitsSpreadsRule.checkFragmentDefinition({it.name == "B"})
         2 * visitsSpreadsRule.checkFragmentDefinition({it.name == "C"})
     }
-}
 
+    def "rules are only called back for the nodes they are interested in"() {
+        given:
+        def query = """
+        fragment A on __Type { name }
+        query Q1 { __schema { queryType { ...A ...A } } }
+        """
+        Document document = new Parser().parseDocument(query)
+        I18n i18n = I18n.i18n(I18n.BundleType.Validation, Locale.ENGLISH)
+        ValidationContext validationContext = new ValidationContext(TestUtil.dummySchema, document, i18n)
+        def fieldNames = []
+        def fieldRule = new AbstractRule(validationContext, new ValidationErrorCollector()) {
+            @Override
+            void checkField(Field field) {
+                fieldNames.add(field.getName())
+            }
+        }
+
+        when:
+        new LanguageTraversal().traverse(document, new RulesVisitor(validationContext, [fieldRule]))
+
+        then:
+        // the fragment is not walked again from the spreads since no rule visits fragment spreads
+        fieldNames == ["name", "__schema", "queryType"]
+    }
+}
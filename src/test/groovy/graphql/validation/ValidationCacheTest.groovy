@@ -0,0 +1,175 @@
+package graphql.validation
+
+import graphql.ExecutionInput
+import graphql.GraphQL
+import graphql.ParseAndValidate
+import graphql.StarWarsSchema
+import graphql.TestUtil
+import graphql.parser.Parser
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.function.Predicate
+
+import static graphql.validation.ValidationCache.newValidationCache
+
+class ValidationCacheTest extends Specification {
+
+    def validationCount = 0
+
+    List<ValidationError> validate(ValidationCache cache, String query, schema = StarWarsSchema.starWarsSchema) {
+        def document = new Parser().parseDocument(query)
+        cache.validate(schema, query, {
+            validationCount++
+            ParseAndValidate.validate(schema, document)
+        })
+    }
+
+    def "the same query text is validated once"() {
+        def cache = newValidationCache().build()
+
+        when:
+        def errors1 = validate(cache, '{ hero { name id } }')
+        def errors2 = validate(cache, '{ hero { name id } }')
+        def errors3 = validate(cache, '{ hero { id name } }')
+
+        then:
+        errors1.isEmpty()
+        errors2.isEmpty()
+        errors3.isEmpty()
+        validationCount == 2
+        cache.getHitCount() == 1
+        cache.getMissCount() == 2
+        cache.getEntryCount() == 2
+    }
+
+    def "documents without query text are remembered by identity"() {
+        def cache = newValidationCache().build()
+        def document = new Parser().parseDocument('{ hero { name } }')
+        def sameQueryDocument = new Parser().parseDocument('{ hero { name } }')
+        def validation = {
+            validationCount++
+            ParseAndValidate.validate(StarWarsSchema.starWarsSchema, document)
+        }
+
+        when:
+        cache.validate(StarWarsSchema.starWarsSchema, document, validation)
+        cache.validate(StarWarsSchema.starWarsSchema, document, validation)
+        cache.validate(StarWarsSchema.starWarsSchema, sameQueryDocument, validation)
+
+        then:
+        validationCount == 2
+        cache.getHitCount() == 1
+    }
+
+    def "invalid documents are not cached"() {
+        def cache = newValidationCache().build()
+
+        when:
+        def errors1 = validate(cache, '{ hero { nameX } }')
+        def errors2 = validate(cache, '{ hero { nameX } }')
+
+        then:
+        !errors1.isEmpty()
+        errors2.collect { it.message } == errors1.collect { it.message }
+        validationCount == 2
+        cache.getEntryCount() == 0
+    }
+
+    def "entries are kept per schema instance"() {
+        def cache = newValidationCache().build()
+        def otherSchema = TestUtil.schema('type Query { hero : String }')
+
+        when:
+        validate(cache, '{ hero { name } }')
+        def otherErrors = validate(cache, '{ hero { name } }', otherSchema)
+        validate(cache, '{ hero }', otherSchema)
+        def errors = validate(cache, '{ hero { name } }')
+
+        then:
+        !otherErrors.isEmpty()
+        errors.isEmpty()
+        validationCount == 3
+        cache.getHitCount() == 1
+        cache.getEntryCount() == 2
+    }
+
+    def "entries are evicted when there are too many"() {
+        def cache = newValidationCache().maxEntries(2).build()
+
+        when:
+        validate(cache, '{ hero { id } }')
+        validate(cache, '{ hero { name } }')
+        validate(cache, '{ hero { friends { id } } }')
+
+        then:
+        cache.getEntryCount() == 2
+        cache.getEvictionCount() == 1
+    }
+
+    def "concurrent validations of the same query all succeed"() {
+        def cache = newValidationCache().build()
+        def pool = Executors.newFixedThreadPool(8)
+
+        when:
+        def futures = (1..64).collect { pool.submit({ validate(cache, '{ hero { name } }') } as Callable) }
+        def results = futures.collect { it.get() }
+
+        then:
+        results.every { it.isEmpty() }
+        cache.getEntryCount() == 1
+        cache.getHitCount() + cache.getMissCount() == 64
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    def "can be used to parse and validate"() {
+        def cache = newValidationCache().build()
+        def executionInput = ExecutionInput.newExecutionInput('{ hero { name } }').build()
+
+        when:
+        def result1 = ParseAndValidate.parseAndValidate(StarWarsSchema.starWarsSchema, executionInput, cache)
+        def result2 = ParseAndValidate.parseAndValidate(StarWarsSchema.starWarsSchema, executionInput, cache)
+
+        then:
+        !result1.isFailure()
+        !result2.isFailure()
+        cache.getMissCount() == 1
+        cache.getHitCount() == 1
+    }
+
+    def "can be used to execute queries"() {
+        def cache = newValidationCache().build()
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).validationCache(cache).build()
+
+        when:
+        def result1 = graphQL.execute('{ hero { name } }')
+        def result2 = graphQL.execute('{ hero { name } }')
+        def result3 = graphQL.execute('{ hero { nameX } }')
+
+        then:
+        result1.data == [hero: [name: "R2-D2"]]
+        result2.data == [hero: [name: "R2-D2"]]
+        result3.errors.size() == 1
+        cache.getHitCount() == 1
+        cache.getMissCount() == 2
+    }
+
+    def "validation with a rule predicate is not cached"() {
+        def cache = newValidationCache().build()
+        def graphQL = GraphQL.newGraphQL(StarWarsSchema.starWarsSchema).validationCache(cache).build()
+        def executionInput = ExecutionInput.newExecutionInput('{ hero { name } }')
+                .graphQLContext([(ParseAndValidate.INTERNAL_VALIDATION_PREDICATE_HINT): ({ rule -> true } as Predicate<Class<?>>)])
+                .build()
+
+        when:
+        def result = graphQL.execute(executionInput)
+
+        then:
+        result.data == [hero: [name: "R2-D2"]]
+        cache.getMissCount() == 0
+        cache.getEntryCount() == 0
+    }
+}
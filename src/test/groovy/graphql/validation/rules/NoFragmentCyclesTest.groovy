@@ -196,6 +196,38 @@ class NoFragmentCyclesTest extends Specification {
         errorCollector.getErrors()[0].message == "Validation error (FragmentCycle@[fragA]) : Fragment cycles not allowed"
     }
 
+    def "each fragment that spreads a cycle is reported once"() {
+        given:
+        def query = """
+          fragment fragA on Dog { ...fragB, ...fragB, ...fragD }
+          fragment fragB on Dog { ...fragC }
+          fragment fragC on Dog { ...fragB }
+          fragment fragD on Dog { name }
+        """
+
+        when:
+        traverse(query)
+
+        then:
+        errorCollector.getErrors().collect { it.message } == [
+                "Validation error (FragmentCycle@[fragA]) : Fragment cycles not allowed",
+                "Validation error (FragmentCycle@[fragB]) : Fragment cycles not allowed",
+                "Validation error (FragmentCycle@[fragC]) : Fragment cycles not allowed",
+        ]
+    }
+
+    def "long chains of fragments are checked once per fragment"() {
+        given:
+        def fragments = (1..500).collect { "fragment frag$it on Dog { name ...frag${it + 1} }" }.join("\n")
+        def query = fragments + "\nfragment frag501 on Dog { name }"
+
+        when:
+        traverse(query)
+
+        then:
+        errorCollector.getErrors().isEmpty()
+    }
+
     def "#583 no npe on undefined fragment"() {
         given:
         def query = """
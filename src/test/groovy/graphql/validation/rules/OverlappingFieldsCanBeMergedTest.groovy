@@ -895,5 +895,57 @@ class OverlappingFieldsCanBeMergedTest extends Specification {
         errorCollector.getErrors().size() == 0
     }
 
+    def "a conflict in a fragment that is spread many times is reported once"() {
+        given:
+        def query = """
+            query {
+                ${(1..100).collect { "a$it : test { ...f }" }.join("\n")}
+            }
+            fragment f on Test {
+                myName : name
+                myName : nickname
+            }
+        """
+        def schema = schema("""
+            type Query {
+                test : Test
+            }
+            type Test {
+                name : String
+                nickname : String
+            }
+        """)
+
+        when:
+        traverse(query, schema)
+
+        then:
+        errorCollector.getErrors().size() == 1
+        errorCollector.getErrors()[0].message == "Validation error (FieldsConflict@[test]) : 'myName' : 'name' and 'nickname' are different fields"
+    }
+
+    def "fragments that spread each other are still checked"() {
+        given:
+        def query = """
+            query {
+                ...f1
+            }
+            fragment f1 on Test {
+                myName : name
+                ...f2
+            }
+            fragment f2 on Test {
+                myName : nickname
+                ...f1
+            }
+        """
+
+        when:
+        traverse(query, null)
+
+        then:
+        errorCollector.getErrors().size() == 1
+        errorCollector.getErrors()[0].message == "Validation error (FieldsConflict) : 'myName' : 'name' and 'nickname' are different fields"
+    }
 
 }
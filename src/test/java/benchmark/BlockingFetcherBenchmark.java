@@ -0,0 +1,129 @@
+package benchmark;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.threadpools.ExecutorInstrumentation;
+import graphql.execution.instrumentation.threadpools.FetchExecutors;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Runs a query whose data fetchers block for a millisecond, like a call to a database, from several threads at once.
+ * <p>
+ * The fetches run on a fixed pool of 16 platform threads, on a thread per task executor (virtual threads on JDK 21 and later)
+ * and on a thread per task executor with a limit of 16 concurrent fetches per request.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BlockingFetcherBenchmark {
+
+    private static final int ITEMS = 50;
+
+    private final ExecutorService fixedPool = Executors.newFixedThreadPool(16);
+    private final ExecutorService threadPerTask = FetchExecutors.newVirtualThreadPerTaskExecutor();
+
+    private GraphQL fixedPoolGraphQL;
+    private GraphQL threadPerTaskGraphQL;
+    private GraphQL limitedThreadPerTaskGraphQL;
+
+    @Setup
+    public void setup() {
+        GraphQLSchema schema = buildSchema();
+        fixedPoolGraphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(ExecutorInstrumentation.newThreadPoolExecutionInstrumentation().fetchExecutor(fixedPool).build())
+                .build();
+        threadPerTaskGraphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(ExecutorInstrumentation.newThreadPoolExecutionInstrumentation().fetchExecutor(threadPerTask).build())
+                .build();
+        limitedThreadPerTaskGraphQL = GraphQL.newGraphQL(schema)
+                .instrumentation(ExecutorInstrumentation.newThreadPoolExecutionInstrumentation().fetchExecutor(threadPerTask).maxConcurrentFetches(16).build())
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixedPool.shutdownNow();
+        threadPerTask.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public ExecutionResult fixedPool() {
+        return execute(fixedPoolGraphQL);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public ExecutionResult threadPerTask() {
+        return execute(threadPerTaskGraphQL);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(8)
+    public ExecutionResult limitedThreadPerTask() {
+        return execute(limitedThreadPerTaskGraphQL);
+    }
+
+    private static ExecutionResult execute(GraphQL graphQL) {
+        ExecutionResult executionResult = graphQL.execute("{ items { id detail } }");
+        if (!executionResult.getErrors().isEmpty()) {
+            throw new IllegalStateException(executionResult.getErrors().toString());
+        }
+        return executionResult;
+    }
+
+    private static GraphQLSchema buildSchema() {
+        String sdl = "type Query { items : [Item] }\n" +
+                "type Item { id : Int detail : String }";
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Map.of("id", i));
+        }
+        DataFetcher<?> blockingDetail = env -> {
+            Thread.sleep(1);
+            Map<String, Object> item = env.getSource();
+            return "detail" + item.get("id");
+        };
+
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(sdl);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query").dataFetcher("items", env -> items))
+                .type(newTypeWiring("Item").dataFetcher("detail", blockingDetail))
+                .build();
+        return new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+    }
+}
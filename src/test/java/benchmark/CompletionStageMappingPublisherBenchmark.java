@@ -0,0 +1,133 @@
+package benchmark;
+
+import graphql.execution.reactive.CompletionStageMappingPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how long a burst of 100k events takes to be mapped on a thread pool and published in order, which is
+ * the events per second the publisher can sustain
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+public class CompletionStageMappingPublisherBenchmark {
+
+    private static final int EVENTS = 100_000;
+
+    @Param({"1", "32", "256"})
+    public int maxInFlight;
+
+    ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long mapEvents() throws InterruptedException {
+        Publisher<String> publisher = new CompletionStageMappingPublisher<>(new SyntheticEventPublisher(EVENTS),
+                event -> CompletableFuture.supplyAsync(() -> String.valueOf(event), executor), maxInFlight, null);
+        CountingSubscriber subscriber = new CountingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.done.await();
+        return subscriber.count;
+    }
+
+    /**
+     * Publishes a number of events as fast as they are asked for
+     */
+    static class SyntheticEventPublisher implements Publisher<Integer> {
+        private final int events;
+
+        SyntheticEventPublisher(int events) {
+            this.events = events;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super Integer> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                private final AtomicLong demand = new AtomicLong();
+                private final AtomicInteger wip = new AtomicInteger();
+                private int next;
+
+                @Override
+                public void request(long n) {
+                    demand.addAndGet(n);
+                    if (wip.getAndIncrement() != 0) {
+                        return;
+                    }
+                    do {
+                        while (demand.get() > 0 && next < events) {
+                            demand.decrementAndGet();
+                            subscriber.onNext(next++);
+                        }
+                        if (next == events) {
+                            next++;
+                            subscriber.onComplete();
+                        }
+                    } while (wip.decrementAndGet() != 0);
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+    }
+
+    static class CountingSubscriber implements Subscriber<String> {
+        final CountDownLatch done = new CountDownLatch(1);
+        long count;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String s) {
+            count++;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
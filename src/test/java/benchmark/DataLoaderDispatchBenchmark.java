@@ -0,0 +1,154 @@
+package benchmark;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.dataloader.AtomicLevelMap;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.execution.instrumentation.dataloader.LevelMap;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeReference;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.Scalars.GraphQLString;
+
+/**
+ * Measures the data loader dispatch bookkeeping when many threads update it at the same time.
+ * <p>
+ * The {@code levelMap} benchmarks compare the per level counters the dispatch tracking is built on - a {@link LevelMap}
+ * guarded by a lock (as the tracking used to do) versus an {@link AtomicLevelMap}.  The {@code executeQuery} benchmark
+ * runs a query whose data fetchers complete on a 64 thread pool and can be run against previous revisions to compare
+ * the tracking end to end.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class DataLoaderDispatchBenchmark {
+
+    private static final int LEVELS = 5;
+    private static final int ITEMS = 100;
+
+    private final LevelMap lockedLevelMap = new LevelMap();
+    private final AtomicLevelMap atomicLevelMap = new AtomicLevelMap();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(64);
+    private final GraphQL graphQL = buildGraphQL();
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(64)
+    public void lockedLevelMap(Blackhole bh) {
+        for (int level = 1; level <= LEVELS; level++) {
+            synchronized (lockedLevelMap) {
+                lockedLevelMap.increment(level, 1);
+                bh.consume(lockedLevelMap.get(level) == lockedLevelMap.get(level - 1));
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(64)
+    public void atomicLevelMap(Blackhole bh) {
+        for (int level = 1; level <= LEVELS; level++) {
+            atomicLevelMap.increment(level, 1);
+            bh.consume(atomicLevelMap.get(level) == atomicLevelMap.get(level - 1));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public void executeQuery(Blackhole bh) {
+        bh.consume(execute());
+    }
+
+    private ExecutionResult execute() {
+        BatchLoader<String, String> batchLoader = keys -> CompletableFuture.supplyAsync(() -> keys, executor);
+        DataLoader<String, String> friendLoader = DataLoaderFactory.newDataLoader(batchLoader);
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register("friend", friendLoader);
+
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput()
+                .query("{ items { id friend { id friend { id friend { id } } } } }")
+                .dataLoaderRegistry(registry)
+                .build();
+        return graphQL.execute(executionInput);
+    }
+
+    private GraphQL buildGraphQL() {
+        GraphQLObjectType itemType = GraphQLObjectType.newObject()
+                .name("Item")
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("id")
+                        .type(GraphQLString))
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("friend")
+                        .type(GraphQLTypeReference.typeRef("Item")))
+                .build();
+        GraphQLObjectType queryType = GraphQLObjectType.newObject()
+                .name("Query")
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("items")
+                        .type(GraphQLList.list(itemType)))
+                .build();
+
+        List<String> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add("item" + i);
+        }
+        DataFetcher<?> itemsFetcher = env -> CompletableFuture.supplyAsync(() -> items, executor);
+        DataFetcher<?> idFetcher = env -> CompletableFuture.supplyAsync(env::getSource, executor);
+        DataFetcher<?> friendFetcher = env -> env.getDataLoader("friend").load(env.getSource());
+
+        GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(queryType, queryType.getFieldDefinition("items"), itemsFetcher)
+                .dataFetcher(itemType, itemType.getFieldDefinition("id"), idFetcher)
+                .dataFetcher(itemType, itemType.getFieldDefinition("friend"), friendFetcher)
+                .build();
+
+        GraphQLSchema graphQLSchema = GraphQLSchema.newSchema()
+                .query(queryType)
+                .codeRegistry(codeRegistry)
+                .build();
+        return GraphQL.newGraphQL(graphQLSchema)
+                .instrumentation(new DataLoaderDispatcherInstrumentation())
+                .build();
+    }
+}
@@ -0,0 +1,169 @@
+package benchmark;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentation;
+import graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationOptions;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.dataloader.BatchLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.dataloader.stats.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Compares the level by level data loader dispatching to eager dispatching for a deep N+1 style query where
+ * some fields on each level are slower asynchronous fields.
+ * <p>
+ * Run {@link #main(String[])} to see the average batch sizes of each dispatching mode.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class DataLoaderDispatchModeBenchmark {
+
+    private static final int WIDTH = 10;
+    private static final Executor SLOW_EXECUTOR = CompletableFuture.delayedExecutor(2, TimeUnit.MILLISECONDS);
+
+    static String sdl = "" +
+            "type Query { departments : [Department] }\n" +
+            "type Department { id : ID products : [Product] slowInfo : String }\n" +
+            "type Product { id : ID suppliers : [Supplier] slowInfo : String }\n" +
+            "type Supplier { id : ID country : Country }\n" +
+            "type Country { id : ID }\n";
+
+    static String query = "" +
+            "{ departments { id slowInfo products { id slowInfo suppliers { id country { id } } } } }";
+
+    @Param({"false", "true"})
+    public boolean eagerDispatching;
+
+    GraphQL graphQL;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        graphQL = buildGraphQL(eagerDispatching);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void executeQuery(Blackhole bh) {
+        bh.consume(execute(graphQL, newDataLoaderRegistry()));
+    }
+
+    private static ExecutionResult execute(GraphQL graphQL, DataLoaderRegistry registry) {
+        ExecutionInput executionInput = ExecutionInput.newExecutionInput()
+                .query(query)
+                .dataLoaderRegistry(registry)
+                .build();
+        return graphQL.execute(executionInput);
+    }
+
+    private static DataLoaderRegistry newDataLoaderRegistry() {
+        DataLoaderRegistry registry = new DataLoaderRegistry();
+        registry.register("products", DataLoaderFactory.newDataLoader(childrenLoader("product")));
+        registry.register("suppliers", DataLoaderFactory.newDataLoader(childrenLoader("supplier")));
+        registry.register("country", DataLoaderFactory.newDataLoader((BatchLoader<String, String>) keys ->
+                CompletableFuture.supplyAsync(() -> {
+                    List<String> countries = new ArrayList<>(keys.size());
+                    for (String key : keys) {
+                        countries.add("country-of-" + key);
+                    }
+                    return countries;
+                })));
+        return registry;
+    }
+
+    private static BatchLoader<String, List<String>> childrenLoader(String childPrefix) {
+        return keys -> CompletableFuture.supplyAsync(() -> {
+            List<List<String>> values = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                values.add(ids(key + "-" + childPrefix));
+            }
+            return values;
+        });
+    }
+
+    private static List<String> ids(String prefix) {
+        List<String> ids = new ArrayList<>(WIDTH);
+        for (int i = 0; i < WIDTH; i++) {
+            ids.add(prefix + "-" + i);
+        }
+        return ids;
+    }
+
+    private static GraphQL buildGraphQL(boolean eagerDispatching) {
+        DataFetcher<?> slowInfo = env -> CompletableFuture.supplyAsync(() -> "info", SLOW_EXECUTOR);
+        DataFetcher<?> id = env -> env.getSource();
+
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query")
+                        .dataFetcher("departments", env -> ids("department")))
+                .type(newTypeWiring("Department")
+                        .dataFetcher("id", id)
+                        .dataFetcher("slowInfo", slowInfo)
+                        .dataFetcher("products", env -> env.getDataLoader("products").load(env.getSource())))
+                .type(newTypeWiring("Product")
+                        .dataFetcher("id", id)
+                        .dataFetcher("slowInfo", slowInfo)
+                        .dataFetcher("suppliers", env -> env.getDataLoader("suppliers").load(env.getSource())))
+                .type(newTypeWiring("Supplier")
+                        .dataFetcher("id", id)
+                        .dataFetcher("country", env -> env.getDataLoader("country").load(env.getSource())))
+                .type(newTypeWiring("Country")
+                        .dataFetcher("id", id))
+                .build();
+
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(sdl);
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+
+        DataLoaderDispatcherInstrumentationOptions options = DataLoaderDispatcherInstrumentationOptions.newOptions()
+                .eagerDispatching(eagerDispatching);
+        return GraphQL.newGraphQL(schema)
+                .instrumentation(new DataLoaderDispatcherInstrumentation(options))
+                .build();
+    }
+
+    public static void main(String[] args) {
+        for (boolean eagerDispatching : new boolean[]{false, true}) {
+            GraphQL graphQL = buildGraphQL(eagerDispatching);
+            DataLoaderRegistry registry = newDataLoaderRegistry();
+            long start = System.nanoTime();
+            ExecutionResult executionResult = execute(graphQL, registry);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Statistics statistics = registry.getStatistics();
+            System.out.printf("eagerDispatching=%s errors=%s took=%dms batches=%d averageBatchSize=%.1f%n",
+                    eagerDispatching, executionResult.getErrors(), millis,
+                    statistics.getBatchInvokeCount(), (double) statistics.getBatchLoadCount() / Math.max(1, statistics.getBatchInvokeCount()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package benchmark;
+
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+import graphql.parser.ParserOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ANTLR based parsing of the large query fixtures to the hand written executable document parser
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+public class ExecutableDocumentParserBenchmark {
+
+    @Param({
+            "large-schema-1-query.graphql",
+            "large-schema-2-query.graphql",
+            "large-schema-4-query.graphql",
+            "extra-large-schema-1-query.graphql",
+    })
+    public String fixture;
+
+    String query;
+    ParserOptions antlrOptions;
+    ParserOptions executableDocumentOptions;
+
+    @Setup
+    public void setup() {
+        query = BenchmarkUtils.loadResource(fixture);
+        // the fixtures are larger than the default limits
+        antlrOptions = ParserOptions.getDefaultOperationParserOptions().transform(builder -> builder
+                .maxCharacters(Integer.MAX_VALUE)
+                .maxTokens(Integer.MAX_VALUE)
+                .maxWhitespaceTokens(Integer.MAX_VALUE));
+        executableDocumentOptions = antlrOptions.transform(builder -> builder.executableDocumentParsing(true));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Document antlr() {
+        return parse(antlrOptions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Document executableDocumentParser() {
+        return parse(executableDocumentOptions);
+    }
+
+    private Document parse(ParserOptions parserOptions) {
+        ParserEnvironment parserEnvironment = ParserEnvironment.newParserEnvironment()
+                .document(query)
+                .parserOptions(parserOptions)
+                .build();
+        return Parser.parse(parserEnvironment);
+    }
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.ExecutionResult;
+import graphql.ExecutionResultJsonWriter;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.Assert.assertTrue;
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Compares writing a large list response via {@link ExecutionResult#toSpecification()} and Jackson to
+ * writing it with the {@link ExecutionResultJsonWriter}.  Run it with "-prof gc" to compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecutionResultJsonWriterBenchmark {
+
+    @Param({"10000", "100000"})
+    public int items;
+
+    ExecutionResult executionResult;
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setup() {
+        String sdl = "type Query { items : [Item] }\n" +
+                "type Item { id : ID name : String price : Float tags : [String] }";
+        List<Map<String, Object>> itemList = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", String.valueOf(i));
+            item.put("name", "Item \"" + i + "\"");
+            item.put("price", i / 100.0d);
+            item.put("tags", Arrays.asList("tag" + i % 10, "tag" + i % 7));
+            itemList.add(item);
+        }
+        DataFetcher<?> itemsDataFetcher = environment -> itemList;
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query").dataFetcher("items", itemsDataFetcher))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(new SchemaParser().parse(sdl), runtimeWiring);
+        executionResult = GraphQL.newGraphQL(schema).build().execute("{ items { id name price tags } }");
+        assertTrue(executionResult.getErrors().isEmpty());
+    }
+
+    @Benchmark
+    public long toSpecificationAndJackson() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        objectMapper.writeValue(outputStream, executionResult.toSpecification());
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long executionResultJsonWriter() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        ExecutionResultJsonWriter.writeJson(executionResult, outputStream);
+        return outputStream.count;
+    }
+
+    static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.instrumentation.Instrumentation;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.metrics.FieldLatencyInstrumentation;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Measures the overhead of recording the latency of every field of a query that has many fields
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+public class FieldLatencyInstrumentationBenchmark {
+
+    @Param({"none", "sampled", "all"})
+    public String measured;
+
+    GraphQL graphQL;
+
+    @Setup
+    public void setup() {
+        String sdl = "type Query { items : [Item] }\n" +
+                "type Item { id : Int name : String price : Float }";
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", i);
+            item.put("name", "n" + i);
+            item.put("price", i / 10.0);
+            items.add(item);
+        }
+
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(sdl);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query").dataFetcher("items", env -> items))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        graphQL = GraphQL.newGraphQL(schema).instrumentation(instrumentation()).build();
+    }
+
+    private Instrumentation instrumentation() {
+        switch (measured) {
+            case "sampled":
+                return FieldLatencyInstrumentation.newFieldLatencyInstrumentation().sampleRate(0.1).build();
+            case "all":
+                return FieldLatencyInstrumentation.newFieldLatencyInstrumentation().build();
+            default:
+                return SimplePerformantInstrumentation.INSTANCE;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ExecutionResult items() {
+        ExecutionResult executionResult = graphQL.execute("{ items { id name price } }");
+        if (!executionResult.getErrors().isEmpty()) {
+            throw new IllegalStateException(executionResult.getErrors().toString());
+        }
+        return executionResult;
+    }
+}
@@ -0,0 +1,105 @@
+package benchmark;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Measures the completion of large lists of scalars, enums and objects
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+public class ListCompletionBenchmark {
+
+    @Param({"10000", "100000"})
+    public int size;
+
+    GraphQL graphQL;
+
+    @Setup
+    public void setup() {
+        String sdl = "type Query { ints : [Int!]! strings : [String] colors : [Color!] objects : [Item] }\n" +
+                "type Item { id : Int name : String }\n" +
+                "enum Color { RED GREEN BLUE }";
+
+        List<Integer> ints = new ArrayList<>(size);
+        List<String> strings = new ArrayList<>(size);
+        List<String> colors = new ArrayList<>(size);
+        List<Map<String, Object>> objects = new ArrayList<>(size);
+        String[] colorNames = {"RED", "GREEN", "BLUE"};
+        for (int i = 0; i < size; i++) {
+            ints.add(i);
+            strings.add(i % 10 == 0 ? null : "s" + i);
+            colors.add(colorNames[i % 3]);
+            Map<String, Object> object = new HashMap<>();
+            object.put("id", i);
+            object.put("name", "n" + i);
+            objects.add(object);
+        }
+
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(sdl);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query")
+                        .dataFetcher("ints", env -> ints)
+                        .dataFetcher("strings", env -> strings)
+                        .dataFetcher("colors", env -> colors)
+                        .dataFetcher("objects", env -> objects))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        graphQL = GraphQL.newGraphQL(schema).build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ExecutionResult scalars() {
+        return execute("{ ints strings }");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ExecutionResult enums() {
+        return execute("{ colors }");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ExecutionResult objects() {
+        return execute("{ objects { id name } }");
+    }
+
+    private ExecutionResult execute(String query) {
+        ExecutionResult executionResult = graphQL.execute(query);
+        if (!executionResult.getErrors().isEmpty()) {
+            throw new IllegalStateException(executionResult.getErrors().toString());
+        }
+        return executionResult;
+    }
+}
@@ -2,6 +2,7 @@ package benchmark;
 
 import graphql.execution.CoercedVariables;
 import graphql.language.Document;
+import graphql.language.NodeUtil;
 import graphql.normalized.ExecutableNormalizedOperation;
 import graphql.normalized.ExecutableNormalizedOperationFactory;
 import graphql.parser.Parser;
@@ -13,6 +14,7 @@ import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -22,6 +24,11 @@ import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Measures the creation of the normalized operation of a query over many abstract types, eagerly and with
+ * {@link ExecutableNormalizedOperationFactory.Options#lazyChildren(boolean)}.  Run it with {@code -prof gc} to compare
+ * the memory allocated for each operation.
+ */
 @State(Scope.Benchmark)
 @BenchmarkMode(Mode.Throughput)
 @Warmup(iterations = 2)
@@ -31,8 +38,12 @@ public class NQExtraLargeBenchmark {
     @State(Scope.Benchmark)
     public static class MyState {
 
+        @Param({"false", "true"})
+        public boolean lazyChildren;
+
         GraphQLSchema schema;
         Document document;
+        NodeUtil.GetOperationResult operation;
 
         @Setup
         public void setup() {
@@ -42,6 +53,7 @@ public class NQExtraLargeBenchmark {
 
                 String query = BenchmarkUtils.loadResource("extra-large-schema-1-query.graphql");
                 document = Parser.parse(query);
+                operation = NodeUtil.getOperation(document, null);
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -70,8 +82,28 @@ public class NQExtraLargeBenchmark {
         runImpl(myState, blackhole);
     }
 
+    @Benchmark
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 3, time = 10)
+    @Threads(1)
+    @Fork(3)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void benchMarkAvgTimeExpanded(MyState myState, Blackhole blackhole) {
+        // expands the whole operation, which a lazy operation otherwise only does for the fields asked for
+        blackhole.consume(createOperation(myState).getNormalizedFieldToMergedField());
+    }
+
     private void runImpl(MyState myState, Blackhole blackhole) {
-        ExecutableNormalizedOperation executableNormalizedOperation = ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(myState.schema, myState.document, null, CoercedVariables.emptyVariables());
+        ExecutableNormalizedOperation executableNormalizedOperation = createOperation(myState);
         blackhole.consume(executableNormalizedOperation);
     }
+
+    private ExecutableNormalizedOperation createOperation(MyState myState) {
+        return ExecutableNormalizedOperationFactory.createExecutableNormalizedOperation(myState.schema,
+                myState.operation.operationDefinition,
+                myState.operation.fragmentsByName,
+                CoercedVariables.emptyVariables(),
+                ExecutableNormalizedOperationFactory.Options.defaultOptions().lazyChildren(myState.lazyChildren));
+    }
 }
@@ -0,0 +1,137 @@
+package benchmark;
+
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.NormalizedOperationExecutionStrategy;
+import graphql.execution.preparsed.CachingPreparsedDocumentProvider;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Measures the execution of a query with fragments on abstract types and arguments, with the fields collected per
+ * request, with the collected fields cached in an execution plan and over the cached normalized operation.  The
+ * variables are either the same for every request or give each request its own character id, which is what a
+ * normalized operation built per set of variables would not be able to re-use.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+public class NormalizedOperationExecutionBenchmark {
+
+    private static final String QUERY = "query q($id : Int, $first : Int) {\n" +
+            "  a: character(id : $id) { ...CharacterFields }\n" +
+            "  b: character(id : 2) { ...CharacterFields }\n" +
+            "  c: character(id : 3) { ...CharacterFields }\n" +
+            "}\n" +
+            "fragment CharacterFields on Character {\n" +
+            "  id name\n" +
+            "  ... on Human { height friends(first : $first) { id name ... on Droid { primaryFunction friends(first : $first) { id name } } } }\n" +
+            "  ... on Droid { primaryFunction friends { id name ... on Human { height } } }\n" +
+            "}";
+
+    @Param({"async", "executionPlan", "normalized"})
+    public String execution;
+
+    @Param({"same", "varying"})
+    public String variables;
+
+    GraphQL graphQL;
+    int requests;
+
+    @Setup
+    public void setup() {
+        String sdl = "type Query { character(id : Int) : Character }\n" +
+                "interface Character { id : ID name : String friends(first : Int = 2) : [Character] }\n" +
+                "type Human implements Character { id : ID name : String height : Float friends(first : Int = 2) : [Character] }\n" +
+                "type Droid implements Character { id : ID name : String primaryFunction : String friends(first : Int = 2) : [Character] }";
+
+        DataFetcher<?> friends = env -> {
+            int id = ((Character) env.getSource()).id;
+            int first = env.getArgument("first");
+            List<Character> characters = new ArrayList<>();
+            for (int i = 1; i <= first; i++) {
+                characters.add(new Character(id * 10 + i));
+            }
+            return characters;
+        };
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(sdl);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Query").dataFetcher("character", env -> new Character(env.getArgument("id"))))
+                .type(newTypeWiring("Character").typeResolver(env -> env.getSchema().getObjectType(((Character) env.getObject()).id % 2 == 0 ? "Droid" : "Human")))
+                .type(newTypeWiring("Human").dataFetcher("friends", friends))
+                .type(newTypeWiring("Droid").dataFetcher("friends", friends))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+
+        GraphQL.Builder builder = GraphQL.newGraphQL(schema);
+        if (!execution.equals("async")) {
+            builder.preparsedDocumentProvider(CachingPreparsedDocumentProvider.newCachingPreparsedDocumentProvider().build())
+                    .executionPlanCaching(true);
+        }
+        if (execution.equals("normalized")) {
+            builder.queryExecutionStrategy(new NormalizedOperationExecutionStrategy());
+        }
+        graphQL = builder.build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ExecutionResult execute() {
+        // odd ids are all humans, so every request does the same amount of work
+        int id = variables.equals("same") ? 1 : 1 + 2 * (requests++ % 1000);
+        Map<String, Object> inputVariables = new HashMap<>();
+        inputVariables.put("id", id);
+        inputVariables.put("first", 3);
+        return graphQL.execute(ExecutionInput.newExecutionInput(QUERY).variables(inputVariables).build());
+    }
+
+    public static class Character {
+        final int id;
+
+        Character(int id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return String.valueOf(id);
+        }
+
+        public String getName() {
+            return "Character " + id;
+        }
+
+        public double getHeight() {
+            return id * 1.5;
+        }
+
+        public String getPrimaryFunction() {
+            return "Function " + id;
+        }
+    }
+}
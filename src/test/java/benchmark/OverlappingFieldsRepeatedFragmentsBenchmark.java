@@ -0,0 +1,100 @@
+package benchmark;
+
+import graphql.i18n.I18n;
+import graphql.language.Document;
+import graphql.parser.Parser;
+import graphql.parser.ParserEnvironment;
+import graphql.parser.ParserOptions;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.validation.LanguageTraversal;
+import graphql.validation.RulesVisitor;
+import graphql.validation.ValidationContext;
+import graphql.validation.ValidationError;
+import graphql.validation.ValidationErrorCollector;
+import graphql.validation.rules.OverlappingFieldsCanBeMerged;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.Assert.assertTrue;
+
+/**
+ * Runs the {@link OverlappingFieldsCanBeMerged} rule over queries that spread the same fragments thousands of times,
+ * either under the same response name or under distinct aliases
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(2)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OverlappingFieldsRepeatedFragmentsBenchmark {
+
+    @Param({"1000", "5000"})
+    public int spreads;
+
+    @Param({"true", "false"})
+    public boolean aliased;
+
+    GraphQLSchema schema;
+    Document document;
+
+    @Setup
+    public void setup() {
+        schema = SchemaGenerator.createdMockedSchema("" +
+                "type Query { dog : Dog }\n" +
+                "interface Pet { name : String friends : [Pet] }\n" +
+                "type Dog implements Pet { name : String nickname : String barkVolume : Int friends : [Pet] owner : Human }\n" +
+                "type Human { name : String pets : [Pet] }\n");
+
+        StringBuilder query = new StringBuilder("query {\n");
+        for (int i = 0; i < spreads; i++) {
+            query.append(aliased ? "  dog" + i + " : dog" : "  dog").append(" { ...DogFields friends { ...PetFields } }\n");
+        }
+        query.append("}\n");
+        query.append("fragment DogFields on Dog { name nickname ...PetFields owner { name pets { ...PetFields } }");
+        for (int i = 0; i < 20; i++) {
+            query.append(" ...Dog").append(i);
+        }
+        query.append(" }\n");
+        query.append("fragment PetFields on Pet { name friends { name ... on Dog { barkVolume } } }\n");
+        for (int i = 0; i < 20; i++) {
+            query.append("fragment Dog").append(i).append(" on Dog { name").append(i).append(" : name barkVolume").append(i).append(" : barkVolume owner { name } }\n");
+        }
+
+        ParserOptions parserOptions = ParserOptions.getDefaultOperationParserOptions().transform(builder -> builder
+                .maxTokens(Integer.MAX_VALUE)
+                .maxWhitespaceTokens(Integer.MAX_VALUE));
+        document = Parser.parse(ParserEnvironment.newParserEnvironment().document(query.toString()).parserOptions(parserOptions).build());
+        assertTrue(validateQuery().isEmpty());
+    }
+
+    @Benchmark
+    public List<ValidationError> overlappingFieldsCanBeMerged() {
+        return validateQuery();
+    }
+
+    private List<ValidationError> validateQuery() {
+        ValidationErrorCollector errorCollector = new ValidationErrorCollector();
+        I18n i18n = I18n.i18n(I18n.BundleType.Validation, Locale.ENGLISH);
+        ValidationContext validationContext = new ValidationContext(schema, document, i18n);
+        OverlappingFieldsCanBeMerged overlappingFieldsCanBeMerged = new OverlappingFieldsCanBeMerged(validationContext, errorCollector);
+        LanguageTraversal languageTraversal = new LanguageTraversal();
+        languageTraversal.traverse(document, new RulesVisitor(validationContext, Collections.singletonList(overlappingFieldsCanBeMerged)));
+        return errorCollector.getErrors();
+    }
+}
@@ -11,6 +11,7 @@ import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -41,10 +42,42 @@ public class PropertyFetcherBenchMark {
         executeTest(blackhole, dfeBar);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void benchMarkThroughputRecordLikeMethod(Blackhole blackhole) {
+        executeTest(blackhole, dfeRecordLike);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void benchMarkThroughputPublicField(Blackhole blackhole) {
+        executeTest(blackhole, dfePublicField);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void benchMarkThroughputMap(Blackhole blackhole) {
+        executeTest(blackhole, dfeMap);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void benchMarkThroughputMissingProperty(Blackhole blackhole) {
+        blackhole.consume(missingFetcher.get(dfeBar));
+    }
+
     static PropertyDataFetcher<Object> nameFetcher = PropertyDataFetcher.fetching("name");
+    static PropertyDataFetcher<Object> missingFetcher = PropertyDataFetcher.fetching("missing");
 
     static DataFetchingEnvironment dfeFoo = DataFetchingEnvironmentImpl.newDataFetchingEnvironment().source(new Foo("brad")).build();
     static DataFetchingEnvironment dfeBar = DataFetchingEnvironmentImpl.newDataFetchingEnvironment().source(new Bar("brad")).build();
+    static DataFetchingEnvironment dfeRecordLike = DataFetchingEnvironmentImpl.newDataFetchingEnvironment().source(new RecordLike("brad")).build();
+    static DataFetchingEnvironment dfePublicField = DataFetchingEnvironmentImpl.newDataFetchingEnvironment().source(new PublicField("brad")).build();
+    static DataFetchingEnvironment dfeMap = DataFetchingEnvironmentImpl.newDataFetchingEnvironment().source(Collections.singletonMap("name", "brad")).build();
 
     public static void executeTest(Blackhole blackhole, DataFetchingEnvironment dfe) {
         blackhole.consume(nameFetcher.get(dfe));
@@ -68,4 +101,24 @@ public class PropertyFetcherBenchMark {
             return name;
         }
     }
+
+    static class RecordLike {
+        private final String name;
+
+        RecordLike(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+    }
+
+    public static class PublicField {
+        public final String name;
+
+        PublicField(String name) {
+            this.name = name;
+        }
+    }
 }
@@ -0,0 +1,117 @@
+package benchmark;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.SimpleDataFetcherExceptionHandler;
+import graphql.execution.SubscriptionEventBatching;
+import graphql.execution.SubscriptionExecutionStrategy;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.schema.idl.TypeRuntimeWiring.newTypeWiring;
+
+/**
+ * Measures how long a burst of 10k subscription events takes to be executed and published, one at a time, in batches
+ * with a result per event and in batches with a result per batch
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(2)
+public class SubscriptionEventBatchingBenchmark {
+
+    private static final int EVENTS = 10_000;
+
+    @Param({"none", "batched", "batchedResults"})
+    public String batching;
+
+    GraphQL graphQL;
+
+    @Setup
+    public void setup() {
+        String sdl = "type Query { price(symbol : String) : Float }\n" +
+                "type Subscription { prices : Price }\n" +
+                "type Price { id : Int symbol : String price : Float }";
+
+        TypeDefinitionRegistry typeDefinitionRegistry = new SchemaParser().parse(sdl);
+        RuntimeWiring runtimeWiring = RuntimeWiring.newRuntimeWiring()
+                .type(newTypeWiring("Subscription").dataFetcher("prices", env -> new CompletionStageMappingPublisherBenchmark.SyntheticEventPublisher(EVENTS)))
+                .type(newTypeWiring("Price")
+                        .dataFetcher("id", env -> env.getSource())
+                        .dataFetcher("symbol", env -> "S" + env.getSource())
+                        .dataFetcher("price", env -> (Integer) env.getSource() / 100.0))
+                .build();
+        GraphQLSchema schema = new SchemaGenerator().makeExecutableSchema(typeDefinitionRegistry, runtimeWiring);
+        graphQL = GraphQL.newGraphQL(schema).subscriptionExecutionStrategy(subscriptionExecutionStrategy()).build();
+    }
+
+    private SubscriptionExecutionStrategy subscriptionExecutionStrategy() {
+        if (batching.equals("none")) {
+            return new SubscriptionExecutionStrategy();
+        }
+        SubscriptionEventBatching eventBatching = SubscriptionEventBatching.newSubscriptionEventBatching()
+                .maxBatchSize(100)
+                .maxDelay(Duration.ofMillis(10))
+                .batchedResults(batching.equals("batchedResults"))
+                .build();
+        return new SubscriptionExecutionStrategy(new SimpleDataFetcherExceptionHandler(), null, eventBatching);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long prices() throws InterruptedException {
+        ExecutionResult executionResult = graphQL.execute("subscription { prices { id symbol price } }");
+        Publisher<ExecutionResult> publisher = executionResult.getData();
+        CountingSubscriber subscriber = new CountingSubscriber();
+        publisher.subscribe(subscriber);
+        subscriber.done.await();
+        return subscriber.count;
+    }
+
+    static class CountingSubscriber implements Subscriber<ExecutionResult> {
+        final CountDownLatch done = new CountDownLatch(1);
+        long count;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ExecutionResult executionResult) {
+            count++;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package benchmark;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.schema.DataFetcher;
+import graphql.schema.GraphQLCodeRegistry;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static graphql.Scalars.GraphQLString;
+
+/**
+ * Executes a wide and shallow query where the data fetchers either return plain values or return
+ * {@link CompletableFuture}s, with {@link GraphQL.Builder#directValueCompletion(boolean)} off (the chained
+ * futures of the default execution) and on (already fetched values completed straight away).
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SyncValuesBenchmark {
+
+    private static final int ITEMS = 200;
+    private static final int FIELDS = 20;
+
+    static String query = mkQuery();
+
+    static DataFetcher<Object> plainValues = env -> env.getField().getName();
+    static DataFetcher<Object> completedFutures = env -> CompletableFuture.completedFuture(env.getField().getName());
+    static DataFetcher<Object> asyncFutures = env -> CompletableFuture.supplyAsync(() -> env.getField().getName());
+
+    static GraphQL plainValuesGraphQL = buildGraphQL(plainValues, false);
+    static GraphQL plainValuesDirectGraphQL = buildGraphQL(plainValues, true);
+    static GraphQL completedFuturesGraphQL = buildGraphQL(completedFutures, false);
+    static GraphQL completedFuturesDirectGraphQL = buildGraphQL(completedFutures, true);
+    static GraphQL asyncFuturesGraphQL = buildGraphQL(asyncFutures, false);
+    static GraphQL asyncFuturesDirectGraphQL = buildGraphQL(asyncFutures, true);
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void plainValues(Blackhole bh) {
+        bh.consume(execute(plainValuesGraphQL));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void plainValuesDirect(Blackhole bh) {
+        bh.consume(execute(plainValuesDirectGraphQL));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void completedFutures(Blackhole bh) {
+        bh.consume(execute(completedFuturesGraphQL));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void completedFuturesDirect(Blackhole bh) {
+        bh.consume(execute(completedFuturesDirectGraphQL));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void asyncFutures(Blackhole bh) {
+        bh.consume(execute(asyncFuturesGraphQL));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void asyncFuturesDirect(Blackhole bh) {
+        bh.consume(execute(asyncFuturesDirectGraphQL));
+    }
+
+    private static ExecutionResult execute(GraphQL graphQL) {
+        return graphQL.execute(query);
+    }
+
+    private static String mkQuery() {
+        StringBuilder sb = new StringBuilder("{ items { ");
+        for (int i = 1; i <= FIELDS; i++) {
+            sb.append("field_").append(i).append(" ");
+        }
+        return sb.append("} }").toString();
+    }
+
+    private static GraphQL buildGraphQL(DataFetcher<Object> leafFetcher, boolean directValueCompletion) {
+        List<GraphQLFieldDefinition> leafFields = new ArrayList<>(FIELDS);
+        for (int i = 1; i <= FIELDS; i++) {
+            leafFields.add(GraphQLFieldDefinition.newFieldDefinition()
+                    .name("field_" + i)
+                    .type(GraphQLString)
+                    .build());
+        }
+        GraphQLObjectType itemType = GraphQLObjectType.newObject()
+                .name("Item")
+                .fields(leafFields)
+                .build();
+        GraphQLObjectType queryType = GraphQLObjectType.newObject()
+                .name("Query")
+                .field(GraphQLFieldDefinition.newFieldDefinition()
+                        .name("items")
+                        .type(GraphQLList.list(itemType)))
+                .build();
+
+        List<Object> items = Collections.nCopies(ITEMS, new Object());
+        GraphQLCodeRegistry codeRegistry = GraphQLCodeRegistry.newCodeRegistry()
+                .dataFetcher(queryType, queryType.getFieldDefinition("items"), env -> items)
+                .defaultDataFetcher(environment -> leafFetcher)
+                .build();
+
+        GraphQLSchema graphQLSchema = GraphQLSchema.newSchema()
+                .query(queryType)
+                .codeRegistry(codeRegistry)
+                .build();
+        return GraphQL.newGraphQL(graphQLSchema)
+                .directValueCompletion(directValueCompletion)
+                .build();
+    }
+
+    public static void main(String[] args) {
+        System.out.println(execute(plainValuesGraphQL).getErrors());
+        System.out.println(execute(plainValuesDirectGraphQL).getErrors());
+    }
+}